@@ -0,0 +1,369 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis;
+
+import static org.hisp.dhis.api.ApiFields.TRACKED_ENTITY_FIELDS;
+import static org.hisp.dhis.api.ApiParams.FIELDS_PARAM;
+import static org.hisp.dhis.api.ApiPaths.PATH_ANALYTICS;
+import static org.hisp.dhis.api.ApiPaths.PATH_EVENTS;
+import static org.hisp.dhis.api.ApiPaths.PATH_TRACKED_ENTITIES;
+import static org.hisp.dhis.api.ApiPaths.PATH_TRACKER;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.async.methods.SimpleRequestProducer;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.net.URIBuilder;
+import org.hisp.dhis.model.Dhis2Objects;
+import org.hisp.dhis.model.IdentifiableObject;
+import org.hisp.dhis.model.SystemInfo;
+import org.hisp.dhis.model.analytics.AnalyticsData;
+import org.hisp.dhis.model.datavalueset.DataValueSet;
+import org.hisp.dhis.model.event.EventsResult;
+import org.hisp.dhis.model.metadata.Metadata;
+import org.hisp.dhis.model.metadata.MetadataEntity;
+import org.hisp.dhis.model.trackedentity.TrackedEntitiesResult;
+import org.hisp.dhis.query.InternalQuery;
+import org.hisp.dhis.query.Query;
+import org.hisp.dhis.query.analytics.AnalyticsQuery;
+import org.hisp.dhis.query.event.EventQuery;
+import org.hisp.dhis.query.trackedentity.TrackedEntityQuery;
+import org.hisp.dhis.response.Dhis2ClientException;
+import org.hisp.dhis.util.BufferingResponseConsumer;
+import org.hisp.dhis.util.HttpClientUtils;
+
+/**
+ * DHIS2 API client with asynchronous, non-blocking retrieval methods returning {@link
+ * CompletableFuture}. Requests are executed by a {@link CloseableHttpAsyncClient} on a small number
+ * of I/O dispatch threads, which allows for a large number of concurrent requests without blocking
+ * one thread per request. Response bodies are received without blocking on the I/O dispatch
+ * threads, and are deserialized on the {@link org.hisp.dhis.executor.TaskExecutor} of the client
+ * once fully received, which means that slow responses do not occupy executor threads, and that the
+ * number of responses deserialized concurrently is limited to the max concurrency of the executor.
+ * Response bodies are bounded by {@link HttpClientConfig#getAsyncMaxResponseSize()}. Errors
+ * complete the future exceptionally with a {@link Dhis2ClientException}.
+ *
+ * <p>URIs are built and responses are handled the same way as for {@link Dhis2}. The client should
+ * be closed when no longer used.
+ */
+public class AsyncDhis2 extends BaseDhis2 {
+  /** The asynchronous HTTP client. */
+  private final CloseableHttpAsyncClient httpAsyncClient;
+
+  /** Indicates whether the asynchronous HTTP client is owned and closed by this instance. */
+  private final boolean ownsHttpAsyncClient;
+
+  /**
+   * Main constructor. Creates an asynchronous HTTP client based on the {@link HttpClientConfig} of
+   * the given {@link Dhis2Config}. A classic HTTP client is only created if a blocking method such
+   * as {@link #objectExists(MetadataEntity, String)} is used.
+   *
+   * @param config the {@link Dhis2Config}.
+   */
+  public AsyncDhis2(Dhis2Config config) {
+    this(config, HttpClientUtils.createHttpAsyncClient(config.getHttpClientConfig()), true);
+  }
+
+  /**
+   * Constructor with an externally managed asynchronous HTTP client, which is started if not
+   * already started, and is not closed by this instance.
+   *
+   * @param config the {@link Dhis2Config}.
+   * @param httpAsyncClient the {@link CloseableHttpAsyncClient}.
+   */
+  public AsyncDhis2(Dhis2Config config, CloseableHttpAsyncClient httpAsyncClient) {
+    this(config, httpAsyncClient, false);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param config the {@link Dhis2Config}.
+   * @param httpAsyncClient the {@link CloseableHttpAsyncClient}.
+   * @param ownsHttpAsyncClient whether the HTTP client is owned by this instance.
+   */
+  private AsyncDhis2(
+      Dhis2Config config, CloseableHttpAsyncClient httpAsyncClient, boolean ownsHttpAsyncClient) {
+    super(config, false);
+    this.httpAsyncClient = Objects.requireNonNull(httpAsyncClient);
+    this.ownsHttpAsyncClient = ownsHttpAsyncClient;
+    this.httpAsyncClient.start();
+  }
+
+  /**
+   * Closes the asynchronous HTTP client if owned by this instance, and the underlying resources.
+   */
+  @Override
+  public void close() {
+    if (ownsHttpAsyncClient) {
+      httpAsyncClient.close(CloseMode.GRACEFUL);
+    }
+
+    super.close();
+  }
+
+  // -------------------------------------------------------------------------
+  // System info
+  // -------------------------------------------------------------------------
+
+  /**
+   * Retrieves a {@link SystemInfo}.
+   *
+   * @return a future of the {@link SystemInfo}.
+   */
+  public CompletableFuture<SystemInfo> getSystemInfo() {
+    return getObjectAsync(
+        config.getResolvedUriBuilder().appendPath("system").appendPath("info"),
+        Query.instance(),
+        SystemInfo.class);
+  }
+
+  // -------------------------------------------------------------------------
+  // Metadata
+  // -------------------------------------------------------------------------
+
+  /**
+   * Retrieves a metadata object.
+   *
+   * @param <T> the type.
+   * @param entity the {@link MetadataEntity}.
+   * @param id the object identifier.
+   * @return a future of the metadata object.
+   */
+  @SuppressWarnings("unchecked")
+  public <T extends IdentifiableObject> CompletableFuture<T> getMetadataObject(
+      MetadataEntity entity, String id) {
+    // Unchecked cast is safe as all metadata entities extend identifiable object
+    Class<T> type = (Class<T>) entity.getType();
+
+    return getObjectAsync(
+        config
+            .getResolvedUriBuilder()
+            .appendPath(entity.getPath())
+            .appendPath(id)
+            .addParameter(FIELDS_PARAM, entity.getExtFields()),
+        Query.instance(),
+        type);
+  }
+
+  /**
+   * Retrieves a list of metadata objects based on the given query.
+   *
+   * @param <T> the type.
+   * @param entity the {@link MetadataEntity}.
+   * @param query the {@link Query}.
+   * @return a future of the list of metadata objects.
+   */
+  public <T extends IdentifiableObject> CompletableFuture<List<T>> getMetadataList(
+      MetadataEntity entity, Query query) {
+    URI url =
+        withObjectQueryParams(
+            getMetadataUriBuilder(entity, query), query, InternalQuery.instance());
+
+    return getObjectFromUrlAsync(url, Dhis2Objects.class)
+        .thenApply(objects -> toTypedList(entity, objects));
+  }
+
+  /**
+   * Retrieves a list of metadata objects and pager based on the given query.
+   *
+   * @param <T> the type.
+   * @param entity the {@link MetadataEntity}.
+   * @param query the {@link Query}.
+   * @return a future of the {@link Metadata}.
+   */
+  public <T extends IdentifiableObject> CompletableFuture<Metadata<T>> getMetadata(
+      MetadataEntity entity, Query query) {
+    URI url =
+        withObjectQueryParams(
+            getMetadataUriBuilder(entity, query),
+            query,
+            InternalQuery.instance().withDefaultPaging());
+
+    return getObjectFromUrlAsync(url, Dhis2Objects.class)
+        .thenApply(objects -> new Metadata<T>(objects.getPager(), toTypedList(entity, objects)));
+  }
+
+  // -------------------------------------------------------------------------
+  // Analytics
+  // -------------------------------------------------------------------------
+
+  /**
+   * Retrieves an {@link AnalyticsData}.
+   *
+   * @param query the {@link AnalyticsQuery}.
+   * @return a future of the {@link AnalyticsData}.
+   */
+  public CompletableFuture<AnalyticsData> getAnalyticsData(AnalyticsQuery query) {
+    URI url =
+        withAnalyticsQueryParams(config.getResolvedUriBuilder().appendPath(PATH_ANALYTICS), query);
+
+    return getObjectFromUrlAsync(url, AnalyticsData.class);
+  }
+
+  /**
+   * Retrieves an analytics {@link DataValueSet}.
+   *
+   * @param query the {@link AnalyticsQuery}.
+   * @return a future of the {@link DataValueSet}.
+   */
+  public CompletableFuture<DataValueSet> getAnalyticsDataValueSet(AnalyticsQuery query) {
+    URI url =
+        withAnalyticsQueryParams(
+            config
+                .getResolvedUriBuilder()
+                .appendPath(PATH_ANALYTICS)
+                .appendPath("dataValueSet.json"),
+            query);
+
+    return getObjectFromUrlAsync(url, DataValueSet.class);
+  }
+
+  // -------------------------------------------------------------------------
+  // Tracker
+  // -------------------------------------------------------------------------
+
+  /**
+   * Retrieves an {@link EventsResult}.
+   *
+   * @param query the {@link EventQuery}.
+   * @return a future of the {@link EventsResult}.
+   */
+  public CompletableFuture<EventsResult> getEvents(EventQuery query) {
+    URI url =
+        withEventQueryParams(
+            config.getResolvedUriBuilder().appendPath(PATH_TRACKER).appendPath(PATH_EVENTS), query);
+
+    return getObjectFromUrlAsync(url, EventsResult.class);
+  }
+
+  /**
+   * Retrieves a {@link TrackedEntitiesResult}.
+   *
+   * @param query the {@link TrackedEntityQuery}.
+   * @return a future of the {@link TrackedEntitiesResult}.
+   */
+  public CompletableFuture<TrackedEntitiesResult> getTrackedEntities(TrackedEntityQuery query) {
+    String fields = getQueryFieldsOrDefault(query, TRACKED_ENTITY_FIELDS);
+    URI url =
+        withTrackedEntityQueryParams(
+            config
+                .getResolvedUriBuilder()
+                .appendPath(PATH_TRACKER)
+                .appendPath(PATH_TRACKED_ENTITIES)
+                .addParameter(FIELDS_PARAM, fields),
+            query);
+
+    return getObjectFromUrlAsync(url, TrackedEntitiesResult.class);
+  }
+
+  // -------------------------------------------------------------------------
+  // Supportive methods
+  // -------------------------------------------------------------------------
+
+  /**
+   * Retrieves an object asynchronously using HTTP GET.
+   *
+   * @param <T> the type.
+   * @param uriBuilder the URI builder.
+   * @param query the {@link Query} parameters to apply.
+   * @param type the class type of the object.
+   * @return a future of the object.
+   */
+  protected <T> CompletableFuture<T> getObjectAsync(
+      URIBuilder uriBuilder, Query query, Class<T> type) {
+    URI url = withObjectQueryParams(uriBuilder, query, InternalQuery.instance());
+
+    return getObjectFromUrlAsync(url, type);
+  }
+
+  /**
+   * Retrieves an object asynchronously using HTTP GET. The returned future completes exceptionally
+   * with a {@link Dhis2ClientException} if the request failed, or if unauthorized, access denied or
+   * resource not found.
+   *
+   * @param <T> the type.
+   * @param url the fully qualified URL.
+   * @param type the class type of the object.
+   * @return a future of the object.
+   */
+  protected <T> CompletableFuture<T> getObjectFromUrlAsync(URI url, Class<T> type) {
+    SimpleHttpRequest request =
+        withAuth(SimpleRequestBuilder.get(url).setHeader(HEADER_ACCEPT_JSON).build());
+
+    CompletableFuture<T> future = new CompletableFuture<>();
+
+    httpAsyncClient.execute(
+        SimpleRequestProducer.create(request),
+        new BufferingResponseConsumer<>(
+            config.getHttpClientConfig().getAsyncMaxResponseSize(),
+            getTaskExecutor(),
+            response -> toObject(response, url, type)),
+        new FutureCallback<>() {
+          @Override
+          public void completed(T object) {
+            future.complete(object);
+          }
+
+          @Override
+          public void failed(Exception ex) {
+            future.completeExceptionally(
+                ex instanceof Dhis2ClientException
+                    ? ex
+                    : new Dhis2ClientException("Failed to fetch object", ex));
+          }
+
+          @Override
+          public void cancelled() {
+            future.cancel(false);
+          }
+        });
+
+    return future;
+  }
+
+  /**
+   * Returns a {@link URIBuilder} for the given metadata entity with the fields of the given query.
+   *
+   * @param entity the {@link MetadataEntity}.
+   * @param query the {@link Query}.
+   * @return a {@link URIBuilder}.
+   */
+  private URIBuilder getMetadataUriBuilder(MetadataEntity entity, Query query) {
+    return config
+        .getResolvedUriBuilder()
+        .appendPath(entity.getPath())
+        .addParameter(FIELDS_PARAM, getQueryFields(entity, query));
+  }
+}
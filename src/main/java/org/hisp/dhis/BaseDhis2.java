@@ -32,6 +32,7 @@ import static org.apache.hc.core5.http.HttpStatus.SC_BAD_REQUEST;
 import static org.apache.hc.core5.http.HttpStatus.SC_CONFLICT;
 import static org.apache.hc.core5.http.HttpStatus.SC_FORBIDDEN;
 import static org.apache.hc.core5.http.HttpStatus.SC_NOT_FOUND;
+import static org.apache.hc.core5.http.HttpStatus.SC_NOT_MODIFIED;
 import static org.apache.hc.core5.http.HttpStatus.SC_OK;
 import static org.apache.hc.core5.http.HttpStatus.SC_UNAUTHORIZED;
 import static org.hisp.dhis.api.ApiPaths.PATH_COMPLETE_DS_REGISTRATIONS;
@@ -41,6 +42,7 @@ import static org.hisp.dhis.util.HttpUtils.getUriAsString;
 import static org.hisp.dhis.util.ObjectUtils.isAbsent;
 import static org.hisp.dhis.util.ObjectUtils.isPresent;
 
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
@@ -48,7 +50,13 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
@@ -59,6 +67,7 @@ import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.ProxyInputStream;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Strings;
 import org.apache.hc.client5.http.HttpResponseException;
@@ -69,12 +78,12 @@ import org.apache.hc.client5.http.classic.methods.HttpPut;
 import org.apache.hc.client5.http.classic.methods.HttpUriRequestBase;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
-import org.apache.hc.client5.http.impl.classic.HttpClients;
 import org.apache.hc.core5.http.ClassicHttpResponse;
 import org.apache.hc.core5.http.ContentType;
 import org.apache.hc.core5.http.Header;
 import org.apache.hc.core5.http.HttpEntity;
 import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.HttpRequest;
 import org.apache.hc.core5.http.HttpResponse;
 import org.apache.hc.core5.http.NameValuePair;
 import org.apache.hc.core5.http.ParseException;
@@ -82,8 +91,19 @@ import org.apache.hc.core5.http.io.entity.EntityUtils;
 import org.apache.hc.core5.http.io.entity.StringEntity;
 import org.apache.hc.core5.http.message.BasicHeader;
 import org.apache.hc.core5.http.message.BasicNameValuePair;
+import org.apache.hc.core5.io.CloseMode;
 import org.apache.hc.core5.net.URIBuilder;
 import org.hisp.dhis.api.LogLevel;
+import org.hisp.dhis.cache.AnalyticsCache;
+import org.hisp.dhis.cache.MetadataCache;
+import org.hisp.dhis.cache.ResponseCache;
+import org.hisp.dhis.cache.ResponseCache.CachedResponse;
+import org.hisp.dhis.executor.TaskExecutor;
+import org.hisp.dhis.hierarchy.OrgUnitHierarchy;
+import org.hisp.dhis.metrics.MeteredResponseHandler;
+import org.hisp.dhis.metrics.RequestMetrics;
+import org.hisp.dhis.model.Dhis2Objects;
+import org.hisp.dhis.model.IdentifiableObject;
 import org.hisp.dhis.model.completedatasetregistration.CompleteDataSetRegistrationImportOptions;
 import org.hisp.dhis.model.datavalueset.DataValueSet;
 import org.hisp.dhis.model.datavalueset.DataValueSetImportOptions;
@@ -118,17 +138,27 @@ import org.hisp.dhis.response.HttpStatus;
 import org.hisp.dhis.response.Response;
 import org.hisp.dhis.response.Status;
 import org.hisp.dhis.response.completedatasetregistration.CompleteDataSetRegistrationResponse;
+import org.hisp.dhis.util.CapturingInputStream;
+import org.hisp.dhis.util.CollectionUtils;
+import org.hisp.dhis.util.CompressingHttpEntity;
+import org.hisp.dhis.util.CountingHttpEntity;
 import org.hisp.dhis.util.DateTimeUtils;
+import org.hisp.dhis.util.HttpClientUtils;
 import org.hisp.dhis.util.HttpUtils;
 import org.hisp.dhis.util.JacksonUtils;
+import org.hisp.dhis.util.MetricsUtils;
+import org.hisp.dhis.util.json.GeometryJsonDeserializer;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
 import tools.jackson.core.exc.StreamReadException;
+import tools.jackson.databind.DatabindException;
 import tools.jackson.databind.json.JsonMapper;
 
 /**
  * @author Lars Helge Overland
  */
 @Slf4j
-public class BaseDhis2 {
+public class BaseDhis2 implements Closeable {
   private static final String SEP_DIM = ";";
 
   // Log levels
@@ -157,6 +187,12 @@ public class BaseDhis2 {
   /** Maximum length of the response body snippet included in error messages. */
   private static final int MAX_ERROR_BODY_SNIPPET_LENGTH = 500;
 
+  /** Maximum number of bytes of the response body captured for error reporting. */
+  private static final int MAX_ERROR_BODY_SNIPPET_BYTES = 4 * 1024;
+
+  /** Maximum number of bytes of the response body captured for logging. */
+  private static final int MAX_LOG_BODY_SNIPPET_BYTES = 10_000;
+
   // Headers
 
   protected static final Header HEADER_CONTENT_TYPE_JSON =
@@ -171,18 +207,196 @@ public class BaseDhis2 {
 
   protected final JsonMapper jsonMapper;
 
+  /** HTTP client, null if not created on construction. */
   protected final CloseableHttpClient httpClient;
 
+  /** Indicates whether the HTTP client is owned, and hence should be closed, by this client. */
+  private final boolean ownsHttpClient;
+
+  /** HTTP client created on first use if no HTTP client was created on construction. */
+  private volatile CloseableHttpClient lazyHttpClient;
+
+  /** Counters of bytes transferred by this client. */
+  protected final TransferStats transferStats = new TransferStats();
+
+  /** Cache of metadata objects retrieved by identifier. */
+  protected final MetadataCache metadataCache;
+
+  /** Cache of responses to GET requests revalidated through conditional requests. */
+  protected final ResponseCache responseCache;
+
+  /** Cache of analytics data keyed by normalized analytics query. */
+  protected final AnalyticsCache analyticsCache;
+
+  /** Task executor for bulk operations, created lazily unless externally managed. */
+  private TaskExecutor taskExecutor;
+
+  /** Indicates whether the task executor is owned and closed by this instance. */
+  private boolean ownsTaskExecutor;
+
   /**
-   * Constructor.
+   * Constructor. Uses the externally managed HTTP client of the given config if specified,
+   * otherwise creates a pooled HTTP client based on the HTTP client config.
    *
    * @param config the {@link Dhis2Config}.
    */
   public BaseDhis2(Dhis2Config config) {
+    this(config, true);
+  }
+
+  /**
+   * Constructor. Uses the externally managed HTTP client of the given config if specified,
+   * otherwise creates a pooled HTTP client based on the HTTP client config if {@code
+   * createHttpClient} is true. If not, {@link #httpClient} is null and a HTTP client is created on
+   * first use through {@link #getHttpClient()}.
+   *
+   * @param config the {@link Dhis2Config}.
+   * @param createHttpClient whether to create a HTTP client on construction.
+   */
+  protected BaseDhis2(Dhis2Config config, boolean createHttpClient) {
     Objects.requireNonNull(config, "Config must be specified");
     this.config = config;
-    this.jsonMapper = JacksonUtils.getJsonMapper();
-    this.httpClient = HttpClients.custom().disableRedirectHandling().build();
+    this.jsonMapper = createJsonMapper(config);
+    this.ownsHttpClient = !config.hasHttpClient() && createHttpClient;
+    this.httpClient =
+        config.hasHttpClient()
+            ? config.getHttpClient()
+            : createHttpClient
+                ? HttpClientUtils.createHttpClient(config.getHttpClientConfig(), transferStats)
+                : null;
+    this.metadataCache = new MetadataCache(config.getMetadataCacheConfig());
+    this.responseCache = new ResponseCache(config.getResponseCacheConfig());
+    this.analyticsCache = new AnalyticsCache(config.getAnalyticsCacheConfig(), jsonMapper);
+
+    if (analyticsCache.isEnabled()) {
+      MetricsUtils.onAnalyticsCache(config.getMetricsListener(), analyticsCache);
+    }
+  }
+
+  /**
+   * Returns the {@link JsonMapper} for the given config, which is the shared mapper unless
+   * identifier interning or geometry precision reduction or simplification is configured.
+   *
+   * @param config the {@link Dhis2Config}.
+   * @return a {@link JsonMapper}.
+   */
+  private static JsonMapper createJsonMapper(Dhis2Config config) {
+    GeometryJsonDeserializer geometryDeserializer =
+        config.getGeometryMaxDecimals() != null || config.getGeometrySimplifyTolerance() > 0d
+            ? new GeometryJsonDeserializer(
+                config.getGeometryMaxDecimals(), config.getGeometrySimplifyTolerance())
+            : null;
+
+    if (config.getUidDictionary() == null && geometryDeserializer == null) {
+      return JacksonUtils.getJsonMapper();
+    }
+
+    return JacksonUtils.createJsonMapper(config.getUidDictionary(), geometryDeserializer);
+  }
+
+  /**
+   * Closes the HTTP client and releases pooled connections. An externally managed HTTP client
+   * specified through {@link Dhis2Config#setHttpClient(CloseableHttpClient)} is not closed.
+   */
+  @Override
+  public void close() {
+    synchronized (this) {
+      if (ownsHttpClient) {
+        httpClient.close(CloseMode.GRACEFUL);
+      }
+
+      if (lazyHttpClient != null) {
+        lazyHttpClient.close(CloseMode.GRACEFUL);
+      }
+
+      if (ownsTaskExecutor) {
+        taskExecutor.close();
+      }
+    }
+  }
+
+  /**
+   * Returns the counters of bytes transferred by this client, which indicate the savings from
+   * request and response compression.
+   *
+   * @return the {@link TransferStats}.
+   */
+  public TransferStats getTransferStats() {
+    return transferStats;
+  }
+
+  /**
+   * Returns the cache of metadata objects, which holds hit and miss statistics and allows for
+   * explicit invalidation.
+   *
+   * @return the {@link MetadataCache}.
+   */
+  public MetadataCache getMetadataCache() {
+    return metadataCache;
+  }
+
+  /**
+   * Returns the cache of responses to GET requests, which holds hit and miss statistics.
+   *
+   * @return the {@link ResponseCache}.
+   */
+  public ResponseCache getResponseCache() {
+    return responseCache;
+  }
+
+  /**
+   * Returns the cache of analytics data, which holds hit ratio and saved time statistics.
+   *
+   * @return the {@link AnalyticsCache}.
+   */
+  public AnalyticsCache getAnalyticsCache() {
+    return analyticsCache;
+  }
+
+  /**
+   * Returns the HTTP client. Returns {@link #httpClient} if created on construction, otherwise a
+   * pooled HTTP client based on the HTTP client config which is created on first use.
+   *
+   * @return the {@link CloseableHttpClient}.
+   */
+  protected CloseableHttpClient getHttpClient() {
+    if (httpClient != null) {
+      return httpClient;
+    }
+
+    CloseableHttpClient client = lazyHttpClient;
+
+    if (client == null) {
+      synchronized (this) {
+        if (lazyHttpClient == null) {
+          lazyHttpClient =
+              HttpClientUtils.createHttpClient(config.getHttpClientConfig(), transferStats);
+        }
+
+        client = lazyHttpClient;
+      }
+    }
+
+    return client;
+  }
+
+  /**
+   * Returns the {@link TaskExecutor} for bulk operations. Returns the externally managed executor
+   * of the config if specified, otherwise an executor backed by a bounded pool of platform threads
+   * which is created on first use.
+   *
+   * @return the {@link TaskExecutor}.
+   */
+  protected synchronized TaskExecutor getTaskExecutor() {
+    if (taskExecutor == null) {
+      ownsTaskExecutor = !config.hasTaskExecutor();
+      taskExecutor =
+          config.hasTaskExecutor()
+              ? config.getTaskExecutor()
+              : TaskExecutor.platformThreads(config.getMaxConcurrency());
+    }
+
+    return taskExecutor;
   }
 
   /**
@@ -262,9 +476,9 @@ public class BaseDhis2 {
     request.setHeader(HEADER_ACCEPT_JSON);
 
     try {
-      return httpClient.execute(
+      return execute(
           request,
-          response -> {
+          (response, metrics) -> {
             log("Response status code: {}", response.getCode());
             return SC_OK == response.getCode();
           });
@@ -283,6 +497,39 @@ public class BaseDhis2 {
    */
   protected URI withObjectQueryParams(
       URIBuilder uriBuilder, Query query, InternalQuery internalQuery) {
+    addFilters(uriBuilder, query);
+    addPaging(uriBuilder, query, internalQuery);
+    addOrder(uriBuilder, query);
+
+    return HttpUtils.build(uriBuilder);
+  }
+
+  /**
+   * Returns a {@link URI} based on the given query, where the given {@link Paging} is applied in
+   * place of the paging of the query.
+   *
+   * @param uriBuilder the URI builder.
+   * @param query the {@link Query} parameters to apply.
+   * @param paging the {@link Paging} to apply.
+   * @return a URI.
+   */
+  protected URI withObjectQueryParams(URIBuilder uriBuilder, Query query, Paging paging) {
+    addFilters(uriBuilder, query);
+    addPaging(uriBuilder, paging, InternalQuery.instance().withDefaultPaging());
+    addOrder(uriBuilder, query);
+
+    return HttpUtils.build(uriBuilder);
+  }
+
+  /**
+   * Adds filter related parameters to the given {@link URIBuilder} based on the given {@link
+   * Query}.
+   *
+   * @param uriBuilder the {@link URIBuilder}.
+   * @param query the {@link Query}.
+   * @return the {@link URIBuilder}.
+   */
+  protected URIBuilder addFilters(URIBuilder uriBuilder, Query query) {
     for (Filter filter : query.getFilters()) {
       Object value = getQueryValue(filter);
       String filterValue =
@@ -294,10 +541,7 @@ public class BaseDhis2 {
       uriBuilder.addParameter("rootJunction", "OR");
     }
 
-    addPaging(uriBuilder, query, internalQuery);
-    addOrder(uriBuilder, query);
-
-    return HttpUtils.build(uriBuilder);
+    return uriBuilder;
   }
 
   /**
@@ -333,8 +577,21 @@ public class BaseDhis2 {
    */
   protected URIBuilder addPaging(
       URIBuilder uriBuilder, BaseQuery query, InternalQuery internalQuery) {
-    Paging paging = query.getPaging();
+    return addPaging(uriBuilder, query.getPaging(), internalQuery);
+  }
 
+  /**
+   * Adds paging related parameters to the given {@link URIBuilder} based on the given {@link
+   * Paging}. If paging is not set, and if default paging is false, paging will be disabled for the
+   * query. Otherwise, DHIS2 default paging will apply.
+   *
+   * @param uriBuilder the {@link URIBuilder}.
+   * @param paging the {@link Paging}, may be null.
+   * @param internalQuery the {@link InternalQuery}.
+   * @return the {@link URIBuilder}.
+   */
+  protected URIBuilder addPaging(
+      URIBuilder uriBuilder, Paging paging, InternalQuery internalQuery) {
     if (paging != null && paging.hasPaging()) {
       if (paging.hasPage()) {
         uriBuilder.addParameter("page", String.valueOf(paging.getPage()));
@@ -512,7 +769,8 @@ public class BaseDhis2 {
     URIBuilder builder = config.getResolvedUriBuilder().appendPath(PATH_COMPLETE_DS_REGISTRATIONS);
     URI url = withCompleteDataSetRegistrationsAsyncImportParams(builder, options);
     HttpPost request = getPostRequest(url, entity);
-    Dhis2AsyncRequest asyncRequest = new Dhis2AsyncRequest(config, httpClient, jsonMapper);
+    Dhis2AsyncRequest asyncRequest =
+        new Dhis2AsyncRequest(config, getHttpClient(), jsonMapper, getTaskExecutor());
 
     return asyncRequest.post(request, CompleteDataSetRegistrationResponse.class);
   }
@@ -537,6 +795,19 @@ public class BaseDhis2 {
    * @return an {@link URI}.
    */
   protected URI withEventQueryParams(URIBuilder uriBuilder, EventQuery query) {
+    return withEventQueryParams(uriBuilder, query, query.getPaging());
+  }
+
+  /**
+   * Returns a {@link URI} based on the given event query, where the given {@link Paging} is applied
+   * in place of the paging of the query.
+   *
+   * @param uriBuilder the URI builder.
+   * @param query the {@link EventQuery}.
+   * @param paging the {@link Paging} to apply.
+   * @return an {@link URI}.
+   */
+  protected URI withEventQueryParams(URIBuilder uriBuilder, EventQuery query, Paging paging) {
     addParameter(uriBuilder, "program", query.getProgram());
     addParameter(uriBuilder, "programStage", query.getProgramStage());
     addParameter(uriBuilder, "programStatus", query.getProgramStatus());
@@ -559,7 +830,7 @@ public class BaseDhis2 {
     addParameter(uriBuilder, "idScheme", query.getIdScheme());
 
     addTrackerFilters(uriBuilder, query);
-    addPaging(uriBuilder, query, InternalQuery.instance().withDefaultPaging());
+    addPaging(uriBuilder, paging, InternalQuery.instance().withDefaultPaging());
     addOrder(uriBuilder, query);
 
     return HttpUtils.build(uriBuilder);
@@ -586,6 +857,20 @@ public class BaseDhis2 {
    * @return a {@link URIBuilder}.
    */
   protected URI withTrackedEntityQueryParams(URIBuilder uriBuilder, TrackedEntityQuery query) {
+    return withTrackedEntityQueryParams(uriBuilder, query, query.getPaging());
+  }
+
+  /**
+   * Returns a {@link URI} based on the given tracked entity query, where the given {@link Paging}
+   * is applied in place of the paging of the query.
+   *
+   * @param uriBuilder the URI builder.
+   * @param query the {@link TrackedEntityQuery}.
+   * @param paging the {@link Paging} to apply.
+   * @return a {@link URI}.
+   */
+  protected URI withTrackedEntityQueryParams(
+      URIBuilder uriBuilder, TrackedEntityQuery query, Paging paging) {
     addParameterList(uriBuilder, "orgUnits", query.getOrgUnits());
     addParameter(uriBuilder, "orgUnitMode", query.getOrgUnitMode());
     addParameter(uriBuilder, "program", query.getProgram());
@@ -609,7 +894,7 @@ public class BaseDhis2 {
     addParameter(uriBuilder, "orgUnitIdScheme", query.getOrgUnitIdScheme());
 
     addTrackerFilters(uriBuilder, query);
-    addPaging(uriBuilder, query, InternalQuery.instance().withDefaultPaging());
+    addPaging(uriBuilder, paging, InternalQuery.instance().withDefaultPaging());
     addOrder(uriBuilder, query);
 
     return HttpUtils.build(uriBuilder);
@@ -653,6 +938,20 @@ public class BaseDhis2 {
    * @return a {@link URI}.
    */
   protected URI withEnrollmentQueryParams(URIBuilder uriBuilder, EnrollmentQuery query) {
+    return withEnrollmentQueryParams(uriBuilder, query, null);
+  }
+
+  /**
+   * Returns a {@link URI} based on the given enrollment query and the given {@link Paging}. No
+   * paging parameters are added if paging is null.
+   *
+   * @param uriBuilder the URI builder.
+   * @param query the {@link EnrollmentQuery}.
+   * @param paging the {@link Paging} to apply, may be null.
+   * @return a {@link URI}.
+   */
+  protected URI withEnrollmentQueryParams(
+      URIBuilder uriBuilder, EnrollmentQuery query, Paging paging) {
     addParameterList(uriBuilder, "orgUnits", query.getOrgUnits());
     addParameter(uriBuilder, "orgUnitMode", query.getOrgUnitMode());
     addParameter(uriBuilder, "program", query.getProgram());
@@ -667,6 +966,7 @@ public class BaseDhis2 {
     addOrder(uriBuilder, query);
     addParameterList(uriBuilder, "enrollments", query.getEnrollments());
     addParameter(uriBuilder, "includeDeleted", query.getIncludeDeleted());
+    addPaging(uriBuilder, paging, InternalQuery.instance().withDefaultPaging());
 
     return HttpUtils.build(uriBuilder);
   }
@@ -679,12 +979,27 @@ public class BaseDhis2 {
    * @return a {@link URI}.
    */
   protected URI withRelationshipQueryParams(URIBuilder uriBuilder, RelationshipQuery query) {
+    return withRelationshipQueryParams(uriBuilder, query, query.getPaging());
+  }
+
+  /**
+   * Returns a {@link URI} based on the given relationship query, where the given {@link Paging} is
+   * applied in place of the paging of the query. No paging parameters are added if paging is null.
+   *
+   * @param uriBuilder the URI builder.
+   * @param query the {@link RelationshipQuery}.
+   * @param paging the {@link Paging} to apply, may be null.
+   * @return a {@link URI}.
+   */
+  protected URI withRelationshipQueryParams(
+      URIBuilder uriBuilder, RelationshipQuery query, Paging paging) {
     addParameter(uriBuilder, "trackedEntity", query.getTrackedEntity());
     addParameter(uriBuilder, "enrollment", query.getEnrollment());
     addParameter(uriBuilder, "event", query.getEvent());
     addParameter(uriBuilder, "fields", query.getFields());
     addParameterList(uriBuilder, "order", query.getOrder());
     addParameter(uriBuilder, "includeDeleted", query.getIncludeDeleted());
+    addPaging(uriBuilder, paging, InternalQuery.instance().withDefaultPaging());
 
     return HttpUtils.build(uriBuilder);
   }
@@ -982,6 +1297,23 @@ public class BaseDhis2 {
    */
   protected <T extends BaseHttpResponse> T executeJsonPostPutRequest(
       HttpUriRequestBase request, Object object, Class<T> type) {
+    return executeJsonPostPutRequest(request, object, type, false);
+  }
+
+  /**
+   * Executes the given {@link HttpUriRequestBase} request, which may be a POST or PUT request.
+   *
+   * @param <T> the type.
+   * @param request the request.
+   * @param object the object to pass as JSON in the request body.
+   * @param type the class type for the response entity.
+   * @param compress whether to compress the request body according to the configured {@link
+   *     RequestCompression}.
+   * @return a {@link Response}.
+   * @throws Dhis2ClientException if unauthorized, access denied or resource not found.
+   */
+  protected <T extends BaseHttpResponse> T executeJsonPostPutRequest(
+      HttpUriRequestBase request, Object object, Class<T> type, boolean compress) {
     validateRequestObject(object);
 
     String requestBody = toJsonString(object);
@@ -990,6 +1322,10 @@ public class BaseDhis2 {
 
     HttpEntity entity = new StringEntity(requestBody, StandardCharsets.UTF_8);
 
+    if (compress) {
+      entity = compress(entity);
+    }
+
     request.setHeader(HEADER_CONTENT_TYPE_JSON);
     request.setEntity(entity);
 
@@ -1010,17 +1346,14 @@ public class BaseDhis2 {
     withAuth(request);
 
     try {
-      return httpClient.execute(
+      return execute(
           request,
-          response -> {
+          (response, metrics) -> {
             handleErrors(response, request.getRequestUri());
 
-            int code = response.getCode();
-            String responseBody = EntityUtils.toString(response.getEntity());
-
-            log(code, "Response body: '{}'", responseBody);
-
-            T responseMessage = jsonMapper.readValue(responseBody, type);
+            long start = System.nanoTime();
+            T responseMessage = readValue(response, type);
+            metrics.addDeserializationNanos(System.nanoTime() - start);
 
             responseMessage.setHeaders(asList(response.getHeaders()));
             responseMessage.setHttpStatusCode(response.getCode());
@@ -1044,9 +1377,9 @@ public class BaseDhis2 {
     withAuth(request);
 
     try {
-      return httpClient.execute(
+      return execute(
           request,
-          response -> {
+          (response, metrics) -> {
             handleErrors(response, request.getRequestUri());
 
             HttpStatus httpStatus = HttpStatus.valueOf(response.getCode());
@@ -1064,6 +1397,39 @@ public class BaseDhis2 {
     }
   }
 
+  /**
+   * Executes the given request and handles the response with the given handler, where metrics of
+   * the request are passed to the {@link org.hisp.dhis.metrics.MetricsListener} of the config.
+   *
+   * @param <T> the type of the result.
+   * @param request the request.
+   * @param handler the {@link MeteredResponseHandler}.
+   * @return the result of the handler.
+   * @throws IOException if the request failed.
+   */
+  protected <T> T execute(HttpUriRequestBase request, MeteredResponseHandler<T> handler)
+      throws IOException {
+    return MetricsUtils.execute(getHttpClient(), request, config.getMetricsListener(), handler);
+  }
+
+  /**
+   * Returns an entity which compresses the given entity according to the configured {@link
+   * RequestCompression}, or the given entity wrapped for counting if compression is disabled. The
+   * transferred bytes are recorded in the {@link TransferStats} of this client.
+   *
+   * @param entity the {@link HttpEntity}.
+   * @return a {@link HttpEntity}.
+   */
+  protected HttpEntity compress(HttpEntity entity) {
+    RequestCompression compression = config.getHttpClientConfig().getRequestCompression();
+
+    if (compression == null || compression == RequestCompression.NONE) {
+      return new CountingHttpEntity(entity, bytes -> transferStats.addRequestBytes(bytes, bytes));
+    }
+
+    return new CompressingHttpEntity(entity, compression, transferStats);
+  }
+
   /**
    * Returns a HTTP post request with JSON content type for the given URL and entity.
    *
@@ -1103,7 +1469,9 @@ public class BaseDhis2 {
   }
 
   /**
-   * Retrieves an object using HTTP GET.
+   * Retrieves an object using HTTP GET. If the response cache is enabled and holds a response for
+   * the URL, the request is made conditional on the cached validators, and the cached object is
+   * returned if the server responds with {@code 304 Not Modified}.
    *
    * @param <T> the type.
    * @param url the fully qualified URL.
@@ -1117,28 +1485,192 @@ public class BaseDhis2 {
 
     HttpGet request = getJsonHttpGetRequest(url);
 
+    CachedResponse cached = responseCache.get(url, type);
+    responseCache.setConditionalHeaders(request, cached);
+
     try {
-      return httpClient.execute(
+      return execute(
           request,
-          response -> {
+          (response, metrics) -> {
+            if (response.getCode() == SC_NOT_MODIFIED && cached != null) {
+              log("Response not modified, using cached object for URL: '{}'", url);
+              EntityUtils.consume(response.getEntity());
+              responseCache.recordHit();
+              // Unchecked cast is safe as responses are cached by type
+              return (T) cached.getObject();
+            }
+
+            long start = System.nanoTime();
+            T object = toObject(response, url, type);
+            metrics.addDeserializationNanos(System.nanoTime() - start);
+            responseCache.put(url, type, response, object, metrics.getResponseBytes());
+            return object;
+          });
+    } catch (IOException ex) {
+      throw new Dhis2ClientException("Failed to fetch object", ex);
+    }
+  }
+
+  /**
+   * Retrieves org units using HTTP GET and adds them to the given {@link OrgUnitHierarchy.Builder}.
+   * The response is parsed as a stream of tokens, and only the identifier, path and last updated
+   * properties of each org unit are read, without materializing {@link org.hisp.dhis.model.OrgUnit}
+   * objects.
+   *
+   * @param url the fully qualified URL of the org units, with fields {@code id}, {@code path} and
+   *     {@code lastUpdated}.
+   * @param builder the {@link OrgUnitHierarchy.Builder}.
+   * @return the number of org units read.
+   * @throws Dhis2ClientException if unauthorized, access denied or resource not found.
+   */
+  protected int readOrgUnitHierarchy(URI url, OrgUnitHierarchy.Builder builder) {
+    return readOrgUnitHierarchy(url, builder, null);
+  }
+
+  /**
+   * Retrieves org units using HTTP GET and adds them to the given {@link OrgUnitHierarchy.Builder},
+   * and counts the org units which differ from the given base hierarchy. An org unit differs if it
+   * is not present in the base hierarchy, if its path differs, or if its last updated timestamp is
+   * more recent than the last updated timestamp of the base hierarchy.
+   *
+   * @param url the fully qualified URL of the org units, with fields {@code id}, {@code path} and
+   *     {@code lastUpdated}.
+   * @param builder the {@link OrgUnitHierarchy.Builder}.
+   * @param base the base {@link OrgUnitHierarchy}, or {@code null} to count all org units.
+   * @return the number of org units read which differ from the base hierarchy.
+   * @throws Dhis2ClientException if unauthorized, access denied or resource not found.
+   */
+  protected int readOrgUnitHierarchy(
+      URI url, OrgUnitHierarchy.Builder builder, OrgUnitHierarchy base) {
+    log("Get org unit hierarchy URL: '{}'", url.toString());
+
+    HttpGet request = getJsonHttpGetRequest(url);
+
+    try {
+      return execute(
+          request,
+          (response, metrics) -> {
             handleErrors(response, url.toString());
             handleErrorsForGet(response, url.toString());
 
-            String responseBody = EntityUtils.toString(response.getEntity());
+            long start = System.nanoTime();
 
-            log("Response body: '{}'", responseBody);
-
-            if (type == String.class) {
-              return (T) responseBody;
+            try (InputStream in = response.getEntity().getContent();
+                JsonParser parser = jsonMapper.createParser(in)) {
+              return readOrgUnitHierarchy(parser, builder, base);
+            } finally {
+              metrics.addDeserializationNanos(System.nanoTime() - start);
             }
-
-            return readValue(responseBody, type);
           });
     } catch (IOException ex) {
-      throw new Dhis2ClientException("Failed to fetch object", ex);
+      throw new Dhis2ClientException("Failed to fetch org unit hierarchy", ex);
     }
   }
 
+  /**
+   * Reads the org units of the given {@link JsonParser} into the given {@link
+   * OrgUnitHierarchy.Builder}.
+   *
+   * @param parser the {@link JsonParser}.
+   * @param builder the {@link OrgUnitHierarchy.Builder}.
+   * @param base the base {@link OrgUnitHierarchy}, or {@code null}.
+   * @return the number of org units read which differ from the base hierarchy.
+   */
+  private int readOrgUnitHierarchy(
+      JsonParser parser, OrgUnitHierarchy.Builder builder, OrgUnitHierarchy base) {
+    int count = 0;
+
+    if (parser.nextToken() != JsonToken.START_OBJECT) {
+      throw new Dhis2ClientException("Expected JSON object in org unit response", 500);
+    }
+
+    while (parser.nextToken() == JsonToken.PROPERTY_NAME) {
+      String name = parser.currentName();
+
+      if (parser.nextToken() != JsonToken.START_ARRAY || !"organisationUnits".equals(name)) {
+        parser.skipChildren();
+        continue;
+      }
+
+      while (parser.nextToken() == JsonToken.START_OBJECT) {
+        String id = null;
+        String path = null;
+        String lastUpdated = null;
+
+        while (parser.nextToken() == JsonToken.PROPERTY_NAME) {
+          String property = parser.currentName();
+          JsonToken token = parser.nextToken();
+
+          if (token == JsonToken.VALUE_STRING && "id".equals(property)) {
+            id = parser.getString();
+          } else if (token == JsonToken.VALUE_STRING && "path".equals(property)) {
+            path = parser.getString();
+          } else if (token == JsonToken.VALUE_STRING && "lastUpdated".equals(property)) {
+            lastUpdated = parser.getString();
+          } else {
+            parser.skipChildren();
+          }
+        }
+
+        builder.addPath(id, path).lastUpdated(lastUpdated);
+
+        if (base == null || isChanged(base, id, path, lastUpdated)) {
+          count++;
+        }
+      }
+    }
+
+    return count;
+  }
+
+  /**
+   * Indicates whether the org unit with the given properties differs from the given hierarchy.
+   *
+   * @param hierarchy the {@link OrgUnitHierarchy}.
+   * @param id the org unit identifier.
+   * @param path the org unit path.
+   * @param lastUpdated the org unit last updated timestamp.
+   * @return true if the org unit differs from the hierarchy.
+   */
+  private static boolean isChanged(
+      OrgUnitHierarchy hierarchy, String id, String path, String lastUpdated) {
+    String hierarchyLastUpdated = hierarchy.getLastUpdated();
+
+    return !Objects.equals(path, hierarchy.getPath(id))
+        || (lastUpdated != null
+            && (hierarchyLastUpdated == null || lastUpdated.compareTo(hierarchyLastUpdated) > 0));
+  }
+
+  /**
+   * Handles errors of the given response to a HTTP GET request and deserializes the response body
+   * to an object of the given type.
+   *
+   * @param <T> the type.
+   * @param response the {@link ClassicHttpResponse}.
+   * @param url the request URL.
+   * @param type the class type of the object.
+   * @return the object.
+   * @throws IOException if reading the response body failed.
+   * @throws ParseException if parsing the response body failed.
+   * @throws Dhis2ClientException if unauthorized, access denied or resource not found.
+   */
+  @SuppressWarnings("unchecked")
+  protected <T> T toObject(ClassicHttpResponse response, URI url, Class<T> type)
+      throws IOException, ParseException {
+    handleErrors(response, url.toString());
+    handleErrorsForGet(response, url.toString());
+
+    if (type == String.class) {
+      String responseBody = EntityUtils.toString(response.getEntity());
+
+      log("Response body: '{}'", responseBody);
+
+      return (T) responseBody;
+    }
+
+    return readValue(response, type);
+  }
+
   /**
    * Creates a HTTP GET request with the given URL and the <code>Accept</code> HTTP header set to
    * <code>application/json</code>.
@@ -1253,7 +1785,8 @@ public class BaseDhis2 {
         return StringUtils.EMPTY;
       }
 
-      String body = EntityUtils.toString(entity, StandardCharsets.UTF_8);
+      String body =
+          EntityUtils.toString(entity, StandardCharsets.UTF_8, MAX_ERROR_BODY_SNIPPET_LENGTH * 4);
 
       return StringUtils.abbreviate(
           StringUtils.normalizeSpace(body), MAX_ERROR_BODY_SNIPPET_LENGTH);
@@ -1276,17 +1809,71 @@ public class BaseDhis2 {
    * @param url the request URL.
    * @throws Dhis2ClientException in the case of error status codes.
    */
-  private void handleErrorsForGet(ClassicHttpResponse response, String url)
-      throws IOException, ParseException {
+  private void handleErrorsForGet(ClassicHttpResponse response, String url) throws IOException {
     final int code = response.getCode();
     if (GET_ERROR_STATUS_CODES.contains(code)) {
-      String responseBody = EntityUtils.toString(response.getEntity());
+      Response objResp = readValue(response, Response.class);
+
+      throw new Dhis2ClientException(objResp.getMessage(), code, objResp.getErrorCode());
+    }
+  }
+
+  /**
+   * Deserializes the JSON body of the given response to an object of the given type. The body is
+   * read as a stream and is not buffered in memory. A bounded prefix of the body is retained for
+   * error reporting, and a larger prefix if the response body is logged at the current log level.
+   *
+   * @param <T> type.
+   * @param response the {@link ClassicHttpResponse}.
+   * @param type the object type.
+   * @return an object.
+   * @throws IOException if reading failed.
+   * @throws Dhis2ClientException if the response has no body or the body is not valid JSON.
+   */
+  protected <T> T readValue(ClassicHttpResponse response, Class<T> type) throws IOException {
+    int code = response.getCode();
+    HttpEntity entity = response.getEntity();
 
-      log(code, "Response body: '{}'", responseBody);
+    if (entity == null) {
+      throw new Dhis2ClientException("Response has no body", code);
+    }
 
-      Response objResp = readValue(responseBody, Response.class);
+    boolean logEnabled = isLogEnabled(code);
+    int limit = logEnabled ? MAX_LOG_BODY_SNIPPET_BYTES : MAX_ERROR_BODY_SNIPPET_BYTES;
 
-      throw new Dhis2ClientException(objResp.getMessage(), code, objResp.getErrorCode());
+    try (CapturingInputStream in = new CapturingInputStream(entity.getContent(), limit)) {
+      T value = readValue(in, type);
+
+      if (logEnabled) {
+        log(code, "Response body: '{}'", in.getSnippet());
+      }
+
+      return value;
+    }
+  }
+
+  /**
+   * Deserializes the JSON content of the given input stream to an object of the given type. A
+   * bounded prefix of the content is retained and logged if the content cannot be deserialized.
+   *
+   * @param <T> type.
+   * @param in the {@link InputStream}.
+   * @param type the object type.
+   * @return an object.
+   * @throws IOException if reading failed.
+   * @throws Dhis2ClientException if the content is not valid JSON or cannot be mapped to the type.
+   */
+  protected <T> T readValue(InputStream in, Class<T> type) throws IOException {
+    CapturingInputStream capturing =
+        in instanceof CapturingInputStream c
+            ? c
+            : new CapturingInputStream(in, MAX_ERROR_BODY_SNIPPET_BYTES);
+
+    try {
+      return jsonMapper.readValue(capturing, type);
+    } catch (StreamReadException | DatabindException ex) {
+      log.error(String.format("Failed to read JSON: %s", capturing.getSnippet()), ex);
+      throw new Dhis2ClientException(ex.getMessage(), ex);
     }
   }
 
@@ -1302,7 +1889,7 @@ public class BaseDhis2 {
   protected <T> T readValue(String content, Class<T> type) throws IOException {
     try {
       return jsonMapper.readValue(content, type);
-    } catch (StreamReadException ex) {
+    } catch (StreamReadException | DatabindException ex) {
       log.error(String.format("Failed to read JSON: %s", content), ex);
       throw new Dhis2ClientException(ex.getMessage(), ex);
     }
@@ -1349,6 +1936,74 @@ public class BaseDhis2 {
     }
   }
 
+  /**
+   * Executes the given HTTP GET request and returns the content of the response as an {@link
+   * InputStream}. The response is kept open until the input stream is closed, which releases the
+   * connection and passes the metrics of the request to the {@link
+   * org.hisp.dhis.metrics.MetricsListener} of the config. Callers must close the input stream.
+   *
+   * @param request the {@link HttpGet} request.
+   * @return an {@link InputStream} of the response content.
+   * @throws Dhis2ClientException if the request failed, or if unauthorized, access denied or
+   *     resource not found.
+   */
+  protected InputStream openInputStream(HttpGet request) {
+    String url = HttpUtils.getUriAsString(request);
+    log("Open URL: '{}'", url);
+
+    RequestMetrics metrics = RequestMetrics.start(request);
+    ClassicHttpResponse response;
+
+    try {
+      response = getHttpClient().executeOpen(null, request, null);
+    } catch (IOException ex) {
+      MetricsUtils.onRequest(config.getMetricsListener(), metrics.stop(ex));
+      throw new Dhis2ClientException("HTTP request failed", ex);
+    }
+
+    try {
+      metrics.countResponse(response);
+      handleErrors(response, url);
+      handleErrorsForGet(response, url);
+
+      HttpEntity entity = response.getEntity();
+
+      if (entity == null) {
+        response.close();
+        MetricsUtils.onRequest(config.getMetricsListener(), metrics.stop(null));
+        return InputStream.nullInputStream();
+      }
+
+      return new ProxyInputStream(entity.getContent()) {
+        private boolean closed;
+
+        @Override
+        public void close() throws IOException {
+          if (closed) {
+            return;
+          }
+
+          closed = true;
+
+          try {
+            super.close();
+          } finally {
+            response.close();
+            MetricsUtils.onRequest(config.getMetricsListener(), metrics.stop(null));
+          }
+        }
+      };
+    } catch (IOException ex) {
+      IOUtils.closeQuietly(response);
+      MetricsUtils.onRequest(config.getMetricsListener(), metrics.stop(ex));
+      throw new Dhis2ClientException("HTTP request failed", ex);
+    } catch (RuntimeException ex) {
+      IOUtils.closeQuietly(response);
+      MetricsUtils.onRequest(config.getMetricsListener(), metrics.stop(ex));
+      throw ex;
+    }
+  }
+
   /**
    * Write the given {@link CloseableHttpResponse} to the given {@link File}.
    *
@@ -1382,17 +2037,81 @@ public class BaseDhis2 {
     }
   }
 
+  /**
+   * Executes the given HTTP GET request and writes the content of the response to the file at the
+   * given {@link Path}. The file is created or truncated once the response is known to be
+   * successful, and parent directories are created if necessary.
+   *
+   * @param request the {@link HttpGet} request.
+   * @param path the {@link Path} of the file to write the response to.
+   * @return the number of bytes written.
+   * @throws Dhis2ClientException if the request or the write operation failed.
+   */
+  protected long writeToPath(HttpGet request, Path path) {
+    try (InputStream in = openInputStream(request)) {
+      Path parent = path.toAbsolutePath().getParent();
+
+      if (parent != null) {
+        Files.createDirectories(parent);
+      }
+
+      try (FileChannel channel =
+          FileChannel.open(
+              path,
+              StandardOpenOption.CREATE,
+              StandardOpenOption.TRUNCATE_EXISTING,
+              StandardOpenOption.WRITE)) {
+        return channel.transferFrom(Channels.newChannel(in), 0, Long.MAX_VALUE);
+      }
+    } catch (IOException ex) {
+      throw new Dhis2ClientException("Failed to write to file", ex);
+    }
+  }
+
+  /**
+   * Executes the given HTTP GET request and writes the content of the response to the given {@link
+   * WritableByteChannel}. The channel is not closed.
+   *
+   * @param request the {@link HttpGet} request.
+   * @param channel the {@link WritableByteChannel} to write the response to.
+   * @return the number of bytes written.
+   * @throws Dhis2ClientException if the request or the write operation failed.
+   */
+  protected long writeToChannel(HttpGet request, WritableByteChannel channel) {
+    try (InputStream in = openInputStream(request)) {
+      return in.transferTo(Channels.newOutputStream(channel));
+    } catch (IOException ex) {
+      throw new Dhis2ClientException("Failed to write to channel", ex);
+    }
+  }
+
   /**
    * Adds authentication to the given request.
    *
-   * @param request the {@link HttpUriRequestBase}.
+   * @param request the {@link HttpRequest}.
    * @param <T> class.
    * @return the request.
    */
-  protected <T extends HttpUriRequestBase> T withAuth(T request) {
+  protected <T extends HttpRequest> T withAuth(T request) {
     return HttpUtils.withAuth(request, config);
   }
 
+  /**
+   * Converts a {@link MetadataEntity} and {@link Dhis2Objects} to a typed list. The unchecked cast
+   * is safe as all metadata entities extend identifiable object.
+   *
+   * @param <T> the type.
+   * @param entity the {@link MetadataEntity}.
+   * @param objects the {@link Dhis2Objects}.
+   * @return a typed list.
+   */
+  @SuppressWarnings("unchecked")
+  protected <T extends IdentifiableObject> List<T> toTypedList(
+      MetadataEntity entity, Dhis2Objects objects) {
+    Class<T> type = (Class<T>) entity.getType();
+    return CollectionUtils.toTypedList(entity.getObjectsFunc().apply(objects), type);
+  }
+
   /**
    * Serializes the given object to a JSON string.
    *
@@ -1616,6 +2335,28 @@ public class BaseDhis2 {
     }
   }
 
+  /**
+   * Indicates whether a message for the given status code is logged at the current log level.
+   *
+   * @param statusCode the HTTP status code.
+   * @return true if a message is logged.
+   */
+  private boolean isLogEnabled(int statusCode) {
+    if (statusCode >= 400 && statusCode < 600) {
+      return log.isWarnEnabled();
+    }
+
+    String level = getLogLevel();
+
+    if (LOG_LEVEL_INFO.equalsIgnoreCase(level)) {
+      return log.isInfoEnabled();
+    } else if (LOG_LEVEL_WARN.equalsIgnoreCase(level)) {
+      return log.isWarnEnabled();
+    } else {
+      return log.isDebugEnabled();
+    }
+  }
+
   /**
    * Logs the message.
    *
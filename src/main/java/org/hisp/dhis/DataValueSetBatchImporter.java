@@ -0,0 +1,392 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis;
+
+import static org.hisp.dhis.api.ApiPaths.PATH_DATA_VALUE_SETS;
+import static org.hisp.dhis.util.ObjectUtils.isPresent;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.hisp.dhis.executor.TaskExecutor;
+import org.hisp.dhis.metrics.MetricsListener;
+import org.hisp.dhis.model.datavalueset.DataValue;
+import org.hisp.dhis.model.datavalueset.DataValueSet;
+import org.hisp.dhis.model.datavalueset.DataValueSetBatchOptions;
+import org.hisp.dhis.response.Dhis2ClientException;
+import org.hisp.dhis.response.HttpStatus;
+import org.hisp.dhis.response.data.Conflict;
+import org.hisp.dhis.response.data.ImportCount;
+import org.hisp.dhis.response.data.Status;
+import org.hisp.dhis.response.datavalueset.DataValueSetResponse;
+import org.hisp.dhis.util.MetricsUtils;
+
+/**
+ * Imports data values in batches. Data values are read from an iterator and split into batches by
+ * count and estimated JSON size on the calling thread. Each batch is posted as a separate
+ * asynchronous import job on a {@link TaskExecutor}, after which the job is polled for completion.
+ * The number of batches being posted or polled concurrently is limited, which also limits the
+ * number of data values held in memory. Batches which fail with an I/O error or a server error are
+ * retried individually. The import summaries of the batches are merged into a single summary.
+ */
+@Slf4j
+class DataValueSetBatchImporter {
+  /** Estimated JSON size in bytes of the structure of a data value excluding property values. */
+  private static final int DATA_VALUE_OVERHEAD_BYTES = 64;
+
+  /** Estimated JSON size in bytes of the name and delimiters of a data value property. */
+  private static final int PROPERTY_OVERHEAD_BYTES = 20;
+
+  private final Function<DataValueSet, CompletableFuture<DataValueSetResponse>> importer;
+
+  private final DataValueSetBatchOptions options;
+
+  private final TaskExecutor taskExecutor;
+
+  private final MetricsListener metricsListener;
+
+  /**
+   * Constructor.
+   *
+   * @param importer the function which posts a data value set as an asynchronous job, and returns a
+   *     future which completes when the job is complete.
+   * @param options the {@link DataValueSetBatchOptions}.
+   * @param taskExecutor the {@link TaskExecutor} on which the importer is invoked.
+   */
+  DataValueSetBatchImporter(
+      Function<DataValueSet, CompletableFuture<DataValueSetResponse>> importer,
+      DataValueSetBatchOptions options,
+      TaskExecutor taskExecutor) {
+    this(importer, options, taskExecutor, MetricsListener.NOOP);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param importer the function which posts a data value set as an asynchronous job, and returns a
+   *     future which completes when the job is complete.
+   * @param options the {@link DataValueSetBatchOptions}.
+   * @param taskExecutor the {@link TaskExecutor} on which the importer is invoked.
+   * @param metricsListener the {@link MetricsListener} which is notified of retries.
+   */
+  DataValueSetBatchImporter(
+      Function<DataValueSet, CompletableFuture<DataValueSetResponse>> importer,
+      DataValueSetBatchOptions options,
+      TaskExecutor taskExecutor,
+      MetricsListener metricsListener) {
+    this.importer = Objects.requireNonNull(importer);
+    this.options = Objects.requireNonNull(options);
+    this.taskExecutor = Objects.requireNonNull(taskExecutor);
+    this.metricsListener = Objects.requireNonNull(metricsListener);
+  }
+
+  /**
+   * Imports the given data values in batches.
+   *
+   * @param dataValueSet the {@link DataValueSet} holding the data set, period, org unit and
+   *     attribute option combo which apply to every batch.
+   * @param dataValues the iterator of {@link DataValue}.
+   * @return a {@link DataValueSetResponse} with the merged import summaries of the batches.
+   */
+  DataValueSetResponse importDataValues(DataValueSet dataValueSet, Iterator<DataValue> dataValues) {
+    Semaphore permits = new Semaphore(Math.max(1, options.getMaxConcurrency()));
+    List<DataValueSetResponse> responses = Collections.synchronizedList(new ArrayList<>());
+    List<Batch> failed = Collections.synchronizedList(new ArrayList<>());
+    List<CompletableFuture<Void>> futures = new ArrayList<>();
+    int batchCount = 0;
+
+    while (dataValues.hasNext()) {
+      Batch batch = new Batch(batchCount++, nextBatch(dataValues));
+      futures.add(submit(dataValueSet, batch, permits, responses, failed));
+    }
+
+    join(futures);
+
+    for (int retry = 1; retry <= options.getMaxRetries(); retry++) {
+      List<Batch> retries = failed.stream().filter(batch -> isRetryable(batch.getError())).toList();
+
+      if (retries.isEmpty()) {
+        break;
+      }
+
+      failed.removeAll(retries);
+      futures.clear();
+
+      for (Batch batch : retries) {
+        log.info("Retrying batch: {}, attempt: {}", batch.getIndex(), retry);
+        MetricsUtils.onRetry(metricsListener, PATH_DATA_VALUE_SETS, retry);
+
+        futures.add(submit(dataValueSet, batch, permits, responses, failed));
+      }
+
+      join(futures);
+    }
+
+    return merge(responses, failed, batchCount);
+  }
+
+  /**
+   * Reads the next batch of data values from the given iterator, limited by the batch size and the
+   * max batch bytes.
+   *
+   * @param dataValues the iterator of {@link DataValue}.
+   * @return a list of {@link DataValue}.
+   */
+  List<DataValue> nextBatch(Iterator<DataValue> dataValues) {
+    int batchSize = Math.max(1, options.getBatchSize());
+    Long maxBytes = options.getMaxBatchBytes();
+    List<DataValue> batch = new ArrayList<>(Math.min(batchSize, 10_000));
+    long bytes = 0;
+
+    while (dataValues.hasNext() && batch.size() < batchSize) {
+      DataValue dataValue = dataValues.next();
+      batch.add(dataValue);
+      bytes += estimateSize(dataValue);
+
+      if (isPresent(maxBytes) && bytes >= maxBytes) {
+        break;
+      }
+    }
+
+    return batch;
+  }
+
+  /**
+   * Submits the given batch for import to the task executor, waiting for a permit if the max number
+   * of concurrent imports is reached. The permit is held until the import job of the batch is
+   * complete. On completion, the response is added to the given responses, or the batch is added to
+   * the given failed batches.
+   *
+   * @param dataValueSet the {@link DataValueSet}.
+   * @param batch the {@link Batch}.
+   * @param permits the {@link Semaphore} limiting concurrent imports.
+   * @param responses the list of responses.
+   * @param failed the list of failed batches.
+   * @return a future which completes when the import of the batch is complete.
+   */
+  private CompletableFuture<Void> submit(
+      DataValueSet dataValueSet,
+      Batch batch,
+      Semaphore permits,
+      List<DataValueSetResponse> responses,
+      List<Batch> failed) {
+    try {
+      permits.acquire();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new Dhis2ClientException("Thread interrupted", ex);
+    }
+
+    DataValueSet batchDataValueSet = toDataValueSet(dataValueSet, batch.getDataValues());
+    CompletableFuture<DataValueSetResponse> future;
+
+    try {
+      future =
+          taskExecutor
+              .submit(() -> importer.apply(batchDataValueSet))
+              .thenCompose(Function.identity());
+    } catch (RuntimeException ex) {
+      future = CompletableFuture.failedFuture(ex);
+    }
+
+    return future.handle(
+        (response, ex) -> {
+          permits.release();
+
+          if (ex != null) {
+            Throwable cause = ex instanceof CompletionException ? ex.getCause() : ex;
+            log.warn("Batch: {} failed: '{}'", batch.getIndex(), cause.getMessage());
+            batch.setError(cause);
+            failed.add(batch);
+          } else {
+            log.debug("Batch: {} completed: '{}'", batch.getIndex(), response);
+            responses.add(response);
+          }
+
+          return null;
+        });
+  }
+
+  /**
+   * Indicates whether a batch which failed with the given error should be retried. I/O errors and
+   * server errors with a 5xx status code are retried. Client errors such as 401, 403 and 409 are
+   * not retried, and neither are jobs which did not complete within the polling timeout, as such
+   * jobs may still be running on the server, where a retry would import the same batch again.
+   *
+   * @param error the error.
+   * @return true if the batch should be retried.
+   */
+  static boolean isRetryable(Throwable error) {
+    if (ExceptionUtils.indexOfType(error, TimeoutException.class) >= 0) {
+      return false;
+    }
+
+    if (ExceptionUtils.indexOfType(error, IOException.class) >= 0) {
+      return true;
+    }
+
+    return error instanceof Dhis2ClientException ex
+        && ex.getStatusCode() >= 500
+        && ex.getStatusCode() < 600;
+  }
+
+  /**
+   * Merges the given responses and failed batches into a single response. The status is the most
+   * severe status of the responses, and is {@link Status#ERROR} if any batch failed.
+   *
+   * @param responses the list of {@link DataValueSetResponse}.
+   * @param failed the list of failed batches.
+   * @param batchCount the total number of batches.
+   * @return a {@link DataValueSetResponse}.
+   */
+  static DataValueSetResponse merge(
+      List<DataValueSetResponse> responses, List<Batch> failed, int batchCount) {
+    DataValueSetResponse merged = new DataValueSetResponse();
+    ImportCount importCount = new ImportCount();
+    Status status = Status.SUCCESS;
+
+    for (DataValueSetResponse response : responses) {
+      if (response.hasImportCount()) {
+        ImportCount count = response.getImportCount();
+        importCount.setImported(importCount.getImported() + count.getImported());
+        importCount.setUpdated(importCount.getUpdated() + count.getUpdated());
+        importCount.setIgnored(importCount.getIgnored() + count.getIgnored());
+        importCount.setDeleted(importCount.getDeleted() + count.getDeleted());
+      }
+
+      if (isPresent(response.getConflicts())) {
+        merged.getConflicts().addAll(response.getConflicts());
+      }
+
+      if (isPresent(response.getStatus()) && response.getStatus().compareTo(status) > 0) {
+        status = response.getStatus();
+      }
+    }
+
+    for (Batch batch : failed) {
+      Conflict conflict = new Conflict();
+      conflict.setObject(String.format("batch:%d", batch.getIndex()));
+      conflict.setValue(
+          String.format(
+              "Import of %d data values failed: %s",
+              batch.getDataValues().size(), batch.getError().getMessage()));
+      merged.getConflicts().add(conflict);
+      status = Status.ERROR;
+    }
+
+    merged.setStatus(status);
+    merged.setImportCount(importCount);
+    merged.setHttpStatusCode(
+        failed.isEmpty() ? HttpStatus.OK.value() : HttpStatus.CONFLICT.value());
+    merged.setDescription(
+        String.format(
+            "Imported data values in %d batches, %d batches failed", batchCount, failed.size()));
+
+    return merged;
+  }
+
+  /**
+   * Returns a {@link DataValueSet} with the properties of the given data value set and the given
+   * data values.
+   *
+   * @param dataValueSet the {@link DataValueSet}.
+   * @param dataValues the list of {@link DataValue}.
+   * @return a {@link DataValueSet}.
+   */
+  private static DataValueSet toDataValueSet(
+      DataValueSet dataValueSet, List<DataValue> dataValues) {
+    return new DataValueSet()
+        .setDataSet(dataValueSet.getDataSet())
+        .setCompleteDate(dataValueSet.getCompleteDate())
+        .setPeriod(dataValueSet.getPeriod())
+        .setOrgUnit(dataValueSet.getOrgUnit())
+        .setAttributeOptionCombo(dataValueSet.getAttributeOptionCombo())
+        .setDataValues(dataValues);
+  }
+
+  /**
+   * Returns the estimated JSON size in bytes of the given data value, without serializing it.
+   *
+   * @param dataValue the {@link DataValue}.
+   * @return the estimated size in bytes.
+   */
+  static long estimateSize(DataValue dataValue) {
+    return DATA_VALUE_OVERHEAD_BYTES
+        + Stream.of(
+                dataValue.getDataElement(),
+                dataValue.getPeriod(),
+                dataValue.getOrgUnit(),
+                dataValue.getCategoryOptionCombo(),
+                dataValue.getAttributeOptionCombo(),
+                dataValue.getValue(),
+                dataValue.getStoredBy(),
+                dataValue.getCreated(),
+                dataValue.getLastUpdated(),
+                dataValue.getComment())
+            .filter(Objects::nonNull)
+            .mapToLong(value -> PROPERTY_OVERHEAD_BYTES + value.length())
+            .sum();
+  }
+
+  /**
+   * Waits for the given futures to complete.
+   *
+   * @param futures the list of futures.
+   */
+  private static void join(List<CompletableFuture<Void>> futures) {
+    CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+  }
+
+  /** Batch of data values. */
+  @Getter
+  @RequiredArgsConstructor
+  static final class Batch {
+    /** Zero-based index of the batch. */
+    private final int index;
+
+    /** Data values of the batch. */
+    private final List<DataValue> dataValues;
+
+    /** Error of the last failed import attempt. */
+    @Setter private volatile Throwable error;
+  }
+}
@@ -27,6 +27,7 @@
  */
 package org.hisp.dhis;
 
+import static org.apache.commons.collections4.CollectionUtils.isNotEmpty;
 import static org.hisp.dhis.Constants.SUPER_ADMIN_AUTH;
 import static org.hisp.dhis.api.ApiFields.DATA_SET_VALIDATION_FIELDS;
 import static org.hisp.dhis.api.ApiFields.FILE_RESOURCE_FIELDS;
@@ -60,15 +61,24 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.Validate;
 import org.apache.hc.client5.http.HttpResponseException;
@@ -89,6 +99,9 @@ import org.hisp.dhis.auth.BasicAuthentication;
 import org.hisp.dhis.auth.BearerAuthentication;
 import org.hisp.dhis.auth.CookieAuthentication;
 import org.hisp.dhis.auth.NoAuthentication;
+import org.hisp.dhis.executor.ConcurrencyLimiter;
+import org.hisp.dhis.executor.TaskExecutor;
+import org.hisp.dhis.hierarchy.OrgUnitHierarchy;
 import org.hisp.dhis.model.AnalyticsTableHook;
 import org.hisp.dhis.model.Attribute;
 import org.hisp.dhis.model.Category;
@@ -132,6 +145,8 @@ import org.hisp.dhis.model.ProgramStageSection;
 import org.hisp.dhis.model.SystemInfo;
 import org.hisp.dhis.model.SystemSettings;
 import org.hisp.dhis.model.analytics.AnalyticsData;
+import org.hisp.dhis.model.analytics.AnalyticsRow;
+import org.hisp.dhis.model.analytics.ColumnarAnalyticsData;
 import org.hisp.dhis.model.completedatasetregistration.CompleteDataSetRegistration;
 import org.hisp.dhis.model.completedatasetregistration.CompleteDataSetRegistrationImportOptions;
 import org.hisp.dhis.model.dashboard.Dashboard;
@@ -139,6 +154,7 @@ import org.hisp.dhis.model.datastore.DataStoreEntries;
 import org.hisp.dhis.model.datastore.EntryMetadata;
 import org.hisp.dhis.model.datavalueset.DataValue;
 import org.hisp.dhis.model.datavalueset.DataValueSet;
+import org.hisp.dhis.model.datavalueset.DataValueSetBatchOptions;
 import org.hisp.dhis.model.datavalueset.DataValueSetImportOptions;
 import org.hisp.dhis.model.dimension.Dimension;
 import org.hisp.dhis.model.enrollment.Enrollment;
@@ -155,6 +171,7 @@ import org.hisp.dhis.model.programfilter.EventFilter;
 import org.hisp.dhis.model.programrule.ProgramRule;
 import org.hisp.dhis.model.programrule.ProgramRuleAction;
 import org.hisp.dhis.model.programrule.ProgramRuleVariable;
+import org.hisp.dhis.model.relationship.Relationship;
 import org.hisp.dhis.model.relationship.RelationshipType;
 import org.hisp.dhis.model.relationship.RelationshipsResult;
 import org.hisp.dhis.model.trackedentity.TrackedEntitiesResult;
@@ -171,8 +188,10 @@ import org.hisp.dhis.model.validation.ValidationRule;
 import org.hisp.dhis.model.visualization.Visualization;
 import org.hisp.dhis.query.Filter;
 import org.hisp.dhis.query.InternalQuery;
+import org.hisp.dhis.query.Paging;
 import org.hisp.dhis.query.Query;
 import org.hisp.dhis.query.analytics.AnalyticsQuery;
+import org.hisp.dhis.query.analytics.AnalyticsQuerySplitter;
 import org.hisp.dhis.query.completedatasetregistration.CompleteDataSetRegistrationQuery;
 import org.hisp.dhis.query.datavalue.DataValueQuery;
 import org.hisp.dhis.query.datavalue.DataValueSetQuery;
@@ -186,6 +205,7 @@ import org.hisp.dhis.request.orgunit.OrgUnitMergeRequest;
 import org.hisp.dhis.request.orgunit.OrgUnitSplitRequest;
 import org.hisp.dhis.response.Dhis2ClientException;
 import org.hisp.dhis.response.HttpStatus;
+import org.hisp.dhis.response.PagedResponse;
 import org.hisp.dhis.response.Response;
 import org.hisp.dhis.response.completedatasetregistration.CompleteDataSetRegistrationResponse;
 import org.hisp.dhis.response.data.ImportSummaryResponse;
@@ -198,9 +218,13 @@ import org.hisp.dhis.response.job.JobNotification;
 import org.hisp.dhis.response.object.ObjectResponse;
 import org.hisp.dhis.response.objects.ObjectsResponse;
 import org.hisp.dhis.response.trackedentity.TrackedEntityResponse;
-import org.hisp.dhis.util.CollectionUtils;
 import org.hisp.dhis.util.HttpUtils;
+import org.hisp.dhis.util.PagingSpliterator;
+import org.hisp.dhis.util.PrefetchingPagingSpliterator;
+import org.hisp.dhis.util.StreamingJsonEntity;
 import org.hisp.dhis.util.Verify;
+import org.hisp.dhis.util.json.AnalyticsRowReader;
+import tools.jackson.core.JsonGenerator;
 
 /**
  * DHIS2 API client for HTTP requests and responses. Request and response bodies are in JSON format.
@@ -337,9 +361,9 @@ public class Dhis2 extends BaseDhis2 {
     HttpGet request = withAuth(new HttpGet(url));
 
     try {
-      return httpClient.execute(
+      return execute(
           request,
-          response -> {
+          (response, metrics) -> {
             int statusCode = response.getCode();
 
             if (redirectedToLogin(response)) {
@@ -386,9 +410,9 @@ public class Dhis2 extends BaseDhis2 {
                 .addParameter("cacheClear", "true"));
 
     try {
-      return httpClient.execute(
+      return execute(
           getPostRequest(url),
-          response -> {
+          (response, metrics) -> {
             Response error = Response.error(String.valueOf(response.getCode()));
             return Set.of(200, 204).contains(response.getCode()) ? Response.ok() : error;
           });
@@ -643,7 +667,11 @@ public class Dhis2 extends BaseDhis2 {
     URIBuilder uriBuilder = config.getResolvedUriBuilder().appendPath(PATH_METADATA);
     HttpPost request = new HttpPost(withMetadataImportParams(uriBuilder));
 
-    return executeJsonPostPutRequest(request, objects, ObjectsResponse.class);
+    try {
+      return executeJsonPostPutRequest(request, objects, ObjectsResponse.class, true);
+    } finally {
+      invalidateMetadataCache(objects);
+    }
   }
 
   /**
@@ -659,7 +687,11 @@ public class Dhis2 extends BaseDhis2 {
     URIBuilder uriBuilder = config.getResolvedUriBuilder().appendPath(PATH_METADATA);
     HttpPost request = new HttpPost(withMetadataImportParams(uriBuilder, params));
 
-    return executeJsonPostPutRequest(request, objects, ObjectsResponse.class);
+    try {
+      return executeJsonPostPutRequest(request, objects, ObjectsResponse.class, true);
+    } finally {
+      invalidateMetadataCache(objects);
+    }
   }
 
   /**
@@ -672,7 +704,12 @@ public class Dhis2 extends BaseDhis2 {
   public ObjectResponse saveMetadataObject(IdentifiableObject object) {
     MetadataEntity entity = MetadataEntity.from(object);
     String path = entity.getPath();
-    return saveObject(path, object, ObjectResponse.class);
+
+    try {
+      return saveObject(path, object, ObjectResponse.class);
+    } finally {
+      metadataCache.invalidate(entity, object.getId());
+    }
   }
 
   /**
@@ -688,7 +725,11 @@ public class Dhis2 extends BaseDhis2 {
     String path = entity.getPath();
     URI url = withMetadataImportParams(config.getResolvedUriBuilder().appendPath(path), params);
 
-    return executeJsonPostPutRequest(new HttpPost(url), object, ObjectResponse.class);
+    try {
+      return executeJsonPostPutRequest(new HttpPost(url), object, ObjectResponse.class);
+    } finally {
+      metadataCache.invalidate(entity, object.getId());
+    }
   }
 
   /**
@@ -716,7 +757,31 @@ public class Dhis2 extends BaseDhis2 {
     String path = String.format("%s/%s", entity.getPath(), object.getId());
     Map<String, String> params = Map.of(SKIP_SHARING_PARAM, "true");
 
-    return updateObject(path, params, object, ObjectResponse.class);
+    try {
+      return updateObject(path, params, object, ObjectResponse.class);
+    } finally {
+      metadataCache.invalidate(entity, object.getId());
+    }
+  }
+
+  /**
+   * Removes the objects contained in the given {@link Dhis2Objects} from the metadata cache.
+   *
+   * @param objects the {@link Dhis2Objects}.
+   */
+  private void invalidateMetadataCache(Dhis2Objects objects) {
+    if (!metadataCache.isEnabled()) {
+      return;
+    }
+
+    for (MetadataEntity entity : MetadataEntity.values()) {
+      List<? extends IdentifiableObject> list = entity.getObjectsFunc().apply(objects);
+
+      if (isNotEmpty(list)) {
+        metadataCache.invalidate(
+            entity, list.stream().map(IdentifiableObject::getId).filter(Objects::nonNull).toList());
+      }
+    }
   }
 
   /**
@@ -749,14 +814,19 @@ public class Dhis2 extends BaseDhis2 {
     String path = entity.getPath();
     Class<T> type = (Class<T>) entity.getType();
 
-    return getObject(
-        config
-            .getResolvedUriBuilder()
-            .appendPath(path)
-            .appendPath(id)
-            .addParameter(FIELDS_PARAM, fields),
-        Query.instance(),
-        type);
+    return metadataCache.get(
+        entity,
+        id,
+        fields,
+        () ->
+            getObject(
+                config
+                    .getResolvedUriBuilder()
+                    .appendPath(path)
+                    .appendPath(id)
+                    .addParameter(FIELDS_PARAM, fields),
+                Query.instance(),
+                type));
   }
 
   /**
@@ -770,6 +840,43 @@ public class Dhis2 extends BaseDhis2 {
     return objectExists(entity, id);
   }
 
+  /**
+   * Retrieves the metadata objects with the given identifiers. The objects are retrieved
+   * concurrently through the {@link TaskExecutor} of the config, and are returned in the order of
+   * the identifiers.
+   *
+   * @param <T> the type.
+   * @param entity the {@link MetadataEntity}.
+   * @param ids the object identifiers.
+   * @return a list of metadata objects.
+   * @throws Dhis2ClientException if unauthorized, access denied or any object not found.
+   */
+  public <T extends IdentifiableObject> List<T> getMetadataObjectsByIds(
+      MetadataEntity entity, Collection<String> ids) {
+    return getTaskExecutor().invokeAll(ids, id -> this.<T>getMetadataObject(entity, id));
+  }
+
+  /**
+   * Indicates whether the metadata objects with the given identifiers exist. The checks are made
+   * concurrently through the {@link TaskExecutor} of the config.
+   *
+   * @param entity the {@link MetadataEntity}.
+   * @param ids the object identifiers.
+   * @return a map of object identifiers and whether the object exists, in the order of the
+   *     identifiers.
+   */
+  public Map<String, Boolean> objectsExist(MetadataEntity entity, Collection<String> ids) {
+    List<String> idList = List.copyOf(ids);
+    List<Boolean> exists = getTaskExecutor().invokeAll(idList, id -> objectExists(entity, id));
+    Map<String, Boolean> result = new LinkedHashMap<>();
+
+    for (int i = 0; i < idList.size(); i++) {
+      result.put(idList.get(i), exists.get(i));
+    }
+
+    return result;
+  }
+
   /**
    * Returns a collection of metadata objects based on the given query wrapped in {@link
    * Dhis2Objects}.
@@ -836,19 +943,71 @@ public class Dhis2 extends BaseDhis2 {
   }
 
   /**
-   * Converts a {@link MetadataEntity} and {@link Dhis2Objects} to a typed list. The unchecked cast
-   * is safe as all metadata entities extend identifiable object.
+   * Returns a sequential {@link Stream} of metadata objects based on the given query. The objects
+   * are retrieved lazily page by page as the stream is consumed, and only one page is held in
+   * memory at a time. The page size of the query is used if specified, otherwise the default page
+   * size. The page of the query, if specified, is the first page to retrieve.
    *
    * @param <T> the type.
    * @param entity the {@link MetadataEntity}.
-   * @param objects the {@link Dhis2Objects}.
-   * @return a typed list.
+   * @param query the {@link Query}.
+   * @return a {@link Stream} of metadata objects.
+   * @throws Dhis2ClientException if unauthorized, access denied or resource not found.
    */
-  @SuppressWarnings("unchecked")
-  protected <T extends IdentifiableObject> List<T> toTypedList(
-      MetadataEntity entity, Dhis2Objects objects) {
-    Class<T> type = (Class<T>) entity.getType();
-    return CollectionUtils.toTypedList(entity.getObjectsFunc().apply(objects), type);
+  public <T extends IdentifiableObject> Stream<T> streamMetadata(
+      MetadataEntity entity, Query query) {
+    Paging paging = query.getPaging();
+    return PagingSpliterator.stream(
+        page -> getMetadataPage(entity, query, page, paging.getPageSizeOrDefault()),
+        paging.getPageOrDefault(),
+        paging.getPageSizeOrDefault());
+  }
+
+  /**
+   * Returns an {@link Iterator} of metadata objects based on the given query. The objects are
+   * retrieved lazily page by page as the iterator is advanced, and only one page is held in memory
+   * at a time. Paging is applied as for {@link #streamMetadata(MetadataEntity, Query)}.
+   *
+   * @param <T> the type.
+   * @param entity the {@link MetadataEntity}.
+   * @param query the {@link Query}.
+   * @return an {@link Iterator} of metadata objects.
+   * @throws Dhis2ClientException if unauthorized, access denied or resource not found.
+   */
+  public <T extends IdentifiableObject> Iterator<T> getMetadataIterator(
+      MetadataEntity entity, Query query) {
+    Paging paging = query.getPaging();
+    return PagingSpliterator.iterator(
+        page -> getMetadataPage(entity, query, page, paging.getPageSizeOrDefault()),
+        paging.getPageOrDefault(),
+        paging.getPageSizeOrDefault());
+  }
+
+  /**
+   * Returns a page of metadata objects based on the given query, where the given page and page size
+   * is applied in place of the paging of the query.
+   *
+   * @param <T> the type.
+   * @param entity the {@link MetadataEntity}.
+   * @param query the {@link Query}.
+   * @param page the page number.
+   * @param pageSize the page size.
+   * @return a {@link PagedResponse} of metadata objects.
+   */
+  private <T extends IdentifiableObject> PagedResponse<T> getMetadataPage(
+      MetadataEntity entity, Query query, int page, int pageSize) {
+    String path = entity.getPath();
+    String fields = getQueryFields(entity, query);
+
+    URI url =
+        withObjectQueryParams(
+            config.getResolvedUriBuilder().appendPath(path).addParameter(FIELDS_PARAM, fields),
+            query,
+            new Paging(page, pageSize));
+
+    Dhis2Objects objects = getObjectFromUrl(url, Dhis2Objects.class);
+
+    return new PagedResponse<T>(objects.getPager(), toTypedList(entity, objects));
   }
 
   /**
@@ -862,7 +1021,11 @@ public class Dhis2 extends BaseDhis2 {
   protected ObjectResponse removeMetadataObject(MetadataEntity entity, String id) {
     String path = String.format("%s/%s", entity.getPath(), id);
 
-    return removeObject(path, ObjectResponse.class);
+    try {
+      return removeObject(path, ObjectResponse.class);
+    } finally {
+      metadataCache.invalidate(entity, id);
+    }
   }
 
   // -------------------------------------------------------------------------
@@ -1925,15 +2088,43 @@ public class Dhis2 extends BaseDhis2 {
    * @return the number of bytes copied.
    */
   public int writeDocumentData(String id, OutputStream out) {
-    URI url =
-        HttpUtils.build(
-            config
-                .getResolvedUriBuilder()
-                .appendPath("documents")
-                .appendPath(id)
-                .appendPath("data"));
+    return writeToOutputStream(getDocumentDataUri(id), out);
+  }
+
+  /**
+   * Writes the data for the {@link Document} to the file at the given {@link Path}.
+   *
+   * @param id the document identifier.
+   * @param path the {@link Path} of the file to write data to.
+   * @return the number of bytes written.
+   * @throws Dhis2ClientException if the document does not exist or the write fails.
+   */
+  public long writeDocumentData(String id, Path path) {
+    return writeToPath(getDocumentDataUri(id), path);
+  }
+
+  /**
+   * Writes the data for the {@link Document} to the given {@link WritableByteChannel}. The channel
+   * is not closed.
+   *
+   * @param id the document identifier.
+   * @param channel the {@link WritableByteChannel} to write data to.
+   * @return the number of bytes written.
+   * @throws Dhis2ClientException if the document does not exist or the write fails.
+   */
+  public long writeDocumentData(String id, WritableByteChannel channel) {
+    return writeToChannel(getDocumentDataUri(id), channel);
+  }
 
-    return writeToOutputStream(url, out);
+  /**
+   * Returns the URI of the data for the {@link Document}.
+   *
+   * @param id the document identifier.
+   * @return the {@link URI}.
+   */
+  private URI getDocumentDataUri(String id) {
+    return HttpUtils.build(
+        config.getResolvedUriBuilder().appendPath("documents").appendPath(id).appendPath("data"));
   }
 
   /**
@@ -2385,6 +2576,60 @@ public class Dhis2 extends BaseDhis2 {
     return getMetadata(MetadataEntity.ORG_UNIT, query);
   }
 
+  /**
+   * Retrieves the full org unit hierarchy as an in-memory {@link OrgUnitHierarchy} index. The
+   * identifier and path of all org units are retrieved in a single request, which is parsed as a
+   * stream without materializing {@link OrgUnit} objects.
+   *
+   * @return the {@link OrgUnitHierarchy}.
+   */
+  public OrgUnitHierarchy getOrgUnitHierarchy() {
+    OrgUnitHierarchy.Builder builder = OrgUnitHierarchy.builder();
+    readOrgUnitHierarchy(HttpUtils.build(getOrgUnitHierarchyUriBuilder()), builder);
+    return builder.build();
+  }
+
+  /**
+   * Refreshes the given {@link OrgUnitHierarchy} by retrieving only the org units which were
+   * created or updated since the most recent last updated timestamp of the hierarchy, and applying
+   * them on top of the hierarchy. As the filter includes org units updated at the most recent
+   * timestamp, which are already part of the hierarchy, the hierarchy is only rebuilt if a
+   * retrieved org unit is new, has a different path or was updated more recently. Note that removed
+   * org units are not detected, and remain in the refreshed hierarchy. The given hierarchy is not
+   * modified.
+   *
+   * @param hierarchy the {@link OrgUnitHierarchy} to refresh.
+   * @return a refreshed {@link OrgUnitHierarchy}, or the given hierarchy if no org units changed.
+   */
+  public OrgUnitHierarchy refreshOrgUnitHierarchy(OrgUnitHierarchy hierarchy) {
+    if (hierarchy.getLastUpdated() == null) {
+      return getOrgUnitHierarchy();
+    }
+
+    OrgUnitHierarchy.Builder builder = OrgUnitHierarchy.builder().addAll(hierarchy);
+    URIBuilder uriBuilder =
+        getOrgUnitHierarchyUriBuilder()
+            .addParameter("filter", "lastUpdated:ge:" + hierarchy.getLastUpdated());
+
+    return readOrgUnitHierarchy(HttpUtils.build(uriBuilder), builder, hierarchy) > 0
+        ? builder.build()
+        : hierarchy;
+  }
+
+  /**
+   * Returns a {@link URIBuilder} for retrieving all org units with the properties required for an
+   * {@link OrgUnitHierarchy}.
+   *
+   * @return a {@link URIBuilder}.
+   */
+  private URIBuilder getOrgUnitHierarchyUriBuilder() {
+    return config
+        .getResolvedUriBuilder()
+        .appendPath("organisationUnits")
+        .addParameter(FIELDS_PARAM, "id,path,lastUpdated")
+        .addParameter("paging", "false");
+  }
+
   /**
    * Removes a {@link OrgUnit}.
    *
@@ -4034,9 +4279,9 @@ public class Dhis2 extends BaseDhis2 {
     HttpGet request = withAuth(new HttpGet(url));
 
     try {
-      return httpClient.execute(
+      return execute(
           request,
-          response -> {
+          (response, metrics) -> {
             try (InputStream in = response.getEntity().getContent()) {
               return IOUtils.toByteArray(in);
             }
@@ -4046,6 +4291,19 @@ public class Dhis2 extends BaseDhis2 {
     }
   }
 
+  /**
+   * Opens a stream of the file content at the given URL, so that large files are not held in
+   * memory. The connection is released when the stream is closed, and callers must close the
+   * stream.
+   *
+   * @param url the URL to download from.
+   * @return an {@link InputStream} of the file content.
+   * @throws Dhis2ClientException if the file does not exist or the request fails.
+   */
+  public InputStream openFile(URI url) {
+    return openInputStream(withAuth(new HttpGet(url)));
+  }
+
   /**
    * Retrieves the resource at the given URI and writes the content to the given {@link
    * OutputStream}.
@@ -4059,9 +4317,9 @@ public class Dhis2 extends BaseDhis2 {
     HttpGet request = getHttpGetRequest(uri, List.of());
 
     try {
-      return httpClient.execute(
+      return execute(
           request,
-          response -> {
+          (response, metrics) -> {
             return writeToOutputStream(response, out);
           });
     } catch (IOException ex) {
@@ -4069,6 +4327,32 @@ public class Dhis2 extends BaseDhis2 {
     }
   }
 
+  /**
+   * Retrieves the resource at the given URI and writes the content to the file at the given {@link
+   * Path} through a {@link java.nio.channels.FileChannel}.
+   *
+   * @param uri the URL to retrieve.
+   * @param path the {@link Path} of the file to write to.
+   * @return the number of bytes written.
+   * @throws Dhis2ClientException if the resource does not exist or the download fails.
+   */
+  public long writeToPath(URI uri, Path path) {
+    return writeToPath(getHttpGetRequest(uri, List.of()), path);
+  }
+
+  /**
+   * Retrieves the resource at the given URI and writes the content to the given {@link
+   * WritableByteChannel}. The channel is not closed.
+   *
+   * @param uri the URL to retrieve.
+   * @param channel the {@link WritableByteChannel} to write to.
+   * @return the number of bytes written.
+   * @throws Dhis2ClientException if the resource does not exist or the download fails.
+   */
+  public long writeToChannel(URI uri, WritableByteChannel channel) {
+    return writeToChannel(getHttpGetRequest(uri, List.of()), channel);
+  }
+
   /**
    * Retrieves the file content for a {@link FileResource}.
    *
@@ -4077,15 +4361,34 @@ public class Dhis2 extends BaseDhis2 {
    * @throws Dhis2ClientException if the file resource does not exist or download fails.
    */
   public byte[] getFileResourceData(String id) {
-    URI uri =
-        HttpUtils.build(
-            config
-                .getResolvedUriBuilder()
-                .appendPath(PATH_FILE_RESOURCES)
-                .appendPath(id)
-                .appendPath("data"));
+    return downloadFile(getFileResourceDataUri(id), "Failed to download file resource data");
+  }
 
-    return downloadFile(uri, "Failed to download file resource data");
+  /**
+   * Opens a stream of the file content for a {@link FileResource}, so that large files are not held
+   * in memory. Callers must close the stream.
+   *
+   * @param id the object identifier.
+   * @return an {@link InputStream} of the file content.
+   * @throws Dhis2ClientException if the file resource does not exist or download fails.
+   */
+  public InputStream openFileResourceData(String id) {
+    return openFile(getFileResourceDataUri(id));
+  }
+
+  /**
+   * Returns the URI of the file content for a {@link FileResource}.
+   *
+   * @param id the object identifier.
+   * @return the {@link URI}.
+   */
+  private URI getFileResourceDataUri(String id) {
+    return HttpUtils.build(
+        config
+            .getResolvedUriBuilder()
+            .appendPath(PATH_FILE_RESOURCES)
+            .appendPath(id)
+            .appendPath("data"));
   }
 
   /**
@@ -4128,18 +4431,39 @@ public class Dhis2 extends BaseDhis2 {
    * @throws Dhis2ClientException if the file resource does not exist or download fails.
    */
   public byte[] getEventFile(String eventUid, String dataElementUid) {
-    URI uri =
-        HttpUtils.build(
-            config
-                .getResolvedUriBuilder()
-                .appendPath(PATH_TRACKER)
-                .appendPath(PATH_EVENTS)
-                .appendPath(eventUid)
-                .appendPath("dataValues")
-                .appendPath(dataElementUid)
-                .appendPath("file"));
+    return downloadFile(getEventFileUri(eventUid, dataElementUid), "Failed to download event file");
+  }
 
-    return downloadFile(uri, "Failed to download event file");
+  /**
+   * Opens a stream of the file data for an event data value, so that large files are not held in
+   * memory. Callers must close the stream.
+   *
+   * @param eventUid the event UID.
+   * @param dataElementUid the data element UID.
+   * @return an {@link InputStream} of the file content.
+   * @throws Dhis2ClientException if the file resource does not exist or download fails.
+   */
+  public InputStream openEventFile(String eventUid, String dataElementUid) {
+    return openFile(getEventFileUri(eventUid, dataElementUid));
+  }
+
+  /**
+   * Returns the URI of the file data for an event data value.
+   *
+   * @param eventUid the event UID.
+   * @param dataElementUid the data element UID.
+   * @return the {@link URI}.
+   */
+  private URI getEventFileUri(String eventUid, String dataElementUid) {
+    return HttpUtils.build(
+        config
+            .getResolvedUriBuilder()
+            .appendPath(PATH_TRACKER)
+            .appendPath(PATH_EVENTS)
+            .appendPath(eventUid)
+            .appendPath("dataValues")
+            .appendPath(dataElementUid)
+            .appendPath("file"));
   }
 
   /**
@@ -4205,18 +4529,41 @@ public class Dhis2 extends BaseDhis2 {
    * @throws Dhis2ClientException if the file resource does not exist or download fails.
    */
   public byte[] getTrackedEntityAttributeFile(String trackedEntityUid, String attributeUid) {
-    URI uri =
-        HttpUtils.build(
-            config
-                .getResolvedUriBuilder()
-                .appendPath(PATH_TRACKER)
-                .appendPath("trackedEntities")
-                .appendPath(trackedEntityUid)
-                .appendPath("attributes")
-                .appendPath(attributeUid)
-                .appendPath("file"));
+    return downloadFile(
+        getTrackedEntityAttributeFileUri(trackedEntityUid, attributeUid),
+        "Failed to download tracked entity attribute file");
+  }
+
+  /**
+   * Opens a stream of the file data for a tracked entity attribute, so that large files are not
+   * held in memory. Callers must close the stream.
+   *
+   * @param trackedEntityUid the tracked entity UID.
+   * @param attributeUid the tracked entity attribute UID.
+   * @return an {@link InputStream} of the file content.
+   * @throws Dhis2ClientException if the file resource does not exist or download fails.
+   */
+  public InputStream openTrackedEntityAttributeFile(String trackedEntityUid, String attributeUid) {
+    return openFile(getTrackedEntityAttributeFileUri(trackedEntityUid, attributeUid));
+  }
 
-    return downloadFile(uri, "Failed to download tracked entity attribute file");
+  /**
+   * Returns the URI of the file data for a tracked entity attribute.
+   *
+   * @param trackedEntityUid the tracked entity UID.
+   * @param attributeUid the tracked entity attribute UID.
+   * @return the {@link URI}.
+   */
+  private URI getTrackedEntityAttributeFileUri(String trackedEntityUid, String attributeUid) {
+    return HttpUtils.build(
+        config
+            .getResolvedUriBuilder()
+            .appendPath(PATH_TRACKER)
+            .appendPath("trackedEntities")
+            .appendPath(trackedEntityUid)
+            .appendPath("attributes")
+            .appendPath(attributeUid)
+            .appendPath("file"));
   }
 
   // -------------------------------------------------------------------------
@@ -4253,13 +4600,113 @@ public class Dhis2 extends BaseDhis2 {
     URI url = withDataValueSetImportParams(builder, options);
 
     HttpPost request =
-        getPostRequest(url, new StringEntity(toJsonString(dataValueSet), StandardCharsets.UTF_8));
+        getPostRequest(url, compress(StreamingJsonEntity.of(jsonMapper, dataValueSet)));
 
-    Dhis2AsyncRequest asyncRequest = new Dhis2AsyncRequest(config, httpClient, jsonMapper);
+    Dhis2AsyncRequest asyncRequest =
+        new Dhis2AsyncRequest(config, getHttpClient(), jsonMapper, getTaskExecutor());
 
     return asyncRequest.post(request, DataValueSetResponse.class);
   }
 
+  /**
+   * Saves a data value set where the data values are provided by the given iterator. The data
+   * values are serialized directly to the request body as they are read from the iterator, which
+   * means that the data values never have to be held in memory at the same time. The data values of
+   * the given {@link DataValueSet} are ignored, while the other properties are included.
+   *
+   * @param dataValueSet the {@link DataValueSet} holding the data set, period, org unit and
+   *     attribute option combo.
+   * @param dataValues the iterator of {@link DataValue}.
+   * @param options the {@link DataValueSetImportOptions}.
+   * @return {@link DataValueSetResponse} holding information about the operation.
+   */
+  public DataValueSetResponse saveDataValueSet(
+      DataValueSet dataValueSet,
+      Iterator<DataValue> dataValues,
+      DataValueSetImportOptions options) {
+    URIBuilder builder = config.getResolvedUriBuilder().appendPath(PATH_DATA_VALUE_SETS);
+
+    URI url = withDataValueSetImportParams(builder, options);
+
+    HttpPost request =
+        getPostRequest(url, compress(newDataValueSetEntity(dataValueSet, dataValues)));
+
+    Dhis2AsyncRequest asyncRequest =
+        new Dhis2AsyncRequest(config, getHttpClient(), jsonMapper, getTaskExecutor());
+
+    return asyncRequest.post(request, DataValueSetResponse.class);
+  }
+
+  /**
+   * Saves a data value set where the data values are provided by the given stream. The data values
+   * are serialized directly to the request body as they are read from the stream. The stream is
+   * closed when the request is complete. The data values of the given {@link DataValueSet} are
+   * ignored, while the other properties are included.
+   *
+   * @param dataValueSet the {@link DataValueSet} holding the data set, period, org unit and
+   *     attribute option combo.
+   * @param dataValues the stream of {@link DataValue}.
+   * @param options the {@link DataValueSetImportOptions}.
+   * @return {@link DataValueSetResponse} holding information about the operation.
+   */
+  public DataValueSetResponse saveDataValueSet(
+      DataValueSet dataValueSet, Stream<DataValue> dataValues, DataValueSetImportOptions options) {
+    try (Stream<DataValue> stream = dataValues) {
+      return saveDataValueSet(dataValueSet, stream.iterator(), options);
+    }
+  }
+
+  /**
+   * Saves a {@link DataValueSet} in batches. The data values are split into batches according to
+   * the given {@link DataValueSetBatchOptions}, where each batch is posted as a separate
+   * asynchronous job on the {@link TaskExecutor} of this client. Batches which fail are retried
+   * individually, and the import summaries of the batches are merged into a single response.
+   *
+   * @param dataValueSet the {@link DataValueSet} to save.
+   * @param options the {@link DataValueSetImportOptions}.
+   * @param batchOptions the {@link DataValueSetBatchOptions}.
+   * @return {@link DataValueSetResponse} holding the merged information about the operation.
+   */
+  public DataValueSetResponse saveDataValueSetInBatches(
+      DataValueSet dataValueSet,
+      DataValueSetImportOptions options,
+      DataValueSetBatchOptions batchOptions) {
+    return saveDataValueSetInBatches(
+        dataValueSet, dataValueSet.getDataValues().iterator(), options, batchOptions);
+  }
+
+  /**
+   * Saves a data value set in batches, where the data values are provided by the given iterator.
+   * The data values are read and split into batches on the calling thread according to the given
+   * {@link DataValueSetBatchOptions}. Each batch is posted as a separate asynchronous job on the
+   * {@link TaskExecutor} of this client, after which the job is polled for completion on a shared
+   * scheduler. The number of batches being posted or polled concurrently is limited, which also
+   * limits the number of data values held in memory. Batches which fail are retried individually,
+   * and the import summaries of the batches are merged into a single response. Batches which fail
+   * after all retries are reported as conflicts with status {@code ERROR}.
+   *
+   * @param dataValueSet the {@link DataValueSet} holding the data set, period, org unit and
+   *     attribute option combo.
+   * @param dataValues the iterator of {@link DataValue}.
+   * @param options the {@link DataValueSetImportOptions}.
+   * @param batchOptions the {@link DataValueSetBatchOptions}.
+   * @return {@link DataValueSetResponse} holding the merged information about the operation.
+   */
+  public DataValueSetResponse saveDataValueSetInBatches(
+      DataValueSet dataValueSet,
+      Iterator<DataValue> dataValues,
+      DataValueSetImportOptions options,
+      DataValueSetBatchOptions batchOptions) {
+    DataValueSetBatchImporter importer =
+        new DataValueSetBatchImporter(
+            batch -> saveDataValueSetAsync(batch, options),
+            batchOptions,
+            getTaskExecutor(),
+            config.getMetricsListener());
+
+    return importer.importDataValues(dataValueSet, dataValues);
+  }
+
   /**
    * Saves a data value set payload in JSON format represented by the given file.
    *
@@ -4272,9 +4719,11 @@ public class Dhis2 extends BaseDhis2 {
 
     URI url = withDataValueSetImportParams(builder, options);
 
-    HttpPost request = getPostRequest(url, new FileEntity(file, ContentType.APPLICATION_JSON));
+    HttpPost request =
+        getPostRequest(url, compress(new FileEntity(file, ContentType.APPLICATION_JSON)));
 
-    Dhis2AsyncRequest asyncRequest = new Dhis2AsyncRequest(config, httpClient, jsonMapper);
+    Dhis2AsyncRequest asyncRequest =
+        new Dhis2AsyncRequest(config, getHttpClient(), jsonMapper, getTaskExecutor());
 
     return asyncRequest.post(request, DataValueSetResponse.class);
   }
@@ -4293,13 +4742,108 @@ public class Dhis2 extends BaseDhis2 {
     URI url = withDataValueSetImportParams(builder, options);
 
     HttpPost request =
-        getPostRequest(url, new InputStreamEntity(input, ContentType.APPLICATION_JSON));
+        getPostRequest(url, compress(new InputStreamEntity(input, ContentType.APPLICATION_JSON)));
 
-    Dhis2AsyncRequest asyncRequest = new Dhis2AsyncRequest(config, httpClient, jsonMapper);
+    Dhis2AsyncRequest asyncRequest =
+        new Dhis2AsyncRequest(config, getHttpClient(), jsonMapper, getTaskExecutor());
 
     return asyncRequest.post(request, DataValueSetResponse.class);
   }
 
+  /**
+   * Saves a {@link DataValueSet} asynchronously. The payload is posted on the calling thread, while
+   * polling for the completion of the import job is done on a shared scheduler, which allows for
+   * tracking many import jobs without occupying a thread per job.
+   *
+   * @param dataValueSet the {@link DataValueSet} to save.
+   * @param options the {@link DataValueSetImportOptions}.
+   * @return a future of the {@link DataValueSetResponse}.
+   */
+  public CompletableFuture<DataValueSetResponse> saveDataValueSetAsync(
+      DataValueSet dataValueSet, DataValueSetImportOptions options) {
+    URIBuilder builder = config.getResolvedUriBuilder().appendPath(PATH_DATA_VALUE_SETS);
+
+    URI url = withDataValueSetImportParams(builder, options);
+
+    HttpPost request =
+        getPostRequest(url, compress(StreamingJsonEntity.of(jsonMapper, dataValueSet)));
+
+    Dhis2AsyncRequest asyncRequest =
+        new Dhis2AsyncRequest(config, getHttpClient(), jsonMapper, getTaskExecutor());
+
+    return asyncRequest.postAsync(request, DataValueSetResponse.class);
+  }
+
+  /**
+   * Saves a data value set payload in JSON format represented by the given input stream
+   * asynchronously. The payload is posted on the calling thread, while polling for the completion
+   * of the import job is done on a shared scheduler.
+   *
+   * @param input the input stream representing the data value set JSON payload.
+   * @param options the {@link DataValueSetImportOptions}.
+   * @return a future of the {@link DataValueSetResponse}.
+   */
+  public CompletableFuture<DataValueSetResponse> saveDataValueSetAsync(
+      InputStream input, DataValueSetImportOptions options) {
+    URIBuilder builder = config.getResolvedUriBuilder().appendPath(PATH_DATA_VALUE_SETS);
+
+    URI url = withDataValueSetImportParams(builder, options);
+
+    HttpPost request =
+        getPostRequest(url, compress(new InputStreamEntity(input, ContentType.APPLICATION_JSON)));
+
+    Dhis2AsyncRequest asyncRequest =
+        new Dhis2AsyncRequest(config, getHttpClient(), jsonMapper, getTaskExecutor());
+
+    return asyncRequest.postAsync(request, DataValueSetResponse.class);
+  }
+
+  /**
+   * Returns a non-repeatable {@link StreamingJsonEntity} which writes the properties of the given
+   * {@link DataValueSet} followed by the data values read from the given iterator.
+   *
+   * @param dataValueSet the {@link DataValueSet}.
+   * @param dataValues the iterator of {@link DataValue}.
+   * @return a {@link StreamingJsonEntity}.
+   */
+  private StreamingJsonEntity newDataValueSetEntity(
+      DataValueSet dataValueSet, Iterator<DataValue> dataValues) {
+    return new StreamingJsonEntity(
+        jsonMapper,
+        generator -> {
+          generator.writeStartObject();
+          writeStringProperty(generator, "dataSet", dataValueSet.getDataSet());
+          writeStringProperty(generator, "completeDate", dataValueSet.getCompleteDate());
+          writeStringProperty(generator, "period", dataValueSet.getPeriod());
+          writeStringProperty(generator, "orgUnit", dataValueSet.getOrgUnit());
+          writeStringProperty(
+              generator, "attributeOptionCombo", dataValueSet.getAttributeOptionCombo());
+          generator.writeName("dataValues");
+          generator.writeStartArray();
+
+          while (dataValues.hasNext()) {
+            generator.writePOJO(dataValues.next());
+          }
+
+          generator.writeEndArray();
+          generator.writeEndObject();
+        },
+        false);
+  }
+
+  /**
+   * Writes the given string property if the value is not null.
+   *
+   * @param generator the {@link JsonGenerator}.
+   * @param name the property name.
+   * @param value the property value.
+   */
+  private void writeStringProperty(JsonGenerator generator, String name, String value) {
+    if (value != null) {
+      generator.writeStringProperty(name, value);
+    }
+  }
+
   /**
    * Retrieves a {@link DataValueSet}.
    *
@@ -4327,14 +4871,147 @@ public class Dhis2 extends BaseDhis2 {
   // -------------------------------------------------------------------------
 
   /**
-   * Retrieves a {@link AnalyticsData}.
+   * Retrieves a {@link AnalyticsData}. The analytics data is served from the {@link
+   * org.hisp.dhis.cache.AnalyticsCache} if enabled.
    *
    * @param query the {@link AnalyticsQuery}.
    * @return {@link AnalyticsData}.
    */
   public AnalyticsData getAnalyticsData(AnalyticsQuery query) {
+    return analyticsCache.get(
+        query,
+        () ->
+            getAnalyticsResponse(
+                config.getResolvedUriBuilder().appendPath(PATH_ANALYTICS),
+                query,
+                AnalyticsData.class));
+  }
+
+  /**
+   * Retrieves an {@link AnalyticsData} for each of the given queries, typically slices of a larger
+   * query. The queries are executed concurrently through the {@link TaskExecutor} of the config,
+   * and the results are returned in the order of the queries.
+   *
+   * @param queries the list of {@link AnalyticsQuery}.
+   * @return a list of {@link AnalyticsData}.
+   */
+  public List<AnalyticsData> getAnalyticsData(List<AnalyticsQuery> queries) {
+    return getTaskExecutor().invokeAll(queries, this::getAnalyticsData);
+  }
+
+  /**
+   * Retrieves an {@link AnalyticsData} by splitting the given query along the given dimension into
+   * sub-queries where the dimension has at most the given number of items, executing the
+   * sub-queries concurrently through the {@link TaskExecutor} of the config, and merging the
+   * responses into a single {@link AnalyticsData}. This is suitable for large queries, which would
+   * otherwise exceed the limits or timeouts of the server.
+   *
+   * @param query the {@link AnalyticsQuery}.
+   * @param dimension the identifier of the dimension to split, e.g. {@code pe}.
+   * @param maxItems the max number of items of the dimension per sub-query.
+   * @return {@link AnalyticsData}.
+   * @throws IllegalArgumentException if the query cannot be split along the dimension.
+   */
+  public AnalyticsData getAnalyticsData(AnalyticsQuery query, String dimension, int maxItems) {
+    return getAnalyticsData(query, dimension, maxItems, getTaskExecutor().getMaxConcurrency());
+  }
+
+  /**
+   * Retrieves an {@link AnalyticsData} by splitting the given query along the given dimension into
+   * sub-queries where the dimension has at most the given number of items, executing the
+   * sub-queries concurrently through the {@link TaskExecutor} of the config with at most the given
+   * number of concurrent sub-queries, and merging the responses into a single {@link
+   * AnalyticsData}. See {@link AnalyticsQuerySplitter} for details.
+   *
+   * @param query the {@link AnalyticsQuery}.
+   * @param dimension the identifier of the dimension to split, e.g. {@code pe}.
+   * @param maxItems the max number of items of the dimension per sub-query.
+   * @param maxConcurrency the max number of concurrently running sub-queries.
+   * @return {@link AnalyticsData}.
+   * @throws IllegalArgumentException if the query cannot be split along the dimension.
+   */
+  public AnalyticsData getAnalyticsData(
+      AnalyticsQuery query, String dimension, int maxItems, int maxConcurrency) {
+    List<AnalyticsQuery> queries = AnalyticsQuerySplitter.split(query, dimension, maxItems);
+
+    if (queries.size() == 1) {
+      return getAnalyticsData(queries.get(0));
+    }
+
+    ConcurrencyLimiter limiter = new ConcurrencyLimiter(maxConcurrency);
+
+    List<AnalyticsData> data =
+        getTaskExecutor()
+            .invokeAll(queries, subQuery -> limiter.execute(() -> getAnalyticsData(subQuery)));
+
+    return AnalyticsData.merge(data);
+  }
+
+  /**
+   * Retrieves a {@link ColumnarAnalyticsData}, where the response is deserialized directly into
+   * primitive columns. This is suitable for large responses, as the memory footprint is a fraction
+   * of the footprint of {@link AnalyticsData}.
+   *
+   * @param query the {@link AnalyticsQuery}.
+   * @return {@link ColumnarAnalyticsData}.
+   */
+  public ColumnarAnalyticsData getColumnarAnalyticsData(AnalyticsQuery query) {
     return getAnalyticsResponse(
-        config.getResolvedUriBuilder().appendPath(PATH_ANALYTICS), query, AnalyticsData.class);
+        config.getResolvedUriBuilder().appendPath(PATH_ANALYTICS),
+        query,
+        ColumnarAnalyticsData.class);
+  }
+
+  /**
+   * Retrieves analytics data and passes each row to the given consumer as it is read from the
+   * response, without holding all rows in memory. The headers and metadata which precede the rows
+   * in the response are available through each {@link AnalyticsRow}. This is suitable for large
+   * responses, such as when the {@code ignoreLimit} parameter is set.
+   *
+   * @param query the {@link AnalyticsQuery}.
+   * @param consumer the {@link Consumer} of {@link AnalyticsRow}.
+   * @return an {@link AnalyticsData} with the headers, metadata and truncation flag of the
+   *     response, without rows.
+   */
+  public AnalyticsData streamAnalyticsData(AnalyticsQuery query, Consumer<AnalyticsRow> consumer) {
+    try (AnalyticsRowReader reader = openAnalyticsRowReader(query)) {
+      for (AnalyticsRow row = reader.readRow(); row != null; row = reader.readRow()) {
+        consumer.accept(row);
+      }
+
+      return reader.toAnalyticsData();
+    }
+  }
+
+  /**
+   * Retrieves analytics data as a {@link Stream} of rows, which are read from the response as the
+   * stream is consumed. The stream holds an open connection and must be closed, typically through a
+   * try-with-resources statement, unless consumed completely.
+   *
+   * @param query the {@link AnalyticsQuery}.
+   * @return a {@link Stream} of {@link AnalyticsRow}.
+   */
+  public Stream<AnalyticsRow> streamAnalyticsData(AnalyticsQuery query) {
+    return openAnalyticsRowReader(query).stream();
+  }
+
+  /**
+   * Opens an {@link AnalyticsRowReader} for the given query.
+   *
+   * @param query the {@link AnalyticsQuery}.
+   * @return an {@link AnalyticsRowReader}.
+   */
+  private AnalyticsRowReader openAnalyticsRowReader(AnalyticsQuery query) {
+    URI url =
+        withAnalyticsQueryParams(config.getResolvedUriBuilder().appendPath(PATH_ANALYTICS), query);
+    InputStream in = openInputStream(getJsonHttpGetRequest(url));
+
+    try {
+      return new AnalyticsRowReader(jsonMapper, jsonMapper.createParser(in));
+    } catch (RuntimeException ex) {
+      IOUtils.closeQuietly(in);
+      throw ex;
+    }
   }
 
   // -------------------------------------------------------------------------
@@ -4362,20 +5039,12 @@ public class Dhis2 extends BaseDhis2 {
    * @return the number of bytes copied.
    */
   public int writeAnalyticsDataValueSet(AnalyticsQuery query, File file) {
-    URI url =
-        withAnalyticsQueryParams(
-            config
-                .getResolvedUriBuilder()
-                .appendPath(PATH_ANALYTICS)
-                .appendPath("dataValueSet.json"),
-            query);
-
-    HttpGet request = getJsonHttpGetRequest(url);
+    HttpGet request = getJsonHttpGetRequest(getAnalyticsDataValueSetUri(query));
 
     try {
-      return httpClient.execute(
+      return execute(
           request,
-          response -> {
+          (response, metrics) -> {
             return writeToFile(response, file);
           });
     } catch (IOException ex) {
@@ -4383,6 +5052,44 @@ public class Dhis2 extends BaseDhis2 {
     }
   }
 
+  /**
+   * Retrieves a {@link DataValueSet} and writes it to the file at the given {@link Path} through a
+   * {@link java.nio.channels.FileChannel}.
+   *
+   * @param query the {@link AnalyticsQuery}.
+   * @param path the {@link Path} of the file.
+   * @return the number of bytes written.
+   * @throws Dhis2ClientException if the request or the write fails.
+   */
+  public long writeAnalyticsDataValueSet(AnalyticsQuery query, Path path) {
+    return writeToPath(getJsonHttpGetRequest(getAnalyticsDataValueSetUri(query)), path);
+  }
+
+  /**
+   * Retrieves a {@link DataValueSet} and writes it to the given {@link WritableByteChannel}. The
+   * channel is not closed.
+   *
+   * @param query the {@link AnalyticsQuery}.
+   * @param channel the {@link WritableByteChannel}.
+   * @return the number of bytes written.
+   * @throws Dhis2ClientException if the request or the write fails.
+   */
+  public long writeAnalyticsDataValueSet(AnalyticsQuery query, WritableByteChannel channel) {
+    return writeToChannel(getJsonHttpGetRequest(getAnalyticsDataValueSetUri(query)), channel);
+  }
+
+  /**
+   * Returns the URI of the analytics data value set for the given query.
+   *
+   * @param query the {@link AnalyticsQuery}.
+   * @return the {@link URI}.
+   */
+  private URI getAnalyticsDataValueSetUri(AnalyticsQuery query) {
+    return withAnalyticsQueryParams(
+        config.getResolvedUriBuilder().appendPath(PATH_ANALYTICS).appendPath("dataValueSet.json"),
+        query);
+  }
+
   // -------------------------------------------------------------------------
   // CompleteDataSetRegistration
   // -------------------------------------------------------------------------
@@ -4484,14 +5191,15 @@ public class Dhis2 extends BaseDhis2 {
    * @return {@link EventResponse} holding information about the operation.
    */
   public EventResponse saveEvents(Events events) {
-    return saveObject(
+    URIBuilder builder =
         config
             .getResolvedUriBuilder()
             .appendPath(PATH_TRACKER)
             .setParameter(ASYNC_PARAM, "false")
-            .setParameter("importStrategy", ImportStrategy.CREATE_AND_UPDATE.name()),
-        events,
-        EventResponse.class);
+            .setParameter("importStrategy", ImportStrategy.CREATE_AND_UPDATE.name());
+
+    return executeJsonPostPutRequest(
+        new HttpPost(HttpUtils.build(builder)), events, EventResponse.class, true);
   }
 
   /**
@@ -4508,13 +5216,38 @@ public class Dhis2 extends BaseDhis2 {
     HttpPost request =
         getPostRequest(
             HttpUtils.build(builder),
-            new InputStreamEntity(inputStream, ContentType.APPLICATION_JSON));
+            compress(new InputStreamEntity(inputStream, ContentType.APPLICATION_JSON)));
 
-    Dhis2AsyncRequest asyncRequest = new Dhis2AsyncRequest(config, httpClient, jsonMapper);
+    Dhis2AsyncRequest asyncRequest =
+        new Dhis2AsyncRequest(config, getHttpClient(), jsonMapper, getTaskExecutor());
 
     return asyncRequest.postEvent(request, EventResponse.class);
   }
 
+  /**
+   * Saves events represented by the given input stream asynchronously. The payload is posted on the
+   * calling thread, while polling for the completion of the import job is done on a shared
+   * scheduler.
+   *
+   * <p>Requires DHIS2 version 2.40 or later.
+   *
+   * @param inputStream the input stream representing the events JSON payload.
+   * @return a future of the {@link EventResponse}.
+   */
+  public CompletableFuture<EventResponse> saveEventsAsync(InputStream inputStream) {
+    URIBuilder builder = config.getResolvedUriBuilder().appendPath(PATH_TRACKER);
+
+    HttpPost request =
+        getPostRequest(
+            HttpUtils.build(builder),
+            compress(new InputStreamEntity(inputStream, ContentType.APPLICATION_JSON)));
+
+    Dhis2AsyncRequest asyncRequest =
+        new Dhis2AsyncRequest(config, getHttpClient(), jsonMapper, getTaskExecutor());
+
+    return asyncRequest.postEventAsync(request, EventResponse.class);
+  }
+
   /**
    * Retrieves an {@link Event}.
    *
@@ -4548,6 +5281,31 @@ public class Dhis2 extends BaseDhis2 {
         config.getResolvedUriBuilder().appendPath(PATH_TRACKER).appendPath(PATH_EVENTS), query);
   }
 
+  /**
+   * Returns a sequential {@link Stream} of events based on the given query. Pages are retrieved in
+   * parallel ahead of the consumer, up to the given number of pages, and events are emitted in page
+   * order. The page size of the query applies, and the page of the query is the first page to
+   * retrieve. The stream should be closed if it is not consumed to the end.
+   *
+   * <p>Requires DHIS2 version 2.36 or later.
+   *
+   * @param query the {@link EventQuery}.
+   * @param prefetchPages the maximum number of pages to retrieve ahead, must be greater than zero.
+   * @return a {@link Stream} of {@link Event}.
+   */
+  public Stream<Event> streamEvents(EventQuery query, int prefetchPages) {
+    return streamPages(
+        query.getPaging(),
+        prefetchPages,
+        paging -> {
+          URIBuilder uriBuilder =
+              config.getResolvedUriBuilder().appendPath(PATH_TRACKER).appendPath(PATH_EVENTS);
+          EventsResult result =
+              getObjectFromUrl(withEventQueryParams(uriBuilder, query, paging), EventsResult.class);
+          return new PagedResponse<>(result.getPager(), result.getEvents());
+        });
+  }
+
   /**
    * Removes an {@link Events}. The operation is synchronous.
    *
@@ -4613,7 +5371,11 @@ public class Dhis2 extends BaseDhis2 {
                 .addParameter(ASYNC_PARAM, "false"),
             params);
 
-    return saveObject(uriBuilder, trackedEntityObjects, TrackedEntityResponse.class);
+    return executeJsonPostPutRequest(
+        new HttpPost(HttpUtils.build(uriBuilder)),
+        trackedEntityObjects,
+        TrackedEntityResponse.class,
+        true);
   }
 
   /**
@@ -4658,6 +5420,39 @@ public class Dhis2 extends BaseDhis2 {
         query);
   }
 
+  /**
+   * Returns a sequential {@link Stream} of tracked entities based on the given query. Pages are
+   * retrieved in parallel ahead of the consumer, up to the given number of pages, and tracked
+   * entities are emitted in page order. The page size of the query applies, and the page of the
+   * query is the first page to retrieve. The stream should be closed if it is not consumed to the
+   * end.
+   *
+   * <p>Requires DHIS2 version 2.36 or later.
+   *
+   * @param query the {@link TrackedEntityQuery}.
+   * @param prefetchPages the maximum number of pages to retrieve ahead, must be greater than zero.
+   * @return a {@link Stream} of {@link TrackedEntity}.
+   */
+  public Stream<TrackedEntity> streamTrackedEntities(TrackedEntityQuery query, int prefetchPages) {
+    final String fields = getQueryFieldsOrDefault(query, TRACKED_ENTITY_FIELDS);
+    return streamPages(
+        query.getPaging(),
+        prefetchPages,
+        paging -> {
+          URIBuilder uriBuilder =
+              config
+                  .getResolvedUriBuilder()
+                  .appendPath(PATH_TRACKER)
+                  .appendPath(PATH_TRACKED_ENTITIES)
+                  .addParameter(FIELDS_PARAM, fields);
+          TrackedEntitiesResult result =
+              getObjectFromUrl(
+                  withTrackedEntityQueryParams(uriBuilder, query, paging),
+                  TrackedEntitiesResult.class);
+          return new PagedResponse<>(result.getPager(), result.getTrackedEntities());
+        });
+  }
+
   /**
    * Transfers the ownership org unit of a tracked entity for the given program.
    *
@@ -4728,6 +5523,32 @@ public class Dhis2 extends BaseDhis2 {
         query);
   }
 
+  /**
+   * Returns a sequential {@link Stream} of enrollments based on the given query. Pages are
+   * retrieved in parallel ahead of the consumer, up to the given number of pages, and enrollments
+   * are emitted in page order. The page size of the query applies, and the page of the query is the
+   * first page to retrieve. The stream should be closed if it is not consumed to the end.
+   *
+   * <p>Requires DHIS2 version 2.36 or later.
+   *
+   * @param query the {@link EnrollmentQuery}.
+   * @param prefetchPages the maximum number of pages to retrieve ahead, must be greater than zero.
+   * @return a {@link Stream} of {@link Enrollment}.
+   */
+  public Stream<Enrollment> streamEnrollments(EnrollmentQuery query, int prefetchPages) {
+    return streamPages(
+        query.getPaging(),
+        prefetchPages,
+        paging -> {
+          URIBuilder uriBuilder =
+              config.getResolvedUriBuilder().appendPath(PATH_TRACKER).appendPath(PATH_ENROLLMENTS);
+          EnrollmentsResult result =
+              getObjectFromUrl(
+                  withEnrollmentQueryParams(uriBuilder, query, paging), EnrollmentsResult.class);
+          return new PagedResponse<>(result.getPager(), result.getEnrollments());
+        });
+  }
+
   // -------------------------------------------------------------------------
   // Relationship
   // -------------------------------------------------------------------------
@@ -4749,6 +5570,55 @@ public class Dhis2 extends BaseDhis2 {
     return getObjectFromUrl(url, RelationshipsResult.class);
   }
 
+  /**
+   * Returns a sequential {@link Stream} of relationships based on the given query. Pages are
+   * retrieved in parallel ahead of the consumer, up to the given number of pages, and relationships
+   * are emitted in page order. The page size of the query applies, and the page of the query is the
+   * first page to retrieve. The stream should be closed if it is not consumed to the end.
+   *
+   * <p>Requires DHIS2 version 2.36 or later.
+   *
+   * @param query the {@link RelationshipQuery}.
+   * @param prefetchPages the maximum number of pages to retrieve ahead, must be greater than zero.
+   * @return a {@link Stream} of {@link Relationship}.
+   */
+  public Stream<Relationship> streamRelationships(RelationshipQuery query, int prefetchPages) {
+    return streamPages(
+        query.getPaging(),
+        prefetchPages,
+        paging -> {
+          URIBuilder uriBuilder =
+              config.getResolvedUriBuilder().appendPath(PATH_TRACKER).appendPath("relationships");
+          RelationshipsResult result =
+              getObjectFromUrl(
+                  withRelationshipQueryParams(uriBuilder, query, paging),
+                  RelationshipsResult.class);
+          return new PagedResponse<>(result.getPager(), result.getRelationships());
+        });
+  }
+
+  /**
+   * Returns a sequential {@link Stream} of objects retrieved page by page with the given page
+   * fetcher, where the given number of pages are retrieved in parallel ahead of the consumer.
+   *
+   * @param <T> the type.
+   * @param paging the {@link Paging} of the query, may be null.
+   * @param prefetchPages the maximum number of pages to retrieve ahead.
+   * @param pageFetcher the function which retrieves the page for the given {@link Paging}.
+   * @return a {@link Stream}.
+   */
+  private <T> Stream<T> streamPages(
+      Paging paging, int prefetchPages, Function<Paging, PagedResponse<T>> pageFetcher) {
+    Paging queryPaging = paging != null ? paging : Paging.empty();
+    int pageSize = queryPaging.getPageSizeOrDefault();
+    return PrefetchingPagingSpliterator.stream(
+        getTaskExecutor(),
+        page -> pageFetcher.apply(new Paging(page, pageSize)),
+        queryPaging.getPageOrDefault(),
+        pageSize,
+        prefetchPages);
+  }
+
   // -------------------------------------------------------------------------
   // Job notification
   // -------------------------------------------------------------------------
@@ -29,16 +29,25 @@ package org.hisp.dhis;
 
 import java.io.IOException;
 import java.net.URI;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.apache.hc.client5.http.classic.methods.HttpGet;
 import org.apache.hc.client5.http.classic.methods.HttpPost;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
-import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.hisp.dhis.executor.TaskExecutor;
+import org.hisp.dhis.metrics.JobMetrics;
 import org.hisp.dhis.response.BaseHttpResponse;
 import org.hisp.dhis.response.Dhis2ClientException;
 import org.hisp.dhis.response.job.JobCategory;
@@ -46,30 +55,68 @@ import org.hisp.dhis.response.job.JobInfo;
 import org.hisp.dhis.response.job.JobInfoResponse;
 import org.hisp.dhis.response.job.JobNotification;
 import org.hisp.dhis.util.HttpUtils;
+import org.hisp.dhis.util.MetricsUtils;
 import tools.jackson.databind.ObjectMapper;
 
 @Slf4j
 public class Dhis2AsyncRequest {
-  private static final int TIMEOUT_S = 3600;
-
-  private static final int DELAY_S = 2;
-
-  private static final int ATTEMPTS_MAX = TIMEOUT_S / DELAY_S;
-
   private final Dhis2Config config;
 
   private final CloseableHttpClient httpClient;
 
   private final ObjectMapper objectMapper;
 
+  /** Executor of HTTP requests for asynchronous polling of task status and summary. */
+  private final TaskExecutor taskExecutor;
+
+  /**
+   * Constructor. Uses the {@link TaskExecutor} of the given config if set, otherwise a new executor
+   * of daemon platform threads bounded by the max concurrency of the config.
+   *
+   * @param config the {@link Dhis2Config}.
+   * @param httpClient the {@link CloseableHttpClient}.
+   * @param objectMapper the {@link ObjectMapper}.
+   */
   public Dhis2AsyncRequest(
       Dhis2Config config, CloseableHttpClient httpClient, ObjectMapper objectMapper) {
+    this(config, httpClient, objectMapper, getDefaultTaskExecutor(config));
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param config the {@link Dhis2Config}.
+   * @param httpClient the {@link CloseableHttpClient}.
+   * @param objectMapper the {@link ObjectMapper}.
+   * @param taskExecutor the {@link TaskExecutor} for polling of task status and summary.
+   */
+  public Dhis2AsyncRequest(
+      Dhis2Config config,
+      CloseableHttpClient httpClient,
+      ObjectMapper objectMapper,
+      TaskExecutor taskExecutor) {
     Objects.requireNonNull(config);
     Objects.requireNonNull(httpClient);
     Objects.requireNonNull(objectMapper);
+    Objects.requireNonNull(taskExecutor);
     this.config = config;
     this.httpClient = httpClient;
     this.objectMapper = objectMapper;
+    this.taskExecutor = taskExecutor;
+  }
+
+  /**
+   * Returns the {@link TaskExecutor} of the given config if set, otherwise a new {@link
+   * TaskExecutor} of platform threads.
+   *
+   * @param config the {@link Dhis2Config}.
+   * @return a {@link TaskExecutor}.
+   */
+  private static TaskExecutor getDefaultTaskExecutor(Dhis2Config config) {
+    Objects.requireNonNull(config);
+    return config.hasTaskExecutor()
+        ? config.getTaskExecutor()
+        : TaskExecutor.platformThreads(config.getMaxConcurrency());
   }
 
   /**
@@ -91,6 +138,28 @@ public class Dhis2AsyncRequest {
     return getJobSummary(klass, message, jobInfo);
   }
 
+  /**
+   * Executes the given HTTP POST request. The request must be a DHIS 2 async request. The request
+   * is executed on the calling thread, while polling for the task status is scheduled on a shared
+   * scheduler without occupying a thread per task, and the requests for task status and summary are
+   * executed on the {@link TaskExecutor}. The returned future completes with the task summary when
+   * the task is complete.
+   *
+   * @param request the {@link HttpPost}.
+   * @param klass the class type.
+   * @param <T> the class type.
+   * @return a future of the response message.
+   * @throws Dhis2ClientException if the POST operation failed.
+   */
+  public <T extends BaseHttpResponse> CompletableFuture<T> postAsync(
+      HttpPost request, Class<T> klass) {
+    JobInfoResponse message = postAsyncRequest(request);
+
+    JobInfo jobInfo = message.getResponse();
+
+    return getJobSummaryAsync(klass, message, jobInfo);
+  }
+
   /**
    * Executes the given HTTP POST request. The request must be a DHIS 2 async request. The method
    * will use the DHIS 2 tasks and task summary API endpoints to poll for the task status, and
@@ -113,6 +182,29 @@ public class Dhis2AsyncRequest {
     return getJobSummary(klass, message, jobInfo);
   }
 
+  /**
+   * Executes the given HTTP POST tracker request. The request is executed on the calling thread,
+   * while polling for the task status is scheduled on a shared scheduler, and the requests for task
+   * status and summary are executed on the {@link TaskExecutor}. The returned future completes with
+   * the task summary when the task is complete.
+   *
+   * @param request the {@link HttpPost}.
+   * @param klass the class type.
+   * @param <T> the class type.
+   * @return a future of the response message.
+   * @throws Dhis2ClientException if the POST operation failed.
+   */
+  public <T extends BaseHttpResponse> CompletableFuture<T> postEventAsync(
+      HttpPost request, Class<T> klass) {
+    JobInfoResponse message = postAsyncRequest(request);
+
+    JobInfo jobInfo = message.getResponse();
+
+    jobInfo.setJobType(JobCategory.TRACKER_IMPORT_JOB);
+
+    return getJobSummaryAsync(klass, message, jobInfo);
+  }
+
   private <T extends BaseHttpResponse> T getJobSummary(
       Class<T> klass, JobInfoResponse message, JobInfo jobInfo) {
     log.info(
@@ -132,6 +224,37 @@ public class Dhis2AsyncRequest {
     return summary;
   }
 
+  private <T extends BaseHttpResponse> CompletableFuture<T> getJobSummaryAsync(
+      Class<T> klass, JobInfoResponse message, JobInfo jobInfo) {
+    log.info(
+        "Push response: '{}', '{}', job: '{}'",
+        message.getHttpStatus(),
+        message.getMessage(),
+        jobInfo);
+
+    CompletableFuture<JobNotification> completion = new CompletableFuture<>();
+    long start = System.nanoTime();
+    AtomicInteger polls = new AtomicInteger();
+
+    completion.whenComplete(
+        (notification, ex) -> onJobCompleted(jobInfo, start, polls.get(), ex == null));
+
+    scheduleCompletionCheck(jobInfo, completion, polls, getDeadline(), Duration.ZERO);
+
+    return completion.thenCompose(
+        notification ->
+            taskExecutor.submit(
+                () -> {
+                  log.info("Job completed: '{}'", notification);
+
+                  T summary = getSummary(jobInfo, klass);
+
+                  log.debug("Summary: '{}'", summary);
+
+                  return summary;
+                }));
+  }
+
   // -------------------------------------------------------------------------
   // Supportive methods
   // -------------------------------------------------------------------------
@@ -144,12 +267,15 @@ public class Dhis2AsyncRequest {
    */
   private JobInfoResponse postAsyncRequest(HttpPost request) {
     try {
-      return httpClient.execute(
+      return MetricsUtils.execute(
+          httpClient,
           request,
-          response -> {
-            String body = EntityUtils.toString(response.getEntity());
-
-            JobInfoResponse message = objectMapper.readValue(body, JobInfoResponse.class);
+          config.getMetricsListener(),
+          (response, metrics) -> {
+            long start = System.nanoTime();
+            JobInfoResponse message =
+                objectMapper.readValue(response.getEntity().getContent(), JobInfoResponse.class);
+            metrics.addDeserializationNanos(System.nanoTime() - start);
 
             if (!message.getHttpStatus().is2xxSuccessful()) {
               String errorMessage =
@@ -169,37 +295,193 @@ public class Dhis2AsyncRequest {
 
   /**
    * Waits for the task to complete. Returns the first job notification which indicates that the
-   * task is complete.
+   * task is complete. The task status is polled with exponential backoff and jitter according to
+   * the {@link JobPollingConfig}.
    *
    * @param jobInfo the {@link JobInfo} identifying the task.
    * @return a {@link JobNotification}.
+   * @throws Dhis2ClientException if the task did not complete within the timeout.
    */
   private JobNotification waitForCompletion(JobInfo jobInfo) {
-    URI statusUrl =
-        HttpUtils.build(
-            config
-                .getResolvedUriBuilder()
-                .appendPath("system")
-                .appendPath("tasks")
-                .appendPath(jobInfo.getJobType().name())
-                .appendPath(jobInfo.getId()));
-
-    JobNotification notification = null;
+    URI statusUrl = getStatusUrl(jobInfo);
+    long start = System.nanoTime();
+    long deadline = getDeadline();
+    int attempt = 0;
     boolean completed = false;
-    int attempts = 0;
 
-    while (!completed && attempts++ < ATTEMPTS_MAX) {
-      notification = getLastNotification(statusUrl);
-      completed = notification.isCompleted();
+    try {
+      while (true) {
+        attempt++;
+        JobNotification notification = getLastNotification(statusUrl);
+        completed = notification.isCompleted();
 
-      log.info("Complete check URL: '{}', complete: {}", statusUrl, completed);
+        log.info("Complete check URL: '{}', complete: {}", statusUrl, completed);
 
-      if (!completed) {
-        sleepForSeconds(2);
+        if (completed) {
+          return notification;
+        }
+
+        Duration delay = getDelay(attempt - 1);
+
+        if (System.nanoTime() + delay.toNanos() > deadline) {
+          throw newTimeoutException(jobInfo);
+        }
+
+        sleep(delay);
       }
+    } finally {
+      onJobCompleted(jobInfo, start, attempt, completed);
     }
+  }
 
-    return notification;
+  /**
+   * Schedules a check of whether the task is complete on the shared scheduler, where the check is
+   * executed on the {@link TaskExecutor}, so that the scheduler threads never block on HTTP
+   * requests.
+   *
+   * @param jobInfo the {@link JobInfo} identifying the task.
+   * @param completion the future to complete.
+   * @param polls the number of polls so far, which is the attempt number starting on 0.
+   * @param deadline the deadline in {@link System#nanoTime()} units.
+   * @param delay the delay before the check.
+   */
+  private void scheduleCompletionCheck(
+      JobInfo jobInfo,
+      CompletableFuture<JobNotification> completion,
+      AtomicInteger polls,
+      long deadline,
+      Duration delay) {
+    SchedulerHolder.SCHEDULER.schedule(
+        () -> {
+          try {
+            taskExecutor.submit(
+                () -> {
+                  checkCompletion(jobInfo, completion, polls, deadline);
+                  return null;
+                });
+          } catch (RuntimeException ex) {
+            completion.completeExceptionally(ex);
+          }
+        },
+        delay.toMillis(),
+        TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Checks whether the task is complete. The given future is completed with the job notification
+   * when the task is complete, otherwise the next check is scheduled with a backoff delay.
+   *
+   * @param jobInfo the {@link JobInfo} identifying the task.
+   * @param completion the future to complete.
+   * @param polls the number of polls so far, which is the attempt number starting on 0.
+   * @param deadline the deadline in {@link System#nanoTime()} units.
+   */
+  private void checkCompletion(
+      JobInfo jobInfo,
+      CompletableFuture<JobNotification> completion,
+      AtomicInteger polls,
+      long deadline) {
+    if (completion.isDone()) {
+      return;
+    }
+
+    try {
+      URI statusUrl = getStatusUrl(jobInfo);
+      int attempt = polls.getAndIncrement();
+      JobNotification notification = getLastNotification(statusUrl);
+
+      log.info("Complete check URL: '{}', complete: {}", statusUrl, notification.isCompleted());
+
+      if (notification.isCompleted()) {
+        completion.complete(notification);
+        return;
+      }
+
+      Duration nextDelay = getDelay(attempt);
+
+      if (System.nanoTime() + nextDelay.toNanos() > deadline) {
+        completion.completeExceptionally(newTimeoutException(jobInfo));
+        return;
+      }
+
+      scheduleCompletionCheck(jobInfo, completion, polls, deadline, nextDelay);
+    } catch (RuntimeException ex) {
+      completion.completeExceptionally(ex);
+    }
+  }
+
+  /**
+   * Passes metrics of polling for completion of the given task to the metrics listener.
+   *
+   * @param jobInfo the {@link JobInfo} identifying the task.
+   * @param start the start of polling in {@link System#nanoTime()} units.
+   * @param polls the number of polls.
+   * @param completed whether the task completed.
+   */
+  private void onJobCompleted(JobInfo jobInfo, long start, int polls, boolean completed) {
+    String jobType = jobInfo.getJobType() != null ? jobInfo.getJobType().name() : "UNKNOWN";
+    MetricsUtils.onJobCompleted(
+        config.getMetricsListener(),
+        new JobMetrics(jobType, System.nanoTime() - start, polls, completed));
+  }
+
+  /**
+   * Returns the delay before the next poll for the given attempt, based on exponential backoff with
+   * jitter according to the {@link JobPollingConfig}.
+   *
+   * @param attempt the attempt number, starting on 0.
+   * @return the delay.
+   */
+  Duration getDelay(int attempt) {
+    JobPollingConfig polling = config.getJobPollingConfig();
+    double initialMillis = polling.getInitialDelay().toMillis();
+    double maxMillis = polling.getMaxDelay().toMillis();
+    double baseMillis =
+        Math.min(initialMillis * Math.pow(polling.getMultiplier(), attempt), maxMillis);
+    double jitterFactor =
+        1 + polling.getJitter() * (2 * ThreadLocalRandom.current().nextDouble() - 1);
+
+    return Duration.ofMillis(Math.max(0L, Math.round(baseMillis * jitterFactor)));
+  }
+
+  /**
+   * Returns the deadline for the task to complete in {@link System#nanoTime()} units.
+   *
+   * @return the deadline.
+   */
+  private long getDeadline() {
+    return System.nanoTime() + config.getJobPollingConfig().getTimeout().toNanos();
+  }
+
+  /**
+   * Returns an exception indicating that the given task did not complete within the timeout.
+   *
+   * @param jobInfo the {@link JobInfo} identifying the task.
+   * @return a {@link Dhis2ClientException}.
+   */
+  private Dhis2ClientException newTimeoutException(JobInfo jobInfo) {
+    String message =
+        String.format(
+            "Job did not complete within timeout of %s: '%s'",
+            config.getJobPollingConfig().getTimeout(), jobInfo.getId());
+
+    return new Dhis2ClientException(message, new TimeoutException(message));
+  }
+
+  /**
+   * Returns the task status URL.
+   *
+   * @param jobInfo the {@link JobInfo} identifying the task.
+   * @return the task status URL.
+   */
+  private URI getStatusUrl(JobInfo jobInfo) {
+    return HttpUtils.build(
+        config
+            .getResolvedUriBuilder()
+            .appendPath("system")
+            .appendPath("tasks")
+            .appendPath(jobInfo.getJobType().name())
+            .appendPath(jobInfo.getId()));
   }
 
   /**
@@ -221,9 +503,7 @@ public class Dhis2AsyncRequest {
 
     log.info("Task summary URL: '{}'", summaryUrl);
 
-    String summary = getForBody(summaryUrl);
-
-    return objectMapper.readValue(summary, klass);
+    return getForObject(summaryUrl, klass);
   }
 
   /**
@@ -233,9 +513,7 @@ public class Dhis2AsyncRequest {
    * @return a {@link JobNotification}.
    */
   private JobNotification getLastNotification(URI url) {
-    String response = getForBody(url);
-
-    JobNotification[] notificationArray = objectMapper.readValue(response, JobNotification[].class);
+    JobNotification[] notificationArray = getForObject(url, JobNotification[].class);
 
     List<JobNotification> notifications = new ArrayList<>(Arrays.asList(notificationArray));
 
@@ -243,19 +521,27 @@ public class Dhis2AsyncRequest {
   }
 
   /**
-   * Retrieves the response entity from a GET request to the given URL as a string.
+   * Retrieves the response entity from a GET request to the given URL, deserialized from the
+   * response body stream to an object of the given type.
    *
+   * @param <T> the type.
    * @param url the URL.
-   * @return the response entity string.
+   * @param type the class type of the object.
+   * @return the object.
    */
-  private String getForBody(URI url) {
+  private <T> T getForObject(URI url, Class<T> type) {
     HttpGet request = HttpUtils.withAuth(new HttpGet(url), config);
 
     try {
-      return httpClient.execute(
+      return MetricsUtils.execute(
+          httpClient,
           request,
-          response -> {
-            return EntityUtils.toString(response.getEntity());
+          config.getMetricsListener(),
+          (response, metrics) -> {
+            long start = System.nanoTime();
+            T object = objectMapper.readValue(response.getEntity().getContent(), type);
+            metrics.addDeserializationNanos(System.nanoTime() - start);
+            return object;
           });
     } catch (IOException ex) {
       throw new Dhis2ClientException("HTTP request failed", ex);
@@ -263,15 +549,26 @@ public class Dhis2AsyncRequest {
   }
 
   /**
-   * Makes the current thread sleep for the given timeout in seconds.
+   * Makes the current thread sleep for the given duration.
    *
-   * @param timeout the timeout in seconds.
+   * @param duration the duration.
    */
-  private void sleepForSeconds(long timeout) {
+  private void sleep(Duration duration) {
     try {
-      TimeUnit.SECONDS.sleep(timeout);
+      TimeUnit.MILLISECONDS.sleep(duration.toMillis());
     } catch (InterruptedException ex) {
       throw new Dhis2ClientException("Thread interrupted", ex);
     }
   }
+
+  /**
+   * Holder of the shared scheduler for polling of task status, created on first use. The scheduler
+   * only schedules checks, which are executed on the {@link TaskExecutor} of the client.
+   */
+  private static final class SchedulerHolder {
+    private static final ScheduledExecutorService SCHEDULER =
+        Executors.newScheduledThreadPool(
+            2,
+            BasicThreadFactory.builder().namingPattern("dhis2-job-poller-%d").daemon(true).build());
+  }
 }
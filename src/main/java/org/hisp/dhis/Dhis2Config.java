@@ -31,13 +31,24 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.Objects;
 import lombok.Getter;
+import lombok.NonNull;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.core5.net.URIBuilder;
 import org.hisp.dhis.auth.AccessTokenAuthentication;
 import org.hisp.dhis.auth.Authentication;
 import org.hisp.dhis.auth.BasicAuthentication;
 import org.hisp.dhis.auth.CookieAuthentication;
+import org.hisp.dhis.cache.AnalyticsCacheConfig;
+import org.hisp.dhis.cache.MetadataCacheConfig;
+import org.hisp.dhis.cache.ResponseCacheConfig;
+import org.hisp.dhis.executor.TaskExecutor;
+import org.hisp.dhis.metrics.MetricsListener;
 import org.hisp.dhis.response.Dhis2ClientException;
+import org.hisp.dhis.util.HttpClientUtils;
 import org.hisp.dhis.util.TextUtils;
+import org.hisp.dhis.util.UidDictionary;
 
 /**
  * Configuration information about a DHIS 2 instance.
@@ -45,11 +56,73 @@ import org.hisp.dhis.util.TextUtils;
  * @author Lars Helge Overland
  */
 @Getter
+@Accessors(chain = true)
 public class Dhis2Config {
   private final String url;
 
   private final Authentication authentication;
 
+  /** Configuration of the HTTP connection pool and timeouts. */
+  @Setter private HttpClientConfig httpClientConfig = HttpClientConfig.instance();
+
+  /**
+   * Externally managed HTTP client, which can be shared between multiple clients. Takes precedence
+   * over the HTTP client config. The client is not closed by the DHIS2 client, and should be
+   * created with redirect handling disabled, e.g. through {@link
+   * HttpClientUtils#createHttpClient(HttpClientConfig)}.
+   */
+  @Setter private CloseableHttpClient httpClient;
+
+  /** Configuration of polling for the completion of asynchronous jobs. */
+  @Setter private JobPollingConfig jobPollingConfig = JobPollingConfig.instance();
+
+  /** Configuration of the cache of metadata objects, disabled by default. */
+  @Setter private MetadataCacheConfig metadataCacheConfig = MetadataCacheConfig.instance();
+
+  /** Configuration of the conditional GET response cache, disabled by default. */
+  @Setter private ResponseCacheConfig responseCacheConfig = ResponseCacheConfig.instance();
+
+  /** Configuration of the cache of analytics data, disabled by default. */
+  @Setter private AnalyticsCacheConfig analyticsCacheConfig = AnalyticsCacheConfig.instance();
+
+  /**
+   * Dictionary for interning identifiers of data values and events during deserialization of
+   * responses, which can be shared between clients. {@code null} means disabled.
+   */
+  @Setter private UidDictionary uidDictionary;
+
+  /**
+   * Max number of decimals of coordinates of geometries in responses, where coordinates are reduced
+   * while read. {@code null} means full precision.
+   */
+  @Setter private Integer geometryMaxDecimals;
+
+  /**
+   * Distance tolerance for simplification of geometries in responses, where 0 means no
+   * simplification. Useful when only centroids or bounding boxes are needed.
+   */
+  @Setter private double geometrySimplifyTolerance = 0d;
+
+  /**
+   * Listener of metrics of HTTP requests and asynchronous jobs, e.g. {@link
+   * org.hisp.dhis.metrics.MicrometerMetricsListener}. Ignores all metrics by default.
+   */
+  @Setter @NonNull private MetricsListener metricsListener = MetricsListener.NOOP;
+
+  /**
+   * Maximum number of concurrent requests of bulk operations when using the default task executor,
+   * which runs tasks on a bounded pool of platform threads.
+   */
+  @Setter private int maxConcurrency = 8;
+
+  /**
+   * Externally managed task executor for bulk operations, which takes precedence over the max
+   * concurrency setting. Can be created with {@link TaskExecutor#virtualThreads(int)} to run each
+   * request on a virtual thread on Java 21 or later. The executor is not closed by the DHIS2
+   * client.
+   */
+  @Setter private TaskExecutor taskExecutor;
+
   /**
    * Constructor. Uses basic authentication.
    *
@@ -81,6 +154,24 @@ public class Dhis2Config {
     this.authentication = authentication;
   }
 
+  /**
+   * Indicates whether an externally managed HTTP client is specified.
+   *
+   * @return true if an externally managed HTTP client is specified.
+   */
+  public boolean hasHttpClient() {
+    return httpClient != null;
+  }
+
+  /**
+   * Indicates whether an externally managed task executor is specified.
+   *
+   * @return true if an externally managed task executor is specified.
+   */
+  public boolean hasTaskExecutor() {
+    return taskExecutor != null;
+  }
+
   /**
    * Normalizes the given URL.
    *
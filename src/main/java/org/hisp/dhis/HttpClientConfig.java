@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.experimental.Accessors;
+
+/**
+ * Configuration of the HTTP transport, i.e. the connection pool, timeouts, keep-alive and TLS
+ * session handling of the underlying HTTP client. Timeouts and durations set to {@code null} fall
+ * back to the HTTP client defaults.
+ */
+@Getter
+@Setter
+@ToString
+@Accessors(chain = true)
+public class HttpClientConfig {
+  /** Maximum number of connections in the pool in total. */
+  private int maxConnections = 100;
+
+  /** Maximum number of connections in the pool per route, i.e. per DHIS2 instance. */
+  private int maxConnectionsPerRoute = 20;
+
+  /** Timeout for establishing a connection. */
+  private Duration connectTimeout = Duration.ofSeconds(30);
+
+  /** Timeout for waiting for data on an established connection. */
+  private Duration socketTimeout = Duration.ofMinutes(10);
+
+  /** Timeout for waiting for a response after the request is sent, overrides socket timeout. */
+  private Duration responseTimeout;
+
+  /** Timeout for leasing a connection from the pool. */
+  private Duration connectionRequestTimeout = Duration.ofMinutes(3);
+
+  /** Keep-alive duration for connections where the server does not specify a keep-alive. */
+  private Duration keepAlive = Duration.ofMinutes(3);
+
+  /** Maximum time to live for pooled connections, {@code null} means no limit. */
+  private Duration timeToLive;
+
+  /** Period of inactivity after which pooled connections are validated before reuse. */
+  private Duration validateAfterInactivity = Duration.ofSeconds(2);
+
+  /** Idle time after which pooled connections are evicted, {@code null} disables eviction. */
+  private Duration idleEvictionTime = Duration.ofMinutes(1);
+
+  /** Size of the TLS client session cache, {@code null} means the JDK default. */
+  private Integer tlsSessionCacheSize;
+
+  /** Timeout of cached TLS client sessions, {@code null} means the JDK default. */
+  private Duration tlsSessionTimeout;
+
+  /**
+   * Number of I/O dispatch threads of the asynchronous HTTP client, {@code null} means the number
+   * of available processors.
+   */
+  private Integer ioThreadCount;
+
+  /**
+   * Max size in bytes of a response body received by the asynchronous HTTP client, which holds
+   * response bodies in memory until fully received.
+   */
+  private long asyncMaxResponseSize = 512L * 1024 * 1024;
+
+  /**
+   * Whether to request compressed responses through the {@code Accept-Encoding} header and
+   * transparently decompress gzip and deflate encoded responses.
+   */
+  private boolean responseCompression = true;
+
+  /**
+   * Compression of request bodies of imports of data value sets, events, tracked entities and
+   * metadata. Requires that the server accepts compressed request bodies.
+   */
+  private RequestCompression requestCompression = RequestCompression.NONE;
+
+  /**
+   * Creates a {@link HttpClientConfig} with default values.
+   *
+   * @return a {@link HttpClientConfig}.
+   */
+  public static HttpClientConfig instance() {
+    return new HttpClientConfig();
+  }
+}
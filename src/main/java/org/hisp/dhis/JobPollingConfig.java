@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.experimental.Accessors;
+
+/**
+ * Configuration of polling for the completion of asynchronous DHIS2 jobs, such as data value set
+ * and tracker imports. The delay between polls grows exponentially from the initial delay up to the
+ * max delay, with random jitter applied to spread out polls of concurrent jobs.
+ */
+@Getter
+@Setter
+@ToString
+@Accessors(chain = true)
+public class JobPollingConfig {
+  /** Delay before the second poll, the first poll is made immediately. */
+  private Duration initialDelay = Duration.ofMillis(250);
+
+  /** Maximum delay between polls. */
+  private Duration maxDelay = Duration.ofSeconds(5);
+
+  /** Factor by which the delay grows for each poll. */
+  private double multiplier = 2.0;
+
+  /** Jitter as a fraction of the delay, where 0.2 means that delays vary by up to 20%. */
+  private double jitter = 0.2;
+
+  /** Maximum time to wait for a job to complete. */
+  private Duration timeout = Duration.ofHours(1);
+
+  /**
+   * Creates a {@link JobPollingConfig} with default values.
+   *
+   * @return a {@link JobPollingConfig}.
+   */
+  public static JobPollingConfig instance() {
+    return new JobPollingConfig();
+  }
+}
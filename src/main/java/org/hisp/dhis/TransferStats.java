@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis;
+
+import java.util.concurrent.atomic.LongAdder;
+import org.hisp.dhis.util.TextUtils;
+
+/**
+ * Counters of bytes transferred by a client, where content bytes refer to the uncompressed body and
+ * transfer bytes refer to the body as sent or received over the network, possibly compressed. The
+ * ratio of transfer bytes to content bytes indicates the savings from compression.
+ *
+ * <p>Request bytes are counted for request bodies of imports of data value sets, events, tracked
+ * entities and metadata. Response bytes are counted for all responses when the HTTP client is
+ * created by the DHIS2 client, and not when an externally managed HTTP client is used.
+ */
+public class TransferStats {
+  private final LongAdder requestContentBytes = new LongAdder();
+
+  private final LongAdder requestTransferBytes = new LongAdder();
+
+  private final LongAdder responseContentBytes = new LongAdder();
+
+  private final LongAdder responseTransferBytes = new LongAdder();
+
+  /**
+   * Records bytes of a request body.
+   *
+   * @param contentBytes the number of uncompressed bytes.
+   * @param transferBytes the number of bytes sent.
+   */
+  public void addRequestBytes(long contentBytes, long transferBytes) {
+    requestContentBytes.add(contentBytes);
+    requestTransferBytes.add(transferBytes);
+  }
+
+  /**
+   * Records bytes of a decompressed response body.
+   *
+   * @param bytes the number of bytes.
+   */
+  public void addResponseContentBytes(long bytes) {
+    responseContentBytes.add(bytes);
+  }
+
+  /**
+   * Records bytes of a response body as received.
+   *
+   * @param bytes the number of bytes.
+   */
+  public void addResponseTransferBytes(long bytes) {
+    responseTransferBytes.add(bytes);
+  }
+
+  /**
+   * Returns the number of uncompressed bytes of request bodies.
+   *
+   * @return the number of bytes.
+   */
+  public long getRequestContentBytes() {
+    return requestContentBytes.sum();
+  }
+
+  /**
+   * Returns the number of bytes of request bodies as sent.
+   *
+   * @return the number of bytes.
+   */
+  public long getRequestTransferBytes() {
+    return requestTransferBytes.sum();
+  }
+
+  /**
+   * Returns the number of decompressed bytes of response bodies.
+   *
+   * @return the number of bytes.
+   */
+  public long getResponseContentBytes() {
+    return responseContentBytes.sum();
+  }
+
+  /**
+   * Returns the number of bytes of response bodies as received.
+   *
+   * @return the number of bytes.
+   */
+  public long getResponseTransferBytes() {
+    return responseTransferBytes.sum();
+  }
+
+  /**
+   * Returns a snapshot of the current counters. The difference between snapshots taken before and
+   * after a call gives the bytes transferred by the call, provided no other calls run concurrently.
+   *
+   * @return a {@link TransferStats}.
+   */
+  public TransferStats snapshot() {
+    TransferStats stats = new TransferStats();
+    stats.requestContentBytes.add(getRequestContentBytes());
+    stats.requestTransferBytes.add(getRequestTransferBytes());
+    stats.responseContentBytes.add(getResponseContentBytes());
+    stats.responseTransferBytes.add(getResponseTransferBytes());
+    return stats;
+  }
+
+  /** Resets all counters to zero. */
+  public void reset() {
+    requestContentBytes.reset();
+    requestTransferBytes.reset();
+    responseContentBytes.reset();
+    responseTransferBytes.reset();
+  }
+
+  @Override
+  public String toString() {
+    return TextUtils.newToStringBuilder(this)
+        .append("requestContentBytes", getRequestContentBytes())
+        .append("requestTransferBytes", getRequestTransferBytes())
+        .append("responseContentBytes", getResponseContentBytes())
+        .append("responseTransferBytes", getResponseTransferBytes())
+        .toString();
+  }
+}
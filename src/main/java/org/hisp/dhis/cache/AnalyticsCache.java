@@ -0,0 +1,281 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.BooleanUtils;
+import org.hisp.dhis.model.analytics.AnalyticsData;
+import org.hisp.dhis.query.analytics.AnalyticsQuery;
+import org.hisp.dhis.query.analytics.QueryDimension;
+import org.hisp.dhis.response.Dhis2ClientException;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Cache of analytics data keyed by a normalized form of the analytics query, where the order of
+ * filters and of filter items is insignificant and unset flags are equal to flags set to false. The
+ * order of dimensions and of dimension items is significant, as it determines the order of the
+ * headers and row values and of the {@code metaData.dimensions} items of the response.
+ *
+ * <p>Analytics data is cached either as objects, which are shared between callers and should not be
+ * modified, or in compressed serialized form, where each lookup returns a new object. The
+ * statistics include the hit ratio and the time saved, which is the sum of the response time of the
+ * original requests for each cache hit.
+ */
+public class AnalyticsCache {
+  private final AnalyticsCacheConfig config;
+
+  private final JsonMapper jsonMapper;
+
+  private final LruCache<String, CachedData> cache;
+
+  private final LongAdder savedNanos = new LongAdder();
+
+  /**
+   * Constructor.
+   *
+   * @param config the {@link AnalyticsCacheConfig}.
+   * @param jsonMapper the {@link JsonMapper} for the serialized form.
+   */
+  public AnalyticsCache(AnalyticsCacheConfig config, JsonMapper jsonMapper) {
+    this.config = Objects.requireNonNull(config);
+    this.jsonMapper = Objects.requireNonNull(jsonMapper);
+    this.cache = new LruCache<>(config.getMaxSize(), config.getTimeToLive());
+  }
+
+  /**
+   * Indicates whether the cache is enabled.
+   *
+   * @return true if the cache is enabled.
+   */
+  public boolean isEnabled() {
+    return config.isEnabled();
+  }
+
+  /**
+   * Returns the cached analytics data for the given query, or loads, caches and returns the
+   * analytics data using the given loader. If the cache is disabled, the loader is invoked
+   * directly.
+   *
+   * @param query the {@link AnalyticsQuery}.
+   * @param loader the analytics data loader.
+   * @return the {@link AnalyticsData}.
+   */
+  public AnalyticsData get(AnalyticsQuery query, Supplier<AnalyticsData> loader) {
+    if (!isEnabled()) {
+      return loader.get();
+    }
+
+    String key = getKey(query);
+    CachedData cached = cache.getIfPresent(key);
+
+    if (cached != null) {
+      savedNanos.add(cached.loadNanos);
+      return cached.data != null ? cached.data : deserialize(cached.bytes);
+    }
+
+    long start = System.nanoTime();
+    AnalyticsData data = loader.get();
+    long loadNanos = System.nanoTime() - start;
+
+    if (data != null) {
+      cache.put(
+          key,
+          config.isSerialized()
+              ? new CachedData(null, serialize(data), loadNanos)
+              : new CachedData(data, null, loadNanos));
+    }
+
+    return data;
+  }
+
+  /** Removes all cached analytics data. */
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  /**
+   * Returns the statistics of this cache.
+   *
+   * @return a {@link CacheStats}.
+   */
+  public CacheStats getStats() {
+    return cache.getStats();
+  }
+
+  /**
+   * Returns the time saved by this cache, which is the sum of the response time of the original
+   * request for each cache hit.
+   *
+   * @return the saved time as a {@link Duration}.
+   */
+  public Duration getSavedTime() {
+    return Duration.ofNanos(savedNanos.sum());
+  }
+
+  /**
+   * Returns the normalized form of the given query used as cache key. Filters and filter items are
+   * sorted, as their order does not affect the response. Dimensions and dimension items retain
+   * their order. Boolean flags are only included if set to true.
+   *
+   * @param query the {@link AnalyticsQuery}.
+   * @return the cache key.
+   */
+  public static String getKey(AnalyticsQuery query) {
+    StringBuilder key = new StringBuilder();
+
+    for (QueryDimension dimension : query.getDimensions()) {
+      append(key, "dimension", normalize(dimension, false));
+    }
+
+    query.getFilters().stream()
+        .map(filter -> normalize(filter, true))
+        .sorted()
+        .forEach(filter -> append(key, "filter", filter));
+
+    append(key, "aggregationType", query.getAggregationType());
+    append(key, "startDate", query.getStartDate());
+    append(key, "endDate", query.getEndDate());
+    append(key, "skipMeta", query.getSkipMeta());
+    append(key, "skipData", query.getSkipData());
+    append(key, "skipRounding", query.getSkipRounding());
+    append(key, "ignoreLimit", query.getIgnoreLimit());
+    append(key, "tableLayout", query.getTableLayout());
+    append(key, "showHierarchy", query.getShowHierarchy());
+    append(key, "includeNumDen", query.getIncludeNumDen());
+    append(key, "includeMetadataDetails", query.getIncludeMetadataDetails());
+    append(key, "outputIdScheme", query.getOutputIdScheme());
+    append(key, "outputOrgUnitIdScheme", query.getOutputOrgUnitIdScheme());
+    append(key, "outputDataElementIdScheme", query.getOutputDataElementIdScheme());
+    append(key, "inputIdScheme", query.getInputIdScheme());
+
+    if (query.hasColumns()) {
+      append(key, "columns", String.join(";", query.getColumns()));
+    }
+
+    if (query.hasRows()) {
+      append(key, "rows", String.join(";", query.getRows()));
+    }
+
+    return key.toString();
+  }
+
+  /**
+   * Returns the normalized value of the given dimension or filter.
+   *
+   * @param dimension the {@link QueryDimension}.
+   * @param sortItems whether to sort the items.
+   * @return the normalized dimension value.
+   */
+  private static String normalize(QueryDimension dimension, boolean sortItems) {
+    List<String> items = dimension.getItems();
+
+    if (items == null) {
+      return dimension.getDimension();
+    }
+
+    return dimension.getDimension()
+        + ":"
+        + String.join(";", sortItems ? items.stream().sorted().toList() : items);
+  }
+
+  /**
+   * Appends the given parameter to the given key. Null values and boolean false values are skipped.
+   *
+   * @param key the key builder.
+   * @param name the parameter name.
+   * @param value the parameter value.
+   */
+  private static void append(StringBuilder key, String name, Object value) {
+    if (value == null || (value instanceof Boolean bool && !BooleanUtils.isTrue(bool))) {
+      return;
+    }
+
+    if (!key.isEmpty()) {
+      key.append('&');
+    }
+
+    key.append(name).append('=').append(value);
+  }
+
+  /**
+   * Serializes the given analytics data to compressed JSON.
+   *
+   * @param data the {@link AnalyticsData}.
+   * @return the compressed JSON bytes.
+   */
+  private byte[] serialize(AnalyticsData data) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+    try (OutputStream out = new DeflaterOutputStream(bytes)) {
+      jsonMapper.writeValue(out, data);
+    } catch (IOException ex) {
+      throw new Dhis2ClientException("Failed to serialize analytics data", ex);
+    }
+
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Deserializes analytics data from compressed JSON.
+   *
+   * @param bytes the compressed JSON bytes.
+   * @return the {@link AnalyticsData}.
+   */
+  private AnalyticsData deserialize(byte[] bytes) {
+    try (InputStream in = new InflaterInputStream(new ByteArrayInputStream(bytes))) {
+      return jsonMapper.readValue(in, AnalyticsData.class);
+    } catch (IOException ex) {
+      throw new Dhis2ClientException("Failed to deserialize analytics data", ex);
+    }
+  }
+
+  /** Cached analytics data as object or serialized form, with the response time. */
+  @RequiredArgsConstructor
+  private static final class CachedData {
+    /** The analytics data, or null if serialized. */
+    private final AnalyticsData data;
+
+    /** The compressed serialized analytics data, or null if not serialized. */
+    private final byte[] bytes;
+
+    /** The time in nanoseconds to load the analytics data. */
+    private final long loadNanos;
+  }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.cache;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.experimental.Accessors;
+
+/**
+ * Configuration of the cache of analytics data keyed by a normalized analytics query. The cache is
+ * disabled by default.
+ */
+@Getter
+@Setter
+@ToString
+@Accessors(chain = true)
+public class AnalyticsCacheConfig {
+  /** Whether the analytics cache is enabled. */
+  private boolean enabled = false;
+
+  /** Max number of cached analytics responses. */
+  private int maxSize = 200;
+
+  /** Time after which cached analytics responses are discarded, {@code null} means no expiry. */
+  private Duration timeToLive = Duration.ofMinutes(5);
+
+  /**
+   * Whether to cache analytics responses in compressed serialized form rather than as objects. The
+   * serialized form uses a fraction of the memory, and each lookup returns a new object which can
+   * be modified by the caller, at the cost of deserialization per lookup.
+   */
+  private boolean serialized = false;
+
+  /**
+   * Creates a {@link AnalyticsCacheConfig} with default values.
+   *
+   * @return a {@link AnalyticsCacheConfig}.
+   */
+  public static AnalyticsCacheConfig instance() {
+    return new AnalyticsCacheConfig();
+  }
+}
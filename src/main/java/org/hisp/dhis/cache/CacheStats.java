@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.cache;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/** Immutable snapshot of cache statistics. */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class CacheStats {
+  /** Number of lookups which returned a cached value. */
+  private final long hitCount;
+
+  /** Number of lookups which did not find a cached value. */
+  private final long missCount;
+
+  /** Number of entries evicted due to size or expiry. */
+  private final long evictionCount;
+
+  /** Current number of entries. */
+  private final long size;
+
+  /**
+   * Returns an empty {@link CacheStats}.
+   *
+   * @return a {@link CacheStats}.
+   */
+  public static CacheStats empty() {
+    return new CacheStats(0, 0, 0, 0);
+  }
+
+  /**
+   * Returns the total number of lookups.
+   *
+   * @return the number of lookups.
+   */
+  public long getRequestCount() {
+    return hitCount + missCount;
+  }
+
+  /**
+   * Returns the ratio of lookups which returned a cached value, or 1.0 if there were no lookups.
+   *
+   * @return the hit ratio.
+   */
+  public double getHitRatio() {
+    long requests = getRequestCount();
+    return requests == 0 ? 1.0 : (double) hitCount / requests;
+  }
+
+  /**
+   * Returns the sum of this and the given statistics.
+   *
+   * @param other the other {@link CacheStats}.
+   * @return a {@link CacheStats}.
+   */
+  public CacheStats plus(CacheStats other) {
+    return new CacheStats(
+        hitCount + other.hitCount,
+        missCount + other.missCount,
+        evictionCount + other.evictionCount,
+        size + other.size);
+  }
+}
@@ -0,0 +1,313 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.cache;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Thread-safe cache with least recently used eviction when the max size or the optional max total
+ * weight of entries is reached, and expiry of entries after a time to live. Values are loaded
+ * outside of the lock, which means that concurrent lookups of the same missing key may load the
+ * value more than once. A loaded value is not cached if an invalidation happened while it was
+ * loaded, as the value may then be stale.
+ *
+ * @param <K> the key type.
+ * @param <V> the value type.
+ */
+public class LruCache<K, V> {
+  private final int maxSize;
+
+  private final long maxWeight;
+
+  private final ToLongFunction<V> weigher;
+
+  private final long timeToLiveNanos;
+
+  private final LongSupplier ticker;
+
+  private final LinkedHashMap<K, Entry<V>> map;
+
+  private long hitCount;
+
+  private long missCount;
+
+  private long evictionCount;
+
+  private long totalWeight;
+
+  /** Incremented on each invalidation, to detect invalidations during loading of values. */
+  private long generation;
+
+  /**
+   * Constructor.
+   *
+   * @param maxSize the max number of entries.
+   * @param timeToLive the time to live of entries, {@code null} means no expiry.
+   */
+  public LruCache(int maxSize, Duration timeToLive) {
+    this(maxSize, Long.MAX_VALUE, value -> 0L, timeToLive, System::nanoTime);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param maxSize the max number of entries.
+   * @param maxWeight the max total weight of entries.
+   * @param weigher the function which returns the weight of a value, such as its size in bytes.
+   * @param timeToLive the time to live of entries, {@code null} means no expiry.
+   */
+  public LruCache(int maxSize, long maxWeight, ToLongFunction<V> weigher, Duration timeToLive) {
+    this(maxSize, maxWeight, weigher, timeToLive, System::nanoTime);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param maxSize the max number of entries.
+   * @param timeToLive the time to live of entries, {@code null} means no expiry.
+   * @param ticker the source of time in nanoseconds.
+   */
+  LruCache(int maxSize, Duration timeToLive, LongSupplier ticker) {
+    this(maxSize, Long.MAX_VALUE, value -> 0L, timeToLive, ticker);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param maxSize the max number of entries.
+   * @param maxWeight the max total weight of entries.
+   * @param weigher the function which returns the weight of a value.
+   * @param timeToLive the time to live of entries, {@code null} means no expiry.
+   * @param ticker the source of time in nanoseconds.
+   */
+  LruCache(
+      int maxSize,
+      long maxWeight,
+      ToLongFunction<V> weigher,
+      Duration timeToLive,
+      LongSupplier ticker) {
+    this.maxSize = maxSize;
+    this.maxWeight = maxWeight;
+    this.weigher = Objects.requireNonNull(weigher);
+    this.timeToLiveNanos = timeToLive != null ? timeToLive.toNanos() : Long.MAX_VALUE;
+    this.ticker = Objects.requireNonNull(ticker);
+    this.map = new LinkedHashMap<>(16, 0.75f, true);
+  }
+
+  /**
+   * Returns the cached value for the given key, or loads, caches and returns the value using the
+   * given loader if no unexpired value is cached. Null values are not cached.
+   *
+   * @param key the key.
+   * @param loader the value loader.
+   * @return the value.
+   */
+  public V get(K key, Supplier<V> loader) {
+    long loadGeneration;
+
+    synchronized (this) {
+      V value = getIfPresent(key);
+
+      if (value != null) {
+        return value;
+      }
+
+      loadGeneration = generation;
+    }
+
+    V value = loader.get();
+
+    if (value != null) {
+      synchronized (this) {
+        if (generation == loadGeneration) {
+          put(key, value);
+        }
+      }
+    }
+
+    return value;
+  }
+
+  /**
+   * Returns the cached value for the given key, or null if no unexpired value is cached.
+   *
+   * @param key the key.
+   * @return the value, or null.
+   */
+  public synchronized V getIfPresent(K key) {
+    Entry<V> entry = map.get(key);
+
+    if (entry != null && isExpired(entry)) {
+      remove(key);
+      evictionCount++;
+      entry = null;
+    }
+
+    if (entry == null) {
+      missCount++;
+      return null;
+    }
+
+    hitCount++;
+    return entry.value;
+  }
+
+  /**
+   * Caches the given value for the given key, evicting least recently used entries if the max size
+   * or the max total weight is exceeded. A value which alone exceeds the max total weight is not
+   * cached.
+   *
+   * @param key the key.
+   * @param value the value.
+   */
+  public synchronized void put(K key, V value) {
+    long weight = weigher.applyAsLong(value);
+
+    if (maxSize <= 0 || weight > maxWeight) {
+      remove(key);
+      return;
+    }
+
+    Entry<V> previous =
+        map.put(key, new Entry<>(value, weight, ticker.getAsLong() + timeToLiveNanos));
+    totalWeight += weight - (previous != null ? previous.weight : 0L);
+
+    Iterator<Map.Entry<K, Entry<V>>> iterator = map.entrySet().iterator();
+
+    while ((map.size() > maxSize || totalWeight > maxWeight) && iterator.hasNext()) {
+      totalWeight -= iterator.next().getValue().weight;
+      iterator.remove();
+      evictionCount++;
+    }
+  }
+
+  /**
+   * Removes the entry for the given key.
+   *
+   * @param key the key.
+   */
+  public synchronized void invalidate(K key) {
+    generation++;
+    remove(key);
+  }
+
+  /**
+   * Removes the entries with keys matching the given predicate.
+   *
+   * @param predicate the key predicate.
+   */
+  public synchronized void invalidateIf(Predicate<K> predicate) {
+    generation++;
+    Iterator<Map.Entry<K, Entry<V>>> iterator = map.entrySet().iterator();
+
+    while (iterator.hasNext()) {
+      Map.Entry<K, Entry<V>> entry = iterator.next();
+
+      if (predicate.test(entry.getKey())) {
+        totalWeight -= entry.getValue().weight;
+        iterator.remove();
+      }
+    }
+  }
+
+  /** Removes all entries. */
+  public synchronized void invalidateAll() {
+    generation++;
+    map.clear();
+    totalWeight = 0L;
+  }
+
+  /**
+   * Returns the current number of entries, including expired entries not yet evicted.
+   *
+   * @return the number of entries.
+   */
+  public synchronized int size() {
+    return map.size();
+  }
+
+  /**
+   * Returns the current total weight of entries, including expired entries not yet evicted.
+   *
+   * @return the total weight of entries.
+   */
+  public synchronized long weight() {
+    return totalWeight;
+  }
+
+  /**
+   * Returns a snapshot of the statistics of this cache.
+   *
+   * @return a {@link CacheStats}.
+   */
+  public synchronized CacheStats getStats() {
+    return new CacheStats(hitCount, missCount, evictionCount, map.size());
+  }
+
+  /**
+   * Removes the entry for the given key and subtracts its weight from the total weight.
+   *
+   * @param key the key.
+   */
+  private void remove(K key) {
+    Entry<V> entry = map.remove(key);
+
+    if (entry != null) {
+      totalWeight -= entry.weight;
+    }
+  }
+
+  /**
+   * Indicates whether the given entry is expired.
+   *
+   * @param entry the {@link Entry}.
+   * @return true if the entry is expired.
+   */
+  private boolean isExpired(Entry<V> entry) {
+    return timeToLiveNanos != Long.MAX_VALUE && ticker.getAsLong() - entry.expiresAt > 0;
+  }
+
+  /** Cache entry holding a value, its weight and its expiry time. */
+  @RequiredArgsConstructor
+  private static final class Entry<V> {
+    private final V value;
+
+    private final long weight;
+
+    private final long expiresAt;
+  }
+}
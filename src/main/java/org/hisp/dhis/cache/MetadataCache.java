@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.cache;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.hisp.dhis.model.metadata.MetadataEntity;
+
+/**
+ * Cache of metadata objects keyed by metadata entity, identifier and fields. Each metadata entity
+ * has a separate cache with size and time to live according to the {@link MetadataCacheConfig}.
+ * Note that cached objects are shared between callers, and should not be modified.
+ */
+public class MetadataCache {
+  private final MetadataCacheConfig config;
+
+  private final Map<MetadataEntity, LruCache<Key, Object>> caches = new ConcurrentHashMap<>();
+
+  /**
+   * Constructor.
+   *
+   * @param config the {@link MetadataCacheConfig}.
+   */
+  public MetadataCache(MetadataCacheConfig config) {
+    this.config = Objects.requireNonNull(config);
+  }
+
+  /**
+   * Indicates whether the cache is enabled.
+   *
+   * @return true if the cache is enabled.
+   */
+  public boolean isEnabled() {
+    return config.isEnabled();
+  }
+
+  /**
+   * Returns the cached object for the given entity, identifier and fields, or loads, caches and
+   * returns the object using the given loader. If the cache is disabled, the loader is invoked
+   * directly.
+   *
+   * @param <T> the type.
+   * @param entity the {@link MetadataEntity}.
+   * @param id the object identifier.
+   * @param fields the API fields.
+   * @param loader the object loader.
+   * @return the object.
+   */
+  @SuppressWarnings("unchecked")
+  public <T> T get(MetadataEntity entity, String id, String fields, Supplier<T> loader) {
+    if (!isEnabled()) {
+      return loader.get();
+    }
+
+    // Unchecked cast is safe as objects are cached per entity and loaded by the entity type
+    return (T) getCache(entity).get(new Key(id, fields), (Supplier<Object>) loader);
+  }
+
+  /**
+   * Removes the cached objects with the given identifier for the given entity.
+   *
+   * @param entity the {@link MetadataEntity}.
+   * @param id the object identifier.
+   */
+  public void invalidate(MetadataEntity entity, String id) {
+    LruCache<Key, Object> cache = caches.get(entity);
+
+    if (cache != null) {
+      cache.invalidateIf(key -> key.id.equals(id));
+    }
+  }
+
+  /**
+   * Removes the cached objects with the given identifiers for the given entity.
+   *
+   * @param entity the {@link MetadataEntity}.
+   * @param ids the object identifiers.
+   */
+  public void invalidate(MetadataEntity entity, Collection<String> ids) {
+    LruCache<Key, Object> cache = caches.get(entity);
+
+    if (cache != null) {
+      Set<String> idSet = new HashSet<>(ids);
+      cache.invalidateIf(key -> idSet.contains(key.id));
+    }
+  }
+
+  /**
+   * Removes all cached objects for the given entity.
+   *
+   * @param entity the {@link MetadataEntity}.
+   */
+  public void invalidate(MetadataEntity entity) {
+    LruCache<Key, Object> cache = caches.get(entity);
+
+    if (cache != null) {
+      cache.invalidateAll();
+    }
+  }
+
+  /** Removes all cached objects. */
+  public void invalidateAll() {
+    caches.values().forEach(LruCache::invalidateAll);
+  }
+
+  /**
+   * Returns the statistics for the given entity.
+   *
+   * @param entity the {@link MetadataEntity}.
+   * @return a {@link CacheStats}.
+   */
+  public CacheStats getStats(MetadataEntity entity) {
+    LruCache<Key, Object> cache = caches.get(entity);
+    return cache != null ? cache.getStats() : CacheStats.empty();
+  }
+
+  /**
+   * Returns the statistics summed over all entities.
+   *
+   * @return a {@link CacheStats}.
+   */
+  public CacheStats getStats() {
+    return caches.values().stream()
+        .map(LruCache::getStats)
+        .reduce(CacheStats.empty(), CacheStats::plus);
+  }
+
+  /**
+   * Returns the cache for the given entity, created on first use.
+   *
+   * @param entity the {@link MetadataEntity}.
+   * @return the {@link LruCache}.
+   */
+  private LruCache<Key, Object> getCache(MetadataEntity entity) {
+    return caches.computeIfAbsent(
+        entity,
+        e -> {
+          MetadataCacheConfig.EntityConfig entityConfig = config.getEntityConfig(e);
+          return new LruCache<>(entityConfig.getMaxSize(), entityConfig.getTimeToLive());
+        });
+  }
+
+  /** Cache key of object identifier and fields. */
+  @EqualsAndHashCode
+  @RequiredArgsConstructor
+  private static final class Key {
+    private final String id;
+
+    private final String fields;
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.cache;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.experimental.Accessors;
+import org.hisp.dhis.model.metadata.MetadataEntity;
+
+/**
+ * Configuration of the cache of metadata objects retrieved by identifier. The cache is disabled by
+ * default. The max size and time to live apply to each metadata entity, and can be overridden per
+ * metadata entity.
+ */
+@Getter
+@Setter
+@ToString
+@Accessors(chain = true)
+public class MetadataCacheConfig {
+  /** Whether the metadata cache is enabled. */
+  private boolean enabled = false;
+
+  /** Default max number of cached objects per metadata entity. */
+  private int maxSize = 5_000;
+
+  /** Default time to live of cached objects, {@code null} means no expiry. */
+  private Duration timeToLive = Duration.ofMinutes(10);
+
+  /** Cache configuration overrides per metadata entity. */
+  @Setter(AccessLevel.NONE)
+  private final Map<MetadataEntity, EntityConfig> entityConfigs =
+      new EnumMap<>(MetadataEntity.class);
+
+  /**
+   * Creates a {@link MetadataCacheConfig} with default values.
+   *
+   * @return a {@link MetadataCacheConfig}.
+   */
+  public static MetadataCacheConfig instance() {
+    return new MetadataCacheConfig();
+  }
+
+  /**
+   * Sets the max size and time to live for the given metadata entity.
+   *
+   * @param entity the {@link MetadataEntity}.
+   * @param maxSize the max number of cached objects, where 0 disables caching for the entity.
+   * @param timeToLive the time to live of cached objects, {@code null} means no expiry.
+   * @return this {@link MetadataCacheConfig}.
+   */
+  public MetadataCacheConfig setEntityConfig(
+      MetadataEntity entity, int maxSize, Duration timeToLive) {
+    entityConfigs.put(entity, new EntityConfig(maxSize, timeToLive));
+    return this;
+  }
+
+  /**
+   * Returns the configuration for the given metadata entity, falling back to the defaults.
+   *
+   * @param entity the {@link MetadataEntity}.
+   * @return the {@link EntityConfig}.
+   */
+  public EntityConfig getEntityConfig(MetadataEntity entity) {
+    return entityConfigs.getOrDefault(entity, new EntityConfig(maxSize, timeToLive));
+  }
+
+  /** Cache configuration for a metadata entity. */
+  @Getter
+  @ToString
+  @RequiredArgsConstructor
+  public static class EntityConfig {
+    /** Max number of cached objects. */
+    private final int maxSize;
+
+    /** Time to live of cached objects. */
+    private final Duration timeToLive;
+  }
+}
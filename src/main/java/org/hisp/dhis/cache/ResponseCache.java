@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.cache;
+
+import static org.hisp.dhis.util.ObjectUtils.isPresent;
+
+import java.net.URI;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.HttpRequest;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.net.URIBuilder;
+
+/**
+ * Cache of deserialized responses to HTTP GET requests together with the {@code ETag} and {@code
+ * Last-Modified} validators of the responses. Cached responses are revalidated through conditional
+ * requests with the {@code If-None-Match} and {@code If-Modified-Since} headers, where a {@code 304
+ * Not Modified} response means that the cached object can be returned. Note that cached objects are
+ * shared between callers, and should not be modified.
+ *
+ * <p>Responses to paged requests, i.e. requests with a {@code page} parameter, are not cached, as
+ * paged and streamed reads of large collections would otherwise fill the cache with pages. The
+ * cache is bounded by the number of entries and by the total size of the response bodies.
+ */
+public class ResponseCache {
+  private static final String PARAM_PAGE = "page";
+
+  private final ResponseCacheConfig config;
+
+  private final LruCache<Key, CachedResponse> cache;
+
+  private final LongAdder hitCount = new LongAdder();
+
+  private final LongAdder missCount = new LongAdder();
+
+  /**
+   * Constructor.
+   *
+   * @param config the {@link ResponseCacheConfig}.
+   */
+  public ResponseCache(ResponseCacheConfig config) {
+    this.config = Objects.requireNonNull(config);
+    this.cache =
+        new LruCache<>(
+            config.getMaxSize(),
+            config.getMaxBytes(),
+            CachedResponse::getSize,
+            config.getTimeToLive());
+  }
+
+  /**
+   * Indicates whether the cache is enabled.
+   *
+   * @return true if the cache is enabled.
+   */
+  public boolean isEnabled() {
+    return config.isEnabled();
+  }
+
+  /**
+   * Indicates whether the response to a request for the given URL can be cached, which is the case
+   * if the cache is enabled and the URL has no {@code page} parameter.
+   *
+   * @param url the request URL.
+   * @return true if the response can be cached.
+   */
+  public boolean isCacheable(URI url) {
+    return isEnabled()
+        && new URIBuilder(url)
+            .getQueryParams().stream().noneMatch(param -> PARAM_PAGE.equals(param.getName()));
+  }
+
+  /**
+   * Returns the cached response for the given URL and type, or null if no response is cached.
+   *
+   * @param url the request URL.
+   * @param type the class type of the object.
+   * @return the {@link CachedResponse}, or null.
+   */
+  public CachedResponse get(URI url, Class<?> type) {
+    return isCacheable(url) ? cache.getIfPresent(new Key(url.toString(), type)) : null;
+  }
+
+  /**
+   * Sets the conditional request headers on the given request based on the validators of the given
+   * cached response.
+   *
+   * @param request the {@link HttpRequest}.
+   * @param cached the {@link CachedResponse}, may be null.
+   */
+  public void setConditionalHeaders(HttpRequest request, CachedResponse cached) {
+    if (cached == null) {
+      return;
+    }
+
+    if (isPresent(cached.getETag())) {
+      request.setHeader(HttpHeaders.IF_NONE_MATCH, cached.getETag());
+    }
+
+    if (isPresent(cached.getLastModified())) {
+      request.setHeader(HttpHeaders.IF_MODIFIED_SINCE, cached.getLastModified());
+    }
+  }
+
+  /**
+   * Caches the given object if the response can be cached and the given response has an {@code
+   * ETag} or {@code Last-Modified} header, and records a miss.
+   *
+   * @param url the request URL.
+   * @param type the class type of the object.
+   * @param response the {@link HttpResponse}.
+   * @param object the deserialized object.
+   * @param size the size of the response body in bytes.
+   */
+  public void put(URI url, Class<?> type, HttpResponse response, Object object, long size) {
+    if (!isCacheable(url)) {
+      return;
+    }
+
+    missCount.increment();
+
+    String eTag = getHeader(response, HttpHeaders.ETAG);
+    String lastModified = getHeader(response, HttpHeaders.LAST_MODIFIED);
+
+    if (object != null && (isPresent(eTag) || isPresent(lastModified))) {
+      cache.put(
+          new Key(url.toString(), type), new CachedResponse(eTag, lastModified, object, size));
+    }
+  }
+
+  /** Records that a cached object was returned for a {@code 304 Not Modified} response. */
+  public void recordHit() {
+    hitCount.increment();
+  }
+
+  /** Removes all cached responses. */
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  /**
+   * Returns the statistics of this cache, where hits are responses served from the cache after
+   * revalidation and misses are full responses.
+   *
+   * @return a {@link CacheStats}.
+   */
+  public CacheStats getStats() {
+    CacheStats stats = cache.getStats();
+    return new CacheStats(
+        hitCount.sum(), missCount.sum(), stats.getEvictionCount(), stats.getSize());
+  }
+
+  private String getHeader(HttpResponse response, String name) {
+    return response.containsHeader(name) ? response.getFirstHeader(name).getValue() : null;
+  }
+
+  /** Cached deserialized response with validators. */
+  @Getter
+  @RequiredArgsConstructor
+  public static class CachedResponse {
+    /** Value of the {@code ETag} response header. */
+    private final String eTag;
+
+    /** Value of the {@code Last-Modified} response header. */
+    private final String lastModified;
+
+    /** The deserialized object. */
+    private final Object object;
+
+    /** Size of the response body in bytes. */
+    private final long size;
+  }
+
+  /** Cache key of request URL and object type. */
+  @EqualsAndHashCode
+  @RequiredArgsConstructor
+  private static final class Key {
+    private final String url;
+
+    private final Class<?> type;
+  }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.cache;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.experimental.Accessors;
+
+/**
+ * Configuration of the cache of responses to HTTP GET requests, which are revalidated with the
+ * server through conditional requests based on the {@code ETag} and {@code Last-Modified} response
+ * headers. Responses to paged requests are not cached. The cache is disabled by default.
+ */
+@Getter
+@Setter
+@ToString
+@Accessors(chain = true)
+public class ResponseCacheConfig {
+  /** Whether the response cache is enabled. */
+  private boolean enabled = false;
+
+  /** Max number of cached responses. */
+  private int maxSize = 1_000;
+
+  /**
+   * Max total size in bytes of the response bodies of cached responses. Responses larger than this
+   * are not cached.
+   */
+  private long maxBytes = 32L * 1024 * 1024;
+
+  /** Time after which cached responses are discarded, {@code null} means no expiry. */
+  private Duration timeToLive = Duration.ofHours(1);
+
+  /**
+   * Creates a {@link ResponseCacheConfig} with default values.
+   *
+   * @return a {@link ResponseCacheConfig}.
+   */
+  public static ResponseCacheConfig instance() {
+    return new ResponseCacheConfig();
+  }
+}
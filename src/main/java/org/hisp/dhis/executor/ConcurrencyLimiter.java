@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.executor;
+
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+import lombok.Getter;
+import org.apache.commons.lang3.Validate;
+import org.hisp.dhis.response.Dhis2ClientException;
+
+/** Limits the number of concurrently running tasks through a fair {@link Semaphore}. */
+public class ConcurrencyLimiter {
+  /** The maximum number of concurrently running tasks. */
+  @Getter private final int maxConcurrency;
+
+  /** The semaphore holding one permit per concurrently running task. */
+  private final Semaphore semaphore;
+
+  /**
+   * Constructor.
+   *
+   * @param maxConcurrency the maximum number of concurrently running tasks, must be greater than
+   *     zero.
+   */
+  public ConcurrencyLimiter(int maxConcurrency) {
+    Validate.isTrue(maxConcurrency > 0, "Max concurrency must be greater than zero");
+    this.maxConcurrency = maxConcurrency;
+    this.semaphore = new Semaphore(maxConcurrency, true);
+  }
+
+  /**
+   * Runs the given task when a permit is available, and blocks the calling thread until then.
+   *
+   * @param <T> the result type.
+   * @param task the task.
+   * @return the task result.
+   * @throws Dhis2ClientException if the thread was interrupted while waiting for a permit.
+   */
+  public <T> T execute(Supplier<T> task) {
+    try {
+      semaphore.acquire();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new Dhis2ClientException("Thread interrupted", ex);
+    }
+
+    try {
+      return task.get();
+    } finally {
+      semaphore.release();
+    }
+  }
+
+  /**
+   * Returns the number of concurrently running tasks.
+   *
+   * @return the number of concurrently running tasks.
+   */
+  public int getActiveCount() {
+    return maxConcurrency - semaphore.availablePermits();
+  }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.executor;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+import lombok.Getter;
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+
+/**
+ * {@link TaskExecutor} which runs tasks on a fixed-size pool of daemon platform threads. The number
+ * of concurrently running tasks is bounded by the number of threads, and tasks beyond that are
+ * queued.
+ */
+public class PlatformThreadTaskExecutor implements TaskExecutor {
+  /** The maximum number of concurrently running tasks, i.e. the number of threads. */
+  @Getter private final int maxConcurrency;
+
+  /** The executor service. */
+  private final ExecutorService executor;
+
+  /**
+   * Constructor.
+   *
+   * @param maxConcurrency the number of threads, must be greater than zero.
+   */
+  public PlatformThreadTaskExecutor(int maxConcurrency) {
+    Validate.isTrue(maxConcurrency > 0, "Max concurrency must be greater than zero");
+    this.maxConcurrency = maxConcurrency;
+    this.executor =
+        Executors.newFixedThreadPool(
+            maxConcurrency,
+            BasicThreadFactory.builder().namingPattern("dhis2-task-%d").daemon(true).build());
+  }
+
+  @Override
+  public <T> CompletableFuture<T> submit(Supplier<T> task) {
+    return CompletableFuture.supplyAsync(task, executor);
+  }
+
+  @Override
+  public void close() {
+    executor.shutdown();
+  }
+}
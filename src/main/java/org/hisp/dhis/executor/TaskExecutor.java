@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.executor;
+
+import java.io.Closeable;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.hisp.dhis.response.Dhis2ClientException;
+
+/**
+ * Executor for blocking tasks such as HTTP requests, used by bulk operations of the client. The
+ * number of concurrently running tasks is limited to the max concurrency of the executor, to avoid
+ * overwhelming the DHIS2 server.
+ *
+ * <p>Implementations are available through {@link #platformThreads(int)}, which runs tasks on a
+ * bounded pool of platform threads, and {@link #virtualThreads(int)}, which runs each task on a
+ * virtual thread and requires Java 21 or later.
+ */
+public interface TaskExecutor extends Closeable {
+  /**
+   * Returns the maximum number of concurrently running tasks.
+   *
+   * @return the maximum number of concurrently running tasks.
+   */
+  int getMaxConcurrency();
+
+  /**
+   * Submits the given task for execution.
+   *
+   * @param <T> the result type.
+   * @param task the task.
+   * @return a {@link CompletableFuture} of the task result.
+   */
+  <T> CompletableFuture<T> submit(Supplier<T> task);
+
+  /**
+   * Applies the given task to each of the given items concurrently, and waits for all tasks to
+   * complete. The results are returned in the order of the items. If a task fails, the remaining
+   * tasks are cancelled and the failure is thrown.
+   *
+   * @param <T> the item type.
+   * @param <R> the result type.
+   * @param items the items.
+   * @param task the task to apply to each item.
+   * @return a list of results.
+   * @throws Dhis2ClientException if a task failed with a checked exception.
+   */
+  default <T, R> List<R> invokeAll(Collection<T> items, Function<? super T, R> task) {
+    List<CompletableFuture<R>> futures =
+        items.stream().map(item -> submit(() -> task.apply(item))).toList();
+
+    try {
+      return futures.stream().map(CompletableFuture::join).toList();
+    } catch (CompletionException ex) {
+      futures.forEach(future -> future.cancel(true));
+
+      if (ex.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+
+      throw new Dhis2ClientException("Task failed", ex.getCause());
+    }
+  }
+
+  /** Shuts down the executor. Tasks which are already submitted are not interrupted. */
+  @Override
+  void close();
+
+  /**
+   * Creates a {@link TaskExecutor} which runs tasks on a bounded pool of platform threads.
+   *
+   * @param maxConcurrency the number of threads, i.e. the maximum number of concurrently running
+   *     tasks.
+   * @return a {@link TaskExecutor}.
+   */
+  static TaskExecutor platformThreads(int maxConcurrency) {
+    return new PlatformThreadTaskExecutor(maxConcurrency);
+  }
+
+  /**
+   * Creates a {@link TaskExecutor} which runs each task on a new virtual thread, where the number
+   * of concurrently running tasks is limited by a {@link ConcurrencyLimiter}. Requires Java 21 or
+   * later.
+   *
+   * @param maxConcurrency the maximum number of concurrently running tasks.
+   * @return a {@link TaskExecutor}.
+   * @throws Dhis2ClientException if virtual threads are not supported by the Java runtime.
+   */
+  static TaskExecutor virtualThreads(int maxConcurrency) {
+    return new VirtualThreadTaskExecutor(maxConcurrency);
+  }
+
+  /**
+   * Indicates whether virtual threads are supported by the Java runtime.
+   *
+   * @return true if virtual threads are supported.
+   */
+  static boolean isVirtualThreadsSupported() {
+    return Runtime.version().feature() >= 21;
+  }
+}
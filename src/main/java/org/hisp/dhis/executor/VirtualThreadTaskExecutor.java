@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.executor;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+import org.hisp.dhis.response.Dhis2ClientException;
+
+/**
+ * {@link TaskExecutor} which runs each task on a new virtual thread. The number of concurrently
+ * running tasks is limited by a {@link ConcurrencyLimiter}, where tasks beyond the limit wait on
+ * their virtual thread without occupying a platform thread. Requires Java 21 or later. The virtual
+ * thread executor is looked up reflectively, as the client is compiled for Java 17.
+ */
+public class VirtualThreadTaskExecutor implements TaskExecutor {
+  /** The concurrency limiter. */
+  private final ConcurrencyLimiter limiter;
+
+  /** The virtual thread per task executor service. */
+  private final ExecutorService executor;
+
+  /**
+   * Constructor.
+   *
+   * @param maxConcurrency the maximum number of concurrently running tasks, must be greater than
+   *     zero.
+   * @throws Dhis2ClientException if virtual threads are not supported by the Java runtime.
+   */
+  public VirtualThreadTaskExecutor(int maxConcurrency) {
+    this.limiter = new ConcurrencyLimiter(maxConcurrency);
+    this.executor = newVirtualThreadPerTaskExecutor();
+  }
+
+  @Override
+  public int getMaxConcurrency() {
+    return limiter.getMaxConcurrency();
+  }
+
+  @Override
+  public <T> CompletableFuture<T> submit(Supplier<T> task) {
+    return CompletableFuture.supplyAsync(() -> limiter.execute(task), executor);
+  }
+
+  @Override
+  public void close() {
+    executor.shutdown();
+  }
+
+  /**
+   * Creates an executor service which runs each task on a new virtual thread.
+   *
+   * @return an {@link ExecutorService}.
+   * @throws Dhis2ClientException if virtual threads are not supported by the Java runtime.
+   */
+  private static ExecutorService newVirtualThreadPerTaskExecutor() {
+    try {
+      return (ExecutorService)
+          Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } catch (NoSuchMethodException ex) {
+      throw new Dhis2ClientException("Virtual threads require Java 21 or later", ex);
+    } catch (IllegalAccessException | InvocationTargetException ex) {
+      throw new Dhis2ClientException("Virtual threads are not supported", ex);
+    }
+  }
+}
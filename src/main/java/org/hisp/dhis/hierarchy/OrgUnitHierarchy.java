@@ -0,0 +1,752 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.hierarchy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+/**
+ * Immutable in-memory index of the org unit hierarchy. The index stores org unit identifiers and
+ * the tree structure in compact primitive arrays rather than {@code OrgUnit} object graphs, which
+ * allows for holding hierarchies of millions of org units in memory, in roughly 50 bytes per org
+ * unit.
+ *
+ * <p>Each org unit is assigned an interval of pre-order positions spanning its sub-hierarchy, which
+ * allows for constant time ancestry checks and enumeration of descendants without traversal. Parent
+ * lookups are constant time.
+ *
+ * <p>Org unit levels are derived from the tree structure, where root org units are at level 1.
+ * Instances are thread-safe. Use {@link #builder()} to create an instance.
+ */
+public class OrgUnitHierarchy {
+  /** Length of org unit identifiers. */
+  static final int UID_LENGTH = 11;
+
+  /** Identifier bytes, {@link #UID_LENGTH} bytes per org unit. */
+  private final byte[] uids;
+
+  /** Open-addressing hash table of index + 1 of org units, 0 for empty slots. */
+  private final int[] table;
+
+  /** Index of parent per org unit, -1 for root org units. */
+  private final int[] parents;
+
+  /** Level per org unit, starting at 1. */
+  private final byte[] levels;
+
+  /** Pre-order position per org unit. */
+  private final int[] pre;
+
+  /** Last pre-order position of the sub-hierarchy per org unit. */
+  private final int[] end;
+
+  /** Index of org unit per pre-order position. */
+  private final int[] order;
+
+  /** Start of the children in {@link #children} per org unit, with an additional end entry. */
+  private final int[] childStart;
+
+  /** Index of children, grouped by parent. */
+  private final int[] children;
+
+  /** Most recent last updated timestamp of the org units in the hierarchy. */
+  private final String lastUpdated;
+
+  private OrgUnitHierarchy(
+      byte[] uids,
+      int[] table,
+      int[] parents,
+      byte[] levels,
+      int[] pre,
+      int[] end,
+      int[] order,
+      int[] childStart,
+      int[] children,
+      String lastUpdated) {
+    this.uids = uids;
+    this.table = table;
+    this.parents = parents;
+    this.levels = levels;
+    this.pre = pre;
+    this.end = end;
+    this.order = order;
+    this.childStart = childStart;
+    this.children = children;
+    this.lastUpdated = lastUpdated;
+  }
+
+  /**
+   * Creates a {@link Builder}.
+   *
+   * @return a {@link Builder}.
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Returns the number of org units in the hierarchy.
+   *
+   * @return the number of org units.
+   */
+  public int size() {
+    return parents.length;
+  }
+
+  /**
+   * Returns the most recent last updated timestamp of the org units in the hierarchy, as returned
+   * by the server, or {@code null} if not known.
+   *
+   * @return the last updated timestamp, or {@code null}.
+   */
+  public String getLastUpdated() {
+    return lastUpdated;
+  }
+
+  /**
+   * Indicates whether the org unit with the given identifier is part of the hierarchy.
+   *
+   * @param id the org unit identifier.
+   * @return true if the org unit is part of the hierarchy.
+   */
+  public boolean contains(String id) {
+    return indexOf(id) >= 0;
+  }
+
+  /**
+   * Returns the identifier of the parent of the given org unit.
+   *
+   * @param id the org unit identifier.
+   * @return the parent identifier, or {@code null} if the org unit is a root or does not exist.
+   */
+  public String getParent(String id) {
+    int index = indexOf(id);
+    return index >= 0 && parents[index] >= 0 ? uidAt(parents[index]) : null;
+  }
+
+  /**
+   * Returns the level of the given org unit, where root org units are at level 1.
+   *
+   * @param id the org unit identifier.
+   * @return the level, or {@code null} if the org unit does not exist.
+   */
+  public Integer getLevel(String id) {
+    int index = indexOf(id);
+    return index >= 0 ? Integer.valueOf(levels[index]) : null;
+  }
+
+  /**
+   * Returns the path of the given org unit in the format used by DHIS2, i.e. the identifiers of the
+   * ancestors and the org unit itself separated by {@code /}, such as {@code
+   * /ImspTQPwCqd/O6uvpzGd5pu/YuQRtpLP10I}.
+   *
+   * @param id the org unit identifier.
+   * @return the path, or {@code null} if the org unit does not exist.
+   */
+  public String getPath(String id) {
+    int index = indexOf(id);
+
+    if (index < 0) {
+      return null;
+    }
+
+    int level = levels[index];
+    byte[] path = new byte[level * (UID_LENGTH + 1)];
+
+    for (int i = index, pos = path.length - UID_LENGTH; i >= 0; i = parents[i]) {
+      System.arraycopy(uids, i * UID_LENGTH, path, pos, UID_LENGTH);
+      path[pos - 1] = '/';
+      pos -= UID_LENGTH + 1;
+    }
+
+    return new String(path, StandardCharsets.US_ASCII);
+  }
+
+  /**
+   * Returns the identifiers of the ancestors of the given org unit, ordered from the root to the
+   * parent.
+   *
+   * @param id the org unit identifier.
+   * @return list of ancestor identifiers, empty if the org unit is a root or does not exist.
+   */
+  public List<String> getAncestors(String id) {
+    int index = indexOf(id);
+
+    if (index < 0 || parents[index] < 0) {
+      return List.of();
+    }
+
+    String[] ancestors = new String[levels[index] - 1];
+
+    for (int i = parents[index], pos = ancestors.length - 1; i >= 0; i = parents[i]) {
+      ancestors[pos--] = uidAt(i);
+    }
+
+    return Arrays.asList(ancestors);
+  }
+
+  /**
+   * Returns the identifiers of the immediate children of the given org unit.
+   *
+   * @param id the org unit identifier.
+   * @return list of child identifiers, empty if the org unit has no children or does not exist.
+   */
+  public List<String> getChildren(String id) {
+    int index = indexOf(id);
+
+    if (index < 0) {
+      return List.of();
+    }
+
+    List<String> list = new ArrayList<>(childStart[index + 1] - childStart[index]);
+
+    for (int i = childStart[index]; i < childStart[index + 1]; i++) {
+      list.add(uidAt(children[i]));
+    }
+
+    return list;
+  }
+
+  /**
+   * Returns the identifiers of all descendants of the given org unit, in depth-first order.
+   *
+   * @param id the org unit identifier.
+   * @return list of descendant identifiers, empty if the org unit has no descendants or does not
+   *     exist.
+   */
+  public List<String> getDescendants(String id) {
+    return getDescendants(id, i -> true);
+  }
+
+  /**
+   * Returns the identifiers of the descendants of the given org unit at the given level, in
+   * depth-first order.
+   *
+   * @param id the org unit identifier.
+   * @param level the level of descendants to return, where root org units are at level 1.
+   * @return list of descendant identifiers, empty if the org unit has no descendants at the level
+   *     or does not exist.
+   */
+  public List<String> getDescendants(String id, int level) {
+    return getDescendants(id, i -> levels[i] == level);
+  }
+
+  /**
+   * Returns the identifiers of the org units at the given level.
+   *
+   * @param level the level, where root org units are at level 1.
+   * @return list of org unit identifiers in depth-first order.
+   */
+  public List<String> getOrgUnitsAtLevel(int level) {
+    List<String> list = new ArrayList<>();
+
+    for (int position = 0; position < order.length; position++) {
+      if (levels[order[position]] == level) {
+        list.add(uidAt(order[position]));
+      }
+    }
+
+    return list;
+  }
+
+  /**
+   * Returns the identifiers of the root org units.
+   *
+   * @return list of root identifiers.
+   */
+  public List<String> getRoots() {
+    return getOrgUnitsAtLevel(1);
+  }
+
+  /**
+   * Indicates whether the given org unit is a descendant of the given ancestor org unit, i.e.
+   * whether it is part of the sub-hierarchy of the ancestor. An org unit is not considered a
+   * descendant of itself.
+   *
+   * @param id the org unit identifier.
+   * @param ancestorId the ancestor org unit identifier.
+   * @return true if the org unit is a descendant of the ancestor.
+   */
+  public boolean isDescendant(String id, String ancestorId) {
+    int index = indexOf(id);
+    int ancestor = indexOf(ancestorId);
+
+    return index >= 0 && ancestor >= 0 && pre[index] > pre[ancestor] && pre[index] <= end[ancestor];
+  }
+
+  /**
+   * Returns the estimated memory footprint of the index in bytes.
+   *
+   * @return the estimated number of bytes.
+   */
+  public long getMemoryFootprint() {
+    return (long) uids.length
+        + levels.length
+        + 4L
+            * (table.length
+                + parents.length
+                + pre.length
+                + end.length
+                + order.length
+                + childStart.length
+                + children.length);
+  }
+
+  /**
+   * Returns the identifiers of the descendants of the given org unit which match the given
+   * predicate on the org unit index.
+   *
+   * @param id the org unit identifier.
+   * @param predicate the {@link IntPredicate}.
+   * @return list of descendant identifiers.
+   */
+  private List<String> getDescendants(String id, IntPredicate predicate) {
+    int index = indexOf(id);
+
+    if (index < 0 || end[index] == pre[index]) {
+      return List.of();
+    }
+
+    List<String> list = new ArrayList<>();
+
+    for (int position = pre[index] + 1; position <= end[index]; position++) {
+      if (predicate.test(order[position])) {
+        list.add(uidAt(order[position]));
+      }
+    }
+
+    return list;
+  }
+
+  /**
+   * Returns the index of the org unit with the given identifier.
+   *
+   * @param id the org unit identifier.
+   * @return the index, or -1 if the org unit does not exist.
+   */
+  private int indexOf(String id) {
+    if (id == null || id.length() != UID_LENGTH) {
+      return -1;
+    }
+
+    int mask = table.length - 1;
+
+    for (int slot = hash(id) & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+      int index = table[slot] - 1;
+
+      if (equalsAt(uids, index * UID_LENGTH, id)) {
+        return index;
+      }
+    }
+
+    return -1;
+  }
+
+  /**
+   * Returns the identifier of the org unit with the given index.
+   *
+   * @param index the org unit index.
+   * @return the identifier.
+   */
+  private String uidAt(int index) {
+    return new String(uids, index * UID_LENGTH, UID_LENGTH, StandardCharsets.US_ASCII);
+  }
+
+  /**
+   * Returns a hash of the given identifier.
+   *
+   * @param id the identifier.
+   * @return a hash.
+   */
+  static int hash(CharSequence id) {
+    int hash = 0;
+
+    for (int i = 0; i < UID_LENGTH; i++) {
+      hash = 31 * hash + id.charAt(i);
+    }
+
+    return hash ^ (hash >>> 16);
+  }
+
+  /**
+   * Returns a hash of the identifier at the given offset of the given bytes.
+   *
+   * @param bytes the identifier bytes.
+   * @param offset the offset.
+   * @return a hash.
+   */
+  static int hash(byte[] bytes, int offset) {
+    int hash = 0;
+
+    for (int i = 0; i < UID_LENGTH; i++) {
+      hash = 31 * hash + bytes[offset + i];
+    }
+
+    return hash ^ (hash >>> 16);
+  }
+
+  /**
+   * Indicates whether the identifier at the given offset of the given bytes equals the given
+   * identifier.
+   *
+   * @param bytes the identifier bytes.
+   * @param offset the offset.
+   * @param id the identifier.
+   * @return true if the identifiers are equal.
+   */
+  private static boolean equalsAt(byte[] bytes, int offset, String id) {
+    for (int i = 0; i < UID_LENGTH; i++) {
+      if (bytes[offset + i] != id.charAt(i)) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  /**
+   * Builder of {@link OrgUnitHierarchy}. Org units can be added in any order. When an org unit is
+   * added more than once, the last addition wins, which allows for applying changes on top of an
+   * existing hierarchy. Parents which are not part of the hierarchy are ignored, making the org
+   * unit a root. Not thread-safe.
+   */
+  public static class Builder {
+    private byte[] uids = new byte[1024 * UID_LENGTH];
+
+    private byte[] parentUids = new byte[1024 * UID_LENGTH];
+
+    private int count;
+
+    private String lastUpdated;
+
+    private Builder() {}
+
+    /**
+     * Adds an org unit.
+     *
+     * @param id the org unit identifier.
+     * @param parentId the parent identifier, {@code null} for root org units.
+     * @return this {@link Builder}.
+     * @throws IllegalArgumentException if an identifier is not a valid 11 character identifier.
+     */
+    public Builder add(String id, String parentId) {
+      ensureCapacity(count + 1);
+      write(id, uids, count * UID_LENGTH);
+
+      if (parentId != null) {
+        write(parentId, parentUids, count * UID_LENGTH);
+      } else {
+        Arrays.fill(parentUids, count * UID_LENGTH, (count + 1) * UID_LENGTH, (byte) 0);
+      }
+
+      count++;
+      return this;
+    }
+
+    /**
+     * Adds an org unit with the given DHIS2 path, such as {@code
+     * /ImspTQPwCqd/O6uvpzGd5pu/YuQRtpLP10I}. The parent is derived from the path.
+     *
+     * @param id the org unit identifier.
+     * @param path the org unit path.
+     * @return this {@link Builder}.
+     * @throws IllegalArgumentException if an identifier is not a valid 11 character identifier.
+     */
+    public Builder addPath(String id, String path) {
+      int parentEnd = path != null ? path.lastIndexOf('/') : -1;
+      int parentStart = parentEnd > 0 ? path.lastIndexOf('/', parentEnd - 1) : -1;
+      String parentId = parentStart >= 0 ? path.substring(parentStart + 1, parentEnd) : null;
+      return add(id, parentId);
+    }
+
+    /**
+     * Adds all org units of the given hierarchy.
+     *
+     * @param hierarchy the {@link OrgUnitHierarchy}.
+     * @return this {@link Builder}.
+     */
+    public Builder addAll(OrgUnitHierarchy hierarchy) {
+      int size = hierarchy.size();
+      ensureCapacity(count + size);
+      System.arraycopy(hierarchy.uids, 0, uids, count * UID_LENGTH, size * UID_LENGTH);
+
+      for (int i = 0; i < size; i++) {
+        int parent = hierarchy.parents[i];
+        int offset = (count + i) * UID_LENGTH;
+
+        if (parent >= 0) {
+          System.arraycopy(hierarchy.uids, parent * UID_LENGTH, parentUids, offset, UID_LENGTH);
+        } else {
+          Arrays.fill(parentUids, offset, offset + UID_LENGTH, (byte) 0);
+        }
+      }
+
+      count += size;
+      return lastUpdated(hierarchy.lastUpdated);
+    }
+
+    /**
+     * Records a last updated timestamp, where the most recent timestamp is retained. Timestamps
+     * must be in the ISO format returned by the server.
+     *
+     * @param timestamp the last updated timestamp, ignored if {@code null}.
+     * @return this {@link Builder}.
+     */
+    public Builder lastUpdated(String timestamp) {
+      if (timestamp != null && (lastUpdated == null || timestamp.compareTo(lastUpdated) > 0)) {
+        lastUpdated = timestamp;
+      }
+      return this;
+    }
+
+    /**
+     * Builds the {@link OrgUnitHierarchy}.
+     *
+     * @return an {@link OrgUnitHierarchy}.
+     * @throws IllegalArgumentException if the org units form a cycle.
+     */
+    public OrgUnitHierarchy build() {
+      // Index added org units, where later additions replace earlier additions
+
+      int[] table = new int[tableSize(count)];
+      int mask = table.length - 1;
+      boolean[] replaced = new boolean[count];
+      int size = 0;
+
+      for (int i = 0; i < count; i++) {
+        int slot = hash(uids, i * UID_LENGTH) & mask;
+
+        while (table[slot] != 0 && !equalsAt(uids, i, table[slot] - 1)) {
+          slot = (slot + 1) & mask;
+        }
+
+        if (table[slot] != 0) {
+          replaced[table[slot] - 1] = true;
+        } else {
+          size++;
+        }
+
+        table[slot] = i + 1;
+      }
+
+      // Compact org units and remap hash table
+
+      int[] indexes = new int[count];
+      byte[] compactUids = new byte[size * UID_LENGTH];
+      byte[] compactParentUids = new byte[size * UID_LENGTH];
+
+      for (int i = 0, index = 0; i < count; i++) {
+        if (!replaced[i]) {
+          System.arraycopy(uids, i * UID_LENGTH, compactUids, index * UID_LENGTH, UID_LENGTH);
+          System.arraycopy(
+              parentUids, i * UID_LENGTH, compactParentUids, index * UID_LENGTH, UID_LENGTH);
+          indexes[i] = index++;
+        }
+      }
+
+      for (int slot = 0; slot < table.length; slot++) {
+        if (table[slot] != 0) {
+          table[slot] = indexes[table[slot] - 1] + 1;
+        }
+      }
+
+      // Resolve parents and group children by parent
+
+      int[] parents = new int[size];
+      int[] childStart = new int[size + 1];
+
+      for (int i = 0; i < size; i++) {
+        int parent = lookup(table, compactUids, compactParentUids, i * UID_LENGTH);
+        parents[i] = parent != i ? parent : -1;
+
+        if (parents[i] >= 0) {
+          childStart[parents[i] + 1]++;
+        }
+      }
+
+      for (int i = 0; i < size; i++) {
+        childStart[i + 1] += childStart[i];
+      }
+
+      int[] children = new int[childStart[size]];
+      int[] fill = Arrays.copyOf(childStart, size);
+
+      for (int i = 0; i < size; i++) {
+        if (parents[i] >= 0) {
+          children[fill[parents[i]]++] = i;
+        }
+      }
+
+      // Assign pre-order positions and levels through depth-first traversal from roots
+
+      int[] pre = new int[size];
+      int[] order = new int[size];
+      byte[] levels = new byte[size];
+      int[] stack = fill;
+      int position = 0;
+
+      for (int root = 0; root < size; root++) {
+        if (parents[root] >= 0) {
+          continue;
+        }
+
+        int top = 0;
+        stack[top++] = root;
+
+        while (top > 0) {
+          int node = stack[--top];
+          pre[node] = position;
+          order[position++] = node;
+          levels[node] = (byte) (parents[node] >= 0 ? levels[parents[node]] + 1 : 1);
+
+          for (int c = childStart[node + 1] - 1; c >= childStart[node]; c--) {
+            stack[top++] = children[c];
+          }
+        }
+      }
+
+      if (position != size) {
+        throw new IllegalArgumentException("Org unit hierarchy contains a cycle");
+      }
+
+      // Derive end of sub-hierarchy intervals in reverse pre-order
+
+      int[] end = new int[size];
+
+      for (int p = size - 1; p >= 0; p--) {
+        int node = order[p];
+        end[node] = Math.max(end[node], pre[node]);
+
+        if (parents[node] >= 0) {
+          end[parents[node]] = Math.max(end[parents[node]], end[node]);
+        }
+      }
+
+      return new OrgUnitHierarchy(
+          compactUids, table, parents, levels, pre, end, order, childStart, children, lastUpdated);
+    }
+
+    /**
+     * Ensures that the builder can hold the given number of org units.
+     *
+     * @param capacity the required capacity.
+     */
+    private void ensureCapacity(int capacity) {
+      if (capacity * UID_LENGTH > uids.length) {
+        int length = Math.max(capacity, uids.length / UID_LENGTH * 2) * UID_LENGTH;
+        uids = Arrays.copyOf(uids, length);
+        parentUids = Arrays.copyOf(parentUids, length);
+      }
+    }
+
+    /**
+     * Indicates whether the identifiers at the given indexes of the added org units are equal.
+     *
+     * @param bytes the identifier bytes.
+     * @param a the first index.
+     * @param b the second index.
+     * @return true if the identifiers are equal.
+     */
+    private static boolean equalsAt(byte[] bytes, int a, int b) {
+      return Arrays.equals(
+          bytes, a * UID_LENGTH, (a + 1) * UID_LENGTH, bytes, b * UID_LENGTH, (b + 1) * UID_LENGTH);
+    }
+
+    /**
+     * Looks up the index of the identifier at the given offset of the given bytes.
+     *
+     * @param table the hash table.
+     * @param uids the indexed identifier bytes.
+     * @param bytes the bytes of the identifier to look up.
+     * @param offset the offset of the identifier to look up.
+     * @return the index, or -1 if the identifier is not indexed or is empty.
+     */
+    private static int lookup(int[] table, byte[] uids, byte[] bytes, int offset) {
+      if (bytes[offset] == 0) {
+        return -1;
+      }
+
+      int mask = table.length - 1;
+
+      for (int slot = hash(bytes, offset) & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+        int index = table[slot] - 1;
+
+        if (Arrays.equals(
+            uids,
+            index * UID_LENGTH,
+            (index + 1) * UID_LENGTH,
+            bytes,
+            offset,
+            offset + UID_LENGTH)) {
+          return index;
+        }
+      }
+
+      return -1;
+    }
+
+    /**
+     * Returns the hash table size for the given number of entries, a power of two with a load
+     * factor of at most 0.5.
+     *
+     * @param entries the number of entries.
+     * @return the table size.
+     */
+    private static int tableSize(int entries) {
+      return Math.max(16, Integer.highestOneBit(Math.max(1, entries) * 2 - 1) << 1);
+    }
+
+    /**
+     * Writes the given identifier to the given bytes at the given offset.
+     *
+     * @param id the identifier.
+     * @param bytes the target bytes.
+     * @param offset the offset.
+     * @throws IllegalArgumentException if the identifier is not a valid 11 character identifier.
+     */
+    private static void write(String id, byte[] bytes, int offset) {
+      if (id == null || id.length() != UID_LENGTH) {
+        throw new IllegalArgumentException(String.format("Invalid org unit identifier: '%s'", id));
+      }
+
+      for (int i = 0; i < UID_LENGTH; i++) {
+        char c = id.charAt(i);
+
+        if (c == 0 || c > 127) {
+          throw new IllegalArgumentException(
+              String.format("Invalid org unit identifier: '%s'", id));
+        }
+
+        bytes[offset + i] = (byte) c;
+      }
+    }
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2004-2025, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.metrics;
+
+import org.hisp.dhis.cache.AnalyticsCache;
+
+/**
+ * Listener of metrics of the HTTP requests and asynchronous jobs of the client, which can be used
+ * to record timers and counters in a metrics system. Requests are identified by a path template,
+ * e.g. {@code organisationUnits/{id}}, where identifiers are replaced by placeholders to keep the
+ * number of distinct paths bounded. Listeners are called on the requesting thread, and must be
+ * thread-safe and return quickly.
+ *
+ * <p>All methods have an empty default implementation, so that implementations can override only
+ * the methods of interest. {@link #NOOP} ignores all metrics and is used by default. {@link
+ * MicrometerMetricsListener} records metrics in a Micrometer {@code MeterRegistry}.
+ */
+public interface MetricsListener {
+  /** Listener which ignores all metrics. */
+  MetricsListener NOOP = new MetricsListener() {};
+
+  /**
+   * Called when a HTTP request is completed, failed or not.
+   *
+   * @param metrics the {@link RequestMetrics}.
+   */
+  default void onRequest(RequestMetrics metrics) {}
+
+  /**
+   * Called when a failed request is retried.
+   *
+   * @param pathTemplate the path template of the request.
+   * @param attempt the retry attempt, starting on 1.
+   */
+  default void onRetry(String pathTemplate, int attempt) {}
+
+  /**
+   * Called when polling for the completion of an asynchronous job is done, either because the job
+   * completed or because polling timed out or failed.
+   *
+   * @param metrics the {@link JobMetrics}.
+   */
+  default void onJobCompleted(JobMetrics metrics) {}
+
+  /**
+   * Called when the client is created with an enabled analytics cache, so that the statistics of
+   * the cache, such as the hit ratio and the saved time, can be observed as gauges.
+   *
+   * @param cache the {@link AnalyticsCache}.
+   */
+  default void onAnalyticsCache(AnalyticsCache cache) {}
+}
@@ -0,0 +1,259 @@
+/*
+ * Copyright (c) 2004-2025, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.http.Outcome;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+import org.hisp.dhis.cache.AnalyticsCache;
+import org.hisp.dhis.cache.CacheStats;
+
+/**
+ * {@link MetricsListener} which records metrics in a Micrometer {@link MeterRegistry}. Requires
+ * {@code io.micrometer:micrometer-core} on the classpath, which is an optional dependency of the
+ * client. The following meters are recorded:
+ *
+ * <ul>
+ *   <li>{@code dhis2.client.requests}: timer of requests, tagged by method, uri, status, outcome
+ *       and exception.
+ *   <li>{@code dhis2.client.requests.deserialization}: timer of deserialization of response bodies,
+ *       tagged by method and uri.
+ *   <li>{@code dhis2.client.requests.sent}: summary of bytes of request bodies, tagged by method
+ *       and uri.
+ *   <li>{@code dhis2.client.requests.received}: summary of bytes of response bodies, tagged by
+ *       method and uri.
+ *   <li>{@code dhis2.client.retries}: counter of retries, tagged by uri.
+ *   <li>{@code dhis2.client.jobs}: timer of polling for completion of jobs, tagged by job type and
+ *       outcome.
+ *   <li>{@code dhis2.client.jobs.polls}: summary of number of polls of jobs, tagged by job type.
+ *   <li>{@code dhis2.client.analytics.cache.hits} and {@code dhis2.client.analytics.cache.misses}:
+ *       counters of lookups of the analytics cache, tagged by client.
+ *   <li>{@code dhis2.client.analytics.cache.hit.ratio}: gauge of the hit ratio of the analytics
+ *       cache, tagged by client.
+ *   <li>{@code dhis2.client.analytics.cache.saved}: gauge of the time saved by the analytics cache,
+ *       tagged by client.
+ * </ul>
+ *
+ * <p>The analytics cache meters are tagged by the name of the listener, and aggregate the analytics
+ * caches of all clients using the listener. Listeners which share a registry should be given
+ * distinct names, as the meters of listeners with the same name are registered only once.
+ *
+ * <pre>{@code
+ * Dhis2Config config = new Dhis2Config(url, username, password)
+ *   .setMetricsListener(new MicrometerMetricsListener(registry));
+ * }</pre>
+ */
+public class MicrometerMetricsListener implements MetricsListener {
+  private static final String PREFIX = "dhis2.client.";
+
+  private static final String NONE = "none";
+
+  private static final String DEFAULT_NAME = "default";
+
+  private final MeterRegistry registry;
+
+  /** Name of the listener, used as the client tag of the analytics cache meters. */
+  private final String name;
+
+  /** Analytics caches of the clients using this listener, weakly referenced. */
+  private final Set<AnalyticsCache> analyticsCaches =
+      Collections.newSetFromMap(new WeakHashMap<>());
+
+  /**
+   * Constructor.
+   *
+   * @param registry the {@link MeterRegistry}.
+   */
+  public MicrometerMetricsListener(MeterRegistry registry) {
+    this(registry, DEFAULT_NAME);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param registry the {@link MeterRegistry}.
+   * @param name the name of the listener, used as the client tag of the analytics cache meters.
+   */
+  public MicrometerMetricsListener(MeterRegistry registry, String name) {
+    this.registry = Objects.requireNonNull(registry, "Registry must be specified");
+    this.name = Objects.requireNonNull(name, "Name must be specified");
+  }
+
+  @Override
+  public void onRequest(RequestMetrics metrics) {
+    String method = metrics.getMethod();
+    String uri = metrics.getPathTemplate();
+    int statusCode = metrics.getStatusCode();
+    String status = statusCode > 0 ? String.valueOf(statusCode) : "IO_ERROR";
+    String outcome = statusCode > 0 ? Outcome.forStatus(statusCode).name() : Outcome.UNKNOWN.name();
+    String exception =
+        metrics.getException() != null ? metrics.getException().getClass().getSimpleName() : NONE;
+
+    Timer.builder(PREFIX + "requests")
+        .description("Duration of HTTP requests")
+        .tags("method", method, "uri", uri, "status", status, "outcome", outcome)
+        .tag("exception", exception)
+        .register(registry)
+        .record(metrics.getDurationNanos(), TimeUnit.NANOSECONDS);
+
+    if (metrics.getDeserializationNanos() > 0) {
+      Timer.builder(PREFIX + "requests.deserialization")
+          .description("Duration of deserialization of response bodies")
+          .tags("method", method, "uri", uri)
+          .register(registry)
+          .record(metrics.getDeserializationNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    if (metrics.getRequestBytes() > 0) {
+      DistributionSummary.builder(PREFIX + "requests.sent")
+          .description("Bytes of request bodies as sent")
+          .baseUnit("bytes")
+          .tags("method", method, "uri", uri)
+          .register(registry)
+          .record(metrics.getRequestBytes());
+    }
+
+    DistributionSummary.builder(PREFIX + "requests.received")
+        .description("Bytes of response bodies after decompression")
+        .baseUnit("bytes")
+        .tags("method", method, "uri", uri)
+        .register(registry)
+        .record(metrics.getResponseBytes());
+  }
+
+  @Override
+  public void onRetry(String pathTemplate, int attempt) {
+    Counter.builder(PREFIX + "retries")
+        .description("Number of retries of failed requests")
+        .tag("uri", pathTemplate)
+        .register(registry)
+        .increment();
+  }
+
+  @Override
+  public void onJobCompleted(JobMetrics metrics) {
+    Timer.builder(PREFIX + "jobs")
+        .description("Duration of polling for completion of asynchronous jobs")
+        .tags(
+            "jobType",
+            metrics.getJobType(),
+            "outcome",
+            metrics.isCompleted() ? "COMPLETED" : "NOT_COMPLETED")
+        .register(registry)
+        .record(metrics.getDurationNanos(), TimeUnit.NANOSECONDS);
+
+    DistributionSummary.builder(PREFIX + "jobs.polls")
+        .description("Number of polls of the status of asynchronous jobs")
+        .tag("jobType", metrics.getJobType())
+        .register(registry)
+        .record(metrics.getPolls());
+  }
+
+  @Override
+  public void onAnalyticsCache(AnalyticsCache cache) {
+    synchronized (analyticsCaches) {
+      boolean first = analyticsCaches.isEmpty();
+      analyticsCaches.add(cache);
+
+      if (!first) {
+        return;
+      }
+    }
+
+    FunctionCounter.builder(
+            PREFIX + "analytics.cache.hits", this, l -> l.getAnalyticsCacheStats().getHitCount())
+        .description("Number of hits of the analytics cache")
+        .tag("client", name)
+        .register(registry);
+
+    FunctionCounter.builder(
+            PREFIX + "analytics.cache.misses", this, l -> l.getAnalyticsCacheStats().getMissCount())
+        .description("Number of misses of the analytics cache")
+        .tag("client", name)
+        .register(registry);
+
+    Gauge.builder(
+            PREFIX + "analytics.cache.hit.ratio",
+            this,
+            l -> l.getAnalyticsCacheStats().getHitRatio())
+        .description("Hit ratio of the analytics cache")
+        .tag("client", name)
+        .register(registry);
+
+    TimeGauge.builder(
+            PREFIX + "analytics.cache.saved",
+            this,
+            TimeUnit.NANOSECONDS,
+            MicrometerMetricsListener::getAnalyticsCacheSavedNanos)
+        .description("Response time saved by hits of the analytics cache")
+        .tag("client", name)
+        .register(registry);
+  }
+
+  /**
+   * Returns the sum of the statistics of the analytics caches of this listener.
+   *
+   * @return a {@link CacheStats}.
+   */
+  private CacheStats getAnalyticsCacheStats() {
+    return getAnalyticsCaches().stream()
+        .map(AnalyticsCache::getStats)
+        .reduce(CacheStats.empty(), CacheStats::plus);
+  }
+
+  /**
+   * Returns the sum of the time saved by the analytics caches of this listener in nanoseconds.
+   *
+   * @return the saved time in nanoseconds.
+   */
+  private double getAnalyticsCacheSavedNanos() {
+    return getAnalyticsCaches().stream().mapToLong(c -> c.getSavedTime().toNanos()).sum();
+  }
+
+  /**
+   * Returns a copy of the analytics caches of this listener.
+   *
+   * @return a list of {@link AnalyticsCache}.
+   */
+  private List<AnalyticsCache> getAnalyticsCaches() {
+    synchronized (analyticsCaches) {
+      return List.copyOf(analyticsCaches);
+    }
+  }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2004-2025, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.metrics;
+
+import java.time.Duration;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.ToString;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.HttpEntity;
+import org.hisp.dhis.util.CountingHttpEntity;
+import org.hisp.dhis.util.HttpUtils;
+
+/**
+ * Metrics of a single HTTP request. Request and response bytes are counted as the bodies are
+ * written and read, where request bytes are counted as sent, i.e. after compression, and response
+ * bytes are counted after decompression. The status code is 0 if no response was received.
+ */
+@Getter
+@ToString
+public class RequestMetrics {
+  /** The HTTP method. */
+  private final String method;
+
+  /** The request URI. */
+  @ToString.Exclude private final String requestUri;
+
+  /** The path template, derived from the request URI when first requested. */
+  @Getter(AccessLevel.NONE)
+  @ToString.Exclude
+  private String pathTemplate;
+
+  @ToString.Exclude private final long startNanos;
+
+  /** The HTTP status code, 0 if no response was received. */
+  private int statusCode;
+
+  /** The time from the request was sent until the response was handled, in nanoseconds. */
+  private long durationNanos;
+
+  /** The time spent on deserialization of the response body, in nanoseconds. */
+  private long deserializationNanos;
+
+  /** The number of bytes of the request body as sent. */
+  private long requestBytes;
+
+  /** The number of bytes of the response body after decompression. */
+  private long responseBytes;
+
+  /** The exception which caused the request to fail, if any. */
+  private Exception exception;
+
+  /**
+   * Constructor.
+   *
+   * @param method the HTTP method.
+   * @param requestUri the request URI.
+   */
+  public RequestMetrics(String method, String requestUri) {
+    this.method = method;
+    this.requestUri = requestUri;
+    this.startNanos = System.nanoTime();
+  }
+
+  /**
+   * Starts metrics of the given request. The request entity, if any, is wrapped for counting of the
+   * request bytes.
+   *
+   * @param request the {@link ClassicHttpRequest}.
+   * @return the {@link RequestMetrics}.
+   */
+  public static RequestMetrics start(ClassicHttpRequest request) {
+    RequestMetrics metrics = new RequestMetrics(request.getMethod(), request.getRequestUri());
+    HttpEntity entity = request.getEntity();
+
+    if (entity != null) {
+      request.setEntity(new CountingHttpEntity(entity, bytes -> metrics.requestBytes += bytes));
+    }
+
+    return metrics;
+  }
+
+  /**
+   * Records the status code of the given response, and wraps the response entity, if any, for
+   * counting of the response bytes.
+   *
+   * @param response the {@link ClassicHttpResponse}.
+   */
+  public void countResponse(ClassicHttpResponse response) {
+    statusCode = response.getCode();
+    HttpEntity entity = response.getEntity();
+
+    if (entity != null) {
+      response.setEntity(new CountingHttpEntity(entity, bytes -> responseBytes += bytes));
+    }
+  }
+
+  /**
+   * Adds the given time to the deserialization time.
+   *
+   * @param nanos the time in nanoseconds.
+   */
+  public void addDeserializationNanos(long nanos) {
+    deserializationNanos += nanos;
+  }
+
+  /**
+   * Stops the metrics, and records the given exception if the request failed.
+   *
+   * @param ex the {@link Exception}, may be null.
+   * @return this {@link RequestMetrics}.
+   */
+  public RequestMetrics stop(Exception ex) {
+    durationNanos = System.nanoTime() - startNanos;
+    exception = ex;
+    return this;
+  }
+
+  /**
+   * Returns the path template of the request, e.g. {@code organisationUnits/{id}}.
+   *
+   * @return the path template.
+   */
+  @ToString.Include(name = "pathTemplate")
+  public String getPathTemplate() {
+    if (pathTemplate == null) {
+      pathTemplate = HttpUtils.getPathTemplate(requestUri);
+    }
+
+    return pathTemplate;
+  }
+
+  /**
+   * Returns the time from the request was sent until the response was handled.
+   *
+   * @return the {@link Duration}.
+   */
+  public Duration getDuration() {
+    return Duration.ofNanos(durationNanos);
+  }
+
+  /**
+   * Returns the time spent on deserialization of the response body.
+   *
+   * @return the {@link Duration}.
+   */
+  public Duration getDeserializationDuration() {
+    return Duration.ofNanos(deserializationNanos);
+  }
+}
@@ -48,6 +48,7 @@ import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
 
 @Getter
 @Setter
@@ -251,6 +252,72 @@ public class AnalyticsData implements Serializable {
     return new AnalyticsDataIndex(map, keyIndexes);
   }
 
+  /**
+   * Returns an {@link AnalyticsValueIndex} of the numeric values at the given value index, keyed on
+   * the meta row values, which can be probed without allocating memory. The rows are converted to a
+   * {@link ColumnarAnalyticsData} to build the index.
+   *
+   * @param valueIndex the value index.
+   * @return an {@link AnalyticsValueIndex}.
+   * @throws IllegalArgumentException if the header at the value index is not numeric.
+   */
+  public AnalyticsValueIndex getValueIndex(int valueIndex) {
+    return ColumnarAnalyticsData.of(this).getValueIndex(valueIndex);
+  }
+
+  /**
+   * Merges the given analytics data, typically the responses of sub-queries of an {@link
+   * org.hisp.dhis.query.analytics.AnalyticsQuery} split along a dimension, into a single analytics
+   * data. The headers are taken from the first analytics data, the rows are concatenated in order,
+   * the metadata is merged through {@link AnalyticsMetaData#merge(List)} and the result is
+   * truncated if any of the analytics data is truncated.
+   *
+   * @param data the list of {@link AnalyticsData}, must not be empty.
+   * @return the merged {@link AnalyticsData}.
+   * @throws IllegalArgumentException if the list is empty or if the headers of the analytics data
+   *     differ.
+   */
+  public static AnalyticsData merge(List<AnalyticsData> data) {
+    Validate.notEmpty(data, "Data must be specified");
+
+    List<String> headerNames = getHeaderNames(data.get(0));
+    List<List<String>> rows = new ArrayList<>();
+    List<AnalyticsMetaData> metaData = new ArrayList<>();
+    boolean truncated = false;
+
+    for (AnalyticsData item : data) {
+      Validate.isTrue(
+          headerNames.equals(getHeaderNames(item)), "Headers of analytics data must be equal");
+
+      if (isPresent(item.getRows())) {
+        rows.addAll(item.getRows());
+      }
+
+      if (isPresent(item.getMetaData())) {
+        metaData.add(item.getMetaData());
+      }
+
+      truncated |= item.isTruncated();
+    }
+
+    AnalyticsData merged = new AnalyticsData(data.get(0).getHeaders(), rows);
+    merged.setMetaData(metaData.isEmpty() ? null : AnalyticsMetaData.merge(metaData));
+    merged.setTruncated(truncated);
+    return merged;
+  }
+
+  /**
+   * Returns the names of the headers of the given analytics data.
+   *
+   * @param data the {@link AnalyticsData}.
+   * @return a list of header names.
+   */
+  private static List<String> getHeaderNames(AnalyticsData data) {
+    return isPresent(data.getHeaders())
+        ? data.getHeaders().stream().map(AnalyticsHeader::getName).toList()
+        : List.of();
+  }
+
   /** Orders the data rows in natural order based on their metadata values. */
   @JsonIgnore
   public void sortRows() {
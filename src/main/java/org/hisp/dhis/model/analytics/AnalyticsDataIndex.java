@@ -27,14 +27,15 @@
  */
 package org.hisp.dhis.model.analytics;
 
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import org.apache.commons.lang3.math.NumberUtils;
 
-/** Mapping of analytics dimension items to values (metrics). */
+/**
+ * Mapping of analytics dimension items to values (metrics). See {@link AnalyticsValueIndex} for
+ * lookups of numeric values without allocation of keys.
+ */
 public class AnalyticsDataIndex extends HashMap<String, String> {
   private static final long serialVersionUID = 1L;
 
@@ -90,7 +91,7 @@ public class AnalyticsDataIndex extends HashMap<String, String> {
    * @return a key.
    */
   private String toKey(String... keys) {
-    return String.join(SEP, Arrays.asList(keys));
+    return String.join(SEP, keys);
   }
 
   /**
@@ -101,8 +102,16 @@ public class AnalyticsDataIndex extends HashMap<String, String> {
    * @return a key.
    */
   public static String toKey(List<String> row, List<Integer> keyIndexes) {
-    List<String> keys = new ArrayList<>();
-    keyIndexes.forEach(i -> keys.add(row.get(i)));
-    return String.join(SEP, keys);
+    StringBuilder key = new StringBuilder();
+
+    for (int i = 0; i < keyIndexes.size(); i++) {
+      if (i > 0) {
+        key.append(SEP);
+      }
+
+      key.append(row.get(keyIndexes.get(i)));
+    }
+
+    return key.toString();
   }
 }
@@ -30,6 +30,7 @@ package org.hisp.dhis.model.analytics;
 import static org.apache.commons.collections4.CollectionUtils.isEmpty;
 import static org.apache.commons.collections4.CollectionUtils.isNotEmpty;
 import static org.apache.commons.collections4.MapUtils.isEmpty;
+import static org.apache.commons.collections4.MapUtils.isNotEmpty;
 import static org.hisp.dhis.util.CollectionUtils.filterToList;
 import static org.hisp.dhis.util.ObjectUtils.isAbsent;
 import static org.hisp.dhis.util.ObjectUtils.isPresent;
@@ -37,10 +38,14 @@ import static org.hisp.dhis.util.ObjectUtils.isPresent;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -70,6 +75,40 @@ public class AnalyticsMetaData implements Serializable {
    */
   @JsonProperty private Map<String, List<String>> dimensions;
 
+  /**
+   * Merges the given metadata into a single metadata. The metadata items are combined, and the
+   * dimension items of each dimension are combined in order without duplicates. This means that for
+   * a dimension which was split across queries, the items are concatenated in the order of the
+   * queries.
+   *
+   * @param metaData the list of {@link AnalyticsMetaData}.
+   * @return the merged {@link AnalyticsMetaData}.
+   */
+  public static AnalyticsMetaData merge(List<AnalyticsMetaData> metaData) {
+    Map<String, MetaDataItem> items = new LinkedHashMap<>();
+    Map<String, Set<String>> dimensionItems = new LinkedHashMap<>();
+
+    for (AnalyticsMetaData md : metaData) {
+      if (isNotEmpty(md.getItems())) {
+        md.getItems().forEach(items::putIfAbsent);
+      }
+
+      if (isNotEmpty(md.getDimensions())) {
+        md.getDimensions()
+            .forEach(
+                (dim, dimItems) ->
+                    dimensionItems
+                        .computeIfAbsent(dim, k -> new LinkedHashSet<>())
+                        .addAll(dimItems));
+      }
+    }
+
+    Map<String, List<String>> dimensions = new LinkedHashMap<>();
+    dimensionItems.forEach((dim, dimItems) -> dimensions.put(dim, new ArrayList<>(dimItems)));
+
+    return new AnalyticsMetaData(items, dimensions);
+  }
+
   // Dimension items
 
   /**
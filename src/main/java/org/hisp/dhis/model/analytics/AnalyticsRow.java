@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.model.analytics;
+
+import java.util.List;
+import lombok.Getter;
+import lombok.ToString;
+import org.apache.commons.lang3.math.NumberUtils;
+
+/**
+ * A single row of analytics data, emitted when streaming analytics data. Holds references to the
+ * headers and metadata of the response, which are shared between all rows of a response.
+ */
+@Getter
+@ToString(onlyExplicitlyIncluded = true)
+public class AnalyticsRow {
+  /** Analytics column headers, shared between rows. */
+  private final List<AnalyticsHeader> headers;
+
+  /** Response metadata, shared between rows, or null if not present before the rows. */
+  private final AnalyticsMetaData metaData;
+
+  /** Index of the row in the response, starting with 0. */
+  @ToString.Include private final long index;
+
+  /** Row values. */
+  @ToString.Include private final List<String> values;
+
+  /**
+   * Constructor.
+   *
+   * @param headers the list of {@link AnalyticsHeader}.
+   * @param metaData the {@link AnalyticsMetaData}, may be null.
+   * @param index the index of the row, starting with 0.
+   * @param values the row values.
+   */
+  public AnalyticsRow(
+      List<AnalyticsHeader> headers, AnalyticsMetaData metaData, long index, List<String> values) {
+    this.headers = headers;
+    this.metaData = metaData;
+    this.index = index;
+    this.values = values;
+  }
+
+  /**
+   * Gets the number of values in the row.
+   *
+   * @return the number of values.
+   */
+  public int size() {
+    return values.size();
+  }
+
+  /**
+   * Gets the value at the given column index.
+   *
+   * @param column the column index.
+   * @return the value, or null if the index is out of bounds or the value is null.
+   */
+  public String getValue(int column) {
+    return column >= 0 && column < values.size() ? values.get(column) : null;
+  }
+
+  /**
+   * Gets the value of the column with the given header name.
+   *
+   * @param name the header name.
+   * @return the value, or null if no header with the given name exists or the value is null.
+   */
+  public String getValue(String name) {
+    return getValue(headers.indexOf(new AnalyticsHeader(name)));
+  }
+
+  /**
+   * Gets the value at the given column index as a {@link Double}.
+   *
+   * @param column the column index.
+   * @return the value as a {@link Double}, or null if no value exists or the value is not numeric.
+   */
+  public Double getDoubleValue(int column) {
+    String value = getValue(column);
+    return NumberUtils.isCreatable(value) ? Double.parseDouble(value) : null;
+  }
+}
@@ -0,0 +1,343 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.model.analytics;
+
+import java.util.List;
+
+/**
+ * Index of numeric analytics values by dimension items, which can be probed without allocating
+ * memory. Dimension items are dictionary encoded per meta column, and the codes of a row are
+ * combined into a single {@code long} key in a mixed radix of the dictionary sizes. Keys and values
+ * are held in an open-addressing hash table of primitive arrays, and values are stored as {@code
+ * double}, where {@link Double#NaN} represents a missing or null value.
+ *
+ * <p>Lookups by item identifier resolve the code of each item through the dictionary of the column,
+ * while lookups by code through {@link #getValue(int[])} skip the dictionaries entirely. Instances
+ * are immutable and thread-safe. Use {@link ColumnarAnalyticsData#getValueIndex(int)} or {@link
+ * AnalyticsData#getValueIndex(int)} to create an index.
+ */
+public class AnalyticsValueIndex {
+  private static final long PHI = 0x9E3779B97F4A7C15L;
+
+  /** The columnar data providing the item dictionaries of the key columns. */
+  private final ColumnarAnalyticsData data;
+
+  /** Indexes of the key columns. */
+  private final int[] keyColumns;
+
+  /** Radix per key column, i.e. the dictionary size plus one for null items. */
+  private final long[] radixes;
+
+  /** Hash table of keys plus one, where 0 represents an empty slot. */
+  private final long[] keys;
+
+  /** Hash table of values. */
+  private final double[] values;
+
+  /** Number of bits of the hash table size. */
+  private final int bits;
+
+  /** Number of entries. */
+  private final int size;
+
+  /** Time spent building the index in nanoseconds. */
+  private final long buildTimeNanos;
+
+  /**
+   * Constructor.
+   *
+   * @param data the {@link ColumnarAnalyticsData}.
+   * @param valueIndex the index of the numeric value column.
+   * @throws IllegalArgumentException if the value column is not numeric, or if the number of
+   *     dimension item combinations exceeds the range of a {@code long} key.
+   * @throws IllegalStateException if more than one row exists for a combination of items.
+   */
+  AnalyticsValueIndex(ColumnarAnalyticsData data, int valueIndex) {
+    long start = System.nanoTime();
+
+    if (!data.isNumeric(valueIndex)) {
+      throw new IllegalArgumentException(String.format("Column is not numeric: %d", valueIndex));
+    }
+
+    List<Integer> metaIndexes = data.getHeaderMetaIndexList();
+    this.data = data;
+    this.keyColumns = metaIndexes.stream().mapToInt(Integer::intValue).toArray();
+    this.radixes = new long[keyColumns.length];
+
+    long combinations = 1;
+
+    for (int i = 0; i < keyColumns.length; i++) {
+      radixes[i] = data.getDictionary(keyColumns[i]).size() + 1L;
+
+      if (combinations > (Long.MAX_VALUE - 1) / radixes[i]) {
+        throw new IllegalArgumentException(
+            "Number of dimension item combinations exceeds the range of the index");
+      }
+
+      combinations *= radixes[i];
+    }
+
+    this.size = data.getHeight();
+    this.bits = Math.max(4, 64 - Long.numberOfLeadingZeros(Math.max(1, size * 2L - 1)));
+    this.keys = new long[1 << bits];
+    this.values = new double[1 << bits];
+
+    for (int row = 0; row < size; row++) {
+      long key = 0;
+
+      for (int i = keyColumns.length - 1; i >= 0; i--) {
+        key = key * radixes[i] + data.getCode(row, keyColumns[i]) + 1;
+      }
+
+      int slot = find(key);
+
+      if (keys[slot] != 0) {
+        throw new IllegalStateException(
+            String.format("Duplicate key for row: %s", data.getRow(row)));
+      }
+
+      keys[slot] = key + 1;
+      values[slot] = data.getDouble(row, valueIndex);
+    }
+
+    this.buildTimeNanos = System.nanoTime() - start;
+  }
+
+  /**
+   * Returns the number of entries in the index.
+   *
+   * @return the number of entries.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns the number of key dimensions, i.e. the number of meta columns.
+   *
+   * @return the number of key dimensions.
+   */
+  public int getKeyCount() {
+    return keyColumns.length;
+  }
+
+  /**
+   * Returns the time spent building the index in nanoseconds.
+   *
+   * @return the build time in nanoseconds.
+   */
+  public long getBuildTimeNanos() {
+    return buildTimeNanos;
+  }
+
+  /**
+   * Returns the estimated memory footprint of the hash table in bytes, excluding the item
+   * dictionaries shared with the columnar data.
+   *
+   * @return the estimated number of bytes.
+   */
+  public long getMemoryFootprint() {
+    return 8L * keys.length + 8L * values.length + 8L * radixes.length + 4L * keyColumns.length;
+  }
+
+  /**
+   * Returns the code of the given item of the key dimension at the given position.
+   *
+   * @param dimension the position of the key dimension, starting with 0.
+   * @param item the dimension item.
+   * @return the item code, or -1 if the item does not exist.
+   */
+  public int getCode(int dimension, String item) {
+    return data.getCode(keyColumns[dimension], item);
+  }
+
+  /**
+   * Returns the value for the given dimension item.
+   *
+   * @param item the dimension item.
+   * @return the value, or {@link Double#NaN} if no value exists.
+   */
+  public double getValue(String item) {
+    requireKeyCount(1);
+    return get(key(0, item, 0));
+  }
+
+  /**
+   * Returns the value for the given dimension items.
+   *
+   * @param itemA the first dimension item.
+   * @param itemB the second dimension item.
+   * @return the value, or {@link Double#NaN} if no value exists.
+   */
+  public double getValue(String itemA, String itemB) {
+    requireKeyCount(2);
+    return get(key(0, itemA, key(1, itemB, 0)));
+  }
+
+  /**
+   * Returns the value for the given dimension items.
+   *
+   * @param itemA the first dimension item.
+   * @param itemB the second dimension item.
+   * @param itemC the third dimension item.
+   * @return the value, or {@link Double#NaN} if no value exists.
+   */
+  public double getValue(String itemA, String itemB, String itemC) {
+    requireKeyCount(3);
+    return get(key(0, itemA, key(1, itemB, key(2, itemC, 0))));
+  }
+
+  /**
+   * Returns the value for the given dimension items.
+   *
+   * @param itemA the first dimension item.
+   * @param itemB the second dimension item.
+   * @param itemC the third dimension item.
+   * @param itemD the fourth dimension item.
+   * @return the value, or {@link Double#NaN} if no value exists.
+   */
+  public double getValue(String itemA, String itemB, String itemC, String itemD) {
+    requireKeyCount(4);
+    return get(key(0, itemA, key(1, itemB, key(2, itemC, key(3, itemD, 0)))));
+  }
+
+  /**
+   * Returns the value for the given dimension items.
+   *
+   * @param items the dimension items, one per key dimension.
+   * @return the value, or {@link Double#NaN} if no value exists.
+   */
+  public double getValue(String... items) {
+    requireKeyCount(items.length);
+    long key = 0;
+
+    for (int i = items.length - 1; i >= 0 && key >= 0; i--) {
+      key = key(i, items[i], key);
+    }
+
+    return get(key);
+  }
+
+  /**
+   * Returns the value for the given dimension item codes, as returned by {@link #getCode(int,
+   * String)} or {@link ColumnarAnalyticsData#getCode(int, int)}.
+   *
+   * @param codes the dimension item codes, one per key dimension.
+   * @return the value, or {@link Double#NaN} if no value exists.
+   */
+  public double getValue(int[] codes) {
+    requireKeyCount(codes.length);
+    long key = 0;
+
+    for (int i = codes.length - 1; i >= 0; i--) {
+      if (codes[i] < 0 || codes[i] >= radixes[i] - 1) {
+        return Double.NaN;
+      }
+
+      key = key * radixes[i] + codes[i] + 1;
+    }
+
+    return get(key);
+  }
+
+  /**
+   * Indicates whether a non-null value exists for the given dimension items.
+   *
+   * @param items the dimension items, one per key dimension.
+   * @return true if a value exists.
+   */
+  public boolean hasValue(String... items) {
+    return !Double.isNaN(getValue(items));
+  }
+
+  /**
+   * Combines the code of the given item of the key dimension at the given position with the given
+   * key of the subsequent key dimensions.
+   *
+   * @param dimension the position of the key dimension.
+   * @param item the dimension item.
+   * @param key the key of the subsequent dimensions, or -1 if not found.
+   * @return the combined key, or -1 if the item or subsequent items do not exist.
+   */
+  private long key(int dimension, String item, long key) {
+    if (key < 0) {
+      return -1;
+    }
+
+    int code = item != null ? data.getCode(keyColumns[dimension], item) : -1;
+
+    if (code < 0 && item != null) {
+      return -1;
+    }
+
+    return key * radixes[dimension] + code + 1;
+  }
+
+  /**
+   * Returns the value for the given key.
+   *
+   * @param key the key.
+   * @return the value, or {@link Double#NaN} if the key is -1 or does not exist.
+   */
+  private double get(long key) {
+    if (key < 0) {
+      return Double.NaN;
+    }
+
+    int slot = find(key);
+    return keys[slot] != 0 ? values[slot] : Double.NaN;
+  }
+
+  /**
+   * Returns the slot of the given key in the hash table, or the empty slot where the key would be
+   * inserted.
+   *
+   * @param key the key.
+   * @return the slot.
+   */
+  private int find(long key) {
+    int mask = keys.length - 1;
+    int slot = (int) ((key * PHI) >>> (64 - bits));
+
+    while (keys[slot] != 0 && keys[slot] != key + 1) {
+      slot = (slot + 1) & mask;
+    }
+
+    return slot;
+  }
+
+  private void requireKeyCount(int count) {
+    if (count != keyColumns.length) {
+      String msg =
+          String.format(
+              "Provided key count: %d must be equal to index key count: %d",
+              count, keyColumns.length);
+      throw new IllegalArgumentException(msg);
+    }
+  }
+}
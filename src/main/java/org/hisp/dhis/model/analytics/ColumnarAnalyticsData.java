@@ -0,0 +1,634 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.model.analytics;
+
+import static org.hisp.dhis.model.analytics.AnalyticsDataIndex.toKey;
+import static org.hisp.dhis.util.ObjectUtils.isPresent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.Getter;
+import org.hisp.dhis.util.json.ColumnarAnalyticsDataJsonDeserializer;
+import tools.jackson.databind.annotation.JsonDeserialize;
+
+/**
+ * Columnar representation of analytics data, where rows are stored as one primitive column per
+ * header instead of lists of strings. Numeric columns which do not represent metadata, such as the
+ * {@code value} column, are stored as {@code double} arrays with a bitmap of null values. All other
+ * columns, such as the dimension columns {@code dx}, {@code pe} and {@code ou}, are dictionary
+ * encoded, where each distinct item is stored once and rows refer to items by {@code int} code.
+ *
+ * <p>This representation is deserialized directly from analytics JSON responses without creating
+ * intermediate row lists, and uses a fraction of the memory of {@link AnalyticsData} for large
+ * responses. Values of numeric columns which cannot be parsed as numbers are stored as null. The
+ * data is immutable after construction.
+ */
+@JsonDeserialize(using = ColumnarAnalyticsDataJsonDeserializer.class)
+public class ColumnarAnalyticsData {
+  /** Analytics column headers. */
+  @Getter private final List<AnalyticsHeader> headers;
+
+  /** Response metadata. */
+  @Getter private final AnalyticsMetaData metaData;
+
+  /** Whether the data rows were truncated to max limit. */
+  @Getter private final boolean truncated;
+
+  /** Number of data rows. */
+  @Getter private final int height;
+
+  /** Item codes per row for dictionary encoded columns, null for numeric columns. */
+  private final int[][] codes;
+
+  /** Distinct items by code for dictionary encoded columns, null for numeric columns. */
+  private final String[][] dictionaries;
+
+  /** Codes by item for dictionary encoded columns, null for numeric columns. */
+  private final Map<String, Integer>[] dictionaryCodes;
+
+  /** Values per row for numeric columns, null for dictionary encoded columns. */
+  private final double[][] values;
+
+  /** Bitmaps of null values per row for numeric columns, null for dictionary encoded columns. */
+  private final long[][] nulls;
+
+  private ColumnarAnalyticsData(
+      List<AnalyticsHeader> headers,
+      AnalyticsMetaData metaData,
+      boolean truncated,
+      int height,
+      int[][] codes,
+      String[][] dictionaries,
+      Map<String, Integer>[] dictionaryCodes,
+      double[][] values,
+      long[][] nulls) {
+    this.headers = headers;
+    this.metaData = metaData;
+    this.truncated = truncated;
+    this.height = height;
+    this.codes = codes;
+    this.dictionaries = dictionaries;
+    this.dictionaryCodes = dictionaryCodes;
+    this.values = values;
+    this.nulls = nulls;
+  }
+
+  /**
+   * Creates a {@link Builder} for the given headers.
+   *
+   * @param headers the list of {@link AnalyticsHeader}.
+   * @return a {@link Builder}.
+   */
+  public static Builder builder(List<AnalyticsHeader> headers) {
+    return new Builder(headers);
+  }
+
+  /**
+   * Creates a {@link ColumnarAnalyticsData} from the given {@link AnalyticsData}.
+   *
+   * @param data the {@link AnalyticsData}.
+   * @return a {@link ColumnarAnalyticsData}.
+   */
+  public static ColumnarAnalyticsData of(AnalyticsData data) {
+    Builder builder = new Builder(data.getHeaders());
+
+    if (isPresent(data.getRows())) {
+      data.getRows().forEach(builder::addRow);
+    }
+
+    return builder.metaData(data.getMetaData()).truncated(data.isTruncated()).build();
+  }
+
+  /**
+   * Gets the number of headers.
+   *
+   * @return the number of headers.
+   */
+  public int getHeaderWidth() {
+    return headers.size();
+  }
+
+  /**
+   * Indicates whether a header with the given name exists.
+   *
+   * @param name the header name.
+   * @return true if a header with the given name exists, false otherwise.
+   */
+  public boolean headerExists(String name) {
+    return headerIndex(name) != -1;
+  }
+
+  /**
+   * Gets the index of the header with the given name.
+   *
+   * @param name the header name.
+   * @return the index of the header with the given name, or -1 if not found.
+   */
+  public int headerIndex(String name) {
+    return headers.indexOf(new AnalyticsHeader(name));
+  }
+
+  /**
+   * Indicates whether the column at the given index is numeric, i.e. stored as {@code double}
+   * values, as opposed to dictionary encoded.
+   *
+   * @param column the column index.
+   * @return true if the column is numeric.
+   */
+  public boolean isNumeric(int column) {
+    return values[column] != null;
+  }
+
+  /**
+   * Indicates whether any data rows exist.
+   *
+   * @return true if any data rows exist, false otherwise.
+   */
+  public boolean hasData() {
+    return height > 0;
+  }
+
+  /**
+   * Gets the value at the given row and column as a string. Values of numeric columns are formatted
+   * without a fraction if integral.
+   *
+   * @param row the row index, starting with 0.
+   * @param column the column index.
+   * @return the value, or null if the value is null.
+   */
+  public String getString(int row, int column) {
+    if (values[column] != null) {
+      return isNull(row, column) ? null : format(values[column][row]);
+    }
+
+    int code = codes[column][row];
+    return code >= 0 ? dictionaries[column][code] : null;
+  }
+
+  /**
+   * Gets the value at the given row and column of a numeric column.
+   *
+   * @param row the row index, starting with 0.
+   * @param column the column index.
+   * @return the value, or {@link Double#NaN} if the value is null.
+   * @throws IllegalArgumentException if the column is not numeric.
+   */
+  public double getDouble(int row, int column) {
+    requireNumeric(column);
+    return isNull(row, column) ? Double.NaN : values[column][row];
+  }
+
+  /**
+   * Indicates whether the value at the given row and column is null.
+   *
+   * @param row the row index, starting with 0.
+   * @param column the column index.
+   * @return true if the value is null.
+   */
+  public boolean isNull(int row, int column) {
+    if (values[column] != null) {
+      return (nulls[column][row >>> 6] & (1L << row)) != 0;
+    }
+
+    return codes[column][row] < 0;
+  }
+
+  /**
+   * Gets the item code at the given row and column of a dictionary encoded column.
+   *
+   * @param row the row index, starting with 0.
+   * @param column the column index.
+   * @return the item code, or -1 if the value is null.
+   * @throws IllegalArgumentException if the column is numeric.
+   */
+  public int getCode(int row, int column) {
+    requireDictionary(column);
+    return codes[column][row];
+  }
+
+  /**
+   * Gets the code of the given item of a dictionary encoded column.
+   *
+   * @param column the column index.
+   * @param item the item.
+   * @return the item code, or -1 if the item does not exist in the column.
+   * @throws IllegalArgumentException if the column is numeric.
+   */
+  public int getCode(int column, String item) {
+    requireDictionary(column);
+    Integer code = dictionaryCodes[column].get(item);
+    return code != null ? code : -1;
+  }
+
+  /**
+   * Gets the distinct items of a dictionary encoded column, where the list index is the item code.
+   *
+   * @param column the column index.
+   * @return an immutable list of items.
+   * @throws IllegalArgumentException if the column is numeric.
+   */
+  public List<String> getDictionary(int column) {
+    requireDictionary(column);
+    return Collections.unmodifiableList(Arrays.asList(dictionaries[column]));
+  }
+
+  /**
+   * Gets the data row at the specified index.
+   *
+   * @param index the row index, starting with 0.
+   * @return the data row at the specified index, or null if out of bounds.
+   */
+  public List<String> getRow(int index) {
+    if (index < 0 || index >= height) {
+      return null;
+    }
+
+    List<String> row = new ArrayList<>(headers.size());
+
+    for (int column = 0; column < headers.size(); column++) {
+      row.add(getString(index, column));
+    }
+
+    return row;
+  }
+
+  /**
+   * Returns a row index as a map. The map key is a string of meta row values concatenated by {@code
+   * ::}. The map value is the row value at the given value index.
+   *
+   * @param valueIndex the value index.
+   * @return a row index as a map.
+   */
+  public AnalyticsDataIndex getIndex(int valueIndex) {
+    List<Integer> keyIndexes = getHeaderMetaIndexList();
+    Map<String, String> map = new HashMap<>();
+
+    for (int row = 0; row < height; row++) {
+      String key = toKey(getRow(row), keyIndexes);
+
+      if (map.put(key, getString(row, valueIndex)) != null) {
+        throw new IllegalStateException(String.format("Duplicate key: '%s'", key));
+      }
+    }
+
+    return new AnalyticsDataIndex(map, keyIndexes);
+  }
+
+  /**
+   * Returns an {@link AnalyticsValueIndex} of the numeric values of the column at the given index,
+   * keyed on the items of the meta columns, which can be probed without allocating memory.
+   *
+   * @param valueIndex the index of the numeric value column.
+   * @return an {@link AnalyticsValueIndex}.
+   * @throws IllegalArgumentException if the value column is not numeric.
+   */
+  public AnalyticsValueIndex getValueIndex(int valueIndex) {
+    return new AnalyticsValueIndex(this, valueIndex);
+  }
+
+  /**
+   * Returns a list of indexes (positions) of headers which represent metadata.
+   *
+   * @return an immutable list of indexes of headers which represent metadata.
+   */
+  public List<Integer> getHeaderMetaIndexList() {
+    List<Integer> list = new ArrayList<>();
+
+    for (int i = 0; i < headers.size(); i++) {
+      if (headers.get(i).isMeta()) {
+        list.add(i);
+      }
+    }
+
+    return Collections.unmodifiableList(list);
+  }
+
+  /**
+   * Converts this columnar data to an {@link AnalyticsData} with rows as lists of strings.
+   *
+   * @return an {@link AnalyticsData}.
+   */
+  public AnalyticsData toAnalyticsData() {
+    List<List<String>> rows = new ArrayList<>(height);
+
+    for (int row = 0; row < height; row++) {
+      rows.add(getRow(row));
+    }
+
+    AnalyticsData data = new AnalyticsData(new ArrayList<>(headers), rows);
+    data.setMetaData(metaData);
+    data.setTruncated(truncated);
+    return data;
+  }
+
+  /**
+   * Returns the estimated memory footprint of the columns in bytes, excluding dictionary items,
+   * headers and metadata.
+   *
+   * @return the estimated number of bytes.
+   */
+  public long getMemoryFootprint() {
+    long bytes = 0;
+
+    for (int column = 0; column < headers.size(); column++) {
+      bytes +=
+          values[column] != null
+              ? 8L * values[column].length + 8L * nulls[column].length
+              : 4L * codes[column].length + 4L * dictionaries[column].length;
+    }
+
+    return bytes;
+  }
+
+  /**
+   * Formats the given numeric value, without a fraction if integral.
+   *
+   * @param value the value.
+   * @return the formatted value.
+   */
+  private static String format(double value) {
+    return value == Math.rint(value) && Math.abs(value) < 1e15
+        ? Long.toString((long) value)
+        : Double.toString(value);
+  }
+
+  private void requireNumeric(int column) {
+    if (values[column] == null) {
+      throw new IllegalArgumentException(String.format("Column is not numeric: %d", column));
+    }
+  }
+
+  private void requireDictionary(int column) {
+    if (values[column] != null) {
+      throw new IllegalArgumentException(
+          String.format("Column is not dictionary encoded: %d", column));
+    }
+  }
+
+  /**
+   * Builder of {@link ColumnarAnalyticsData}, which appends values cell by cell in row order. Not
+   * thread-safe.
+   */
+  public static class Builder {
+    private final List<AnalyticsHeader> headers;
+
+    private final int[][] codes;
+
+    private final List<List<String>> dictionaries;
+
+    private final Map<String, Integer>[] dictionaryCodes;
+
+    private final double[][] values;
+
+    private final long[][] nulls;
+
+    private AnalyticsMetaData metaData;
+
+    private boolean truncated;
+
+    private int capacity = 64;
+
+    private int height;
+
+    private int column;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Builder(List<AnalyticsHeader> headers) {
+      this.headers = List.copyOf(headers);
+      int width = headers.size();
+      this.codes = new int[width][];
+      this.dictionaries = new ArrayList<>(width);
+      this.dictionaryCodes = new Map[width];
+      this.values = new double[width][];
+      this.nulls = new long[width][];
+
+      for (int i = 0; i < width; i++) {
+        AnalyticsHeader header = headers.get(i);
+        boolean numeric =
+            !header.isMeta() && header.getValueType() != null && header.getValueType().isNumeric();
+
+        if (numeric) {
+          values[i] = new double[capacity];
+          nulls[i] = new long[capacity >>> 6];
+          dictionaries.add(null);
+        } else {
+          codes[i] = new int[capacity];
+          dictionaries.add(new ArrayList<>());
+          dictionaryCodes[i] = new HashMap<>();
+        }
+      }
+    }
+
+    /**
+     * Sets the response metadata.
+     *
+     * @param metaData the {@link AnalyticsMetaData}.
+     * @return this {@link Builder}.
+     */
+    public Builder metaData(AnalyticsMetaData metaData) {
+      this.metaData = metaData;
+      return this;
+    }
+
+    /**
+     * Sets whether the data rows were truncated.
+     *
+     * @param truncated whether the data rows were truncated.
+     * @return this {@link Builder}.
+     */
+    public Builder truncated(boolean truncated) {
+      this.truncated = truncated;
+      return this;
+    }
+
+    /**
+     * Adds a data row.
+     *
+     * @param row the data row.
+     * @return this {@link Builder}.
+     */
+    public Builder addRow(List<String> row) {
+      row.forEach(this::add);
+      return endRow();
+    }
+
+    /**
+     * Adds a value to the next column of the current row. Values beyond the number of headers are
+     * ignored.
+     *
+     * @param value the value, may be null.
+     * @return this {@link Builder}.
+     */
+    public Builder add(String value) {
+      if (column >= headers.size()) {
+        return this;
+      }
+
+      ensureCapacity();
+
+      if (values[column] != null) {
+        double number = parse(value);
+
+        if (!Double.isNaN(number)) {
+          values[column][height] = number;
+        } else {
+          setNull(column);
+        }
+      } else {
+        codes[column][height] = value != null ? encode(column, value) : -1;
+      }
+
+      column++;
+      return this;
+    }
+
+    /**
+     * Adds a numeric value to the next column of the current row. Values beyond the number of
+     * headers are ignored.
+     *
+     * @param value the value.
+     * @return this {@link Builder}.
+     */
+    public Builder add(double value) {
+      if (column >= headers.size()) {
+        return this;
+      }
+
+      if (values[column] == null) {
+        return add(format(value));
+      }
+
+      ensureCapacity();
+      values[column][height] = value;
+      column++;
+      return this;
+    }
+
+    /**
+     * Ends the current row. Columns without a value in the current row are set to null.
+     *
+     * @return this {@link Builder}.
+     */
+    public Builder endRow() {
+      while (column < headers.size()) {
+        add((String) null);
+      }
+
+      column = 0;
+      height++;
+      return this;
+    }
+
+    /**
+     * Builds the {@link ColumnarAnalyticsData}. Column arrays are trimmed to the number of rows.
+     *
+     * @return a {@link ColumnarAnalyticsData}.
+     */
+    public ColumnarAnalyticsData build() {
+      int width = headers.size();
+      String[][] dictionaryArrays = new String[width][];
+
+      for (int i = 0; i < width; i++) {
+        if (values[i] != null) {
+          values[i] = Arrays.copyOf(values[i], height);
+          nulls[i] = Arrays.copyOf(nulls[i], (height + 63) >>> 6);
+        } else {
+          codes[i] = Arrays.copyOf(codes[i], height);
+          dictionaryArrays[i] = dictionaries.get(i).toArray(new String[0]);
+        }
+      }
+
+      return new ColumnarAnalyticsData(
+          headers,
+          metaData,
+          truncated,
+          height,
+          codes,
+          dictionaryArrays,
+          dictionaryCodes,
+          values,
+          nulls);
+    }
+
+    private int encode(int column, String value) {
+      Integer code = dictionaryCodes[column].get(value);
+
+      if (code == null) {
+        code = dictionaries.get(column).size();
+        dictionaries.get(column).add(value);
+        dictionaryCodes[column].put(value, code);
+      }
+
+      return code;
+    }
+
+    private void setNull(int column) {
+      nulls[column][height >>> 6] |= 1L << height;
+    }
+
+    /** Grows the column arrays if the current row does not fit. */
+    private void ensureCapacity() {
+      if (height < capacity) {
+        return;
+      }
+
+      capacity *= 2;
+
+      for (int i = 0; i < headers.size(); i++) {
+        if (values[i] != null) {
+          values[i] = Arrays.copyOf(values[i], capacity);
+          nulls[i] = Arrays.copyOf(nulls[i], capacity >>> 6);
+        } else {
+          codes[i] = Arrays.copyOf(codes[i], capacity);
+        }
+      }
+    }
+
+    /**
+     * Parses the given value as a number.
+     *
+     * @param value the value.
+     * @return the number, or {@link Double#NaN} if the value is null or not numeric.
+     */
+    private static double parse(String value) {
+      if (value == null || value.isEmpty()) {
+        return Double.NaN;
+      }
+
+      try {
+        return Double.parseDouble(value);
+      } catch (NumberFormatException ex) {
+        return Double.NaN;
+      }
+    }
+  }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.query.analytics;
+
+import static org.hisp.dhis.model.analytics.AnalyticsDimension.ORG_UNIT;
+import static org.hisp.dhis.model.analytics.AnalyticsKeyword.ORG_UNIT_GROUP_PREFIX;
+import static org.hisp.dhis.model.analytics.AnalyticsKeyword.ORG_UNIT_LEVEL_PREFIX;
+import static org.hisp.dhis.model.analytics.AnalyticsKeyword.USER_ORGUNIT;
+import static org.hisp.dhis.util.ObjectUtils.isPresent;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.apache.commons.collections4.ListUtils;
+import org.apache.commons.lang3.BooleanUtils;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Partitions an {@link AnalyticsQuery} along one of its dimensions, typically {@code dx}, {@code
+ * pe} or {@code ou}, into sub-queries where the split dimension has a bounded number of items. The
+ * sub-queries are otherwise identical to the original query, which means that the union of the
+ * responses of the sub-queries is equal to the response of the original query.
+ *
+ * <p>Org unit keyword items of the {@code ou} dimension, i.e. {@code LEVEL-n}, {@code OU_GROUP-x}
+ * and {@code USER_ORGUNIT} items, qualify the org units they are combined with. Such items are
+ * repeated in every sub-query, and only the remaining org unit items are split.
+ *
+ * <p>Only dimensions can be split. Filters cannot be split, as the items of a filter are aggregated
+ * into a single value. Queries with table layout cannot be split, as the rows of the responses
+ * cannot be concatenated.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class AnalyticsQuerySplitter {
+  /**
+   * Splits the given query into sub-queries, where the given dimension has at most the given number
+   * of items. The items are partitioned in order. Org unit keyword items are included in every
+   * sub-query and do not count towards the max number of items. If the dimension has no more items
+   * than the max number of items, a list with the given query only is returned.
+   *
+   * @param query the {@link AnalyticsQuery}.
+   * @param dimension the identifier of the dimension to split, e.g. {@code pe}.
+   * @param maxItems the max number of items of the dimension per sub-query.
+   * @return a list of {@link AnalyticsQuery}.
+   * @throws IllegalArgumentException if the dimension is not a dimension of the query, or if the
+   *     query uses table layout.
+   */
+  public static List<AnalyticsQuery> split(AnalyticsQuery query, String dimension, int maxItems) {
+    Validate.isTrue(maxItems > 0, "Max items must be greater than zero");
+    Validate.isTrue(
+        !BooleanUtils.isTrue(query.getTableLayout()), "Query with table layout cannot be split");
+    Validate.isTrue(
+        getDimension(query.getFilters(), dimension) == null,
+        "Filter cannot be split: '%s'",
+        dimension);
+
+    QueryDimension splitDimension = getDimension(query.getDimensions(), dimension);
+
+    Validate.isTrue(isPresent(splitDimension), "Dimension not present in query: '%s'", dimension);
+
+    List<String> keywordItems = new ArrayList<>();
+    List<String> splitItems = new ArrayList<>();
+
+    for (String item : splitDimension.getItems()) {
+      boolean keyword = ORG_UNIT.equals(dimension) && isOrgUnitKeyword(item);
+      (keyword ? keywordItems : splitItems).add(item);
+    }
+
+    if (splitItems.size() <= maxItems) {
+      return List.of(query);
+    }
+
+    List<AnalyticsQuery> queries = new ArrayList<>();
+
+    for (List<String> partition : ListUtils.partition(splitItems, maxItems)) {
+      List<String> items = new ArrayList<>(keywordItems);
+      items.addAll(partition);
+      queries.add(copy(query, new QueryDimension(dimension, items)));
+    }
+
+    return queries;
+  }
+
+  /**
+   * Indicates whether the given item is an org unit keyword which qualifies other org unit items,
+   * such as {@code LEVEL-3} or {@code USER_ORGUNIT}.
+   *
+   * @param item the dimension item.
+   * @return true if the item is an org unit keyword.
+   */
+  private static boolean isOrgUnitKeyword(String item) {
+    return item.startsWith(ORG_UNIT_LEVEL_PREFIX)
+        || item.startsWith(ORG_UNIT_GROUP_PREFIX)
+        || item.startsWith(USER_ORGUNIT);
+  }
+
+  /**
+   * Returns the first dimension with the given identifier.
+   *
+   * @param dimensions the list of {@link QueryDimension}.
+   * @param dimension the dimension identifier.
+   * @return the {@link QueryDimension}, or null if not found.
+   */
+  private static QueryDimension getDimension(List<QueryDimension> dimensions, String dimension) {
+    return dimensions.stream()
+        .filter(dim -> dimension.equals(dim.getDimension()))
+        .findFirst()
+        .orElse(null);
+  }
+
+  /**
+   * Returns a copy of the given query, where the dimension with the same identifier as the given
+   * dimension is replaced by the given dimension. The position of the dimension is retained.
+   *
+   * @param query the {@link AnalyticsQuery}.
+   * @param splitDimension the {@link QueryDimension} to replace.
+   * @return a copy of the query.
+   */
+  private static AnalyticsQuery copy(AnalyticsQuery query, QueryDimension splitDimension) {
+    AnalyticsQuery copy = AnalyticsQuery.instance();
+
+    for (QueryDimension dimension : query.getDimensions()) {
+      boolean split = splitDimension.getDimension().equals(dimension.getDimension());
+      copy.addDimension(split ? splitDimension : dimension);
+    }
+
+    query.getFilters().forEach(copy::addFilter);
+
+    return copy.setAggregationType(query.getAggregationType())
+        .setStartDate(query.getStartDate())
+        .setEndDate(query.getEndDate())
+        .setSkipMeta(query.getSkipMeta())
+        .setSkipData(query.getSkipData())
+        .setSkipRounding(query.getSkipRounding())
+        .setIgnoreLimit(query.getIgnoreLimit())
+        .setTableLayout(query.getTableLayout())
+        .setShowHierarchy(query.getShowHierarchy())
+        .setIncludeNumDen(query.getIncludeNumDen())
+        .setIncludeMetadataDetails(query.getIncludeMetadataDetails())
+        .setOutputIdScheme(query.getOutputIdScheme())
+        .setOutputOrgUnitIdScheme(query.getOutputOrgUnitIdScheme())
+        .setOutputDataElementIdScheme(query.getOutputDataElementIdScheme())
+        .setInputIdScheme(query.getInputIdScheme())
+        .setColumns(query.getColumns())
+        .setRows(query.getRows());
+  }
+}
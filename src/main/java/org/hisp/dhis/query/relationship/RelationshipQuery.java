@@ -34,12 +34,15 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.experimental.Accessors;
+import org.hisp.dhis.query.Paging;
 
 @Getter
 @Setter
 @Accessors(chain = true)
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class RelationshipQuery {
+  /** Paging, no paging parameters are applied if null. */
+  private Paging paging;
 
   /** Identifier of a tracked entity. */
   private String trackedEntity;
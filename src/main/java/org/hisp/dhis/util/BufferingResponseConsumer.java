@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2004-2025, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.EntityDetails;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.io.HttpClientResponseHandler;
+import org.apache.hc.core5.http.io.entity.InputStreamEntity;
+import org.apache.hc.core5.http.message.BasicClassicHttpResponse;
+import org.apache.hc.core5.http.nio.AsyncResponseConsumer;
+import org.apache.hc.core5.http.nio.CapacityChannel;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.hisp.dhis.executor.TaskExecutor;
+
+/**
+ * {@link AsyncResponseConsumer} which accumulates the response body on the I/O dispatch thread
+ * without blocking, and hands the complete response to a {@link HttpClientResponseHandler} of the
+ * classic HTTP client API on the given {@link TaskExecutor} when the end of the stream is reached.
+ * Executor threads are hence only occupied by responses which are fully received, so that the
+ * number of responses in flight is not limited by the number of executor threads, and slow
+ * responses do not hold up other responses.
+ *
+ * <p>The body is held in chunks of fixed size rather than in a single contiguous array, so that it
+ * is not copied as it grows. The body size is bounded by the given max size, and the response fails
+ * with an {@link IOException} if the body exceeds it.
+ *
+ * @param <T> the result type.
+ */
+public class BufferingResponseConsumer<T> implements AsyncResponseConsumer<T> {
+  /** Size of chunks of the accumulated body. */
+  private static final int CHUNK_SIZE = 64 * 1024;
+
+  /** The max size of the response body in bytes. */
+  private final long maxBodySize;
+
+  /** The executor on which the handler is run. */
+  private final TaskExecutor executor;
+
+  /** The handler of the response. */
+  private final HttpClientResponseHandler<T> handler;
+
+  /** The chunks of the accumulated body. */
+  private final List<byte[]> chunks = new ArrayList<>();
+
+  /** The number of bytes of the last chunk. */
+  private int chunkPosition = CHUNK_SIZE;
+
+  /** The total number of bytes of the body. */
+  private long bodySize;
+
+  private HttpResponse response;
+
+  private EntityDetails entityDetails;
+
+  private FutureCallback<T> resultCallback;
+
+  /**
+   * Constructor.
+   *
+   * @param maxBodySize the max size of the response body in bytes.
+   * @param executor the {@link TaskExecutor} on which the handler is run.
+   * @param handler the {@link HttpClientResponseHandler}.
+   */
+  public BufferingResponseConsumer(
+      long maxBodySize, TaskExecutor executor, HttpClientResponseHandler<T> handler) {
+    this.maxBodySize = maxBodySize;
+    this.executor = Objects.requireNonNull(executor);
+    this.handler = Objects.requireNonNull(handler);
+  }
+
+  @Override
+  public void consumeResponse(
+      HttpResponse response,
+      EntityDetails entityDetails,
+      HttpContext context,
+      FutureCallback<T> resultCallback)
+      throws IOException {
+    if (entityDetails != null && entityDetails.getContentLength() > maxBodySize) {
+      throw new IOException(getMaxBodySizeMessage());
+    }
+
+    this.response = response;
+    this.entityDetails = entityDetails;
+    this.resultCallback = resultCallback;
+
+    if (entityDetails == null) {
+      handle();
+    }
+  }
+
+  @Override
+  public void informationResponse(HttpResponse response, HttpContext context) {}
+
+  @Override
+  public void updateCapacity(CapacityChannel capacityChannel) throws IOException {
+    capacityChannel.update(Integer.MAX_VALUE);
+  }
+
+  @Override
+  public void consume(ByteBuffer src) throws IOException {
+    bodySize += src.remaining();
+
+    if (bodySize > maxBodySize) {
+      throw new IOException(getMaxBodySizeMessage());
+    }
+
+    while (src.hasRemaining()) {
+      if (chunkPosition == CHUNK_SIZE) {
+        chunks.add(new byte[CHUNK_SIZE]);
+        chunkPosition = 0;
+      }
+
+      int length = Math.min(src.remaining(), CHUNK_SIZE - chunkPosition);
+      src.get(chunks.get(chunks.size() - 1), chunkPosition, length);
+      chunkPosition += length;
+    }
+  }
+
+  @Override
+  public void streamEnd(List<? extends Header> trailers) {
+    handle();
+  }
+
+  @Override
+  public void failed(Exception cause) {
+    releaseResources();
+  }
+
+  @Override
+  public void releaseResources() {
+    chunks.clear();
+  }
+
+  /**
+   * Submits the handler of the received response to the executor, with a {@link
+   * ClassicHttpResponse} whose entity reads from the accumulated body.
+   */
+  private void handle() {
+    BasicClassicHttpResponse classicResponse =
+        new BasicClassicHttpResponse(response.getCode(), response.getReasonPhrase());
+    classicResponse.setHeaders(response.getHeaders());
+
+    if (entityDetails != null) {
+      classicResponse.setEntity(
+          new InputStreamEntity(
+              getBody(),
+              bodySize,
+              ContentType.parseLenient(entityDetails.getContentType()),
+              entityDetails.getContentEncoding()));
+    }
+
+    FutureCallback<T> callback = resultCallback;
+
+    executor.submit(
+        () -> {
+          try (classicResponse) {
+            callback.completed(handler.handleResponse(classicResponse));
+          } catch (Exception ex) {
+            callback.failed(ex);
+          }
+          return null;
+        });
+  }
+
+  /**
+   * Returns an {@link InputStream} of the accumulated body.
+   *
+   * @return an {@link InputStream}.
+   */
+  private InputStream getBody() {
+    List<InputStream> streams = new ArrayList<>(chunks.size());
+
+    for (int i = 0; i < chunks.size(); i++) {
+      int length = i == chunks.size() - 1 ? chunkPosition : CHUNK_SIZE;
+      streams.add(new ByteArrayInputStream(chunks.get(i), 0, length));
+    }
+
+    return new SequenceInputStream(Collections.enumeration(streams));
+  }
+
+  /**
+   * Returns the message for a response body which exceeds the max size.
+   *
+   * @return the message.
+   */
+  private String getMaxBodySizeMessage() {
+    return String.format("Response body exceeds max size of %d bytes", maxBodySize);
+  }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * {@link InputStream} which retains a bounded prefix of the bytes read from the underlying stream.
+ * Allows for reading a response body as a stream while keeping a snippet of the body for logging
+ * and error reporting, without buffering the full body in memory.
+ */
+public class CapturingInputStream extends FilterInputStream {
+  /** Maximum number of bytes to capture. */
+  private final int limit;
+
+  /** The captured bytes. */
+  private final ByteArrayOutputStream captured;
+
+  /** Indicates whether more bytes were read than captured. */
+  private boolean truncated = false;
+
+  /**
+   * Constructor.
+   *
+   * @param in the underlying {@link InputStream}.
+   * @param limit the maximum number of bytes to capture.
+   */
+  public CapturingInputStream(InputStream in, int limit) {
+    super(in);
+    this.limit = limit;
+    this.captured = new ByteArrayOutputStream(Math.min(limit, 1024));
+  }
+
+  @Override
+  public int read() throws IOException {
+    int b = super.read();
+
+    if (b != -1) {
+      capture(b);
+    }
+
+    return b;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    int n = super.read(b, off, len);
+
+    if (n > 0) {
+      capture(b, off, n);
+    }
+
+    return n;
+  }
+
+  /**
+   * Returns the captured bytes as a UTF-8 string. An ellipsis is appended if more bytes were read
+   * than captured.
+   *
+   * @return the captured snippet.
+   */
+  public String getSnippet() {
+    String snippet = captured.toString(StandardCharsets.UTF_8);
+    return truncated ? snippet + "..." : snippet;
+  }
+
+  /**
+   * Captures the given byte.
+   *
+   * @param b the byte.
+   */
+  private void capture(int b) {
+    if (captured.size() < limit) {
+      captured.write(b);
+    } else {
+      truncated = true;
+    }
+  }
+
+  /**
+   * Captures the given bytes up to the limit.
+   *
+   * @param b the bytes.
+   * @param off the offset.
+   * @param len the number of bytes.
+   */
+  private void capture(byte[] b, int off, int len) {
+    int remaining = limit - captured.size();
+
+    if (len > remaining) {
+      truncated = true;
+    }
+
+    if (remaining > 0) {
+      captured.write(b, off, Math.min(len, remaining));
+    }
+  }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.util;
+
+import static org.hisp.dhis.util.CountingHttpEntity.countingOutputStream;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+import org.apache.commons.io.output.CloseShieldOutputStream;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.io.entity.HttpEntityWrapper;
+import org.hisp.dhis.RequestCompression;
+import org.hisp.dhis.TransferStats;
+
+/**
+ * {@link HttpEntity} wrapper which compresses the content of the wrapped entity while it is written
+ * to the output stream, and sets the corresponding content encoding. The uncompressed and
+ * compressed number of bytes are recorded in a {@link TransferStats}.
+ */
+public class CompressingHttpEntity extends HttpEntityWrapper {
+  private static final int BUFFER_SIZE = 8192;
+
+  private final RequestCompression compression;
+
+  private final TransferStats stats;
+
+  /**
+   * Constructor.
+   *
+   * @param entity the {@link HttpEntity} to wrap.
+   * @param compression the {@link RequestCompression}, must not be {@link RequestCompression#NONE}.
+   * @param stats the {@link TransferStats}.
+   */
+  public CompressingHttpEntity(
+      HttpEntity entity, RequestCompression compression, TransferStats stats) {
+    super(entity);
+    Objects.requireNonNull(compression);
+    Objects.requireNonNull(stats);
+
+    if (compression == RequestCompression.NONE) {
+      throw new IllegalArgumentException("Compression must be gzip or deflate");
+    }
+
+    this.compression = compression;
+    this.stats = stats;
+  }
+
+  @Override
+  public String getContentEncoding() {
+    return compression.getContentEncoding();
+  }
+
+  @Override
+  public long getContentLength() {
+    return -1;
+  }
+
+  @Override
+  public boolean isChunked() {
+    return true;
+  }
+
+  /**
+   * Returns the compressed content as an input stream. Note that the compressed content is buffered
+   * in memory, use {@link #writeTo(OutputStream)} to stream the content.
+   *
+   * @return an {@link InputStream}.
+   * @throws IOException if an I/O error occurs.
+   */
+  @Override
+  public InputStream getContent() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    writeTo(out);
+    return new ByteArrayInputStream(out.toByteArray());
+  }
+
+  @Override
+  public void writeTo(OutputStream out) throws IOException {
+    AtomicLong contentBytes = new AtomicLong();
+    AtomicLong transferBytes = new AtomicLong();
+
+    OutputStream target =
+        CloseShieldOutputStream.wrap(countingOutputStream(out, transferBytes::addAndGet));
+
+    try (DeflaterOutputStream compressed = newCompressingStream(target)) {
+      super.writeTo(countingOutputStream(compressed, contentBytes::addAndGet));
+    }
+
+    out.flush();
+
+    stats.addRequestBytes(contentBytes.get(), transferBytes.get());
+  }
+
+  /**
+   * Returns a compressing output stream which writes to the given output stream.
+   *
+   * @param out the {@link OutputStream}.
+   * @return a {@link DeflaterOutputStream}.
+   * @throws IOException if an I/O error occurs.
+   */
+  private DeflaterOutputStream newCompressingStream(OutputStream out) throws IOException {
+    return compression == RequestCompression.GZIP
+        ? new GZIPOutputStream(out, BUFFER_SIZE)
+        : new DeflaterOutputStream(new BufferedOutputStream(out, BUFFER_SIZE));
+  }
+}
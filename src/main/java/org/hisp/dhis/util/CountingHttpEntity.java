@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Objects;
+import java.util.function.LongConsumer;
+import org.apache.commons.io.input.ProxyInputStream;
+import org.apache.commons.io.output.ProxyOutputStream;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.io.entity.HttpEntityWrapper;
+
+/**
+ * {@link HttpEntity} wrapper which reports the number of bytes read from or written by the wrapped
+ * entity to a counter.
+ */
+public class CountingHttpEntity extends HttpEntityWrapper {
+  private final LongConsumer counter;
+
+  /**
+   * Constructor.
+   *
+   * @param entity the {@link HttpEntity} to wrap.
+   * @param counter the counter which receives the number of bytes.
+   */
+  public CountingHttpEntity(HttpEntity entity, LongConsumer counter) {
+    super(entity);
+    this.counter = Objects.requireNonNull(counter);
+  }
+
+  @Override
+  public InputStream getContent() throws IOException {
+    InputStream content = super.getContent();
+    return content != null ? countingInputStream(content, counter) : null;
+  }
+
+  @Override
+  public void writeTo(OutputStream out) throws IOException {
+    super.writeTo(countingOutputStream(out, counter));
+  }
+
+  /**
+   * Returns an input stream which reports the number of bytes read to the given counter.
+   *
+   * @param in the {@link InputStream}.
+   * @param counter the counter.
+   * @return an {@link InputStream}.
+   */
+  static InputStream countingInputStream(InputStream in, LongConsumer counter) {
+    return new ProxyInputStream(in) {
+      @Override
+      protected void afterRead(int n) {
+        if (n > 0) {
+          counter.accept(n);
+        }
+      }
+    };
+  }
+
+  /**
+   * Returns an output stream which reports the number of bytes written to the given counter.
+   *
+   * @param out the {@link OutputStream}.
+   * @param counter the counter.
+   * @return an {@link OutputStream}.
+   */
+  static OutputStream countingOutputStream(OutputStream out, LongConsumer counter) {
+    return new ProxyOutputStream(out) {
+      @Override
+      protected void beforeWrite(int n) {
+        counter.accept(n);
+      }
+    };
+  }
+}
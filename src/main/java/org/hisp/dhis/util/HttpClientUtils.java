@@ -0,0 +1,318 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.util;
+
+import static org.hisp.dhis.util.ObjectUtils.isPresent;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.function.LongConsumer;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSessionContext;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.apache.hc.client5.http.classic.ExecChainHandler;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.ChainElement;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClientBuilder;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.ssl.ClientTlsStrategyBuilder;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.reactor.IOReactorConfig;
+import org.apache.hc.core5.ssl.SSLContexts;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.hisp.dhis.HttpClientConfig;
+import org.hisp.dhis.TransferStats;
+
+/** Utilities for creating and configuring HTTP clients. */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class HttpClientUtils {
+  /**
+   * Creates a {@link CloseableHttpClient} backed by a connection pool configured according to the
+   * given {@link HttpClientConfig}. Redirect handling is disabled, as the client detects redirects
+   * to the DHIS2 login page explicitly. The returned client can be shared between multiple {@code
+   * Dhis2} instances through {@code Dhis2Config#setHttpClient}, in which case the caller is
+   * responsible for closing it.
+   *
+   * @param config the {@link HttpClientConfig}.
+   * @return a {@link CloseableHttpClient}.
+   */
+  public static CloseableHttpClient createHttpClient(HttpClientConfig config) {
+    return createHttpClient(config, null);
+  }
+
+  /**
+   * Creates a {@link CloseableHttpClient} as described by {@link
+   * #createHttpClient(HttpClientConfig)}, which records the number of response bytes as received
+   * and after decompression in the given {@link TransferStats}.
+   *
+   * @param config the {@link HttpClientConfig}.
+   * @param stats the {@link TransferStats}, may be null.
+   * @return a {@link CloseableHttpClient}.
+   */
+  public static CloseableHttpClient createHttpClient(HttpClientConfig config, TransferStats stats) {
+    Objects.requireNonNull(config, "HTTP client config must be specified");
+
+    HttpClientBuilder builder =
+        HttpClients.custom()
+            .setConnectionManager(createConnectionManager(config))
+            .setDefaultRequestConfig(createRequestConfig(config))
+            .disableRedirectHandling()
+            .disableConnectionState()
+            .evictExpiredConnections();
+
+    if (isPresent(config.getIdleEvictionTime())) {
+      builder.evictIdleConnections(toTimeValue(config.getIdleEvictionTime()));
+    }
+
+    if (!config.isResponseCompression()) {
+      builder.disableContentCompression();
+    }
+
+    if (isPresent(stats)) {
+      builder.addExecInterceptorFirst(
+          "response-content-counter", countingInterceptor(stats::addResponseContentBytes));
+      builder.addExecInterceptorAfter(
+          ChainElement.COMPRESS.name(),
+          "response-transfer-counter",
+          countingInterceptor(stats::addResponseTransferBytes));
+    }
+
+    return builder.build();
+  }
+
+  /**
+   * Creates an {@link ExecChainHandler} which reports the number of bytes read from response bodies
+   * to the given counter. When placed before the content compression element of the chain, the
+   * bytes are counted after decompression, otherwise the bytes are counted as received.
+   *
+   * @param counter the counter.
+   * @return an {@link ExecChainHandler}.
+   */
+  static ExecChainHandler countingInterceptor(LongConsumer counter) {
+    return (request, scope, chain) -> {
+      ClassicHttpResponse response = chain.proceed(request, scope);
+      HttpEntity entity = response.getEntity();
+
+      if (entity != null) {
+        response.setEntity(new CountingHttpEntity(entity, counter));
+      }
+
+      return response;
+    };
+  }
+
+  /**
+   * Creates a {@link CloseableHttpAsyncClient} backed by a connection pool configured according to
+   * the given {@link HttpClientConfig}. Requests are executed on a small number of I/O dispatch
+   * threads, which allows for a large number of concurrent requests. The returned client is not
+   * started.
+   *
+   * @param config the {@link HttpClientConfig}.
+   * @return a {@link CloseableHttpAsyncClient}.
+   */
+  public static CloseableHttpAsyncClient createHttpAsyncClient(HttpClientConfig config) {
+    Objects.requireNonNull(config, "HTTP client config must be specified");
+
+    HttpAsyncClientBuilder builder =
+        HttpAsyncClients.custom()
+            .setConnectionManager(createAsyncConnectionManager(config))
+            .setIOReactorConfig(createIoReactorConfig(config))
+            .setDefaultRequestConfig(createRequestConfig(config))
+            .disableRedirectHandling()
+            .evictExpiredConnections();
+
+    if (isPresent(config.getIdleEvictionTime())) {
+      builder.evictIdleConnections(toTimeValue(config.getIdleEvictionTime()));
+    }
+
+    return builder.build();
+  }
+
+  /**
+   * Creates a {@link PoolingHttpClientConnectionManager} based on the given {@link
+   * HttpClientConfig}.
+   *
+   * @param config the {@link HttpClientConfig}.
+   * @return a {@link PoolingHttpClientConnectionManager}.
+   */
+  static PoolingHttpClientConnectionManager createConnectionManager(HttpClientConfig config) {
+    return PoolingHttpClientConnectionManagerBuilder.create()
+        .setMaxConnTotal(config.getMaxConnections())
+        .setMaxConnPerRoute(config.getMaxConnectionsPerRoute())
+        .setDefaultConnectionConfig(createConnectionConfig(config))
+        .setTlsSocketStrategy(
+            ClientTlsStrategyBuilder.create()
+                .setSslContext(createSslContext(config))
+                .buildClassic())
+        .build();
+  }
+
+  /**
+   * Creates a {@link PoolingAsyncClientConnectionManager} based on the given {@link
+   * HttpClientConfig}.
+   *
+   * @param config the {@link HttpClientConfig}.
+   * @return a {@link PoolingAsyncClientConnectionManager}.
+   */
+  static PoolingAsyncClientConnectionManager createAsyncConnectionManager(HttpClientConfig config) {
+    return PoolingAsyncClientConnectionManagerBuilder.create()
+        .setMaxConnTotal(config.getMaxConnections())
+        .setMaxConnPerRoute(config.getMaxConnectionsPerRoute())
+        .setDefaultConnectionConfig(createConnectionConfig(config))
+        .setTlsStrategy(
+            ClientTlsStrategyBuilder.create().setSslContext(createSslContext(config)).buildAsync())
+        .build();
+  }
+
+  /**
+   * Creates an {@link IOReactorConfig} based on the given {@link HttpClientConfig}.
+   *
+   * @param config the {@link HttpClientConfig}.
+   * @return an {@link IOReactorConfig}.
+   */
+  static IOReactorConfig createIoReactorConfig(HttpClientConfig config) {
+    IOReactorConfig.Builder builder = IOReactorConfig.custom();
+
+    if (isPresent(config.getIoThreadCount())) {
+      builder.setIoThreadCount(config.getIoThreadCount());
+    }
+
+    if (isPresent(config.getSocketTimeout())) {
+      builder.setSoTimeout(toTimeout(config.getSocketTimeout()));
+    }
+
+    return builder.build();
+  }
+
+  /**
+   * Creates a {@link ConnectionConfig} based on the given {@link HttpClientConfig}.
+   *
+   * @param config the {@link HttpClientConfig}.
+   * @return a {@link ConnectionConfig}.
+   */
+  static ConnectionConfig createConnectionConfig(HttpClientConfig config) {
+    ConnectionConfig.Builder builder = ConnectionConfig.custom();
+
+    if (isPresent(config.getConnectTimeout())) {
+      builder.setConnectTimeout(toTimeout(config.getConnectTimeout()));
+    }
+
+    if (isPresent(config.getSocketTimeout())) {
+      builder.setSocketTimeout(toTimeout(config.getSocketTimeout()));
+    }
+
+    if (isPresent(config.getTimeToLive())) {
+      builder.setTimeToLive(toTimeValue(config.getTimeToLive()));
+    }
+
+    if (isPresent(config.getValidateAfterInactivity())) {
+      builder.setValidateAfterInactivity(toTimeValue(config.getValidateAfterInactivity()));
+    }
+
+    return builder.build();
+  }
+
+  /**
+   * Creates a {@link RequestConfig} based on the given {@link HttpClientConfig}.
+   *
+   * @param config the {@link HttpClientConfig}.
+   * @return a {@link RequestConfig}.
+   */
+  static RequestConfig createRequestConfig(HttpClientConfig config) {
+    RequestConfig.Builder builder = RequestConfig.custom();
+
+    if (isPresent(config.getConnectionRequestTimeout())) {
+      builder.setConnectionRequestTimeout(toTimeout(config.getConnectionRequestTimeout()));
+    }
+
+    if (isPresent(config.getResponseTimeout())) {
+      builder.setResponseTimeout(toTimeout(config.getResponseTimeout()));
+    }
+
+    if (isPresent(config.getKeepAlive())) {
+      builder.setConnectionKeepAlive(toTimeValue(config.getKeepAlive()));
+    }
+
+    return builder.build();
+  }
+
+  /**
+   * Creates a {@link SSLContext}. TLS client sessions are cached by the context and resumed for new
+   * connections to the same host, where the cache size and session timeout are applied if specified
+   * in the given {@link HttpClientConfig}.
+   *
+   * @param config the {@link HttpClientConfig}.
+   * @return a {@link SSLContext}.
+   */
+  static SSLContext createSslContext(HttpClientConfig config) {
+    SSLContext sslContext = SSLContexts.createDefault();
+    SSLSessionContext sessionContext = sslContext.getClientSessionContext();
+
+    if (isPresent(config.getTlsSessionCacheSize())) {
+      sessionContext.setSessionCacheSize(config.getTlsSessionCacheSize());
+    }
+
+    if (isPresent(config.getTlsSessionTimeout())) {
+      sessionContext.setSessionTimeout((int) config.getTlsSessionTimeout().toSeconds());
+    }
+
+    return sslContext;
+  }
+
+  /**
+   * Converts the given {@link Duration} to a {@link Timeout}.
+   *
+   * @param duration the {@link Duration}.
+   * @return a {@link Timeout}.
+   */
+  private static Timeout toTimeout(Duration duration) {
+    return Timeout.ofMilliseconds(duration.toMillis());
+  }
+
+  /**
+   * Converts the given {@link Duration} to a {@link TimeValue}.
+   *
+   * @param duration the {@link Duration}.
+   * @return a {@link TimeValue}.
+   */
+  private static TimeValue toTimeValue(Duration duration) {
+    return TimeValue.ofMilliseconds(duration.toMillis());
+  }
+}
@@ -33,10 +33,13 @@ import java.net.URISyntaxException;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
+import java.util.StringJoiner;
 import java.util.regex.Pattern;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
-import org.apache.hc.client5.http.classic.methods.HttpUriRequestBase;
+import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.hc.core5.http.HttpRequest;
 import org.apache.hc.core5.http.message.BasicHttpRequest;
 import org.apache.hc.core5.net.URIBuilder;
 import org.hisp.dhis.Dhis2Config;
@@ -54,16 +57,19 @@ public final class HttpUtils {
   /** Pattern for matching a session identifier as part of a session cookie value. */
   public static final Pattern PATTERN_SESSION_ID = Pattern.compile("JSESSIONID=(\\w+);.*");
 
+  /** Pattern for matching a word in lower camel case, such as a resource name. */
+  private static final Pattern PATTERN_LOWER_CAMEL_CASE = Pattern.compile("^[a-z]+([A-Z][a-z]+)*$");
+
   /**
    * Adds a HTTP header for authentication based on the {@link Authentication} of the given {@link
    * Dhis2Config}.
    *
-   * @param request the {@link HttpUriRequestBase}.
+   * @param request the {@link HttpRequest}.
    * @param config the {@link Dhis2Config}.
    * @param <T> the request class type.
    * @return the request object.
    */
-  public static <T extends HttpUriRequestBase> T withAuth(T request, Dhis2Config config) {
+  public static <T extends HttpRequest> T withAuth(T request, Dhis2Config config) {
     Authentication auth = config.getAuthentication();
 
     if (auth.hasAuth()) {
@@ -115,6 +121,63 @@ public final class HttpUtils {
     }
   }
 
+  /**
+   * Returns the path template of the given request URI, which is the path relative to the API root,
+   * where segments which are identifiers are replaced by {@code {id}}. An API version following the
+   * API root is dropped, and namespaces and keys of the data store are replaced by {@code
+   * {namespace}} and {@code {key}}. As an example, {@code
+   * https://server/api/41/organisationUnits/Rp268JB6Ne4.json?fields=id} is returned as {@code
+   * organisationUnits/{id}.json}.
+   *
+   * @param uri the request URI, either absolute or a path with an optional query.
+   * @return the path template.
+   */
+  public static String getPathTemplate(String uri) {
+    String path = StringUtils.substringBefore(StringUtils.substringBefore(uri, "?"), "#");
+    int scheme = path.indexOf("://");
+
+    if (scheme >= 0) {
+      int pathStart = path.indexOf('/', scheme + 3);
+      path = pathStart >= 0 ? path.substring(pathStart) : "";
+    }
+
+    String[] segments = StringUtils.split(path, '/');
+    int start = ArrayUtils.indexOf(segments, "api") + 1;
+
+    if (start > 0 && start < segments.length && StringUtils.isNumeric(segments[start])) {
+      start++;
+    }
+
+    StringJoiner template = new StringJoiner("/");
+
+    for (int i = start; i < segments.length; i++) {
+      if (i > start && "dataStore".equals(segments[start])) {
+        template.add(i == start + 1 ? "{namespace}" : "{key}");
+      } else {
+        template.add(toPathTemplateSegment(segments[i]));
+      }
+    }
+
+    return template.toString();
+  }
+
+  /**
+   * Returns {@code {id}} with any file extension of the given path segment if the segment is an
+   * identifier or a number, otherwise the segment. Segments in lower camel case, such as {@code
+   * enrollments}, are not considered identifiers.
+   *
+   * @param segment the path segment.
+   * @return the path template segment.
+   */
+  private static String toPathTemplateSegment(String segment) {
+    String name = StringUtils.substringBefore(segment, ".");
+    boolean id =
+        (UidUtils.isValidUid(name) && !PATTERN_LOWER_CAMEL_CASE.matcher(name).matches())
+            || StringUtils.isNumeric(name);
+
+    return id ? "{id}" + segment.substring(name.length()) : segment;
+  }
+
   /**
    * Returns a basic authentication string, on the format <code>Basic {auth-string}</code>, where
    * the auth string is generated by Base64-encoding username:password.
@@ -39,6 +39,7 @@ import lombok.NoArgsConstructor;
 import org.hisp.dhis.util.json.DateJsonDeserializer;
 import org.hisp.dhis.util.json.GeometryJsonDeserializer;
 import org.hisp.dhis.util.json.GeometryJsonSerializer;
+import org.hisp.dhis.util.json.UidInterningDeserializerModifier;
 import org.locationtech.jts.geom.Geometry;
 import tools.jackson.core.type.TypeReference;
 import tools.jackson.databind.DeserializationFeature;
@@ -78,6 +79,44 @@ public final class JacksonUtils {
     return JSON_MAPPER;
   }
 
+  /**
+   * Returns a new {@link JsonMapper} with the same configuration as {@link #getJsonMapper()}, which
+   * in addition interns the identifier properties of data values, events and event data values
+   * through the given {@link UidDictionary} during deserialization. This reduces memory usage for
+   * large data value sets and event responses where identifiers repeat.
+   *
+   * @param dictionary the {@link UidDictionary}.
+   * @return a {@link JsonMapper}.
+   */
+  public static JsonMapper createJsonMapper(UidDictionary dictionary) {
+    return createJsonMapper(dictionary, null);
+  }
+
+  /**
+   * Returns a new {@link JsonMapper} with the same configuration as {@link #getJsonMapper()}, which
+   * in addition interns identifiers through the given {@link UidDictionary} if specified, and
+   * deserializes geometries with the given {@link GeometryJsonDeserializer} if specified, e.g. to
+   * reduce the precision of coordinates.
+   *
+   * @param dictionary the {@link UidDictionary}, may be null.
+   * @param geometryDeserializer the {@link GeometryJsonDeserializer}, may be null.
+   * @return a {@link JsonMapper}.
+   */
+  public static JsonMapper createJsonMapper(
+      UidDictionary dictionary, GeometryJsonDeserializer geometryDeserializer) {
+    SimpleModule module = new SimpleModule();
+
+    if (dictionary != null) {
+      module.setDeserializerModifier(new UidInterningDeserializerModifier(dictionary));
+    }
+
+    if (geometryDeserializer != null) {
+      module.addDeserializer(Geometry.class, geometryDeserializer);
+    }
+
+    return JSON_MAPPER.rebuild().addModule(module).build();
+  }
+
   /**
    * Returns a new instance of an {@link ObjectMapper}.
    *
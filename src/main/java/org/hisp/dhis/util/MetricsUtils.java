@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2004-2025, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.util;
+
+import java.io.IOException;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.hisp.dhis.cache.AnalyticsCache;
+import org.hisp.dhis.metrics.JobMetrics;
+import org.hisp.dhis.metrics.MeteredResponseHandler;
+import org.hisp.dhis.metrics.MetricsListener;
+import org.hisp.dhis.metrics.RequestMetrics;
+
+/**
+ * Utilities for recording metrics of HTTP requests through a {@link MetricsListener}. Exceptions
+ * thrown by listeners are logged and otherwise ignored, so that metrics never cause requests to
+ * fail.
+ */
+@Slf4j
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class MetricsUtils {
+  /**
+   * Executes the given request with the given HTTP client and handles the response with the given
+   * handler. The {@link RequestMetrics} of the request are passed to the given listener when the
+   * request is completed, whether it failed or not.
+   *
+   * @param <T> the type of the result.
+   * @param httpClient the {@link CloseableHttpClient}.
+   * @param request the {@link ClassicHttpRequest}.
+   * @param listener the {@link MetricsListener}.
+   * @param handler the {@link MeteredResponseHandler}.
+   * @return the result of the handler.
+   * @throws IOException if the request failed.
+   */
+  public static <T> T execute(
+      CloseableHttpClient httpClient,
+      ClassicHttpRequest request,
+      MetricsListener listener,
+      MeteredResponseHandler<T> handler)
+      throws IOException {
+    RequestMetrics metrics = RequestMetrics.start(request);
+    Exception exception = null;
+
+    try {
+      return httpClient.execute(
+          request,
+          response -> {
+            metrics.countResponse(response);
+            return handler.handle(response, metrics);
+          });
+    } catch (IOException | RuntimeException ex) {
+      exception = ex;
+      throw ex;
+    } finally {
+      onRequest(listener, metrics.stop(exception));
+    }
+  }
+
+  /**
+   * Passes the given request metrics to the given listener.
+   *
+   * @param listener the {@link MetricsListener}.
+   * @param metrics the {@link RequestMetrics}.
+   */
+  public static void onRequest(MetricsListener listener, RequestMetrics metrics) {
+    try {
+      listener.onRequest(metrics);
+    } catch (RuntimeException ex) {
+      log.warn("Metrics listener failed for request: '{}'", metrics, ex);
+    }
+  }
+
+  /**
+   * Passes the given retry to the given listener.
+   *
+   * @param listener the {@link MetricsListener}.
+   * @param pathTemplate the path template of the request.
+   * @param attempt the retry attempt, starting on 1.
+   */
+  public static void onRetry(MetricsListener listener, String pathTemplate, int attempt) {
+    try {
+      listener.onRetry(pathTemplate, attempt);
+    } catch (RuntimeException ex) {
+      log.warn("Metrics listener failed for retry: '{}'", pathTemplate, ex);
+    }
+  }
+
+  /**
+   * Passes the given job metrics to the given listener.
+   *
+   * @param listener the {@link MetricsListener}.
+   * @param metrics the {@link JobMetrics}.
+   */
+  public static void onJobCompleted(MetricsListener listener, JobMetrics metrics) {
+    try {
+      listener.onJobCompleted(metrics);
+    } catch (RuntimeException ex) {
+      log.warn("Metrics listener failed for job: '{}'", metrics, ex);
+    }
+  }
+
+  /**
+   * Passes the given analytics cache to the given listener.
+   *
+   * @param listener the {@link MetricsListener}.
+   * @param cache the {@link AnalyticsCache}.
+   */
+  public static void onAnalyticsCache(MetricsListener listener, AnalyticsCache cache) {
+    try {
+      listener.onAnalyticsCache(cache);
+    } catch (RuntimeException ex) {
+      log.warn("Metrics listener failed for analytics cache", ex);
+    }
+  }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.util;
+
+import static org.hisp.dhis.util.ObjectUtils.isPresent;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.apache.commons.lang3.StringUtils;
+import org.hisp.dhis.model.Pager;
+import org.hisp.dhis.response.PagedResponse;
+
+/**
+ * {@link Spliterator} which lazily traverses the objects of a paged API resource. Pages are fetched
+ * one at a time on demand, and only the current page is held in memory. The traversal ends when the
+ * {@link Pager} of the last fetched page indicates that there is no next page, through {@link
+ * Pager#getNextPage()} or {@link Pager#getPageCount()}, or when a page has fewer objects than the
+ * page size.
+ *
+ * @param <T> the object type.
+ */
+public class PagingSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+  /** Function which fetches the page with the given page number. */
+  private final IntFunction<PagedResponse<T>> pageFetcher;
+
+  /** The page size. */
+  private final int pageSize;
+
+  /** The number of the next page to fetch. */
+  private int nextPage;
+
+  /** Indicates whether there are more pages to fetch. */
+  private boolean hasNextPage = true;
+
+  /** Iterator over the objects of the current page. */
+  private Iterator<T> current;
+
+  /**
+   * Constructor.
+   *
+   * @param pageFetcher the function which fetches the page with the given page number.
+   * @param firstPage the number of the first page to fetch, starting on 1.
+   * @param pageSize the page size.
+   */
+  public PagingSpliterator(IntFunction<PagedResponse<T>> pageFetcher, int firstPage, int pageSize) {
+    super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+    this.pageFetcher = Objects.requireNonNull(pageFetcher);
+    this.nextPage = firstPage;
+    this.pageSize = pageSize;
+  }
+
+  /**
+   * Returns a sequential {@link Stream} of the objects of the paged resource.
+   *
+   * @param <T> the object type.
+   * @param pageFetcher the function which fetches the page with the given page number.
+   * @param firstPage the number of the first page to fetch, starting on 1.
+   * @param pageSize the page size.
+   * @return a {@link Stream}.
+   */
+  public static <T> Stream<T> stream(
+      IntFunction<PagedResponse<T>> pageFetcher, int firstPage, int pageSize) {
+    return StreamSupport.stream(new PagingSpliterator<>(pageFetcher, firstPage, pageSize), false);
+  }
+
+  /**
+   * Returns an {@link Iterator} over the objects of the paged resource.
+   *
+   * @param <T> the object type.
+   * @param pageFetcher the function which fetches the page with the given page number.
+   * @param firstPage the number of the first page to fetch, starting on 1.
+   * @param pageSize the page size.
+   * @return an {@link Iterator}.
+   */
+  public static <T> Iterator<T> iterator(
+      IntFunction<PagedResponse<T>> pageFetcher, int firstPage, int pageSize) {
+    return Spliterators.iterator(new PagingSpliterator<>(pageFetcher, firstPage, pageSize));
+  }
+
+  @Override
+  public boolean tryAdvance(Consumer<? super T> action) {
+    while (current == null || !current.hasNext()) {
+      if (!hasNextPage) {
+        return false;
+      }
+
+      fetchNextPage();
+    }
+
+    action.accept(current.next());
+    return true;
+  }
+
+  /** Fetches the next page and replaces the current page. */
+  private void fetchNextPage() {
+    int page = nextPage++;
+    PagedResponse<T> response = pageFetcher.apply(page);
+    List<T> objects = response.getObjects();
+
+    current = isPresent(objects) ? objects.iterator() : null;
+    hasNextPage = hasNextPage(response.getPager(), objects, page, pageSize);
+  }
+
+  /**
+   * Indicates whether there is a page after the given page.
+   *
+   * @param pager the {@link Pager}, may be null.
+   * @param objects the objects of the given page.
+   * @param page the page number.
+   * @param pageSize the page size.
+   * @return true if there is a next page.
+   */
+  static boolean hasNextPage(Pager pager, List<?> objects, int page, int pageSize) {
+    if (objects == null || objects.isEmpty()) {
+      return false;
+    }
+
+    if (pager != null) {
+      if (StringUtils.isNotBlank(pager.getNextPage())) {
+        return true;
+      }
+
+      if (isPresent(pager.getPageCount()) && pager.getPageCount() >= 0) {
+        return page < pager.getPageCount();
+      }
+    }
+
+    return objects.size() >= pageSize;
+  }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.util;
+
+import static org.hisp.dhis.util.ObjectUtils.isPresent;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.apache.commons.lang3.Validate;
+import org.hisp.dhis.executor.TaskExecutor;
+import org.hisp.dhis.model.Pager;
+import org.hisp.dhis.response.Dhis2ClientException;
+import org.hisp.dhis.response.PagedResponse;
+
+/**
+ * {@link Spliterator} which traverses the objects of a paged API resource while fetching a number
+ * of pages ahead in parallel. Pages are fetched on the given {@link TaskExecutor}, and objects are
+ * emitted in page order. A new page request is only submitted when a page has been consumed, which
+ * means that at most the given number of pages are held in memory or in flight, regardless of how
+ * fast the consumer is.
+ *
+ * <p>The first page is fetched on its own. If its pager contains the page count, pages beyond the
+ * last page are never requested. Otherwise, pages beyond the last page may be requested
+ * speculatively, and such requests are cancelled or discarded. Pending requests are cancelled when
+ * the stream returned by {@link #stream(TaskExecutor, IntFunction, int, int, int)} is closed.
+ *
+ * @param <T> the object type.
+ */
+public class PrefetchingPagingSpliterator<T> extends Spliterators.AbstractSpliterator<T>
+    implements Closeable {
+  /** Function which fetches the page with the given page number. */
+  private final IntFunction<PagedResponse<T>> pageFetcher;
+
+  /** The page size. */
+  private final int pageSize;
+
+  /** The maximum number of pages to fetch ahead. */
+  private final int prefetchPages;
+
+  /** The executor used to fetch pages. */
+  private final TaskExecutor executor;
+
+  /** Pending page fetches in page order. */
+  private final Deque<CompletableFuture<PagedResponse<T>>> pending = new ArrayDeque<>();
+
+  /** The number of the next page to submit. */
+  private int nextPage;
+
+  /** The number of the page at the head of the pending page fetches. */
+  private int headPage;
+
+  /** The number of the last page, or {@link Long#MAX_VALUE} if not yet known. */
+  private long lastPage = Long.MAX_VALUE;
+
+  /** Indicates whether the first page has been consumed. */
+  private boolean firstPageConsumed = false;
+
+  /** Indicates whether there are more pages to consume. */
+  private boolean hasNextPage = true;
+
+  /** Iterator over the objects of the current page. */
+  private Iterator<T> current;
+
+  /**
+   * Constructor.
+   *
+   * @param executor the {@link TaskExecutor} used to fetch pages.
+   * @param pageFetcher the function which fetches the page with the given page number.
+   * @param firstPage the number of the first page to fetch, starting on 1.
+   * @param pageSize the page size.
+   * @param prefetchPages the maximum number of pages to fetch ahead, must be greater than zero.
+   */
+  public PrefetchingPagingSpliterator(
+      TaskExecutor executor,
+      IntFunction<PagedResponse<T>> pageFetcher,
+      int firstPage,
+      int pageSize,
+      int prefetchPages) {
+    super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+    Validate.isTrue(prefetchPages > 0, "Prefetch pages must be greater than zero");
+    this.executor = Objects.requireNonNull(executor);
+    this.pageFetcher = Objects.requireNonNull(pageFetcher);
+    this.pageSize = pageSize;
+    this.prefetchPages = prefetchPages;
+    this.nextPage = firstPage;
+    this.headPage = firstPage;
+  }
+
+  /**
+   * Returns a sequential {@link Stream} of the objects of the paged resource. The stream should be
+   * closed if it is not consumed to the end, to cancel pending page fetches.
+   *
+   * @param <T> the object type.
+   * @param executor the {@link TaskExecutor} used to fetch pages.
+   * @param pageFetcher the function which fetches the page with the given page number.
+   * @param firstPage the number of the first page to fetch, starting on 1.
+   * @param pageSize the page size.
+   * @param prefetchPages the maximum number of pages to fetch ahead, must be greater than zero.
+   * @return a {@link Stream}.
+   */
+  public static <T> Stream<T> stream(
+      TaskExecutor executor,
+      IntFunction<PagedResponse<T>> pageFetcher,
+      int firstPage,
+      int pageSize,
+      int prefetchPages) {
+    PrefetchingPagingSpliterator<T> spliterator =
+        new PrefetchingPagingSpliterator<>(
+            executor, pageFetcher, firstPage, pageSize, prefetchPages);
+    return StreamSupport.stream(spliterator, false).onClose(spliterator::close);
+  }
+
+  @Override
+  public boolean tryAdvance(Consumer<? super T> action) {
+    while (current == null || !current.hasNext()) {
+      if (!hasNextPage) {
+        close();
+        return false;
+      }
+
+      consumeNextPage();
+    }
+
+    action.accept(current.next());
+    return true;
+  }
+
+  /** Cancels pending page fetches. */
+  @Override
+  public void close() {
+    pending.forEach(future -> future.cancel(true));
+    pending.clear();
+    hasNextPage = false;
+  }
+
+  /** Submits page fetches up to the prefetch limit and replaces the current page with the next. */
+  private void consumeNextPage() {
+    int limit = firstPageConsumed ? prefetchPages : 1;
+
+    while (pending.size() < limit && nextPage <= lastPage) {
+      int page = nextPage++;
+      pending.add(executor.submit(() -> pageFetcher.apply(page)));
+    }
+
+    int page = headPage++;
+    PagedResponse<T> response = await(pending.poll());
+    List<T> objects = response.getObjects();
+    Pager pager = response.getPager();
+
+    if (pager != null && pager.getPageCount() != null && pager.getPageCount() >= 0) {
+      lastPage = pager.getPageCount();
+    }
+
+    firstPageConsumed = true;
+    current = isPresent(objects) ? objects.iterator() : null;
+    hasNextPage = page < lastPage && PagingSpliterator.hasNextPage(pager, objects, page, pageSize);
+  }
+
+  /**
+   * Waits for the given page fetch to complete. The spliterator is closed if the fetch failed.
+   *
+   * @param future the {@link CompletableFuture}.
+   * @return the {@link PagedResponse}.
+   * @throws Dhis2ClientException if the fetch failed or the thread was interrupted.
+   */
+  private PagedResponse<T> await(CompletableFuture<PagedResponse<T>> future) {
+    try {
+      return future.get();
+    } catch (InterruptedException ex) {
+      close();
+      Thread.currentThread().interrupt();
+      throw new Dhis2ClientException("Thread interrupted", ex);
+    } catch (ExecutionException ex) {
+      close();
+      if (ex.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new Dhis2ClientException("Failed to fetch page", ex.getCause());
+    }
+  }
+}
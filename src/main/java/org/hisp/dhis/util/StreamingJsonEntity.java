@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Objects;
+import java.util.function.Consumer;
+import org.apache.commons.io.output.CloseShieldOutputStream;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.io.entity.AbstractHttpEntity;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * {@link org.apache.hc.core5.http.HttpEntity} which serializes JSON directly to the request output
+ * stream through a Jackson {@link JsonGenerator}, using chunked transfer encoding. This avoids
+ * building the full JSON payload as a string or byte array in memory.
+ */
+public class StreamingJsonEntity extends AbstractHttpEntity {
+  private final ObjectMapper objectMapper;
+
+  private final Consumer<JsonGenerator> writer;
+
+  private final boolean repeatable;
+
+  private boolean consumed;
+
+  /**
+   * Constructor.
+   *
+   * @param objectMapper the {@link ObjectMapper}.
+   * @param writer the writer of JSON content to the {@link JsonGenerator}.
+   * @param repeatable whether the writer can be invoked more than once.
+   */
+  public StreamingJsonEntity(
+      ObjectMapper objectMapper, Consumer<JsonGenerator> writer, boolean repeatable) {
+    super(ContentType.APPLICATION_JSON, null, true);
+    this.objectMapper = Objects.requireNonNull(objectMapper);
+    this.writer = Objects.requireNonNull(writer);
+    this.repeatable = repeatable;
+  }
+
+  /**
+   * Creates a repeatable {@link StreamingJsonEntity} which serializes the given object.
+   *
+   * @param objectMapper the {@link ObjectMapper}.
+   * @param object the object to serialize.
+   * @return a {@link StreamingJsonEntity}.
+   */
+  public static StreamingJsonEntity of(ObjectMapper objectMapper, Object object) {
+    return new StreamingJsonEntity(objectMapper, generator -> generator.writePOJO(object), true);
+  }
+
+  @Override
+  public boolean isRepeatable() {
+    return repeatable;
+  }
+
+  @Override
+  public long getContentLength() {
+    return -1;
+  }
+
+  @Override
+  public boolean isStreaming() {
+    return !repeatable && !consumed;
+  }
+
+  /**
+   * Returns the content as an input stream. Note that the content is buffered in memory, use {@link
+   * #writeTo(OutputStream)} to stream the content.
+   *
+   * @return an {@link InputStream}.
+   * @throws IOException if the serialization failed.
+   */
+  @Override
+  public InputStream getContent() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    writeTo(out);
+    return new ByteArrayInputStream(out.toByteArray());
+  }
+
+  @Override
+  public void writeTo(OutputStream out) throws IOException {
+    Objects.requireNonNull(out);
+
+    if (consumed && !repeatable) {
+      throw new IllegalStateException("Entity content is not repeatable and already consumed");
+    }
+
+    consumed = true;
+
+    try (JsonGenerator generator =
+        objectMapper.createGenerator(CloseShieldOutputStream.wrap(out))) {
+      writer.accept(generator);
+    } catch (JacksonException ex) {
+      throw new IOException("Failed to serialize JSON content", ex);
+    }
+
+    out.flush();
+  }
+
+  @Override
+  public void close() {
+    // No resources to release
+  }
+}
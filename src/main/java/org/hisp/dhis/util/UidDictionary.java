@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.util;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dictionary of identifiers, which interns identifiers so that equal identifiers share a single
+ * {@link String} instance, and assigns each distinct identifier a dense {@code int} code. Codes are
+ * assigned in order of first occurrence starting at 0, and allow for storing identifiers as
+ * primitives in large in-memory datasets.
+ *
+ * <p>The dictionary is intended for identifiers with low cardinality relative to the number of
+ * occurrences, such as UIDs of data elements, org units and category option combos, and periods.
+ * Identifiers are never removed, so the dictionary grows with the number of distinct identifiers.
+ * Instances are thread-safe and can be shared between clients.
+ */
+public class UidDictionary {
+  private final Map<String, Integer> codes = new ConcurrentHashMap<>();
+
+  /** Identifiers by code, where the array is replaced on growth. */
+  private volatile String[] uids = new String[256];
+
+  private int size;
+
+  /**
+   * Returns the canonical instance of the given identifier, adding it to the dictionary if not
+   * present.
+   *
+   * @param uid the identifier.
+   * @return the canonical identifier instance, or {@code null} if the identifier is null.
+   */
+  public String intern(String uid) {
+    return uid != null ? decode(encode(uid)) : null;
+  }
+
+  /**
+   * Returns the code of the given identifier, adding it to the dictionary if not present.
+   *
+   * @param uid the identifier, must not be null.
+   * @return the code of the identifier.
+   */
+  public int encode(String uid) {
+    Integer code = codes.get(uid);
+    return code != null ? code : add(uid);
+  }
+
+  /**
+   * Returns the identifier with the given code.
+   *
+   * @param code the code of the identifier.
+   * @return the identifier.
+   * @throws IndexOutOfBoundsException if no identifier with the given code exists.
+   */
+  public String decode(int code) {
+    String[] array = uids;
+
+    if (code < 0 || code >= array.length || array[code] == null) {
+      throw new IndexOutOfBoundsException(String.format("Identifier code not found: %d", code));
+    }
+
+    return array[code];
+  }
+
+  /**
+   * Returns the code of the given identifier without adding it to the dictionary.
+   *
+   * @param uid the identifier.
+   * @return the code of the identifier, or -1 if not present.
+   */
+  public int getCode(String uid) {
+    Integer code = uid != null ? codes.get(uid) : null;
+    return code != null ? code : -1;
+  }
+
+  /**
+   * Returns the number of distinct identifiers in the dictionary.
+   *
+   * @return the number of identifiers.
+   */
+  public int size() {
+    return codes.size();
+  }
+
+  /**
+   * Adds the given identifier to the dictionary. The identifier is stored in the array before the
+   * code is published through the map, so that a code obtained from the map can always be decoded.
+   *
+   * @param uid the identifier.
+   * @return the code of the identifier.
+   */
+  private synchronized int add(String uid) {
+    Integer existing = codes.get(uid);
+
+    if (existing != null) {
+      return existing;
+    }
+
+    String[] array = uids;
+
+    if (size == array.length) {
+      array = Arrays.copyOf(array, size * 2);
+    }
+
+    array[size] = uid;
+    uids = array;
+    codes.put(uid, size);
+    return size++;
+  }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.util.json;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import lombok.Getter;
+import org.hisp.dhis.model.analytics.AnalyticsData;
+import org.hisp.dhis.model.analytics.AnalyticsHeader;
+import org.hisp.dhis.model.analytics.AnalyticsMetaData;
+import org.hisp.dhis.model.analytics.AnalyticsRow;
+import org.hisp.dhis.response.Dhis2ClientException;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectReader;
+
+/**
+ * Reader of analytics rows from the token stream of an analytics JSON response. The headers and
+ * metadata preceding the rows are read on construction, and rows are then read one at a time, which
+ * means that only the current row is held in memory. Properties following the rows are read when
+ * the last row has been read. Requires that the headers precede the rows, as is the case for DHIS2
+ * analytics responses. Not thread-safe.
+ */
+public class AnalyticsRowReader implements Closeable {
+  private final ObjectReader headersReader;
+
+  private final ObjectReader metaDataReader;
+
+  private final JsonParser parser;
+
+  /** Analytics column headers. */
+  @Getter private List<AnalyticsHeader> headers;
+
+  /** Response metadata, null if not present. */
+  @Getter private AnalyticsMetaData metaData;
+
+  /** Whether the data rows were truncated to max limit, known when all rows are read. */
+  @Getter private boolean truncated;
+
+  /** Number of rows read. */
+  @Getter private long rowCount;
+
+  /** Indicates whether the parser is positioned within the rows array. */
+  private boolean inRows;
+
+  /**
+   * Constructor. Reads the properties of the response up to the rows.
+   *
+   * @param mapper the {@link ObjectMapper}.
+   * @param parser the {@link JsonParser}, positioned before the start of the response object.
+   * @throws Dhis2ClientException if the response is not a JSON object or the rows precede the
+   *     headers.
+   */
+  public AnalyticsRowReader(ObjectMapper mapper, JsonParser parser) {
+    this.headersReader =
+        mapper
+            .readerFor(
+                mapper.getTypeFactory().constructCollectionType(List.class, AnalyticsHeader.class))
+            .without(DeserializationFeature.FAIL_ON_TRAILING_TOKENS);
+    this.metaDataReader =
+        mapper
+            .readerFor(AnalyticsMetaData.class)
+            .without(DeserializationFeature.FAIL_ON_TRAILING_TOKENS);
+    this.parser = parser;
+
+    if (parser.nextToken() != JsonToken.START_OBJECT) {
+      throw new Dhis2ClientException("Expected JSON object in analytics response", 500);
+    }
+
+    readProperties();
+  }
+
+  /**
+   * Reads the next row.
+   *
+   * @return the next {@link AnalyticsRow}, or null if all rows are read.
+   */
+  public AnalyticsRow readRow() {
+    if (!inRows) {
+      return null;
+    }
+
+    if (parser.nextToken() != JsonToken.START_ARRAY) {
+      inRows = false;
+      readProperties();
+      return null;
+    }
+
+    List<String> values = new ArrayList<>(headers.size());
+    JsonToken token;
+
+    while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+      if (token.isStructStart()) {
+        parser.skipChildren();
+        values.add(null);
+      } else {
+        values.add(parser.getValueAsString());
+      }
+    }
+
+    return new AnalyticsRow(headers, metaData, rowCount++, Collections.unmodifiableList(values));
+  }
+
+  /**
+   * Returns a sequential {@link Stream} of the remaining rows. This reader is closed when the last
+   * row has been read or when the stream is closed.
+   *
+   * @return a {@link Stream} of {@link AnalyticsRow}.
+   */
+  public Stream<AnalyticsRow> stream() {
+    Spliterator<AnalyticsRow> spliterator =
+        new Spliterators.AbstractSpliterator<>(
+            Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+          @Override
+          public boolean tryAdvance(Consumer<? super AnalyticsRow> action) {
+            AnalyticsRow row = readRow();
+
+            if (row == null) {
+              close();
+              return false;
+            }
+
+            action.accept(row);
+            return true;
+          }
+        };
+
+    return StreamSupport.stream(spliterator, false).onClose(this::close);
+  }
+
+  /**
+   * Returns an {@link AnalyticsData} with the headers, metadata and truncation flag of the
+   * response, without rows.
+   *
+   * @return an {@link AnalyticsData}.
+   */
+  public AnalyticsData toAnalyticsData() {
+    AnalyticsData data = new AnalyticsData(headers, new ArrayList<>());
+    data.setMetaData(metaData);
+    data.setTruncated(truncated);
+    return data;
+  }
+
+  @Override
+  public void close() {
+    parser.close();
+  }
+
+  /**
+   * Reads properties of the response object until the start of the rows array or the end of the
+   * response object.
+   */
+  private void readProperties() {
+    while (parser.nextToken() == JsonToken.PROPERTY_NAME) {
+      String name = parser.currentName();
+      JsonToken token = parser.nextToken();
+
+      if (token == JsonToken.VALUE_NULL) {
+        continue;
+      }
+
+      switch (name) {
+        case "headers" -> headers = headersReader.readValue(parser);
+        case "metaData" -> metaData = metaDataReader.readValue(parser);
+        case "truncated" -> truncated = parser.getValueAsBoolean();
+        case "rows" -> {
+          if (headers == null) {
+            throw new Dhis2ClientException("Headers must precede rows in analytics response", 500);
+          }
+
+          inRows = token == JsonToken.START_ARRAY;
+
+          if (inRows) {
+            return;
+          }
+
+          parser.skipChildren();
+        }
+        default -> parser.skipChildren();
+      }
+    }
+
+    if (headers == null) {
+      headers = List.of();
+    }
+  }
+}
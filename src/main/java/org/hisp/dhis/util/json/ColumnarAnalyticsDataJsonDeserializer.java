@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.util.json;
+
+import java.util.List;
+import org.hisp.dhis.model.analytics.AnalyticsHeader;
+import org.hisp.dhis.model.analytics.AnalyticsMetaData;
+import org.hisp.dhis.model.analytics.ColumnarAnalyticsData;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.DeserializationContext;
+import tools.jackson.databind.JavaType;
+import tools.jackson.databind.ValueDeserializer;
+
+/**
+ * Deserializer of {@link ColumnarAnalyticsData}, which reads rows cell by cell from the token
+ * stream directly into the columns. Rows are streamed if the headers precede the rows in the
+ * response, as is the case for DHIS2 analytics responses, and are otherwise read into lists first.
+ */
+public class ColumnarAnalyticsDataJsonDeserializer
+    extends ValueDeserializer<ColumnarAnalyticsData> {
+  @Override
+  public ColumnarAnalyticsData deserialize(JsonParser jsonParser, DeserializationContext ctxt)
+      throws JacksonException {
+    List<AnalyticsHeader> headers = null;
+    List<List<String>> rows = null;
+    AnalyticsMetaData metaData = null;
+    ColumnarAnalyticsData.Builder builder = null;
+    boolean truncated = false;
+
+    if (jsonParser.hasToken(JsonToken.START_OBJECT)) {
+      jsonParser.nextToken();
+    }
+
+    for (; jsonParser.hasToken(JsonToken.PROPERTY_NAME); jsonParser.nextToken()) {
+      String name = jsonParser.currentName();
+      JsonToken token = jsonParser.nextToken();
+
+      if (token == JsonToken.VALUE_NULL) {
+        continue;
+      }
+
+      switch (name) {
+        case "headers" -> headers = ctxt.readValue(jsonParser, getHeadersType(ctxt));
+        case "metaData" -> metaData = ctxt.readValue(jsonParser, AnalyticsMetaData.class);
+        case "truncated" -> truncated = jsonParser.getValueAsBoolean();
+        case "rows" -> {
+          if (headers != null) {
+            builder = ColumnarAnalyticsData.builder(headers);
+            readRows(jsonParser, builder);
+          } else {
+            rows = ctxt.readValue(jsonParser, getRowsType(ctxt));
+          }
+        }
+        default -> jsonParser.skipChildren();
+      }
+    }
+
+    if (builder == null) {
+      builder = ColumnarAnalyticsData.builder(headers != null ? headers : List.of());
+
+      if (rows != null) {
+        rows.forEach(builder::addRow);
+      }
+    }
+
+    return builder.metaData(metaData).truncated(truncated).build();
+  }
+
+  /**
+   * Reads the rows array of the given parser into the given builder.
+   *
+   * @param jsonParser the {@link JsonParser} positioned at the start of the rows array.
+   * @param builder the {@link ColumnarAnalyticsData.Builder}.
+   */
+  private void readRows(JsonParser jsonParser, ColumnarAnalyticsData.Builder builder) {
+    while (jsonParser.nextToken() == JsonToken.START_ARRAY) {
+      JsonToken token;
+
+      while ((token = jsonParser.nextToken()) != JsonToken.END_ARRAY) {
+        switch (token) {
+          case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> builder.add(jsonParser.getDoubleValue());
+          case VALUE_NULL -> builder.add((String) null);
+          case START_ARRAY, START_OBJECT -> {
+            jsonParser.skipChildren();
+            builder.add((String) null);
+          }
+          default -> builder.add(jsonParser.getValueAsString());
+        }
+      }
+
+      builder.endRow();
+    }
+  }
+
+  private JavaType getHeadersType(DeserializationContext ctxt) {
+    return ctxt.getTypeFactory().constructCollectionType(List.class, AnalyticsHeader.class);
+  }
+
+  private JavaType getRowsType(DeserializationContext ctxt) {
+    return ctxt.getTypeFactory()
+        .constructCollectionType(
+            List.class, ctxt.getTypeFactory().constructCollectionType(List.class, String.class));
+  }
+}
@@ -29,6 +29,9 @@ package org.hisp.dhis.util.json;
 
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
 import java.util.Date;
 import org.hisp.dhis.util.DateTimeUtils;
 import tools.jackson.core.JacksonException;
@@ -37,19 +40,155 @@ import tools.jackson.databind.DeserializationContext;
 import tools.jackson.databind.ValueDeserializer;
 
 public class DateJsonDeserializer extends ValueDeserializer<Date> {
+  /** Length of a date string on the format {@code yyyy-MM-dd}. */
+  private static final int DATE_LENGTH = 10;
+
+  /** Length of a date time string on the format {@code yyyy-MM-dd'T'HH:mm:ss}. */
+  private static final int DATE_TIME_LENGTH = 19;
+
+  /** Max number of fraction of second digits. */
+  private static final int MAX_FRACTION_DIGITS = 9;
+
   @Override
   public Date deserialize(JsonParser jsonParser, DeserializationContext ctxt)
       throws JacksonException {
     String dateString = jsonParser.getString();
+    Date date = parse(dateString);
+    if (date == null) {
+      ctxt.reportInputMismatch(this, "Unable to parse date: '%s'", dateString);
+    }
+    return date;
+  }
+
+  /**
+   * Parses the given string to a {@link Date} in the system default time zone. Strings on the
+   * formats {@code yyyy-MM-dd}, {@code yyyy-MM-dd'T'HH:mm:ss} and {@code yyyy-MM-dd'T'HH:mm:ss.SSS}
+   * are detected from their length and separators, and parsed in a single pass without allocating
+   * formatters or throwing exceptions. Trailing characters after the date time, such as a time zone
+   * designator, are ignored. Other strings are parsed with the formats of {@link
+   * DateTimeUtils#DATE_TIME_DESERIALIZATION_FORMATS}.
+   *
+   * @param string the date string.
+   * @return a {@link Date}, or null if the string could not be parsed.
+   */
+  public static Date parse(String string) {
+    LocalDateTime dateTime = parseLocalDateTime(string);
+
+    if (dateTime != null) {
+      return DateTimeUtils.toDate(dateTime);
+    }
+
+    return parseWithFormats(string);
+  }
+
+  /**
+   * Parses the given string to a {@link LocalDateTime} based on its shape. Returns null if the
+   * string does not have the shape of a date or date time, or if any field is out of range, in
+   * which case the string should be parsed with {@link #parseWithFormats(String)}.
+   *
+   * @param string the date string.
+   * @return a {@link LocalDateTime}, or null.
+   */
+  static LocalDateTime parseLocalDateTime(String string) {
+    int length = string.length();
+
+    if (length < DATE_LENGTH || string.charAt(4) != '-' || string.charAt(7) != '-') {
+      return null;
+    }
+
+    int year = parseDigits(string, 0, 4);
+    int month = parseDigits(string, 5, 2);
+    int day = parseDigits(string, 8, 2);
+
+    if (year < 0 || month < 1 || month > 12 || day < 1) {
+      return null;
+    }
+
+    if (day > Month.of(month).length(Year.isLeap(year))) {
+      return null;
+    }
+
+    if (length == DATE_LENGTH) {
+      return LocalDateTime.of(year, month, day, 0, 0);
+    }
+
+    if (length < DATE_TIME_LENGTH
+        || string.charAt(10) != 'T'
+        || string.charAt(13) != ':'
+        || string.charAt(16) != ':') {
+      return null;
+    }
+
+    int hour = parseDigits(string, 11, 2);
+    int minute = parseDigits(string, 14, 2);
+    int second = parseDigits(string, 17, 2);
+
+    if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+      return null;
+    }
+
+    int nanos = 0;
+
+    if (length > DATE_TIME_LENGTH && string.charAt(DATE_TIME_LENGTH) == '.') {
+      int scale = 100_000_000;
+
+      for (int i = DATE_TIME_LENGTH + 1;
+          i < length && i <= DATE_TIME_LENGTH + MAX_FRACTION_DIGITS;
+          i++) {
+        int digit = string.charAt(i) - '0';
+
+        if (digit < 0 || digit > 9) {
+          break;
+        }
+
+        nanos += digit * scale;
+        scale /= 10;
+      }
+    }
+
+    return LocalDateTime.of(year, month, day, hour, minute, second, nanos);
+  }
+
+  /**
+   * Parses the given string with the formats of {@link
+   * DateTimeUtils#DATE_TIME_DESERIALIZATION_FORMATS} in order.
+   *
+   * @param string the date string.
+   * @return a {@link Date}, or null if the string could not be parsed with any format.
+   */
+  static Date parseWithFormats(String string) {
     for (String dateFormat : DateTimeUtils.DATE_TIME_DESERIALIZATION_FORMATS) {
       try {
         // Note that SimpleDateFormat is not thread safe
-        return new SimpleDateFormat(dateFormat).parse(dateString);
+        return new SimpleDateFormat(dateFormat).parse(string);
       } catch (ParseException ex) {
         // Ignore and try next format
       }
     }
-    ctxt.reportInputMismatch(this, "Unable to parse date: '%s'", dateString);
-    return null; // unreachable
+    return null;
+  }
+
+  /**
+   * Parses the given number of digits starting at the given offset as a non-negative integer.
+   *
+   * @param string the string.
+   * @param offset the offset of the first digit.
+   * @param count the number of digits.
+   * @return the integer, or -1 if any character is not a digit.
+   */
+  private static int parseDigits(String string, int offset, int count) {
+    int value = 0;
+
+    for (int i = offset; i < offset + count; i++) {
+      int digit = string.charAt(i) - '0';
+
+      if (digit < 0 || digit > 9) {
+        return -1;
+      }
+
+      value = value * 10 + digit;
+    }
+
+    return value;
   }
 }
@@ -27,24 +27,323 @@
  */
 package org.hisp.dhis.util.json;
 
+import java.util.ArrayList;
+import java.util.List;
+import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Geometry;
-import org.locationtech.jts.io.ParseException;
-import org.locationtech.jts.io.geojson.GeoJsonReader;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.locationtech.jts.simplify.TopologyPreservingSimplifier;
 import tools.jackson.core.JacksonException;
 import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
 import tools.jackson.databind.DeserializationContext;
 import tools.jackson.databind.ValueDeserializer;
 
+/**
+ * Deserializer of GeoJSON geometries, which reads coordinates directly from the token stream into
+ * JTS geometries. Coordinates can optionally be reduced to a max number of decimals while read, and
+ * geometries can optionally be simplified with a distance tolerance after read, which is useful
+ * when only centroids or bounding boxes are needed. Note that reduced precision and simplification
+ * may produce geometries which are not valid.
+ */
 public class GeometryJsonDeserializer extends ValueDeserializer<Geometry> {
+  /** Spatial reference identifier of WGS 84, which is the GeoJSON coordinate reference system. */
+  private static final int SRID_WGS84 = 4326;
+
+  private static final String TYPE = "type";
+
+  private static final String COORDINATES = "coordinates";
+
+  private static final String GEOMETRIES = "geometries";
+
+  private final GeometryFactory factory;
+
+  private final PrecisionModel precisionModel;
+
+  private final double simplifyTolerance;
+
+  /** Constructor for deserialization with full precision and without simplification. */
+  public GeometryJsonDeserializer() {
+    this.factory = new GeometryFactory(new PrecisionModel(), SRID_WGS84);
+    this.precisionModel = null;
+    this.simplifyTolerance = 0d;
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param maxDecimals the max number of decimals of coordinates, or null for full precision.
+   * @param simplifyTolerance the distance tolerance for simplification of geometries, where 0 means
+   *     no simplification.
+   */
+  public GeometryJsonDeserializer(Integer maxDecimals, double simplifyTolerance) {
+    this.precisionModel =
+        maxDecimals != null ? new PrecisionModel(Math.pow(10, maxDecimals)) : null;
+    this.factory =
+        new GeometryFactory(
+            precisionModel != null ? precisionModel : new PrecisionModel(), SRID_WGS84);
+    this.simplifyTolerance = simplifyTolerance;
+  }
+
   @Override
   public Geometry deserialize(JsonParser parser, DeserializationContext ctxt)
       throws JacksonException {
-    String geoJson = parser.readValueAsTree().toString();
     try {
-      return new GeoJsonReader().read(geoJson);
-    } catch (ParseException e) {
-      ctxt.reportInputMismatch(this, "Unable to parse geometry: %s", e.getMessage());
+      Geometry geometry = readGeometry(parser);
+
+      if (simplifyTolerance > 0d && !(geometry instanceof Point)) {
+        geometry = TopologyPreservingSimplifier.simplify(geometry, simplifyTolerance);
+      }
+
+      return geometry;
+    } catch (IllegalArgumentException ex) {
+      ctxt.reportInputMismatch(this, "Unable to parse geometry: %s", ex.getMessage());
       return null; // unreachable
     }
   }
+
+  /**
+   * Reads a geometry object, where the parser is positioned at the start of the object or at the
+   * first property name.
+   *
+   * @param parser the {@link JsonParser}.
+   * @return the {@link Geometry}.
+   * @throws IllegalArgumentException if the geometry is invalid.
+   */
+  private Geometry readGeometry(JsonParser parser) {
+    JsonToken token = parser.currentToken();
+
+    if (token == JsonToken.START_OBJECT) {
+      token = parser.nextToken();
+    }
+
+    String type = null;
+    Object coordinates = null;
+    List<Geometry> geometries = null;
+
+    for (; token == JsonToken.PROPERTY_NAME; token = parser.nextToken()) {
+      String name = parser.currentName();
+      JsonToken value = parser.nextToken();
+
+      if (TYPE.equals(name)) {
+        type = parser.getString();
+      } else if (COORDINATES.equals(name) && value == JsonToken.START_ARRAY) {
+        coordinates = readCoordinates(parser);
+      } else if (GEOMETRIES.equals(name) && value == JsonToken.START_ARRAY) {
+        geometries = new ArrayList<>();
+
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+          geometries.add(readGeometry(parser));
+        }
+      } else {
+        parser.skipChildren();
+      }
+    }
+
+    if (type == null) {
+      throw new IllegalArgumentException("Geometry type is missing");
+    }
+
+    return toGeometry(type, coordinates, geometries);
+  }
+
+  /**
+   * Reads a coordinates array, where the parser is positioned at the start of the array. A position
+   * is returned as a {@link Coordinate}, and an array of arrays as a list of the nested values.
+   *
+   * @param parser the {@link JsonParser}.
+   * @return a {@link Coordinate} or a list.
+   * @throws IllegalArgumentException if the coordinates are invalid.
+   */
+  private Object readCoordinates(JsonParser parser) {
+    JsonToken token = parser.nextToken();
+
+    if (token != null && token.isNumeric()) {
+      return readPosition(parser);
+    }
+
+    List<Object> values = new ArrayList<>();
+
+    for (; token == JsonToken.START_ARRAY; token = parser.nextToken()) {
+      values.add(readCoordinates(parser));
+    }
+
+    if (token != JsonToken.END_ARRAY) {
+      throw new IllegalArgumentException("Invalid coordinates array");
+    }
+
+    return values;
+  }
+
+  /**
+   * Reads a position, where the parser is positioned at the first number of the position. The third
+   * number is read as elevation, and further numbers are ignored.
+   *
+   * @param parser the {@link JsonParser}.
+   * @return a {@link Coordinate}.
+   * @throws IllegalArgumentException if the position is invalid.
+   */
+  private Coordinate readPosition(JsonParser parser) {
+    double[] ordinates = {Double.NaN, Double.NaN, Double.NaN};
+    int count = 0;
+
+    for (JsonToken token = parser.currentToken();
+        token != JsonToken.END_ARRAY;
+        token = parser.nextToken()) {
+      if (token == null || !token.isNumeric()) {
+        throw new IllegalArgumentException("Invalid position");
+      }
+
+      if (count < ordinates.length) {
+        ordinates[count] = parser.getDoubleValue();
+      }
+
+      count++;
+    }
+
+    if (count < 2) {
+      throw new IllegalArgumentException("Position must have at least two numbers");
+    }
+
+    Coordinate coordinate = new Coordinate(ordinates[0], ordinates[1], ordinates[2]);
+
+    if (precisionModel != null) {
+      precisionModel.makePrecise(coordinate);
+    }
+
+    return coordinate;
+  }
+
+  /**
+   * Creates a geometry of the given type.
+   *
+   * @param type the GeoJSON geometry type.
+   * @param coordinates the coordinates, may be null.
+   * @param geometries the geometries of a geometry collection, may be null.
+   * @return a {@link Geometry}.
+   * @throws IllegalArgumentException if the type is unknown or the coordinates are invalid.
+   */
+  private Geometry toGeometry(String type, Object coordinates, List<Geometry> geometries) {
+    if (Geometry.TYPENAME_GEOMETRYCOLLECTION.equals(type)) {
+      return factory.createGeometryCollection(
+          geometries != null ? geometries.toArray(Geometry[]::new) : new Geometry[0]);
+    }
+
+    if (Geometry.TYPENAME_POINT.equals(type)) {
+      if (coordinates instanceof Coordinate coordinate) {
+        return factory.createPoint(coordinate);
+      } else if (coordinates == null || ((List<?>) coordinates).isEmpty()) {
+        return factory.createPoint();
+      }
+
+      throw new IllegalArgumentException("Invalid coordinates, expected position");
+    }
+
+    if (coordinates instanceof Coordinate) {
+      throw new IllegalArgumentException("Invalid coordinates, expected array");
+    }
+
+    List<Object> values = coordinates != null ? toList((List<?>) coordinates) : null;
+
+    switch (type) {
+      case Geometry.TYPENAME_MULTIPOINT:
+        return factory.createMultiPointFromCoords(toCoordinates(values));
+      case Geometry.TYPENAME_LINESTRING:
+        return factory.createLineString(toCoordinates(values));
+      case Geometry.TYPENAME_MULTILINESTRING:
+        return factory.createMultiLineString(
+            toElements(values).stream()
+                .map(line -> factory.createLineString(toCoordinates(line)))
+                .toArray(LineString[]::new));
+      case Geometry.TYPENAME_POLYGON:
+        return toPolygon(values);
+      case Geometry.TYPENAME_MULTIPOLYGON:
+        return factory.createMultiPolygon(
+            toElements(values).stream().map(this::toPolygon).toArray(Polygon[]::new));
+      default:
+        throw new IllegalArgumentException("Unknown geometry type: " + type);
+    }
+  }
+
+  /**
+   * Creates a polygon from a list of linear rings, where the first ring is the shell.
+   *
+   * @param rings the list of rings.
+   * @return a {@link Polygon}.
+   */
+  private Polygon toPolygon(List<Object> rings) {
+    if (rings == null || rings.isEmpty()) {
+      return factory.createPolygon();
+    }
+
+    List<List<Object>> elements = toElements(rings);
+    LinearRing shell = factory.createLinearRing(toCoordinates(elements.get(0)));
+    LinearRing[] holes = new LinearRing[elements.size() - 1];
+
+    for (int i = 1; i < elements.size(); i++) {
+      holes[i - 1] = factory.createLinearRing(toCoordinates(elements.get(i)));
+    }
+
+    return factory.createPolygon(shell, holes);
+  }
+
+  /**
+   * Converts the given list of positions to an array of coordinates.
+   *
+   * @param values the list of positions, may be null.
+   * @return an array of {@link Coordinate}.
+   * @throws IllegalArgumentException if any value is not a position.
+   */
+  private Coordinate[] toCoordinates(List<Object> values) {
+    if (values == null) {
+      return new Coordinate[0];
+    }
+
+    Coordinate[] coordinates = new Coordinate[values.size()];
+
+    for (int i = 0; i < coordinates.length; i++) {
+      if (!(values.get(i) instanceof Coordinate coordinate)) {
+        throw new IllegalArgumentException("Invalid coordinates, expected position");
+      }
+
+      coordinates[i] = coordinate;
+    }
+
+    return coordinates;
+  }
+
+  /**
+   * Converts the given list of nested arrays to a list of lists.
+   *
+   * @param values the list of nested arrays, may be null.
+   * @return a list of lists.
+   * @throws IllegalArgumentException if any value is not an array.
+   */
+  private List<List<Object>> toElements(List<Object> values) {
+    if (values == null) {
+      return List.of();
+    }
+
+    List<List<Object>> elements = new ArrayList<>(values.size());
+
+    for (Object value : values) {
+      if (!(value instanceof List<?> list)) {
+        throw new IllegalArgumentException("Invalid coordinates, expected array");
+      }
+
+      elements.add(toList(list));
+    }
+
+    return elements;
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<Object> toList(List<?> list) {
+    return (List<Object>) list;
+  }
 }
@@ -27,19 +27,127 @@
  */
 package org.hisp.dhis.util.json;
 
+import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Geometry;
-import org.locationtech.jts.io.geojson.GeoJsonWriter;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
 import tools.jackson.core.JacksonException;
 import tools.jackson.core.JsonGenerator;
 import tools.jackson.databind.SerializationContext;
 import tools.jackson.databind.ValueSerializer;
 
+/**
+ * Serializer of JTS geometries to GeoJSON, which writes coordinates directly to the generator. The
+ * elevation of a coordinate is written if present.
+ */
 public class GeometryJsonSerializer extends ValueSerializer<Geometry> {
   @Override
   public void serialize(Geometry geometry, JsonGenerator gen, SerializationContext provider)
       throws JacksonException {
-    GeoJsonWriter writer = new GeoJsonWriter();
-    writer.setEncodeCRS(false);
-    gen.writeRawValue(writer.write(geometry));
+    gen.writeStartObject();
+    gen.writeStringProperty("type", getType(geometry));
+
+    if (Geometry.TYPENAME_GEOMETRYCOLLECTION.equals(geometry.getGeometryType())) {
+      gen.writeName("geometries");
+      gen.writeStartArray();
+
+      for (int i = 0; i < geometry.getNumGeometries(); i++) {
+        serialize(geometry.getGeometryN(i), gen, provider);
+      }
+
+      gen.writeEndArray();
+    } else {
+      gen.writeName("coordinates");
+      writeCoordinates(geometry, gen);
+    }
+
+    gen.writeEndObject();
+  }
+
+  /**
+   * Returns the GeoJSON type of the given geometry, where linear rings are written as line strings.
+   *
+   * @param geometry the {@link Geometry}.
+   * @return the GeoJSON type.
+   */
+  private String getType(Geometry geometry) {
+    return geometry instanceof LineString
+        ? Geometry.TYPENAME_LINESTRING
+        : geometry.getGeometryType();
+  }
+
+  /**
+   * Writes the coordinates of the given geometry, which must not be a geometry collection other
+   * than a multi point, multi line string or multi polygon.
+   *
+   * @param geometry the {@link Geometry}.
+   * @param gen the {@link JsonGenerator}.
+   */
+  private void writeCoordinates(Geometry geometry, JsonGenerator gen) {
+    if (geometry instanceof Point point) {
+      if (point.isEmpty()) {
+        gen.writeStartArray();
+        gen.writeEndArray();
+      } else {
+        writePosition(point.getCoordinate(), gen);
+      }
+    } else if (geometry instanceof LineString line) {
+      writePositions(line.getCoordinates(), gen);
+    } else if (geometry instanceof Polygon polygon) {
+      gen.writeStartArray();
+
+      if (!polygon.isEmpty()) {
+        writePositions(polygon.getExteriorRing().getCoordinates(), gen);
+
+        for (int i = 0; i < polygon.getNumInteriorRing(); i++) {
+          writePositions(polygon.getInteriorRingN(i).getCoordinates(), gen);
+        }
+      }
+
+      gen.writeEndArray();
+    } else {
+      gen.writeStartArray();
+
+      for (int i = 0; i < geometry.getNumGeometries(); i++) {
+        writeCoordinates(geometry.getGeometryN(i), gen);
+      }
+
+      gen.writeEndArray();
+    }
+  }
+
+  /**
+   * Writes the given coordinates as an array of positions.
+   *
+   * @param coordinates the array of {@link Coordinate}.
+   * @param gen the {@link JsonGenerator}.
+   */
+  private void writePositions(Coordinate[] coordinates, JsonGenerator gen) {
+    gen.writeStartArray();
+
+    for (Coordinate coordinate : coordinates) {
+      writePosition(coordinate, gen);
+    }
+
+    gen.writeEndArray();
+  }
+
+  /**
+   * Writes the given coordinate as a position.
+   *
+   * @param coordinate the {@link Coordinate}.
+   * @param gen the {@link JsonGenerator}.
+   */
+  private void writePosition(Coordinate coordinate, JsonGenerator gen) {
+    gen.writeStartArray();
+    gen.writeNumber(coordinate.getX());
+    gen.writeNumber(coordinate.getY());
+
+    if (!Double.isNaN(coordinate.getZ())) {
+      gen.writeNumber(coordinate.getZ());
+    }
+
+    gen.writeEndArray();
   }
 }
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.util.json;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.hisp.dhis.model.datavalueset.DataValue;
+import org.hisp.dhis.model.event.Event;
+import org.hisp.dhis.model.event.EventDataValue;
+import org.hisp.dhis.util.UidDictionary;
+import tools.jackson.databind.BeanDescription;
+import tools.jackson.databind.DeserializationConfig;
+import tools.jackson.databind.deser.BeanDeserializerBuilder;
+import tools.jackson.databind.deser.SettableBeanProperty;
+import tools.jackson.databind.deser.ValueDeserializerModifier;
+
+/**
+ * Deserializer modifier which interns the identifier properties of data values and events through a
+ * {@link UidDictionary}, so that repeated identifiers in large responses share a single instance.
+ */
+public class UidInterningDeserializerModifier extends ValueDeserializerModifier {
+  private static final long serialVersionUID = 1L;
+
+  /** Identifier properties to intern by type. */
+  private static final Map<Class<?>, Set<String>> PROPERTIES =
+      Map.of(
+          DataValue.class,
+          Set.of(
+              "dataElement",
+              "period",
+              "orgUnit",
+              "categoryOptionCombo",
+              "attributeOptionCombo",
+              "storedBy"),
+          Event.class,
+          Set.of(
+              "program",
+              "programStage",
+              "orgUnit",
+              "attributeOptionCombo",
+              "storedBy",
+              "completedBy"),
+          EventDataValue.class,
+          Set.of("dataElement", "storedBy"));
+
+  private final transient InternedStringJsonDeserializer deserializer;
+
+  public UidInterningDeserializerModifier(UidDictionary dictionary) {
+    this.deserializer = new InternedStringJsonDeserializer(dictionary);
+  }
+
+  @Override
+  public BeanDeserializerBuilder updateBuilder(
+      DeserializationConfig config,
+      BeanDescription.Supplier beanDesc,
+      BeanDeserializerBuilder builder) {
+    Set<String> names = PROPERTIES.get(beanDesc.getBeanClass());
+
+    if (names == null) {
+      return builder;
+    }
+
+    List<SettableBeanProperty> properties = new ArrayList<>();
+    Iterator<SettableBeanProperty> iterator = builder.getProperties();
+
+    while (iterator.hasNext()) {
+      SettableBeanProperty property = iterator.next();
+
+      if (names.contains(property.getName()) && property.getType().hasRawClass(String.class)) {
+        properties.add(property.withValueDeserializer(deserializer));
+      }
+    }
+
+    properties.forEach(property -> builder.addOrReplaceProperty(property, true));
+    return builder;
+  }
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis;
+
+import static org.hisp.dhis.support.TestHttpServer.respond;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.hisp.dhis.model.OrgUnit;
+import org.hisp.dhis.model.SystemInfo;
+import org.hisp.dhis.model.metadata.MetadataEntity;
+import org.hisp.dhis.query.Query;
+import org.hisp.dhis.response.Dhis2ClientException;
+import org.hisp.dhis.support.MockDhis2Server;
+import org.hisp.dhis.support.TestHttpServer;
+import org.hisp.dhis.support.TestTags;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag(TestTags.UNIT)
+class AsyncDhis2Test {
+  private static final long SLOW_RESPONSE_MILLIS = 300;
+
+  private TestHttpServer server;
+
+  private AsyncDhis2 dhis2;
+
+  @BeforeEach
+  void beforeEach() {
+    server =
+        new TestHttpServer()
+            .handle(
+                "/api/system/info",
+                exchange -> {
+                  String auth = exchange.getRequestHeaders().getFirst("Authorization");
+                  int code = auth != null && auth.startsWith("Basic ") ? 200 : 401;
+                  respond(exchange, code, "{\"version\":\"2.41.0\",\"revision\":\"a1b2c3\"}");
+                })
+            .handle(
+                "/api/system/slow",
+                exchange -> {
+                  exchange.getResponseHeaders().set("Content-Type", "application/json");
+                  exchange.sendResponseHeaders(200, 0);
+                  try (OutputStream out = exchange.getResponseBody()) {
+                    out.write("{\"version\":".getBytes(StandardCharsets.UTF_8));
+                    out.flush();
+                    sleep(SLOW_RESPONSE_MILLIS);
+                    out.write("\"2.41.0\"}".getBytes(StandardCharsets.UTF_8));
+                  }
+                })
+            .handle(
+                "/api/system/missing",
+                exchange -> respond(exchange, 404, "{\"httpStatusCode\":404}"))
+            .start();
+
+    dhis2 = new AsyncDhis2(server.getConfig());
+  }
+
+  @AfterEach
+  void afterEach() {
+    dhis2.close();
+    server.close();
+  }
+
+  @Test
+  void testGetSystemInfo() throws Exception {
+    SystemInfo info = dhis2.getSystemInfo().get();
+
+    assertNotNull(info);
+    assertEquals("2.41.0", info.getVersion());
+  }
+
+  @Test
+  void testClassicHttpClientNotCreated() {
+    assertNull(dhis2.httpClient);
+  }
+
+  @Test
+  void testGetSystemInfoConcurrently() {
+    List<CompletableFuture<SystemInfo>> futures =
+        IntStream.range(0, 50).mapToObj(i -> dhis2.getSystemInfo()).toList();
+
+    CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+    assertTrue(futures.stream().allMatch(f -> "2.41.0".equals(f.join().getVersion())));
+  }
+
+  @Test
+  void testSlowResponsesDoNotOccupyExecutorThreads() {
+    Dhis2Config config = server.getConfig().setMaxConcurrency(1);
+    int requests = 8;
+
+    try (AsyncDhis2 asyncDhis2 = new AsyncDhis2(config)) {
+      long start = System.nanoTime();
+
+      List<CompletableFuture<SystemInfo>> futures =
+          IntStream.range(0, requests)
+              .mapToObj(
+                  i ->
+                      asyncDhis2.getObjectAsync(
+                          asyncDhis2
+                              .config
+                              .getResolvedUriBuilder()
+                              .appendPath("system")
+                              .appendPath("slow"),
+                          Query.instance(),
+                          SystemInfo.class))
+              .toList();
+
+      CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+      long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+      assertTrue(futures.stream().allMatch(f -> "2.41.0".equals(f.join().getVersion())));
+      assertTrue(
+          elapsedMillis < requests * SLOW_RESPONSE_MILLIS / 2,
+          String.format("Slow responses took %d ms", elapsedMillis));
+    }
+  }
+
+  @Test
+  void testResponseExceedsMaxSize() {
+    Dhis2Config config = server.getConfig();
+    config.getHttpClientConfig().setAsyncMaxResponseSize(10);
+
+    try (AsyncDhis2 asyncDhis2 = new AsyncDhis2(config)) {
+      ExecutionException ex =
+          assertThrows(ExecutionException.class, () -> asyncDhis2.getSystemInfo().get());
+
+      assertInstanceOf(Dhis2ClientException.class, ex.getCause());
+    }
+  }
+
+  @Test
+  void testGetObjectNotFound() {
+    CompletableFuture<SystemInfo> future =
+        dhis2.getObjectAsync(
+            dhis2.config.getResolvedUriBuilder().appendPath("system").appendPath("missing"),
+            Query.instance(),
+            SystemInfo.class);
+
+    ExecutionException ex = assertThrows(ExecutionException.class, future::get);
+
+    Dhis2ClientException cause = assertInstanceOf(Dhis2ClientException.class, ex.getCause());
+    assertEquals(404, cause.getStatusCode());
+  }
+
+  @Test
+  void testGetMetadataListLargerThanBuffer() {
+    try (MockDhis2Server mockServer = new MockDhis2Server().setOrgUnitCount(5000).start();
+        AsyncDhis2 asyncDhis2 = new AsyncDhis2(mockServer.getConfig())) {
+      List<OrgUnit> orgUnits =
+          asyncDhis2
+              .<OrgUnit>getMetadataList(
+                  MetadataEntity.ORG_UNIT, Query.instance().setPaging(1, 5000))
+              .join();
+
+      assertEquals(5000, orgUnits.size());
+      assertEquals("O0000004999", orgUnits.get(4999).getId());
+    }
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2004-2025, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.hisp.dhis.query.Filter;
+import org.hisp.dhis.query.InternalQuery;
+import org.hisp.dhis.query.Order;
+import org.hisp.dhis.query.Query;
+import org.hisp.dhis.query.analytics.AnalyticsQuery;
+import org.hisp.dhis.util.UidUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmark of building of request URIs for metadata and analytics queries through {@link
+ * BaseDhis2#withObjectQueryParams(org.apache.hc.core5.net.URIBuilder, Query, InternalQuery)} and
+ * {@link BaseDhis2#withAnalyticsQueryParams(org.apache.hc.core5.net.URIBuilder, AnalyticsQuery)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BaseDhis2Benchmark {
+  private Dhis2 dhis2;
+
+  private Query query;
+
+  private AnalyticsQuery analyticsQuery;
+
+  @Setup
+  public void setup() {
+    dhis2 = new Dhis2(new Dhis2Config("https://play.dhis2.org/dev", "admin", "district"));
+
+    query =
+        Query.instance()
+            .addFilter(Filter.like("name", "Clinic"))
+            .addFilter(Filter.eq("level", 4))
+            .addFilter(Filter.in("id", UidUtils.generateUids(10)))
+            .setOrder(Order.asc("name"))
+            .setPaging(2, 100);
+
+    analyticsQuery =
+        AnalyticsQuery.instance()
+            .addDataDimension(UidUtils.generateUids(20))
+            .addPeriodDimension(List.of("202401", "202402", "202403", "202404", "202405"))
+            .addOrgUnitFilter(UidUtils.generateUids(10))
+            .setSkipMeta(true)
+            .setIgnoreLimit(true);
+  }
+
+  @TearDown
+  public void tearDown() {
+    dhis2.close();
+  }
+
+  @Benchmark
+  public URI withObjectQueryParams() {
+    return dhis2.withObjectQueryParams(
+        dhis2.config.getResolvedUriBuilder().appendPath("organisationUnits"),
+        query,
+        InternalQuery.instance());
+  }
+
+  @Benchmark
+  public URI withAnalyticsQueryParams() {
+    return dhis2.withAnalyticsQueryParams(
+        dhis2.config.getResolvedUriBuilder().appendPath("analytics"), analyticsQuery);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(BaseDhis2Benchmark.class.getSimpleName()).build())
+        .run();
+  }
+}
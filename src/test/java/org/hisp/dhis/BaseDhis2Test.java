@@ -35,8 +35,10 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import org.apache.hc.core5.http.ContentType;
 import org.apache.hc.core5.http.io.entity.StringEntity;
@@ -56,6 +58,7 @@ import org.hisp.dhis.query.enrollment.EnrollmentQuery;
 import org.hisp.dhis.query.event.EventQuery;
 import org.hisp.dhis.response.Dhis2ClientException;
 import org.hisp.dhis.support.TestTags;
+import org.hisp.dhis.util.CapturingInputStream;
 import org.hisp.dhis.util.CodecUtils;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
@@ -273,6 +276,47 @@ class BaseDhis2Test {
         CodecUtils.decode(uri));
   }
 
+  @Test
+  void testWithEventQueryParamsAppliesPaging() throws Exception {
+    Dhis2 dhis2 = new Dhis2(TestFixture.DEFAULT_CONFIG);
+
+    EventQuery query = EventQuery.instance().setProgram("eBAyeGv0exc").setPaging(new Paging(1, 50));
+
+    URIBuilder uriBuilder = new URIBuilder("https://myserver.org/api/tracker/events");
+
+    URI uri = dhis2.withEventQueryParams(uriBuilder, query, new Paging(3, 200));
+
+    assertEquals(
+        "https://myserver.org/api/tracker/events?program=eBAyeGv0exc&page=3&pageSize=200",
+        CodecUtils.decode(uri));
+    assertEquals(1, query.getPaging().getPage());
+  }
+
+  @Test
+  void testReadValueInvalidJson() throws IOException {
+    Dhis2 dhis2 = new Dhis2(TestFixture.DEFAULT_CONFIG);
+
+    try (BasicClassicHttpResponse response = new BasicClassicHttpResponse(200)) {
+      response.setEntity(
+          new StringEntity("{\"id\":\"fbfJHSPpUQD\",", ContentType.APPLICATION_JSON));
+
+      assertThrows(Dhis2ClientException.class, () -> dhis2.readValue(response, DataElement.class));
+    }
+  }
+
+  @Test
+  void testReadValueMismatchedJsonRetainsSnippet() throws IOException {
+    Dhis2 dhis2 = new Dhis2(TestFixture.DEFAULT_CONFIG);
+    String content = "{\"id\":\"fbfJHSPpUQD\",\"name\":[\"ANC\"]}";
+
+    try (CapturingInputStream in =
+        new CapturingInputStream(
+            new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), 1024)) {
+      assertThrows(Dhis2ClientException.class, () -> dhis2.readValue(in, DataElement.class));
+      assertEquals(content, in.getSnippet());
+    }
+  }
+
   @Test
   void testHandleErrorsThrowsForGatewayHtmlResponse() throws IOException {
     Dhis2 dhis2 = new Dhis2(TestFixture.DEFAULT_CONFIG);
@@ -336,4 +380,45 @@ class BaseDhis2Test {
           () -> dhis2.handleErrors(response, "https://server.org/api/dataValueSets"));
     }
   }
+
+  @Test
+  void testReadValueFromResponse() throws IOException {
+    Dhis2 dhis2 = new Dhis2(TestFixture.DEFAULT_CONFIG);
+
+    try (BasicClassicHttpResponse response = new BasicClassicHttpResponse(200)) {
+      response.setEntity(
+          new StringEntity(
+              "{\"id\":\"fbfJHSPpUQD\",\"name\":\"ANC 1st visit\"}", ContentType.APPLICATION_JSON));
+
+      DataElement object = dhis2.readValue(response, DataElement.class);
+
+      assertEquals("fbfJHSPpUQD", object.getId());
+      assertEquals("ANC 1st visit", object.getName());
+    }
+  }
+
+  @Test
+  void testReadValueFromResponseWithInvalidJson() throws IOException {
+    Dhis2 dhis2 = new Dhis2(TestFixture.DEFAULT_CONFIG);
+
+    try (BasicClassicHttpResponse response = new BasicClassicHttpResponse(200)) {
+      response.setEntity(
+          new StringEntity("{\"id\":\"fbfJHSPpUQD\",", ContentType.APPLICATION_JSON));
+
+      assertThrows(Dhis2ClientException.class, () -> dhis2.readValue(response, DataElement.class));
+    }
+  }
+
+  @Test
+  void testReadValueFromResponseWithoutBody() throws IOException {
+    Dhis2 dhis2 = new Dhis2(TestFixture.DEFAULT_CONFIG);
+
+    try (BasicClassicHttpResponse response = new BasicClassicHttpResponse(204)) {
+      Dhis2ClientException ex =
+          assertThrows(
+              Dhis2ClientException.class, () -> dhis2.readValue(response, DataElement.class));
+
+      assertEquals(204, ex.getStatusCode());
+    }
+  }
 }
@@ -0,0 +1,303 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import org.hisp.dhis.executor.TaskExecutor;
+import org.hisp.dhis.metrics.MetricsListener;
+import org.hisp.dhis.model.datavalueset.DataValue;
+import org.hisp.dhis.model.datavalueset.DataValueSet;
+import org.hisp.dhis.model.datavalueset.DataValueSetBatchOptions;
+import org.hisp.dhis.response.Dhis2ClientException;
+import org.hisp.dhis.response.data.Conflict;
+import org.hisp.dhis.response.data.ImportCount;
+import org.hisp.dhis.response.data.Status;
+import org.hisp.dhis.response.datavalueset.DataValueSetResponse;
+import org.hisp.dhis.support.TestTags;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag(TestTags.UNIT)
+class DataValueSetBatchImporterTest {
+  private final TaskExecutor taskExecutor = TaskExecutor.platformThreads(4);
+
+  @AfterEach
+  void afterEach() {
+    taskExecutor.close();
+  }
+
+  @Test
+  void testImportInBatches() {
+    List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+
+    DataValueSetBatchImporter importer =
+        new DataValueSetBatchImporter(
+            dvs -> {
+              batchSizes.add(dvs.getDataValues().size());
+              assertEquals("pBOMPrpg1QX", dvs.getDataSet());
+              return CompletableFuture.completedFuture(newResponse(Status.SUCCESS, dvs));
+            },
+            DataValueSetBatchOptions.instance().setBatchSize(10).setMaxConcurrency(1),
+            taskExecutor);
+
+    DataValueSetResponse response =
+        importer.importDataValues(new DataValueSet().setDataSet("pBOMPrpg1QX"), newDataValues(25));
+
+    assertEquals(List.of(10, 10, 5), batchSizes);
+    assertEquals(Status.SUCCESS, response.getStatus());
+    assertEquals(25, response.getImportCount().getImported());
+    assertEquals(200, response.getHttpStatusCode());
+  }
+
+  @Test
+  void testNextBatchWithMaxBytes() {
+    long size = DataValueSetBatchImporter.estimateSize(newDataValue(0));
+
+    DataValueSetBatchImporter importer =
+        new DataValueSetBatchImporter(
+            dvs -> CompletableFuture.completedFuture(new DataValueSetResponse()),
+            DataValueSetBatchOptions.instance().setBatchSize(100).setMaxBatchBytes(size * 3),
+            taskExecutor);
+
+    Iterator<DataValue> dataValues = newDataValues(8);
+
+    assertEquals(3, importer.nextBatch(dataValues).size());
+    assertEquals(3, importer.nextBatch(dataValues).size());
+    assertEquals(2, importer.nextBatch(dataValues).size());
+  }
+
+  @Test
+  void testRetryFailedBatches() {
+    AtomicInteger calls = new AtomicInteger();
+    ConcurrentHashMap<String, Integer> attempts = new ConcurrentHashMap<>();
+
+    Function<DataValueSet, CompletableFuture<DataValueSetResponse>> function =
+        dvs -> {
+          calls.incrementAndGet();
+          String first = dvs.getDataValues().get(0).getValue();
+          int attempt = attempts.merge(first, 1, Integer::sum);
+
+          if ("10".equals(first) && attempt < 3) {
+            return CompletableFuture.failedFuture(new Dhis2ClientException("Timeout", 504));
+          }
+
+          return CompletableFuture.completedFuture(newResponse(Status.WARNING, dvs));
+        };
+
+    List<Integer> retries = Collections.synchronizedList(new ArrayList<>());
+    MetricsListener listener =
+        new MetricsListener() {
+          @Override
+          public void onRetry(String pathTemplate, int attempt) {
+            retries.add(attempt);
+          }
+        };
+
+    DataValueSetBatchImporter importer =
+        new DataValueSetBatchImporter(
+            function,
+            DataValueSetBatchOptions.instance().setBatchSize(10).setMaxRetries(2),
+            taskExecutor,
+            listener);
+
+    DataValueSetResponse response =
+        importer.importDataValues(new DataValueSet(), newDataValues(30));
+
+    assertEquals(5, calls.get());
+    assertEquals(List.of(1, 2), retries);
+    assertEquals(Status.WARNING, response.getStatus());
+    assertEquals(30, response.getImportCount().getImported());
+    assertEquals(3, response.getConflicts().size());
+  }
+
+  @Test
+  void testFailedBatchesReportedAsConflicts() {
+    DataValueSetBatchImporter importer =
+        new DataValueSetBatchImporter(
+            dvs -> {
+              if ("0".equals(dvs.getDataValues().get(0).getValue())) {
+                throw new Dhis2ClientException("Bad gateway", 502);
+              }
+              return CompletableFuture.completedFuture(newResponse(Status.SUCCESS, dvs));
+            },
+            DataValueSetBatchOptions.instance().setBatchSize(5).setMaxRetries(1),
+            taskExecutor);
+
+    DataValueSetResponse response =
+        importer.importDataValues(new DataValueSet(), newDataValues(10));
+
+    assertEquals(Status.ERROR, response.getStatus());
+    assertEquals(409, response.getHttpStatusCode());
+    assertEquals(5, response.getImportCount().getImported());
+
+    Conflict conflict = response.getConflicts().get(0);
+    assertEquals("batch:0", conflict.getObject());
+    assertTrue(conflict.getValue().contains("Bad gateway"));
+  }
+
+  @Test
+  void testNonRetryableBatchesNotRetried() {
+    AtomicInteger calls = new AtomicInteger();
+
+    DataValueSetBatchImporter importer =
+        new DataValueSetBatchImporter(
+            dvs -> {
+              calls.incrementAndGet();
+              String first = dvs.getDataValues().get(0).getValue();
+              if ("0".equals(first)) {
+                return CompletableFuture.failedFuture(new Dhis2ClientException("Conflict", 409));
+              }
+              if ("5".equals(first)) {
+                String message = "Job did not complete within timeout";
+                return CompletableFuture.failedFuture(
+                    new Dhis2ClientException(message, new TimeoutException(message)));
+              }
+              return CompletableFuture.completedFuture(newResponse(Status.SUCCESS, dvs));
+            },
+            DataValueSetBatchOptions.instance().setBatchSize(5).setMaxRetries(2),
+            taskExecutor);
+
+    DataValueSetResponse response =
+        importer.importDataValues(new DataValueSet(), newDataValues(15));
+
+    assertEquals(3, calls.get());
+    assertEquals(Status.ERROR, response.getStatus());
+    assertEquals(5, response.getImportCount().getImported());
+    assertEquals(2, response.getConflicts().size());
+  }
+
+  @Test
+  void testIsRetryable() {
+    assertTrue(DataValueSetBatchImporter.isRetryable(new Dhis2ClientException("Error", 503)));
+    assertTrue(
+        DataValueSetBatchImporter.isRetryable(
+            new Dhis2ClientException("HTTP request failed", new IOException("Reset"))));
+    assertFalse(DataValueSetBatchImporter.isRetryable(new Dhis2ClientException("Denied", 403)));
+    assertFalse(
+        DataValueSetBatchImporter.isRetryable(
+            new Dhis2ClientException("Timeout", new TimeoutException("Timeout"))));
+    assertFalse(DataValueSetBatchImporter.isRetryable(new IllegalStateException("Invalid")));
+  }
+
+  @Test
+  void testMaxConcurrency() {
+    AtomicInteger active = new AtomicInteger();
+    AtomicInteger maxActive = new AtomicInteger();
+
+    DataValueSetBatchImporter importer =
+        new DataValueSetBatchImporter(
+            dvs -> {
+              maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+              return CompletableFuture.supplyAsync(
+                  () -> {
+                    sleep(20);
+                    active.decrementAndGet();
+                    return newResponse(Status.SUCCESS, dvs);
+                  });
+            },
+            DataValueSetBatchOptions.instance().setBatchSize(1).setMaxConcurrency(2),
+            taskExecutor);
+
+    DataValueSetResponse response = importer.importDataValues(new DataValueSet(), newDataValues(8));
+
+    assertEquals(8, response.getImportCount().getImported());
+    assertTrue(maxActive.get() <= 2, "Max active: " + maxActive.get());
+  }
+
+  @Test
+  void testBatchesPostedOnTaskExecutor() {
+    Thread caller = Thread.currentThread();
+    List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+
+    DataValueSetBatchImporter importer =
+        new DataValueSetBatchImporter(
+            dvs -> {
+              threads.add(Thread.currentThread());
+              return CompletableFuture.completedFuture(newResponse(Status.SUCCESS, dvs));
+            },
+            DataValueSetBatchOptions.instance().setBatchSize(2),
+            taskExecutor);
+
+    DataValueSetResponse response = importer.importDataValues(new DataValueSet(), newDataValues(6));
+
+    assertEquals(6, response.getImportCount().getImported());
+    assertEquals(3, threads.size());
+    threads.forEach(thread -> assertNotSame(caller, thread));
+  }
+
+  private DataValueSetResponse newResponse(Status status, DataValueSet dataValueSet) {
+    ImportCount importCount = new ImportCount();
+    importCount.setImported(dataValueSet.getDataValues().size());
+
+    DataValueSetResponse response = new DataValueSetResponse();
+    response.setStatus(status);
+    response.setImportCount(importCount);
+
+    if (status == Status.WARNING) {
+      response.getConflicts().add(new Conflict());
+    }
+
+    return response;
+  }
+
+  private Iterator<DataValue> newDataValues(int count) {
+    return IntStream.range(0, count).mapToObj(this::newDataValue).iterator();
+  }
+
+  private DataValue newDataValue(int value) {
+    return new DataValue()
+        .setDataElement("f7n9E0hX8qk")
+        .setPeriod("202401")
+        .setOrgUnit("DiszpKrYNg8")
+        .setValue(String.valueOf(value));
+  }
+
+  private void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis;
+
+import static org.hisp.dhis.support.TestHttpServer.respond;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.hisp.dhis.model.analytics.AnalyticsData;
+import org.hisp.dhis.query.analytics.AnalyticsQuery;
+import org.hisp.dhis.support.TestHttpServer;
+import org.hisp.dhis.support.TestTags;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag(TestTags.UNIT)
+class Dhis2AnalyticsSplitTest {
+  private static final List<String> PERIODS =
+      List.of("202401", "202402", "202403", "202404", "202405", "202406", "202407");
+
+  private TestHttpServer server;
+
+  private Dhis2Config config;
+
+  private final AtomicInteger requests = new AtomicInteger();
+
+  private final AtomicInteger active = new AtomicInteger();
+
+  private final AtomicInteger maxActive = new AtomicInteger();
+
+  @BeforeEach
+  void beforeEach() {
+    server =
+        new TestHttpServer()
+            .handle(
+                "/api/analytics",
+                exchange -> {
+                  requests.incrementAndGet();
+                  maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+
+                  try {
+                    Thread.sleep(50);
+                  } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                  }
+
+                  String response = getResponse(exchange.getRequestURI().getQuery());
+                  active.decrementAndGet();
+
+                  respond(exchange, 200, response);
+                })
+            .start();
+
+    config = server.getConfig();
+  }
+
+  @AfterEach
+  void afterEach() {
+    server.close();
+  }
+
+  /**
+   * Returns an analytics response with a row per data item and period of the given query string.
+   *
+   * @param query the request query string.
+   * @return the response body.
+   */
+  private String getResponse(String query) {
+    Map<String, List<String>> dimensions = new HashMap<>();
+
+    for (String param : query.split("&")) {
+      if (param.startsWith("dimension=")) {
+        String[] dimension = param.substring("dimension=".length()).split(":");
+        dimensions.put(dimension[0], List.of(dimension[1].split(";")));
+      }
+    }
+
+    List<String> dx = dimensions.get("dx");
+    List<String> pe = dimensions.get("pe");
+    List<String> rows = new ArrayList<>();
+
+    for (String d : dx) {
+      for (String p : pe) {
+        rows.add(String.format("[\"%s\",\"%s\",\"%d\"]", d, p, (d + p).hashCode() % 1000));
+      }
+    }
+
+    String items =
+        pe.stream()
+            .map(p -> String.format("\"%s\":{\"name\":\"Period %s\"}", p, p))
+            .collect(Collectors.joining(","));
+
+    return String.format(
+        """
+            {"headers":[
+            {"name":"dx","column":"Data","valueType":"TEXT","meta":true},
+            {"name":"pe","column":"Period","valueType":"TEXT","meta":true},
+            {"name":"value","column":"Value","valueType":"NUMBER","meta":false}],
+            "metaData":{"items":{"dx":{"name":"Data"},%s},
+            "dimensions":{"dx":[%s],"pe":[%s]}},
+            "rows":[%s],"height":%d}""",
+        items, quote(dx), quote(pe), String.join(",", rows), rows.size());
+  }
+
+  private String quote(List<String> items) {
+    return items.stream().map(item -> "\"" + item + "\"").collect(Collectors.joining(","));
+  }
+
+  private AnalyticsQuery getQuery() {
+    return AnalyticsQuery.instance()
+        .addDataDimension(List.of("fbfJHSPpUQD", "cYeuwXTCPkU"))
+        .addPeriodDimension(PERIODS);
+  }
+
+  @Test
+  void testGetAnalyticsDataSplit() {
+    try (Dhis2 dhis2 = new Dhis2(config)) {
+      AnalyticsData expected = dhis2.getAnalyticsData(getQuery());
+
+      assertEquals(1, requests.getAndSet(0));
+
+      AnalyticsData actual = dhis2.getAnalyticsData(getQuery(), "pe", 2);
+
+      assertEquals(4, requests.get());
+      assertEquals(expected.getHeaderWidth(), actual.getHeaderWidth());
+      assertEquals(14, actual.getHeight());
+      assertEquals(
+          expected.getRows().stream().collect(Collectors.toSet()),
+          actual.getRows().stream().collect(Collectors.toSet()));
+      assertEquals(PERIODS, actual.getMetaData().getDimensionItems("pe"));
+      assertEquals(
+          expected.getMetaData().getDimensionItems("dx"),
+          actual.getMetaData().getDimensionItems("dx"));
+      assertEquals(
+          expected.getMetaData().getItems().keySet(), actual.getMetaData().getItems().keySet());
+      assertFalse(actual.isTruncated());
+    }
+  }
+
+  @Test
+  void testGetAnalyticsDataSplitMaxConcurrency() {
+    try (Dhis2 dhis2 = new Dhis2(config)) {
+      AnalyticsData data = dhis2.getAnalyticsData(getQuery(), "pe", 1, 2);
+
+      assertEquals(7, requests.get());
+      assertEquals(14, data.getHeight());
+      assertTrue(maxActive.get() <= 2);
+    }
+  }
+
+  @Test
+  void testGetAnalyticsDataNoSplit() {
+    try (Dhis2 dhis2 = new Dhis2(config)) {
+      AnalyticsData data = dhis2.getAnalyticsData(getQuery(), "dx", 5);
+
+      assertEquals(1, requests.get());
+      assertEquals(14, data.getHeight());
+    }
+  }
+}
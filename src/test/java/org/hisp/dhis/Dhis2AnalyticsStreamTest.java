@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis;
+
+import static org.hisp.dhis.support.TestHttpServer.respond;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.hisp.dhis.model.analytics.AnalyticsData;
+import org.hisp.dhis.model.analytics.AnalyticsRow;
+import org.hisp.dhis.query.analytics.AnalyticsQuery;
+import org.hisp.dhis.response.Dhis2ClientException;
+import org.hisp.dhis.support.TestHttpServer;
+import org.hisp.dhis.support.TestTags;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag(TestTags.UNIT)
+class Dhis2AnalyticsStreamTest {
+  private static final int ROW_COUNT = 5_000;
+
+  private TestHttpServer server;
+
+  private Dhis2Config config;
+
+  private volatile int status = 200;
+
+  @BeforeEach
+  void beforeEach() {
+    server =
+        new TestHttpServer()
+            .handle(
+                "/api/analytics",
+                exchange -> {
+                  if (status != 200) {
+                    respond(
+                        exchange, status, "{\"httpStatusCode\":409,\"message\":\"Invalid query\"}");
+                    return;
+                  }
+
+                  exchange.getResponseHeaders().add("Content-Type", "application/json");
+                  exchange.sendResponseHeaders(200, 0);
+                  try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(
+                        """
+                        {"headers":[
+                        {"name":"dx","column":"Data","valueType":"TEXT","meta":true},
+                        {"name":"pe","column":"Period","valueType":"TEXT","meta":true},
+                        {"name":"value","column":"Value","valueType":"NUMBER","meta":false}],
+                        "metaData":{"items":{"fbfJHSPpUQD":{"name":"ANC 1st visit"}}},
+                        "rows":["""
+                            .getBytes(StandardCharsets.UTF_8));
+
+                    for (int i = 0; i < ROW_COUNT; i++) {
+                      String row =
+                          String.format(
+                              "%s[\"fbfJHSPpUQD\",\"2024%02d\",\"%d\"]",
+                              i > 0 ? "," : "", i % 12, i);
+                      out.write(row.getBytes(StandardCharsets.UTF_8));
+                    }
+
+                    out.write(
+                        "],\"height\":5000,\"truncated\":true}".getBytes(StandardCharsets.UTF_8));
+                  }
+                })
+            .start();
+
+    config = server.getConfig();
+  }
+
+  @AfterEach
+  void afterEach() {
+    server.close();
+  }
+
+  private AnalyticsQuery getQuery() {
+    return AnalyticsQuery.instance()
+        .addDataDimension(List.of("fbfJHSPpUQD"))
+        .addPeriodDimension(List.of("LAST_12_MONTHS"));
+  }
+
+  @Test
+  void testStreamAnalyticsDataConsumer() {
+    List<AnalyticsRow> rows = new ArrayList<>();
+
+    try (Dhis2 dhis2 = new Dhis2(config)) {
+      AnalyticsData data = dhis2.streamAnalyticsData(getQuery(), rows::add);
+
+      assertEquals(3, data.getHeaderWidth());
+      assertEquals(0, data.getHeight());
+      assertTrue(data.isTruncated());
+      assertNotNull(data.getMetaData());
+    }
+
+    assertEquals(ROW_COUNT, rows.size());
+
+    AnalyticsRow row = rows.get(13);
+
+    assertEquals(13, row.getIndex());
+    assertEquals(3, row.size());
+    assertEquals("fbfJHSPpUQD", row.getValue(0));
+    assertEquals("202401", row.getValue("pe"));
+    assertEquals(13d, row.getDoubleValue(2));
+    assertNull(row.getValue("ou"));
+    assertEquals("ANC 1st visit", row.getMetaData().getItems().get("fbfJHSPpUQD").getName());
+  }
+
+  @Test
+  void testStreamAnalyticsData() {
+    try (Dhis2 dhis2 = new Dhis2(config)) {
+      double sum;
+
+      try (Stream<AnalyticsRow> rows = dhis2.streamAnalyticsData(getQuery())) {
+        sum = rows.mapToDouble(row -> row.getDoubleValue(2)).sum();
+      }
+
+      assertEquals((ROW_COUNT - 1) * ROW_COUNT / 2d, sum);
+
+      // Partially consumed stream releases the connection on close
+
+      for (int i = 0; i < 25; i++) {
+        try (Stream<AnalyticsRow> rows = dhis2.streamAnalyticsData(getQuery())) {
+          assertEquals(10, rows.limit(10).count());
+        }
+      }
+    }
+  }
+
+  @Test
+  void testStreamAnalyticsDataError() {
+    status = 409;
+
+    try (Dhis2 dhis2 = new Dhis2(config)) {
+      Dhis2ClientException ex =
+          assertThrows(
+              Dhis2ClientException.class, () -> dhis2.streamAnalyticsData(getQuery(), row -> {}));
+
+      assertEquals(409, ex.getStatusCode());
+    }
+  }
+}
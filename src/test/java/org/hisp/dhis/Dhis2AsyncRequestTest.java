@@ -0,0 +1,335 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis;
+
+import static org.hisp.dhis.support.TestHttpServer.respond;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import org.apache.hc.client5.http.classic.methods.HttpPost;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.hisp.dhis.executor.TaskExecutor;
+import org.hisp.dhis.metrics.MetricsListener;
+import org.hisp.dhis.metrics.RequestMetrics;
+import org.hisp.dhis.model.datavalueset.DataValue;
+import org.hisp.dhis.model.datavalueset.DataValueSet;
+import org.hisp.dhis.model.datavalueset.DataValueSetImportOptions;
+import org.hisp.dhis.response.Dhis2ClientException;
+import org.hisp.dhis.response.datavalueset.DataValueSetResponse;
+import org.hisp.dhis.support.TestHttpServer;
+import org.hisp.dhis.support.TestTags;
+import org.hisp.dhis.util.JacksonUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag(TestTags.UNIT)
+class Dhis2AsyncRequestTest {
+  private TestHttpServer server;
+
+  private Dhis2Config config;
+
+  private final TaskExecutor taskExecutor = TaskExecutor.platformThreads(1);
+
+  private final AtomicInteger statusChecks = new AtomicInteger();
+
+  private volatile int checksUntilComplete = 2;
+
+  private volatile String requestBody;
+
+  private volatile String transferEncoding;
+
+  private volatile String contentEncoding;
+
+  @BeforeEach
+  void beforeEach() {
+    server =
+        new TestHttpServer()
+            .handle(
+                "/api/dataValueSets",
+                exchange -> {
+                  transferEncoding = exchange.getRequestHeaders().getFirst("Transfer-Encoding");
+                  contentEncoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+                  InputStream body =
+                      "gzip".equals(contentEncoding)
+                          ? new GZIPInputStream(exchange.getRequestBody())
+                          : exchange.getRequestBody();
+                  requestBody = new String(body.readAllBytes(), StandardCharsets.UTF_8);
+                  respond(
+                      exchange,
+                      200,
+                      """
+                      {"httpStatus":"OK","httpStatusCode":200,"status":"OK","message":"Initiated",
+                      "response":{"id":"kDp4Xh1gR9v","jobType":"DATAVALUE_IMPORT"}}""");
+                })
+            .handle(
+                "/api/system/tasks/DATAVALUE_IMPORT",
+                exchange -> {
+                  boolean completed = statusChecks.incrementAndGet() > checksUntilComplete;
+                  respond(exchange, 200, String.format("[{\"completed\":%b}]", completed));
+                })
+            .handle(
+                "/api/system/taskSummaries/DATAVALUE_IMPORT",
+                exchange ->
+                    respond(
+                        exchange,
+                        200,
+                        """
+                        {"status":"SUCCESS","importCount":{"imported":3,"updated":1}}"""))
+            .start();
+
+    config = server.getConfig();
+    config
+        .getJobPollingConfig()
+        .setInitialDelay(Duration.ofMillis(5))
+        .setMaxDelay(Duration.ofMillis(20));
+  }
+
+  @AfterEach
+  void afterEach() {
+    server.close();
+    taskExecutor.close();
+  }
+
+  @Test
+  void testGetDelay() {
+    config
+        .getJobPollingConfig()
+        .setInitialDelay(Duration.ofMillis(100))
+        .setMaxDelay(Duration.ofMillis(1000))
+        .setMultiplier(2.0)
+        .setJitter(0.2);
+
+    Dhis2AsyncRequest request = newAsyncRequest();
+
+    for (int i = 0; i < 100; i++) {
+      assertBetween(80, 120, request.getDelay(0));
+      assertBetween(160, 240, request.getDelay(1));
+      assertBetween(320, 480, request.getDelay(2));
+      assertBetween(800, 1200, request.getDelay(4));
+      assertBetween(800, 1200, request.getDelay(50));
+    }
+  }
+
+  @Test
+  void testGetDelayWithoutJitter() {
+    config
+        .getJobPollingConfig()
+        .setInitialDelay(Duration.ofMillis(250))
+        .setMaxDelay(Duration.ofSeconds(5))
+        .setMultiplier(2.0)
+        .setJitter(0.0);
+
+    Dhis2AsyncRequest request = newAsyncRequest();
+
+    assertEquals(Duration.ofMillis(250), request.getDelay(0));
+    assertEquals(Duration.ofMillis(500), request.getDelay(1));
+    assertEquals(Duration.ofMillis(4000), request.getDelay(4));
+    assertEquals(Duration.ofSeconds(5), request.getDelay(5));
+    assertEquals(Duration.ofSeconds(5), request.getDelay(Integer.MAX_VALUE));
+  }
+
+  @Test
+  void testSaveDataValueSet() {
+    try (Dhis2 dhis2 = new Dhis2(config)) {
+      DataValueSetResponse response =
+          dhis2.saveDataValueSet(new DataValueSet(), DataValueSetImportOptions.instance());
+
+      assertEquals(3, statusChecks.get());
+      assertEquals(4, response.getAffectedCount());
+    }
+  }
+
+  @Test
+  void testSaveDataValueSetStream() {
+    DataValueSet dataValueSet = new DataValueSet().setDataSet("pBOMPrpg1QX").setPeriod("202401");
+    Stream<DataValue> dataValues =
+        Stream.of("12", "13").map(v -> new DataValue().setDataElement("f7n9E0hX8qk").setValue(v));
+
+    try (Dhis2 dhis2 = new Dhis2(config)) {
+      DataValueSetResponse response =
+          dhis2.saveDataValueSet(dataValueSet, dataValues, DataValueSetImportOptions.instance());
+
+      assertEquals(4, response.getAffectedCount());
+      assertEquals("chunked", transferEncoding);
+      assertEquals(
+          """
+          {"dataSet":"pBOMPrpg1QX","period":"202401","dataValues":[\
+          {"dataElement":"f7n9E0hX8qk","value":"12"},\
+          {"dataElement":"f7n9E0hX8qk","value":"13"}]}""",
+          requestBody);
+    }
+  }
+
+  @Test
+  void testSaveDataValueSetCompressed() {
+    config.getHttpClientConfig().setRequestCompression(RequestCompression.GZIP);
+
+    DataValueSet dataValueSet = new DataValueSet().setDataSet("pBOMPrpg1QX");
+
+    try (Dhis2 dhis2 = new Dhis2(config)) {
+      dhis2.saveDataValueSet(dataValueSet, DataValueSetImportOptions.instance());
+
+      assertEquals("gzip", contentEncoding);
+      assertEquals("{\"dataSet\":\"pBOMPrpg1QX\",\"dataValues\":[]}", requestBody);
+
+      TransferStats stats = dhis2.getTransferStats();
+      assertEquals(requestBody.length(), stats.getRequestContentBytes());
+      assertTrue(stats.getRequestTransferBytes() > 0);
+      assertTrue(stats.getResponseContentBytes() > 0);
+    }
+  }
+
+  @Test
+  void testSaveDataValueSetAsync() throws Exception {
+    try (Dhis2 dhis2 = new Dhis2(config)) {
+      CompletableFuture<DataValueSetResponse> future =
+          dhis2.saveDataValueSetAsync(new DataValueSet(), DataValueSetImportOptions.instance());
+
+      DataValueSetResponse response = future.get(10, TimeUnit.SECONDS);
+
+      assertEquals(3, statusChecks.get());
+      assertEquals(4, response.getAffectedCount());
+    }
+  }
+
+  @Test
+  void testSaveDataValueSetAsyncMany() {
+    checksUntilComplete = 10;
+
+    try (Dhis2 dhis2 = new Dhis2(config)) {
+      List<CompletableFuture<DataValueSetResponse>> futures =
+          IntStream.range(0, 20)
+              .mapToObj(
+                  i ->
+                      dhis2.saveDataValueSetAsync(
+                          new DataValueSet(), DataValueSetImportOptions.instance()))
+              .collect(Collectors.toList());
+
+      CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+      futures.forEach(f -> assertEquals(4, f.join().getAffectedCount()));
+    }
+  }
+
+  @Test
+  void testSaveDataValueSetAsyncPollsOnTaskExecutor() {
+    Set<String> threads = ConcurrentHashMap.newKeySet();
+    config.setMetricsListener(
+        new MetricsListener() {
+          @Override
+          public void onRequest(RequestMetrics metrics) {
+            if (metrics.getPathTemplate().startsWith("system/")) {
+              threads.add(Thread.currentThread().getName());
+            }
+          }
+        });
+
+    try (Dhis2 dhis2 = new Dhis2(config)) {
+      dhis2.saveDataValueSetAsync(new DataValueSet(), DataValueSetImportOptions.instance()).join();
+    }
+
+    assertFalse(threads.isEmpty());
+    assertTrue(
+        threads.stream().allMatch(name -> name.startsWith("dhis2-task-")), threads::toString);
+  }
+
+  @Test
+  void testPostWithDefaultTaskExecutor() {
+    Dhis2AsyncRequest request =
+        new Dhis2AsyncRequest(config, HttpClients.createMinimal(), JacksonUtils.getJsonMapper());
+
+    DataValueSetResponse response =
+        request.post(
+            new HttpPost(server.getUrl() + "/api/dataValueSets"), DataValueSetResponse.class);
+
+    assertEquals(3, statusChecks.get());
+    assertEquals(4, response.getAffectedCount());
+  }
+
+  @Test
+  void testSaveDataValueSetTimeout() {
+    checksUntilComplete = Integer.MAX_VALUE;
+    config.getJobPollingConfig().setTimeout(Duration.ofMillis(50));
+
+    try (Dhis2 dhis2 = new Dhis2(config)) {
+      Dhis2ClientException ex =
+          assertThrows(
+              Dhis2ClientException.class,
+              () ->
+                  dhis2.saveDataValueSet(new DataValueSet(), DataValueSetImportOptions.instance()));
+
+      assertTrue(ex.getMessage().startsWith("Job did not complete within timeout"));
+    }
+  }
+
+  @Test
+  void testSaveDataValueSetAsyncTimeout() {
+    checksUntilComplete = Integer.MAX_VALUE;
+    config.getJobPollingConfig().setTimeout(Duration.ofMillis(50));
+
+    try (Dhis2 dhis2 = new Dhis2(config)) {
+      CompletableFuture<DataValueSetResponse> future =
+          dhis2.saveDataValueSetAsync(new DataValueSet(), DataValueSetImportOptions.instance());
+
+      ExecutionException ex =
+          assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+
+      assertInstanceOf(Dhis2ClientException.class, ex.getCause());
+    }
+  }
+
+  private Dhis2AsyncRequest newAsyncRequest() {
+    return new Dhis2AsyncRequest(
+        config, HttpClients.createMinimal(), JacksonUtils.getJsonMapper(), taskExecutor);
+  }
+
+  private void assertBetween(long minMillis, long maxMillis, Duration actual) {
+    assertTrue(
+        actual.toMillis() >= minMillis && actual.toMillis() <= maxMillis,
+        String.format("%s not within [%d, %d] ms", actual, minMillis, maxMillis));
+  }
+}
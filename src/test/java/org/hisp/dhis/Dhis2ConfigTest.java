@@ -28,10 +28,17 @@
 package org.hisp.dhis;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.hisp.dhis.executor.TaskExecutor;
 import org.hisp.dhis.response.Dhis2ClientException;
 import org.hisp.dhis.support.TestTags;
+import org.hisp.dhis.util.HttpClientUtils;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 
@@ -102,4 +109,54 @@ class Dhis2ConfigTest {
     assertEquals("https://dhis2.org/dev", config.normalizeUrl("https://dhis2.org/dev/"));
     assertEquals("https://dhis2.org/dev", config.normalizeUrl("https://dhis2.org/dev"));
   }
+
+  @Test
+  void testDefaultHttpClientConfig() {
+    Dhis2Config config = new Dhis2Config("https://play.dhis2.org/dev", "admin", "district");
+
+    assertNotNull(config.getHttpClientConfig());
+    assertFalse(config.hasHttpClient());
+  }
+
+  @Test
+  void testSharedHttpClient() throws Exception {
+    try (CloseableHttpClient httpClient =
+        HttpClientUtils.createHttpClient(HttpClientConfig.instance())) {
+      Dhis2Config configA =
+          new Dhis2Config("https://play.dhis2.org/dev", "admin", "district")
+              .setHttpClient(httpClient);
+      Dhis2Config configB =
+          new Dhis2Config("https://play.dhis2.org/stable", "admin", "district")
+              .setHttpClient(httpClient);
+
+      assertTrue(configA.hasHttpClient());
+      assertSame(configA.getHttpClient(), configB.getHttpClient());
+
+      // Closing the client must leave the externally managed HTTP client open
+      new Dhis2(configA).close();
+
+      assertSame(httpClient, new Dhis2(configB).httpClient);
+    }
+  }
+
+  @Test
+  void testTaskExecutor() {
+    Dhis2Config config = new Dhis2Config("https://play.dhis2.org/dev", "admin", "district");
+
+    assertFalse(config.hasTaskExecutor());
+    assertEquals(8, config.getMaxConcurrency());
+
+    try (TaskExecutor executor = TaskExecutor.platformThreads(2)) {
+      config.setTaskExecutor(executor);
+
+      Dhis2 dhis2 = new Dhis2(config);
+
+      assertSame(executor, dhis2.getTaskExecutor());
+
+      // Closing the client must leave the externally managed task executor open
+      dhis2.close();
+
+      assertEquals(2, executor.submit(() -> 2).join());
+    }
+  }
 }
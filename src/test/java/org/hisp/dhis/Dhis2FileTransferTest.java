@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis;
+
+import static org.hisp.dhis.support.TestHttpServer.respond;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import org.hisp.dhis.query.analytics.AnalyticsQuery;
+import org.hisp.dhis.response.Dhis2ClientException;
+import org.hisp.dhis.support.TestHttpServer;
+import org.hisp.dhis.support.TestTags;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@Tag(TestTags.UNIT)
+class Dhis2FileTransferTest {
+  private static final byte[] CONTENT = new byte[3 * 1024 * 1024 + 17];
+
+  static {
+    new Random(42).nextBytes(CONTENT);
+  }
+
+  private TestHttpServer server;
+
+  private Dhis2Config config;
+
+  @TempDir Path tempDir;
+
+  @BeforeEach
+  void beforeEach() {
+    server =
+        new TestHttpServer()
+            .handle(
+                "/api/",
+                exchange -> {
+                  String path = exchange.getRequestURI().getPath();
+
+                  if (path.contains("missing")) {
+                    respond(exchange, 404);
+                    return;
+                  }
+
+                  exchange.sendResponseHeaders(200, 0);
+                  try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(CONTENT);
+                  }
+                })
+            .start();
+
+    config = server.getConfig();
+  }
+
+  @AfterEach
+  void afterEach() {
+    server.close();
+  }
+
+  @Test
+  void testWriteDocumentDataToPath() throws IOException {
+    Path path = tempDir.resolve("documents").resolve("document.bin");
+
+    try (Dhis2 dhis2 = new Dhis2(config)) {
+      long count = dhis2.writeDocumentData("Kvg1tLVVadP", path);
+
+      assertEquals(CONTENT.length, count);
+    }
+
+    assertArrayEquals(CONTENT, Files.readAllBytes(path));
+  }
+
+  @Test
+  void testWriteAnalyticsDataValueSetToChannel() throws IOException {
+    AnalyticsQuery query =
+        AnalyticsQuery.instance()
+            .addDataDimension(List.of("fbfJHSPpUQD"))
+            .addPeriodDimension(List.of("202401"));
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    try (Dhis2 dhis2 = new Dhis2(config);
+        WritableByteChannel channel = Channels.newChannel(out)) {
+      long count = dhis2.writeAnalyticsDataValueSet(query, channel);
+
+      assertEquals(CONTENT.length, count);
+    }
+
+    assertArrayEquals(CONTENT, out.toByteArray());
+  }
+
+  @Test
+  void testOpenFileResourceData() throws IOException {
+    try (Dhis2 dhis2 = new Dhis2(config);
+        InputStream in = dhis2.openFileResourceData("Kvg1tLVVadP")) {
+      assertArrayEquals(CONTENT, in.readAllBytes());
+    }
+  }
+
+  @Test
+  void testOpenEventAndAttributeFile() throws IOException {
+    try (Dhis2 dhis2 = new Dhis2(config)) {
+      try (InputStream in = dhis2.openEventFile("Ox1qBWsnVwE", "fbfJHSPpUQD")) {
+        assertArrayEquals(CONTENT, in.readAllBytes());
+      }
+
+      try (InputStream in = dhis2.openTrackedEntityAttributeFile("PQfMcpmXeFE", "w75KJ2mc4zz")) {
+        assertArrayEquals(CONTENT, in.readAllBytes());
+      }
+    }
+  }
+
+  @Test
+  void testWriteToPathNotFound() {
+    Path path = tempDir.resolve("missing.bin");
+
+    try (Dhis2 dhis2 = new Dhis2(config)) {
+      assertThrows(Dhis2ClientException.class, () -> dhis2.writeDocumentData("missing", path));
+      assertThrows(Dhis2ClientException.class, () -> dhis2.openFileResourceData("missing"));
+    }
+
+    assertFalse(Files.exists(path));
+  }
+}
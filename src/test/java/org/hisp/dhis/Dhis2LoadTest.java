@@ -0,0 +1,294 @@
+/*
+ * Copyright (c) 2004-2025, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.hisp.dhis.model.datavalueset.DataValue;
+import org.hisp.dhis.model.datavalueset.DataValueSet;
+import org.hisp.dhis.model.datavalueset.DataValueSetImportOptions;
+import org.hisp.dhis.query.Paging;
+import org.hisp.dhis.query.Query;
+import org.hisp.dhis.query.analytics.AnalyticsQuery;
+import org.hisp.dhis.query.datavalue.DataValueSetQuery;
+import org.hisp.dhis.query.event.EventQuery;
+import org.hisp.dhis.support.MockDhis2Server;
+import org.hisp.dhis.support.TestTags;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Load tests of the {@link Dhis2} facade against a {@link MockDhis2Server}. Each test issues
+ * requests from a number of concurrent threads after a warmup, and logs the throughput in requests
+ * per second, the p50 and p99 latency and the rate of memory allocated by the requesting threads.
+ * Run with {@code mvn test -Pload}.
+ */
+@Slf4j
+@Tag(TestTags.LOAD)
+class Dhis2LoadTest {
+  private static final int THREADS = 8;
+
+  private static final int REQUESTS = 2000;
+
+  private static final int WARMUP_REQUESTS = 500;
+
+  private static MockDhis2Server server;
+
+  private static Dhis2 dhis2;
+
+  @BeforeAll
+  static void beforeAll() {
+    server =
+        new MockDhis2Server()
+            .setLatency(Duration.ofMillis(2))
+            .setOrgUnitCount(10_000)
+            .setEventCount(10_000)
+            .setDataValuesPerEvent(10)
+            .setDataValueCount(1000)
+            .setPollsUntilComplete(2)
+            .setResponseCompression(true)
+            .start();
+
+    Dhis2Config config = server.getConfig();
+    config
+        .getJobPollingConfig()
+        .setInitialDelay(Duration.ofMillis(5))
+        .setMaxDelay(Duration.ofMillis(20));
+
+    dhis2 = new Dhis2(config);
+  }
+
+  @AfterAll
+  static void afterAll() {
+    dhis2.close();
+    server.close();
+  }
+
+  @Test
+  void testGetOrgUnitsPaged() {
+    run(
+        "Get org units paged",
+        () ->
+            dhis2.getOrgUnitsPaged(
+                Query.instance().setPaging(ThreadLocalRandom.current().nextInt(1, 201), 50)));
+  }
+
+  @Test
+  void testGetEvents() {
+    run(
+        "Get events",
+        () ->
+            dhis2.getEvents(
+                EventQuery.instance()
+                    .setPaging(new Paging(ThreadLocalRandom.current().nextInt(1, 201), 50))));
+  }
+
+  @Test
+  void testGetAnalyticsData() {
+    AnalyticsQuery query =
+        AnalyticsQuery.instance()
+            .addDataDimension(getUids('D', 10))
+            .addPeriodDimension(
+                IntStream.rangeClosed(1, 12).mapToObj(m -> String.format("2024%02d", m)).toList())
+            .addOrgUnitDimension(getUids('O', 10));
+
+    run("Get analytics data", () -> dhis2.getAnalyticsData(query));
+  }
+
+  @Test
+  void testGetDataValueSet() {
+    DataValueSetQuery query =
+        DataValueSetQuery.instance()
+            .addDataSets(List.of("pBOMPrpg1QX"))
+            .addPeriods(List.of("202401"));
+
+    run("Get data value set", () -> dhis2.getDataValueSet(query));
+  }
+
+  @Test
+  void testSaveDataValueSet() {
+    DataValueSet dataValueSet = new DataValueSet().setDataSet("pBOMPrpg1QX").setPeriod("202401");
+    getUids('D', 100)
+        .forEach(
+            uid ->
+                dataValueSet.addDataValue(
+                    new DataValue().setDataElement(uid).setOrgUnit("O0000000001").setValue("12")));
+
+    run(
+        "Save data value set",
+        () -> dhis2.saveDataValueSet(dataValueSet, DataValueSetImportOptions.instance()));
+  }
+
+  /**
+   * Runs the given request from {@link #THREADS} threads after a warmup, and logs the result.
+   *
+   * @param name the name of the load test.
+   * @param request the request.
+   */
+  private void run(String name, Supplier<?> request) {
+    load(request, WARMUP_REQUESTS);
+
+    long requestCount = server.getRequestCount();
+    LoadResult result = load(request, REQUESTS);
+
+    log.info(
+        "{}: {} requests, {} req/s, p50 {} ms, p99 {} ms, {} MB/s allocated, {} KB/request",
+        name,
+        REQUESTS,
+        String.format("%.0f", result.getRequestsPerSecond()),
+        String.format("%.2f", result.getPercentileMillis(50)),
+        String.format("%.2f", result.getPercentileMillis(99)),
+        String.format("%.1f", result.getAllocationRate() / (1024 * 1024)),
+        String.format("%.1f", (double) result.getAllocatedBytes() / REQUESTS / 1024));
+
+    assertTrue(server.getRequestCount() - requestCount >= REQUESTS);
+    assertEquals(REQUESTS, result.getLatencies().length);
+  }
+
+  /**
+   * Issues the given number of requests from {@link #THREADS} threads.
+   *
+   * @param request the request.
+   * @param requests the number of requests.
+   * @return the {@link LoadResult}.
+   */
+  private LoadResult load(Supplier<?> request, int requests) {
+    long[] latencies = new long[requests];
+    AtomicInteger next = new AtomicInteger();
+    AtomicLong allocatedBytes = new AtomicLong();
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    List<Future<?>> futures = new ArrayList<>();
+
+    long start = System.nanoTime();
+
+    for (int t = 0; t < THREADS; t++) {
+      futures.add(
+          executor.submit(
+              () -> {
+                long allocatedStart = getAllocatedBytes();
+
+                for (int i = next.getAndIncrement(); i < requests; i = next.getAndIncrement()) {
+                  long requestStart = System.nanoTime();
+                  request.get();
+                  latencies[i] = System.nanoTime() - requestStart;
+                }
+
+                allocatedBytes.addAndGet(getAllocatedBytes() - allocatedStart);
+              }));
+    }
+
+    try {
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(ex);
+    } catch (ExecutionException ex) {
+      throw new IllegalStateException(ex.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+
+    long elapsed = System.nanoTime() - start;
+    Arrays.sort(latencies);
+    return new LoadResult(latencies, elapsed, allocatedBytes.get());
+  }
+
+  /**
+   * Returns the number of bytes allocated by the current thread, or 0 if not supported by the JVM.
+   *
+   * @return the number of bytes allocated by the current thread.
+   */
+  private static long getAllocatedBytes() {
+    if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+        && bean.isThreadAllocatedMemorySupported()) {
+      return bean.getCurrentThreadAllocatedBytes();
+    }
+
+    return 0L;
+  }
+
+  /**
+   * Returns a list of identifiers as generated by the {@link MockDhis2Server}.
+   *
+   * @param prefix the prefix letter.
+   * @param count the number of identifiers.
+   * @return a list of identifiers.
+   */
+  private static List<String> getUids(char prefix, int count) {
+    return IntStream.range(0, count).mapToObj(i -> String.format("%c%010d", prefix, i)).toList();
+  }
+
+  /** Result of a load test. */
+  @Getter
+  @AllArgsConstructor
+  private static class LoadResult {
+    /** Sorted request latencies in nanoseconds. */
+    private final long[] latencies;
+
+    /** Elapsed time in nanoseconds. */
+    private final long elapsed;
+
+    /** Bytes allocated by the requesting threads. */
+    private final long allocatedBytes;
+
+    double getRequestsPerSecond() {
+      return latencies.length / (elapsed / 1e9);
+    }
+
+    double getPercentileMillis(int percentile) {
+      int index = (int) Math.ceil(percentile / 100.0 * latencies.length) - 1;
+      return latencies[Math.max(0, index)] / 1e6;
+    }
+
+    double getAllocationRate() {
+      return allocatedBytes / (elapsed / 1e9);
+    }
+  }
+}
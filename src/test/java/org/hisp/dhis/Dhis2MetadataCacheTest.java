@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis;
+
+import static org.hisp.dhis.support.TestHttpServer.respond;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hisp.dhis.model.DataElement;
+import org.hisp.dhis.support.TestHttpServer;
+import org.hisp.dhis.support.TestTags;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag(TestTags.UNIT)
+class Dhis2MetadataCacheTest {
+  private TestHttpServer server;
+
+  private Dhis2 dhis2;
+
+  private final AtomicInteger getCount = new AtomicInteger();
+
+  @BeforeEach
+  void beforeEach() {
+    server =
+        new TestHttpServer()
+            .handle(
+                "/api/dataElements",
+                exchange -> {
+                  if ("GET".equals(exchange.getRequestMethod())) {
+                    getCount.incrementAndGet();
+                    respond(exchange, 200, "{\"id\":\"f7n9E0hX8qk\",\"name\":\"ANC 1st visit\"}");
+                  } else {
+                    respond(
+                        exchange,
+                        200,
+                        "{\"httpStatus\":\"OK\",\"httpStatusCode\":200,\"status\":\"OK\"}");
+                  }
+                })
+            .start();
+
+    Dhis2Config config = server.getConfig();
+    config.getMetadataCacheConfig().setEnabled(true);
+    dhis2 = new Dhis2(config);
+  }
+
+  @AfterEach
+  void afterEach() {
+    dhis2.close();
+    server.close();
+  }
+
+  @Test
+  void testGetCachedAndInvalidatedOnUpdate() {
+    DataElement dataElement = dhis2.getDataElement("f7n9E0hX8qk");
+    dhis2.getDataElement("f7n9E0hX8qk");
+
+    assertEquals("ANC 1st visit", dataElement.getName());
+    assertEquals(1, getCount.get());
+    assertEquals(1, dhis2.getMetadataCache().getStats().getHitCount());
+
+    dhis2.updateMetadataObject(dataElement);
+    dhis2.getDataElement("f7n9E0hX8qk");
+
+    assertEquals(2, getCount.get());
+  }
+
+  @Test
+  void testInvalidatedOnRemove() {
+    dhis2.getDataElement("f7n9E0hX8qk");
+    dhis2.removeDataElement("f7n9E0hX8qk");
+    dhis2.getDataElement("f7n9E0hX8qk");
+
+    assertEquals(2, getCount.get());
+  }
+}
@@ -0,0 +1,315 @@
+/*
+ * Copyright (c) 2004-2025, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.apache.commons.lang3.StringUtils;
+import org.hisp.dhis.metrics.JobMetrics;
+import org.hisp.dhis.metrics.MetricsListener;
+import org.hisp.dhis.metrics.MicrometerMetricsListener;
+import org.hisp.dhis.metrics.RequestMetrics;
+import org.hisp.dhis.model.datavalueset.DataValue;
+import org.hisp.dhis.model.datavalueset.DataValueSet;
+import org.hisp.dhis.model.datavalueset.DataValueSetImportOptions;
+import org.hisp.dhis.query.analytics.AnalyticsQuery;
+import org.hisp.dhis.response.Dhis2ClientException;
+import org.hisp.dhis.support.MockDhis2Server;
+import org.hisp.dhis.support.TestTags;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag(TestTags.UNIT)
+class Dhis2MetricsTest {
+  private MockDhis2Server server;
+
+  private final List<RequestMetrics> requests = Collections.synchronizedList(new ArrayList<>());
+
+  private final List<JobMetrics> jobs = Collections.synchronizedList(new ArrayList<>());
+
+  private final MetricsListener listener =
+      new MetricsListener() {
+        @Override
+        public void onRequest(RequestMetrics metrics) {
+          requests.add(metrics);
+        }
+
+        @Override
+        public void onJobCompleted(JobMetrics metrics) {
+          jobs.add(metrics);
+        }
+      };
+
+  @BeforeEach
+  void beforeEach() {
+    server = new MockDhis2Server().setOrgUnitCount(20).setPollsUntilComplete(2).start();
+  }
+
+  @AfterEach
+  void afterEach() {
+    server.close();
+  }
+
+  @Test
+  void testGetObjectMetrics() {
+    try (Dhis2 dhis2 = new Dhis2(getConfig(listener))) {
+      dhis2.getOrgUnit("O0000000012");
+    }
+
+    assertEquals(1, requests.size());
+    RequestMetrics metrics = requests.get(0);
+    assertEquals("GET", metrics.getMethod());
+    assertEquals("organisationUnits/{id}", metrics.getPathTemplate());
+    assertEquals(200, metrics.getStatusCode());
+    assertTrue(metrics.getDurationNanos() > 0);
+    assertTrue(metrics.getDeserializationNanos() > 0);
+    assertTrue(metrics.getResponseBytes() > 0);
+    assertEquals(0, metrics.getRequestBytes());
+    assertNull(metrics.getException());
+    assertEquals(
+        1, StringUtils.countMatches(metrics.toString(), "pathTemplate=organisationUnits/{id}"));
+  }
+
+  @Test
+  void testObjectExistsAndStatusMetrics() {
+    try (Dhis2 dhis2 = new Dhis2(getConfig(listener))) {
+      assertTrue(dhis2.isOrgUnit("O0000000012"));
+      dhis2.getStatus();
+    }
+
+    assertEquals(2, requests.size());
+    assertEquals("organisationUnits/{id}", requests.get(0).getPathTemplate());
+    assertEquals(200, requests.get(0).getStatusCode());
+    assertEquals("system/info", requests.get(1).getPathTemplate());
+  }
+
+  @Test
+  void testOpenFileMetrics() throws IOException {
+    try (Dhis2 dhis2 = new Dhis2(getConfig(listener))) {
+      try (InputStream in =
+          dhis2.openFile(URI.create(server.getUrl() + "/api/organisationUnits/O0000000012"))) {
+        assertTrue(in.readAllBytes().length > 0);
+        assertTrue(requests.isEmpty());
+      }
+    }
+
+    assertEquals(1, requests.size());
+    RequestMetrics metrics = requests.get(0);
+    assertEquals("organisationUnits/{id}", metrics.getPathTemplate());
+    assertEquals(200, metrics.getStatusCode());
+    assertTrue(metrics.getResponseBytes() > 0);
+  }
+
+  @Test
+  void testNotFoundMetrics() {
+    try (Dhis2 dhis2 = new Dhis2(getConfig(listener))) {
+      assertThrows(Dhis2ClientException.class, () -> dhis2.getOrgUnit("O0000000250"));
+    }
+
+    assertEquals(1, requests.size());
+    RequestMetrics metrics = requests.get(0);
+    assertEquals(404, metrics.getStatusCode());
+    assertInstanceOf(Dhis2ClientException.class, metrics.getException());
+  }
+
+  @Test
+  void testJobMetrics() {
+    try (Dhis2 dhis2 = new Dhis2(getConfig(listener))) {
+      dhis2.saveDataValueSet(newDataValueSet(5), DataValueSetImportOptions.instance());
+    }
+
+    RequestMetrics post = requests.get(0);
+    assertEquals("POST", post.getMethod());
+    assertEquals("dataValueSets", post.getPathTemplate());
+    assertTrue(post.getRequestBytes() > 0);
+    assertTrue(
+        requests.stream()
+            .anyMatch(r -> "system/tasks/DATAVALUE_IMPORT/{id}".equals(r.getPathTemplate())));
+
+    assertEquals(1, jobs.size());
+    JobMetrics job = jobs.get(0);
+    assertEquals("DATAVALUE_IMPORT", job.getJobType());
+    assertEquals(2, job.getPolls());
+    assertTrue(job.isCompleted());
+  }
+
+  @Test
+  void testMicrometerMetricsListener() {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    try (Dhis2 dhis2 = new Dhis2(getConfig(new MicrometerMetricsListener(registry)))) {
+      dhis2.getOrgUnit("O0000000012");
+      dhis2.getOrgUnit("O0000000013");
+    }
+
+    Timer timer =
+        registry
+            .find("dhis2.client.requests")
+            .tag("uri", "organisationUnits/{id}")
+            .tag("status", "200")
+            .timer();
+
+    assertNotNull(timer);
+    assertEquals(2, timer.count());
+    assertNotNull(registry.find("dhis2.client.requests.received").summary());
+  }
+
+  @Test
+  void testMicrometerAnalyticsCacheMetrics() {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    Dhis2Config config = getConfig(new MicrometerMetricsListener(registry));
+    config.getAnalyticsCacheConfig().setEnabled(true);
+    AnalyticsQuery query =
+        AnalyticsQuery.instance()
+            .addDataDimension(List.of("fbfJHSPpUQD"))
+            .addPeriodDimension(List.of("202401"))
+            .addOrgUnitFilter(List.of("ImspTQPwCqd"));
+
+    try (Dhis2 dhis2 = new Dhis2(config)) {
+      dhis2.getAnalyticsData(query);
+      dhis2.getAnalyticsData(query);
+      dhis2.getAnalyticsData(query);
+
+      assertEquals(
+          2.0, registry.get("dhis2.client.analytics.cache.hits").functionCounter().count());
+      assertEquals(
+          1.0, registry.get("dhis2.client.analytics.cache.misses").functionCounter().count());
+      assertEquals(
+          2.0 / 3, registry.get("dhis2.client.analytics.cache.hit.ratio").gauge().value(), 0.0001);
+      assertTrue(
+          registry.get("dhis2.client.analytics.cache.saved").timeGauge().value(TimeUnit.NANOSECONDS)
+              > 0);
+    }
+  }
+
+  @Test
+  void testMicrometerAnalyticsCacheMetricsOfMultipleClients() {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    MicrometerMetricsListener listenerA = new MicrometerMetricsListener(registry, "a");
+    Dhis2Config configA = getConfig(listenerA);
+    configA.getAnalyticsCacheConfig().setEnabled(true);
+    Dhis2Config configB = getConfig(new MicrometerMetricsListener(registry, "b"));
+    configB.getAnalyticsCacheConfig().setEnabled(true);
+    Dhis2Config configC = getConfig(listenerA);
+    configC.getAnalyticsCacheConfig().setEnabled(true);
+    AnalyticsQuery query =
+        AnalyticsQuery.instance()
+            .addDataDimension(List.of("fbfJHSPpUQD"))
+            .addPeriodDimension(List.of("202401"))
+            .addOrgUnitFilter(List.of("ImspTQPwCqd"));
+
+    try (Dhis2 dhis2A = new Dhis2(configA);
+        Dhis2 dhis2B = new Dhis2(configB);
+        Dhis2 dhis2C = new Dhis2(configC)) {
+      dhis2A.getAnalyticsData(query);
+      dhis2B.getAnalyticsData(query);
+      dhis2B.getAnalyticsData(query);
+      dhis2C.getAnalyticsData(query);
+      dhis2C.getAnalyticsData(query);
+
+      assertEquals(
+          1.0,
+          registry
+              .get("dhis2.client.analytics.cache.hits")
+              .tag("client", "a")
+              .functionCounter()
+              .count());
+      assertEquals(
+          2.0,
+          registry
+              .get("dhis2.client.analytics.cache.misses")
+              .tag("client", "a")
+              .functionCounter()
+              .count());
+      assertEquals(
+          1.0,
+          registry
+              .get("dhis2.client.analytics.cache.hits")
+              .tag("client", "b")
+              .functionCounter()
+              .count());
+      assertEquals(
+          0.5,
+          registry.get("dhis2.client.analytics.cache.hit.ratio").tag("client", "b").gauge().value(),
+          0.0001);
+    }
+  }
+
+  @Test
+  void testFailingListener() {
+    MetricsListener failing =
+        new MetricsListener() {
+          @Override
+          public void onRequest(RequestMetrics metrics) {
+            throw new IllegalStateException("Failing listener");
+          }
+        };
+
+    try (Dhis2 dhis2 = new Dhis2(getConfig(failing))) {
+      assertEquals("Org unit 12", dhis2.getOrgUnit("O0000000012").getName());
+    }
+  }
+
+  private Dhis2Config getConfig(MetricsListener metricsListener) {
+    Dhis2Config config = server.getConfig();
+    config.setMetricsListener(metricsListener);
+    config
+        .getJobPollingConfig()
+        .setInitialDelay(Duration.ofMillis(5))
+        .setMaxDelay(Duration.ofMillis(20));
+    return config;
+  }
+
+  private DataValueSet newDataValueSet(int size) {
+    DataValueSet dataValueSet = new DataValueSet().setDataSet("pBOMPrpg1QX").setPeriod("202401");
+    IntStream.range(0, size)
+        .forEach(
+            i ->
+                dataValueSet.addDataValue(
+                    new DataValue().setDataElement("f7n9E0hX8qk").setValue(String.valueOf(i))));
+    return dataValueSet;
+  }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis;
+
+import static org.hisp.dhis.support.TestHttpServer.respond;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.hisp.dhis.hierarchy.OrgUnitHierarchy;
+import org.hisp.dhis.support.TestHttpServer;
+import org.hisp.dhis.support.TestTags;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag(TestTags.UNIT)
+class Dhis2OrgUnitHierarchyTest {
+  private static final String FULL =
+      """
+      {"organisationUnits":[
+      {"id":"ImspTQPwCqd","path":"/ImspTQPwCqd","lastUpdated":"2024-01-01T10:00:00.000"},
+      {"id":"O6uvpzGd5pu","path":"/ImspTQPwCqd/O6uvpzGd5pu","lastUpdated":"2024-02-01T10:00:00.000",
+      "attributeValues":[{"value":"x"}]},
+      {"id":"YuQRtpLP10I","path":"/ImspTQPwCqd/O6uvpzGd5pu/YuQRtpLP10I",
+      "lastUpdated":"2024-03-01T10:00:00.000"},
+      {"id":"jUb8gELQApl","path":"/ImspTQPwCqd/jUb8gELQApl","lastUpdated":"2024-01-15T10:00:00.000"}
+      ]}""";
+
+  private static final String CHANGES =
+      """
+      {"organisationUnits":[
+      {"id":"YuQRtpLP10I","path":"/ImspTQPwCqd/jUb8gELQApl/YuQRtpLP10I",
+      "lastUpdated":"2024-04-01T10:00:00.000"},
+      {"id":"DiszpKrYNg8","path":"/ImspTQPwCqd/jUb8gELQApl/YuQRtpLP10I/DiszpKrYNg8",
+      "lastUpdated":"2024-04-02T10:00:00.000"}
+      ]}""";
+
+  private TestHttpServer server;
+
+  private Dhis2Config config;
+
+  private volatile String filter;
+
+  private volatile String fields;
+
+  private volatile String body = FULL;
+
+  @BeforeEach
+  void beforeEach() {
+    server =
+        new TestHttpServer()
+            .handle(
+                "/api/organisationUnits",
+                exchange -> {
+                  String query =
+                      URLDecoder.decode(
+                          exchange.getRequestURI().getRawQuery(), StandardCharsets.UTF_8);
+                  filter = null;
+
+                  for (String param : query.split("&")) {
+                    if (param.startsWith("filter=")) {
+                      filter = param.substring("filter=".length());
+                    } else if (param.startsWith("fields=")) {
+                      fields = param.substring("fields=".length());
+                    }
+                  }
+
+                  respond(exchange, 200, filter == null ? FULL : body);
+                })
+            .start();
+
+    config = server.getConfig();
+  }
+
+  @AfterEach
+  void afterEach() {
+    server.close();
+  }
+
+  @Test
+  void testGetAndRefreshOrgUnitHierarchy() {
+    try (Dhis2 dhis2 = new Dhis2(config)) {
+      OrgUnitHierarchy hierarchy = dhis2.getOrgUnitHierarchy();
+
+      assertEquals("id,path,lastUpdated", fields);
+      assertNull(filter);
+      assertEquals(4, hierarchy.size());
+      assertEquals("2024-03-01T10:00:00.000", hierarchy.getLastUpdated());
+      assertEquals("O6uvpzGd5pu", hierarchy.getParent("YuQRtpLP10I"));
+
+      body = CHANGES;
+      OrgUnitHierarchy refreshed = dhis2.refreshOrgUnitHierarchy(hierarchy);
+
+      assertEquals("lastUpdated:ge:2024-03-01T10:00:00.000", filter);
+      assertEquals(5, refreshed.size());
+      assertEquals("2024-04-02T10:00:00.000", refreshed.getLastUpdated());
+      assertEquals("jUb8gELQApl", refreshed.getParent("YuQRtpLP10I"));
+      assertTrue(refreshed.isDescendant("DiszpKrYNg8", "jUb8gELQApl"));
+      assertEquals(List.of("YuQRtpLP10I"), refreshed.getDescendants("jUb8gELQApl", 3));
+      assertEquals("O6uvpzGd5pu", hierarchy.getParent("YuQRtpLP10I"));
+
+      body = "{\"organisationUnits\":[]}";
+      assertSame(refreshed, dhis2.refreshOrgUnitHierarchy(refreshed));
+    }
+  }
+
+  @Test
+  void testRefreshOrgUnitHierarchyWithoutChanges() {
+    try (Dhis2 dhis2 = new Dhis2(config)) {
+      OrgUnitHierarchy hierarchy = dhis2.getOrgUnitHierarchy();
+
+      body =
+          """
+          {"organisationUnits":[
+          {"id":"YuQRtpLP10I","path":"/ImspTQPwCqd/O6uvpzGd5pu/YuQRtpLP10I",
+          "lastUpdated":"2024-03-01T10:00:00.000"}
+          ]}""";
+
+      assertSame(hierarchy, dhis2.refreshOrgUnitHierarchy(hierarchy));
+      assertEquals("lastUpdated:ge:2024-03-01T10:00:00.000", filter);
+
+      body =
+          """
+          {"organisationUnits":[
+          {"id":"YuQRtpLP10I","path":"/ImspTQPwCqd/O6uvpzGd5pu/YuQRtpLP10I",
+          "lastUpdated":"2024-03-01T10:00:00.001"}
+          ]}""";
+      OrgUnitHierarchy refreshed = dhis2.refreshOrgUnitHierarchy(hierarchy);
+
+      assertNotSame(hierarchy, refreshed);
+      assertEquals("2024-03-01T10:00:00.001", refreshed.getLastUpdated());
+    }
+  }
+}
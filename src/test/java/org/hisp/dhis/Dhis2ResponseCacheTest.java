@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis;
+
+import static org.hisp.dhis.support.TestHttpServer.respond;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hisp.dhis.cache.CacheStats;
+import org.hisp.dhis.cache.ResponseCache;
+import org.hisp.dhis.model.DataElement;
+import org.hisp.dhis.support.TestHttpServer;
+import org.hisp.dhis.support.TestTags;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag(TestTags.UNIT)
+class Dhis2ResponseCacheTest {
+  private TestHttpServer server;
+
+  private Dhis2Config config;
+
+  private volatile String eTag = "\"v1\"";
+
+  private volatile String ifNoneMatch;
+
+  private final AtomicInteger fullResponses = new AtomicInteger();
+
+  @BeforeEach
+  void beforeEach() {
+    server =
+        new TestHttpServer()
+            .handle(
+                "/api/dataElements",
+                exchange -> {
+                  ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+                  exchange.getResponseHeaders().add("ETag", eTag);
+
+                  if (eTag.equals(ifNoneMatch)) {
+                    respond(exchange, 304);
+                    return;
+                  }
+
+                  fullResponses.incrementAndGet();
+                  respond(
+                      exchange,
+                      200,
+                      String.format(
+                          "{\"id\":\"f7n9E0hX8qk\",\"name\":\"ANC %s\"}", eTag.replace("\"", "")));
+                })
+            .start();
+
+    config = server.getConfig();
+  }
+
+  @AfterEach
+  void afterEach() {
+    server.close();
+  }
+
+  @Test
+  void testConditionalGet() {
+    config.getResponseCacheConfig().setEnabled(true);
+
+    try (Dhis2 dhis2 = new Dhis2(config)) {
+      DataElement deA = dhis2.getDataElement("f7n9E0hX8qk");
+      assertNull(ifNoneMatch);
+
+      DataElement deB = dhis2.getDataElement("f7n9E0hX8qk");
+      assertEquals("\"v1\"", ifNoneMatch);
+      assertSame(deA, deB);
+      assertEquals(1, fullResponses.get());
+
+      eTag = "\"v2\"";
+      DataElement deC = dhis2.getDataElement("f7n9E0hX8qk");
+      assertEquals("ANC v2", deC.getName());
+      assertEquals(2, fullResponses.get());
+
+      CacheStats stats = dhis2.getResponseCache().getStats();
+      assertEquals(1, stats.getHitCount());
+      assertEquals(2, stats.getMissCount());
+      assertEquals(1, stats.getSize());
+    }
+  }
+
+  @Test
+  void testIsCacheable() {
+    config.getResponseCacheConfig().setEnabled(true);
+
+    try (Dhis2 dhis2 = new Dhis2(config)) {
+      ResponseCache cache = dhis2.getResponseCache();
+
+      assertTrue(cache.isCacheable(URI.create("http://localhost/api/dataElements/f7n9E0hX8qk")));
+      assertTrue(cache.isCacheable(URI.create("http://localhost/api/dataElements?paging=false")));
+      assertFalse(cache.isCacheable(URI.create("http://localhost/api/dataElements?page=2")));
+      assertFalse(
+          cache.isCacheable(URI.create("http://localhost/api/dataElements?page=1&pageSize=50")));
+    }
+  }
+
+  @Test
+  void testConditionalGetDisabled() {
+    try (Dhis2 dhis2 = new Dhis2(config)) {
+      dhis2.getDataElement("f7n9E0hX8qk");
+      dhis2.getDataElement("f7n9E0hX8qk");
+
+      assertNull(ifNoneMatch);
+      assertEquals(2, fullResponses.get());
+    }
+  }
+}
@@ -200,4 +200,20 @@ class MetadataApiTest {
 
     return optionSet;
   }
+
+  @Test
+  void testStreamMetadata() {
+    Dhis2 dhis2 = new Dhis2(TestFixture.DEFAULT_CONFIG);
+
+    List<DataElement> dataElements =
+        dhis2
+            .<DataElement>streamMetadata(
+                MetadataEntity.DATA_ELEMENT, Query.instance().setPaging(1, 100))
+            .toList();
+
+    assertNotEmpty(dataElements);
+    assertTrue(dataElements.size() > 100);
+    assertEquals(
+        dataElements.size(), dataElements.stream().map(DataElement::getId).distinct().count());
+  }
 }
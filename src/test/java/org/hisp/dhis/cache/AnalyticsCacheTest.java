@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.hisp.dhis.model.AggregationType;
+import org.hisp.dhis.model.IdScheme;
+import org.hisp.dhis.model.ValueType;
+import org.hisp.dhis.model.analytics.AnalyticsData;
+import org.hisp.dhis.model.analytics.AnalyticsHeader;
+import org.hisp.dhis.query.analytics.AnalyticsQuery;
+import org.hisp.dhis.support.TestTags;
+import org.hisp.dhis.util.JacksonUtils;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag(TestTags.UNIT)
+class AnalyticsCacheTest {
+  private final AtomicInteger loads = new AtomicInteger();
+
+  private AnalyticsCache getCache(AnalyticsCacheConfig config) {
+    return new AnalyticsCache(config, JacksonUtils.getJsonMapper());
+  }
+
+  private Supplier<AnalyticsData> getLoader() {
+    return () -> {
+      loads.incrementAndGet();
+
+      try {
+        Thread.sleep(5);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+
+      List<AnalyticsHeader> headers =
+          List.of(
+              new AnalyticsHeader("dx", "Data", ValueType.TEXT, true),
+              new AnalyticsHeader("value", "Value", ValueType.NUMBER, false));
+      return new AnalyticsData(headers, new ArrayList<>(List.of(List.of("fbfJHSPpUQD", "12"))));
+    };
+  }
+
+  @Test
+  void testGetKey() {
+    AnalyticsQuery queryA =
+        AnalyticsQuery.instance()
+            .addDataDimension(List.of("fbfJHSPpUQD", "cYeuwXTCPkU"))
+            .addPeriodDimension(List.of("202401", "202402"))
+            .addOrgUnitFilter(List.of("ImspTQPwCqd"))
+            .addFilter("J5jldMd8OHv", List.of("CXw2yu5fodb"))
+            .setAggregationType(AggregationType.SUM)
+            .setOutputIdScheme(IdScheme.CODE);
+    AnalyticsQuery queryB =
+        AnalyticsQuery.instance()
+            .addDataDimension(List.of("fbfJHSPpUQD", "cYeuwXTCPkU"))
+            .addPeriodDimension(List.of("202401", "202402"))
+            .addFilter("J5jldMd8OHv", List.of("CXw2yu5fodb"))
+            .addOrgUnitFilter(List.of("ImspTQPwCqd"))
+            .setAggregationType(AggregationType.SUM)
+            .setOutputIdScheme(IdScheme.CODE)
+            .setSkipMeta(false);
+    AnalyticsQuery queryC =
+        AnalyticsQuery.instance()
+            .addPeriodDimension(List.of("202401", "202402"))
+            .addDataDimension(List.of("fbfJHSPpUQD", "cYeuwXTCPkU"))
+            .addOrgUnitFilter(List.of("ImspTQPwCqd"))
+            .addFilter("J5jldMd8OHv", List.of("CXw2yu5fodb"))
+            .setAggregationType(AggregationType.SUM)
+            .setOutputIdScheme(IdScheme.CODE);
+    AnalyticsQuery queryD =
+        AnalyticsQuery.instance()
+            .addDataDimension(List.of("cYeuwXTCPkU", "fbfJHSPpUQD"))
+            .addPeriodDimension(List.of("202401", "202402"))
+            .addOrgUnitFilter(List.of("ImspTQPwCqd"))
+            .addFilter("J5jldMd8OHv", List.of("CXw2yu5fodb"))
+            .setAggregationType(AggregationType.SUM)
+            .setOutputIdScheme(IdScheme.CODE);
+    AnalyticsQuery queryE =
+        AnalyticsQuery.instance()
+            .addDataDimension(List.of("fbfJHSPpUQD"))
+            .addOrgUnitFilter(List.of("ImspTQPwCqd", "O6uvpzGd5pu"));
+    AnalyticsQuery queryF =
+        AnalyticsQuery.instance()
+            .addDataDimension(List.of("fbfJHSPpUQD"))
+            .addOrgUnitFilter(List.of("O6uvpzGd5pu", "ImspTQPwCqd"));
+
+    assertEquals(AnalyticsCache.getKey(queryA), AnalyticsCache.getKey(queryB));
+    assertNotEquals(AnalyticsCache.getKey(queryA), AnalyticsCache.getKey(queryC));
+    assertNotEquals(AnalyticsCache.getKey(queryA), AnalyticsCache.getKey(queryD));
+    assertEquals(AnalyticsCache.getKey(queryE), AnalyticsCache.getKey(queryF));
+    assertNotEquals(AnalyticsCache.getKey(queryA), AnalyticsCache.getKey(queryB.setSkipMeta(true)));
+    assertEquals(
+        "dimension=dx:fbfJHSPpUQD;cYeuwXTCPkU&dimension=pe:202401;202402"
+            + "&filter=J5jldMd8OHv:CXw2yu5fodb&filter=ou:ImspTQPwCqd"
+            + "&aggregationType=SUM&outputIdScheme=code",
+        AnalyticsCache.getKey(queryA));
+  }
+
+  @Test
+  void testGet() {
+    AnalyticsCache cache = getCache(AnalyticsCacheConfig.instance().setEnabled(true));
+    AnalyticsQuery query = AnalyticsQuery.instance().addDataDimension(List.of("fbfJHSPpUQD"));
+
+    AnalyticsData dataA = cache.get(query, getLoader());
+    AnalyticsData dataB = cache.get(query, getLoader());
+    AnalyticsData dataC = cache.get(query, getLoader());
+
+    assertSame(dataA, dataB);
+    assertSame(dataA, dataC);
+    assertEquals(1, loads.get());
+    assertEquals(2, cache.getStats().getHitCount());
+    assertEquals(1, cache.getStats().getMissCount());
+    assertEquals(2.0 / 3, cache.getStats().getHitRatio(), 0.0001);
+    assertTrue(cache.getSavedTime().toMillis() >= 10);
+  }
+
+  @Test
+  void testGetSerialized() {
+    AnalyticsCache cache =
+        getCache(AnalyticsCacheConfig.instance().setEnabled(true).setSerialized(true));
+    AnalyticsQuery query = AnalyticsQuery.instance().addDataDimension(List.of("fbfJHSPpUQD"));
+
+    AnalyticsData dataA = cache.get(query, getLoader());
+    AnalyticsData dataB = cache.get(query, getLoader());
+
+    assertNotSame(dataA, dataB);
+    assertEquals(1, loads.get());
+    assertEquals(2, dataB.getHeaderWidth());
+    assertEquals("value", dataB.getHeaders().get(1).getName());
+    assertEquals(List.of(List.of("fbfJHSPpUQD", "12")), dataB.getRows());
+    assertEquals(1, cache.getStats().getHitCount());
+  }
+
+  @Test
+  void testGetDisabled() {
+    AnalyticsCache cache = getCache(AnalyticsCacheConfig.instance());
+    AnalyticsQuery query = AnalyticsQuery.instance().addDataDimension(List.of("fbfJHSPpUQD"));
+
+    AnalyticsData dataA = cache.get(query, getLoader());
+    AnalyticsData dataB = cache.get(query, getLoader());
+
+    assertNotSame(dataA, dataB);
+    assertEquals(2, loads.get());
+    assertEquals(0, cache.getStats().getRequestCount());
+  }
+
+  @Test
+  void testInvalidateAll() {
+    AnalyticsCache cache = getCache(AnalyticsCacheConfig.instance().setEnabled(true));
+    AnalyticsQuery query = AnalyticsQuery.instance().addDataDimension(List.of("fbfJHSPpUQD"));
+
+    cache.get(query, getLoader());
+    cache.invalidateAll();
+    cache.get(query, getLoader());
+
+    assertEquals(2, loads.get());
+  }
+}
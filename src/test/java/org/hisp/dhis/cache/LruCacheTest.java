@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.hisp.dhis.support.TestTags;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag(TestTags.UNIT)
+class LruCacheTest {
+  @Test
+  void testGet() {
+    LruCache<String, String> cache = new LruCache<>(10, Duration.ofMinutes(1));
+    AtomicInteger loads = new AtomicInteger();
+
+    assertEquals("A", cache.get("a", () -> load(loads, "A")));
+    assertEquals("A", cache.get("a", () -> load(loads, "B")));
+    assertEquals(1, loads.get());
+
+    CacheStats stats = cache.getStats();
+    assertEquals(1, stats.getHitCount());
+    assertEquals(1, stats.getMissCount());
+    assertEquals(0.5, stats.getHitRatio());
+    assertEquals(1, stats.getSize());
+  }
+
+  @Test
+  void testNullNotCached() {
+    LruCache<String, String> cache = new LruCache<>(10, null);
+
+    assertNull(cache.get("a", () -> null));
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  void testEvictLeastRecentlyUsed() {
+    LruCache<String, String> cache = new LruCache<>(2, null);
+    cache.put("a", "A");
+    cache.put("b", "B");
+    cache.getIfPresent("a");
+    cache.put("c", "C");
+
+    assertEquals("A", cache.getIfPresent("a"));
+    assertNull(cache.getIfPresent("b"));
+    assertEquals("C", cache.getIfPresent("c"));
+    assertEquals(1, cache.getStats().getEvictionCount());
+  }
+
+  @Test
+  void testEvictByWeight() {
+    LruCache<String, String> cache = new LruCache<>(10, 5, String::length, null);
+    cache.put("a", "AA");
+    cache.put("b", "BB");
+    assertEquals(4, cache.weight());
+
+    cache.put("c", "CC");
+    assertNull(cache.getIfPresent("a"));
+    assertEquals("BB", cache.getIfPresent("b"));
+    assertEquals("CC", cache.getIfPresent("c"));
+    assertEquals(4, cache.weight());
+
+    cache.put("d", "DDDDDD");
+    assertNull(cache.getIfPresent("d"));
+    assertEquals(2, cache.size());
+
+    cache.invalidate("b");
+    assertEquals(2, cache.weight());
+  }
+
+  @Test
+  void testExpiry() {
+    AtomicLong time = new AtomicLong();
+    LruCache<String, String> cache = new LruCache<>(10, Duration.ofSeconds(5), time::get);
+    cache.put("a", "A");
+
+    time.set(Duration.ofSeconds(4).toNanos());
+    assertEquals("A", cache.getIfPresent("a"));
+
+    time.set(Duration.ofSeconds(6).toNanos());
+    assertNull(cache.getIfPresent("a"));
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  void testInvalidate() {
+    LruCache<String, String> cache = new LruCache<>(10, null);
+    cache.put("a1", "A");
+    cache.put("a2", "A");
+    cache.put("b1", "B");
+
+    cache.invalidate("b1");
+    assertEquals(2, cache.size());
+
+    cache.invalidateIf(key -> key.startsWith("a"));
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  void testGetSkipsPutWhenInvalidatedDuringLoad() throws Exception {
+    LruCache<String, String> cache = new LruCache<>(10, null);
+    CountDownLatch loading = new CountDownLatch(1);
+    CountDownLatch invalidated = new CountDownLatch(1);
+
+    CompletableFuture<String> value =
+        CompletableFuture.supplyAsync(
+            () ->
+                cache.get(
+                    "a",
+                    () -> {
+                      loading.countDown();
+                      await(invalidated);
+                      return "stale";
+                    }));
+
+    assertTrue(loading.await(5, TimeUnit.SECONDS));
+    cache.invalidate("a");
+    invalidated.countDown();
+
+    assertEquals("stale", value.get(5, TimeUnit.SECONDS));
+    assertNull(cache.getIfPresent("a"));
+    assertEquals(0, cache.size());
+    assertEquals("fresh", cache.get("a", () -> "fresh"));
+    assertEquals("fresh", cache.getIfPresent("a"));
+  }
+
+  @Test
+  void testZeroMaxSize() {
+    LruCache<String, String> cache = new LruCache<>(0, null);
+    cache.put("a", "A");
+
+    assertNull(cache.getIfPresent("a"));
+  }
+
+  private String load(AtomicInteger loads, String value) {
+    loads.incrementAndGet();
+    return value;
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
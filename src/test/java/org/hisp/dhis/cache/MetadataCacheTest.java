@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.Duration;
+import java.util.List;
+import org.hisp.dhis.model.DataElement;
+import org.hisp.dhis.model.OrgUnit;
+import org.hisp.dhis.model.metadata.MetadataEntity;
+import org.hisp.dhis.support.TestTags;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag(TestTags.UNIT)
+class MetadataCacheTest {
+  @Test
+  void testGet() {
+    MetadataCache cache = new MetadataCache(MetadataCacheConfig.instance().setEnabled(true));
+
+    DataElement deA = cache.get(MetadataEntity.DATA_ELEMENT, "f7n9E0hX8qk", "id", DataElement::new);
+    DataElement deB = cache.get(MetadataEntity.DATA_ELEMENT, "f7n9E0hX8qk", "id", DataElement::new);
+    DataElement deC =
+        cache.get(MetadataEntity.DATA_ELEMENT, "f7n9E0hX8qk", "id,name", DataElement::new);
+
+    assertSame(deA, deB);
+    assertNotSame(deA, deC);
+    assertEquals(1, cache.getStats(MetadataEntity.DATA_ELEMENT).getHitCount());
+    assertEquals(2, cache.getStats(MetadataEntity.DATA_ELEMENT).getMissCount());
+    assertEquals(0, cache.getStats(MetadataEntity.ORG_UNIT).getRequestCount());
+  }
+
+  @Test
+  void testGetDisabled() {
+    MetadataCache cache = new MetadataCache(MetadataCacheConfig.instance());
+
+    DataElement deA = cache.get(MetadataEntity.DATA_ELEMENT, "f7n9E0hX8qk", "id", DataElement::new);
+    DataElement deB = cache.get(MetadataEntity.DATA_ELEMENT, "f7n9E0hX8qk", "id", DataElement::new);
+
+    assertNotSame(deA, deB);
+    assertEquals(0, cache.getStats().getRequestCount());
+  }
+
+  @Test
+  void testInvalidate() {
+    MetadataCache cache = new MetadataCache(MetadataCacheConfig.instance().setEnabled(true));
+    cache.get(MetadataEntity.DATA_ELEMENT, "f7n9E0hX8qk", "id", DataElement::new);
+    cache.get(MetadataEntity.DATA_ELEMENT, "f7n9E0hX8qk", "id,name", DataElement::new);
+    cache.get(MetadataEntity.DATA_ELEMENT, "Ix2HsbDMLea", "id", DataElement::new);
+    cache.get(MetadataEntity.ORG_UNIT, "DiszpKrYNg8", "id", OrgUnit::new);
+
+    cache.invalidate(MetadataEntity.DATA_ELEMENT, "f7n9E0hX8qk");
+    assertEquals(1, cache.getStats(MetadataEntity.DATA_ELEMENT).getSize());
+
+    cache.invalidate(MetadataEntity.DATA_ELEMENT, List.of("Ix2HsbDMLea"));
+    assertEquals(0, cache.getStats(MetadataEntity.DATA_ELEMENT).getSize());
+    assertEquals(1, cache.getStats().getSize());
+
+    cache.invalidateAll();
+    assertEquals(0, cache.getStats().getSize());
+  }
+
+  @Test
+  void testEntityConfig() {
+    MetadataCache cache =
+        new MetadataCache(
+            MetadataCacheConfig.instance()
+                .setEnabled(true)
+                .setEntityConfig(MetadataEntity.ORG_UNIT, 1, Duration.ofHours(1))
+                .setEntityConfig(MetadataEntity.DATA_ELEMENT, 0, null));
+
+    cache.get(MetadataEntity.ORG_UNIT, "DiszpKrYNg8", "id", OrgUnit::new);
+    cache.get(MetadataEntity.ORG_UNIT, "DGbr8GHG4li", "id", OrgUnit::new);
+    cache.get(MetadataEntity.DATA_ELEMENT, "f7n9E0hX8qk", "id", DataElement::new);
+
+    assertEquals(1, cache.getStats(MetadataEntity.ORG_UNIT).getSize());
+    assertEquals(1, cache.getStats(MetadataEntity.ORG_UNIT).getEvictionCount());
+    assertEquals(0, cache.getStats(MetadataEntity.DATA_ELEMENT).getSize());
+  }
+}
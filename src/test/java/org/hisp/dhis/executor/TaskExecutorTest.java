@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.hisp.dhis.response.Dhis2ClientException;
+import org.hisp.dhis.support.TestTags;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag(TestTags.UNIT)
+class TaskExecutorTest {
+  private final List<Integer> items = IntStream.range(0, 100).boxed().toList();
+
+  @Test
+  void testPlatformThreadsInvokeAll() {
+    try (TaskExecutor executor = TaskExecutor.platformThreads(4)) {
+      assertEquals(4, executor.getMaxConcurrency());
+      assertEquals(items.stream().map(i -> i * 2).toList(), executor.invokeAll(items, i -> i * 2));
+    }
+  }
+
+  @Test
+  void testPlatformThreadsLimitsConcurrency() {
+    try (TaskExecutor executor = TaskExecutor.platformThreads(3)) {
+      assertTrue(getMaxActive(executor) <= 3);
+    }
+  }
+
+  @Test
+  void testVirtualThreadsInvokeAll() {
+    assumeTrue(TaskExecutor.isVirtualThreadsSupported());
+
+    try (TaskExecutor executor = TaskExecutor.virtualThreads(5)) {
+      assertEquals(items.stream().map(i -> i * 2).toList(), executor.invokeAll(items, i -> i * 2));
+      assertTrue(getMaxActive(executor) <= 5);
+    }
+  }
+
+  @Test
+  void testVirtualThreadsNotSupported() {
+    assumeTrue(!TaskExecutor.isVirtualThreadsSupported());
+
+    assertThrows(Dhis2ClientException.class, () -> TaskExecutor.virtualThreads(5));
+  }
+
+  @Test
+  void testInvokeAllPropagatesFailure() {
+    try (TaskExecutor executor = TaskExecutor.platformThreads(4)) {
+      Dhis2ClientException ex =
+          assertThrows(
+              Dhis2ClientException.class,
+              () ->
+                  executor.invokeAll(
+                      items,
+                      i -> {
+                        if (i == 42) {
+                          throw new Dhis2ClientException("Not found", 404);
+                        }
+                        return i;
+                      }));
+
+      assertEquals(404, ex.getStatusCode());
+    }
+  }
+
+  @Test
+  void testConcurrencyLimiter() {
+    ConcurrencyLimiter limiter = new ConcurrencyLimiter(2);
+
+    assertEquals(0, limiter.getActiveCount());
+    assertEquals(1, (int) limiter.execute(() -> limiter.getActiveCount()));
+    assertEquals(0, limiter.getActiveCount());
+  }
+
+  /**
+   * Runs sleeping tasks on the given executor and returns the maximum number of concurrently
+   * running tasks.
+   *
+   * @param executor the {@link TaskExecutor}.
+   * @return the maximum number of concurrently running tasks.
+   */
+  private int getMaxActive(TaskExecutor executor) {
+    AtomicInteger active = new AtomicInteger();
+    AtomicInteger maxActive = new AtomicInteger();
+
+    executor.invokeAll(
+        IntStream.range(0, 30).boxed().toList(),
+        i -> {
+          maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+          sleep(2);
+          return active.decrementAndGet();
+        });
+
+    return maxActive.get();
+  }
+
+  private void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.hierarchy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.hisp.dhis.support.TestTags;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag(TestTags.UNIT)
+class OrgUnitHierarchyTest {
+  private static final String SL = "ImspTQPwCqd";
+
+  private static final String BO = "O6uvpzGd5pu";
+
+  private static final String BA = "jUb8gELQApl";
+
+  private static final String BO_BADJIA = "YuQRtpLP10I";
+
+  private static final String BO_BAGBO = "vWbkYPRmKyS";
+
+  private static final String BA_DEA = "dGheVylzol6";
+
+  private static final String NGELEHUN = "DiszpKrYNg8";
+
+  /** Sierra Leone > Bo, Bombali > Badjia, Bagbo (Bo), Dea (Bombali) > Ngelehun (Badjia). */
+  private OrgUnitHierarchy createHierarchy() {
+    return OrgUnitHierarchy.builder()
+        .addPath(NGELEHUN, "/ImspTQPwCqd/O6uvpzGd5pu/YuQRtpLP10I/DiszpKrYNg8")
+        .add(BA_DEA, BA)
+        .add(BO_BAGBO, BO)
+        .add(BO_BADJIA, BO)
+        .add(BA, SL)
+        .add(BO, SL)
+        .addPath(SL, "/ImspTQPwCqd")
+        .build();
+  }
+
+  @Test
+  void testParentAndLevel() {
+    OrgUnitHierarchy hierarchy = createHierarchy();
+
+    assertEquals(7, hierarchy.size());
+    assertTrue(hierarchy.contains(NGELEHUN));
+    assertFalse(hierarchy.contains("FLjwMPWLrL2"));
+    assertNull(hierarchy.getParent(SL));
+    assertEquals(SL, hierarchy.getParent(BO));
+    assertEquals(BO_BADJIA, hierarchy.getParent(NGELEHUN));
+    assertNull(hierarchy.getParent("FLjwMPWLrL2"));
+    assertEquals(1, hierarchy.getLevel(SL));
+    assertEquals(3, hierarchy.getLevel(BA_DEA));
+    assertEquals(4, hierarchy.getLevel(NGELEHUN));
+    assertNull(hierarchy.getLevel("FLjwMPWLrL2"));
+    assertEquals(List.of(SL), hierarchy.getRoots());
+  }
+
+  @Test
+  void testPathAndAncestors() {
+    OrgUnitHierarchy hierarchy = createHierarchy();
+
+    assertEquals("/ImspTQPwCqd", hierarchy.getPath(SL));
+    assertEquals("/ImspTQPwCqd/O6uvpzGd5pu/YuQRtpLP10I/DiszpKrYNg8", hierarchy.getPath(NGELEHUN));
+    assertEquals(List.of(SL, BO, BO_BADJIA), hierarchy.getAncestors(NGELEHUN));
+    assertEquals(List.of(), hierarchy.getAncestors(SL));
+  }
+
+  @Test
+  void testChildrenAndDescendants() {
+    OrgUnitHierarchy hierarchy = createHierarchy();
+
+    assertEquals(List.of(BA, BO), hierarchy.getChildren(SL));
+    assertEquals(List.of(), hierarchy.getChildren(NGELEHUN));
+    assertEquals(6, hierarchy.getDescendants(SL).size());
+    assertEquals(List.of(BO_BAGBO, BO_BADJIA), hierarchy.getDescendants(BO, 3));
+    assertEquals(List.of(NGELEHUN), hierarchy.getDescendants(BO, 4));
+    assertEquals(List.of(), hierarchy.getDescendants(BA, 4));
+    assertEquals(List.of(BA_DEA, BO_BAGBO, BO_BADJIA), hierarchy.getOrgUnitsAtLevel(3));
+  }
+
+  @Test
+  void testIsDescendant() {
+    OrgUnitHierarchy hierarchy = createHierarchy();
+
+    assertTrue(hierarchy.isDescendant(NGELEHUN, SL));
+    assertTrue(hierarchy.isDescendant(NGELEHUN, BO));
+    assertTrue(hierarchy.isDescendant(BA_DEA, BA));
+    assertFalse(hierarchy.isDescendant(NGELEHUN, BA));
+    assertFalse(hierarchy.isDescendant(SL, NGELEHUN));
+    assertFalse(hierarchy.isDescendant(SL, SL));
+    assertFalse(hierarchy.isDescendant("FLjwMPWLrL2", SL));
+  }
+
+  @Test
+  void testAddAllWithChanges() {
+    OrgUnitHierarchy hierarchy =
+        OrgUnitHierarchy.builder()
+            .addAll(createHierarchy())
+            .add(BO_BADJIA, BA)
+            .lastUpdated("2024-05-01T10:00:00.000")
+            .build();
+
+    assertEquals(7, hierarchy.size());
+    assertEquals(BA, hierarchy.getParent(BO_BADJIA));
+    assertTrue(hierarchy.isDescendant(NGELEHUN, BA));
+    assertFalse(hierarchy.isDescendant(NGELEHUN, BO));
+    assertEquals("/ImspTQPwCqd/jUb8gELQApl/YuQRtpLP10I/DiszpKrYNg8", hierarchy.getPath(NGELEHUN));
+    assertEquals("2024-05-01T10:00:00.000", hierarchy.getLastUpdated());
+  }
+
+  @Test
+  void testLastUpdated() {
+    OrgUnitHierarchy hierarchy =
+        OrgUnitHierarchy.builder()
+            .add(SL, null)
+            .lastUpdated("2024-05-01T10:00:00.000")
+            .lastUpdated("2023-01-01T10:00:00.000")
+            .lastUpdated(null)
+            .build();
+
+    assertEquals("2024-05-01T10:00:00.000", hierarchy.getLastUpdated());
+  }
+
+  @Test
+  void testLargeHierarchy() {
+    OrgUnitHierarchy.Builder builder = OrgUnitHierarchy.builder().add(uid(0), null);
+
+    for (int i = 1; i < 100_000; i++) {
+      builder.add(uid(i), uid((i - 1) / 10));
+    }
+
+    OrgUnitHierarchy hierarchy = builder.build();
+
+    assertEquals(100_000, hierarchy.size());
+    assertEquals(6, hierarchy.getLevel(uid(99_999)));
+    assertEquals(uid(9_999), hierarchy.getParent(uid(99_999)));
+    assertTrue(hierarchy.isDescendant(uid(99_999), uid(0)));
+    assertEquals(10_000, hierarchy.getDescendants(uid(0), 5).size());
+    assertTrue(hierarchy.getMemoryFootprint() < 100_000 * 64);
+  }
+
+  @Test
+  void testCycle() {
+    OrgUnitHierarchy.Builder builder = OrgUnitHierarchy.builder().add(BO, BA).add(BA, BO);
+
+    assertThrows(IllegalArgumentException.class, builder::build);
+  }
+
+  @Test
+  void testInvalidIdentifier() {
+    OrgUnitHierarchy.Builder builder = OrgUnitHierarchy.builder();
+
+    assertThrows(IllegalArgumentException.class, () -> builder.add("short", null));
+    assertThrows(IllegalArgumentException.class, () -> builder.add(BO, "ÆØÅÆØÅÆØÅÆØ"));
+  }
+
+  private static String uid(int i) {
+    return String.format("a%010d", i);
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2004-2025, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.model.analytics;
+
+import static org.hisp.dhis.model.analytics.AnalyticsDimension.DATA_X;
+import static org.hisp.dhis.model.analytics.AnalyticsDimension.ORG_UNIT;
+import static org.hisp.dhis.model.analytics.AnalyticsDimension.PERIOD;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.hisp.dhis.model.ValueType;
+import org.hisp.dhis.util.UidUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmark of indexing and sorting of rows of {@link AnalyticsData}. The rows are shuffled before
+ * each invocation of the sort benchmark, which is why the number of rows is large enough for the
+ * invocation to take well above a millisecond.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnalyticsDataBenchmark {
+  @Param({"50000"})
+  private int size;
+
+  private final Random random = new Random(42);
+
+  private AnalyticsData data;
+
+  @Setup
+  public void setup() {
+    List<String> dataItems = UidUtils.generateUids(20);
+    List<String> orgUnits = UidUtils.generateUids(size / 240 + 1);
+
+    data =
+        new AnalyticsData(
+            List.of(
+                new AnalyticsHeader(DATA_X, "Data", ValueType.TEXT, true),
+                new AnalyticsHeader(PERIOD, "Period", ValueType.TEXT, true),
+                new AnalyticsHeader(ORG_UNIT, "Organisation unit", ValueType.TEXT, true),
+                new AnalyticsHeader("value", "Value", ValueType.NUMBER, false)),
+            new ArrayList<>());
+
+    for (int i = 0; i < size; i++) {
+      data.addRow(
+          List.of(
+              dataItems.get(i % dataItems.size()),
+              "2024" + String.format("%02d", i / dataItems.size() % 12 + 1),
+              orgUnits.get(i / 240),
+              String.valueOf(i % 1000)));
+    }
+  }
+
+  @Setup(Level.Invocation)
+  public void shuffle() {
+    Collections.shuffle(data.getRows(), random);
+  }
+
+  @Benchmark
+  public AnalyticsDataIndex getIndex() {
+    return data.getIndex(3);
+  }
+
+  @Benchmark
+  public AnalyticsData sortRows() {
+    data.sortRows();
+    return data;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(AnalyticsDataBenchmark.class.getSimpleName()).build())
+        .run();
+  }
+}
@@ -34,8 +34,10 @@ import static org.hisp.dhis.support.Assertions.assertContainsExactly;
 import static org.hisp.dhis.support.Assertions.assertSize;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 import org.hisp.dhis.model.ValueType;
@@ -185,4 +187,65 @@ class AnalyticsDataTest {
     assertEquals("A5", row5.get(0));
     assertEquals("C1", row5.get(2));
   }
+
+  @Test
+  void testMerge() {
+    List<AnalyticsHeader> headers =
+        List.of(
+            new AnalyticsHeader(DATA_X, "Data", ValueType.TEXT, true),
+            new AnalyticsHeader(PERIOD, "Period", ValueType.TEXT, true),
+            new AnalyticsHeader("value", "Value", ValueType.NUMBER, false));
+
+    AnalyticsData dataA =
+        new AnalyticsData(
+            headers, new ArrayList<>(List.of(List.of("A1", "B1", "2"), List.of("A1", "B2", "4"))));
+    dataA.setMetaData(
+        new AnalyticsMetaData(
+            new MapBuilder<String, MetaDataItem>()
+                .put("A1", new MetaDataItem("Indicator 1"))
+                .put("B1", new MetaDataItem("Month 1"))
+                .put("B2", new MetaDataItem("Month 2"))
+                .build(),
+            new MapBuilder<String, List<String>>()
+                .put("dx", List.of("A1"))
+                .put("pe", List.of("B1", "B2"))
+                .build()));
+
+    AnalyticsData dataB =
+        new AnalyticsData(headers, new ArrayList<>(List.of(List.of("A1", "B3", "7"))));
+    dataB.setMetaData(
+        new AnalyticsMetaData(
+            new MapBuilder<String, MetaDataItem>()
+                .put("A1", new MetaDataItem("Indicator 1"))
+                .put("B3", new MetaDataItem("Month 3"))
+                .build(),
+            new MapBuilder<String, List<String>>()
+                .put("dx", List.of("A1"))
+                .put("pe", List.of("B3"))
+                .build()));
+    dataB.setTruncated(true);
+
+    AnalyticsData data = AnalyticsData.merge(List.of(dataA, dataB));
+
+    assertEquals(3, data.getHeaderWidth());
+    assertEquals(3, data.getHeight());
+    assertEquals(List.of("A1", "B3", "7"), data.getRow(2));
+    assertTrue(data.isTruncated());
+    assertEquals(List.of("A1"), data.getMetaData().getDimensionItems(DATA_X));
+    assertEquals(List.of("B1", "B2", "B3"), data.getMetaData().getDimensionItems(PERIOD));
+    assertEquals(4, data.getMetaData().getItems().size());
+    assertEquals("Month 3", data.getMetaData().getMetadataItemName("B3"));
+  }
+
+  @Test
+  void testMergeHeaderMismatch() {
+    AnalyticsData dataA =
+        new AnalyticsData(
+            List.of(new AnalyticsHeader(DATA_X, "Data", ValueType.TEXT, true)), List.of());
+    AnalyticsData dataB =
+        new AnalyticsData(
+            List.of(new AnalyticsHeader(PERIOD, "Period", ValueType.TEXT, true)), List.of());
+
+    assertThrows(IllegalArgumentException.class, () -> AnalyticsData.merge(List.of(dataA, dataB)));
+  }
 }
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.model.analytics;
+
+import static org.hisp.dhis.model.analytics.AnalyticsDimension.DATA_X;
+import static org.hisp.dhis.model.analytics.AnalyticsDimension.ORG_UNIT;
+import static org.hisp.dhis.model.analytics.AnalyticsDimension.PERIOD;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.hisp.dhis.model.ValueType;
+import org.hisp.dhis.support.TestTags;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag(TestTags.UNIT)
+class AnalyticsValueIndexTest {
+  private AnalyticsData getData() {
+    List<AnalyticsHeader> headers =
+        List.of(
+            new AnalyticsHeader(DATA_X, "Data", ValueType.TEXT, true),
+            new AnalyticsHeader(PERIOD, "Period", ValueType.TEXT, true),
+            new AnalyticsHeader(ORG_UNIT, "OrgUnit", ValueType.TEXT, true),
+            new AnalyticsHeader("value", "Value", ValueType.NUMBER, false));
+
+    AnalyticsData data = new AnalyticsData();
+    data.setHeaders(headers);
+    data.addRow(List.of("A1", "B1", "C1", "2"));
+    data.addRow(List.of("A2", "B2", "C2", "4.5"));
+    data.addRow(List.of("A3", "B3", "C1", "7"));
+    data.addRow(List.of("A1", "B2", "C2", "3"));
+    data.addRow(Arrays.asList("A2", "B1", "C1", null));
+    return data;
+  }
+
+  @Test
+  void testGetValue() {
+    AnalyticsValueIndex index = getData().getValueIndex(3);
+
+    assertEquals(5, index.size());
+    assertEquals(3, index.getKeyCount());
+    assertEquals(2d, index.getValue("A1", "B1", "C1"));
+    assertEquals(4.5d, index.getValue("A2", "B2", "C2"));
+    assertEquals(7d, index.getValue("A3", "B3", "C1"));
+    assertEquals(3d, index.getValue("A1", "B2", "C2"));
+    assertEquals(3d, index.getValue(new String[] {"A1", "B2", "C2"}));
+    assertTrue(Double.isNaN(index.getValue("A2", "B1", "C1")));
+    assertTrue(Double.isNaN(index.getValue("A3", "B1", "C1")));
+    assertTrue(Double.isNaN(index.getValue("A9", "B1", "C1")));
+    assertTrue(index.hasValue("A1", "B1", "C1"));
+    assertFalse(index.hasValue("A2", "B1", "C1"));
+  }
+
+  @Test
+  void testGetValueByCodes() {
+    AnalyticsValueIndex index = getData().getValueIndex(3);
+
+    int[] codes = {index.getCode(0, "A2"), index.getCode(1, "B2"), index.getCode(2, "C2")};
+
+    assertEquals(4.5d, index.getValue(codes));
+    assertEquals(-1, index.getCode(0, "A9"));
+    assertTrue(Double.isNaN(index.getValue(new int[] {-1, 0, 0})));
+    assertTrue(Double.isNaN(index.getValue(new int[] {99, 0, 0})));
+  }
+
+  @Test
+  void testKeyCount() {
+    AnalyticsValueIndex index = getData().getValueIndex(3);
+
+    assertThrows(IllegalArgumentException.class, () -> index.getValue("A1", "B1"));
+    assertThrows(IllegalArgumentException.class, () -> index.getValue(new int[] {0}));
+  }
+
+  @Test
+  void testInvalid() {
+    AnalyticsData data = getData();
+
+    assertThrows(IllegalArgumentException.class, () -> data.getValueIndex(0));
+
+    data.addRow(List.of("A1", "B1", "C1", "5"));
+
+    assertThrows(IllegalStateException.class, () -> data.getValueIndex(3));
+  }
+
+  @Test
+  void testLargeIndex() {
+    List<AnalyticsHeader> headers =
+        List.of(
+            new AnalyticsHeader(DATA_X, "Data", ValueType.TEXT, true),
+            new AnalyticsHeader(PERIOD, "Period", ValueType.TEXT, true),
+            new AnalyticsHeader(ORG_UNIT, "OrgUnit", ValueType.TEXT, true),
+            new AnalyticsHeader("value", "Value", ValueType.NUMBER, false));
+    List<List<String>> rows = new ArrayList<>();
+
+    for (int dx = 0; dx < 20; dx++) {
+      for (int pe = 0; pe < 12; pe++) {
+        for (int ou = 0; ou < 200; ou++) {
+          rows.add(List.of("dx" + dx, "pe" + pe, "ou" + ou, String.valueOf(dx * pe * ou)));
+        }
+      }
+    }
+
+    AnalyticsValueIndex index = new AnalyticsData(headers, rows).getValueIndex(3);
+
+    assertEquals(48_000, index.size());
+    assertEquals(19d * 11 * 199, index.getValue("dx19", "pe11", "ou199"));
+    assertEquals(0d, index.getValue("dx0", "pe5", "ou7"));
+    assertTrue(index.getBuildTimeNanos() > 0);
+    assertTrue(index.getMemoryFootprint() < 48_000 * 64);
+  }
+}
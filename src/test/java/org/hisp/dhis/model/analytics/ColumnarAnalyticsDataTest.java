@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.model.analytics;
+
+import static org.hisp.dhis.model.analytics.AnalyticsDimension.DATA_X;
+import static org.hisp.dhis.model.analytics.AnalyticsDimension.ORG_UNIT;
+import static org.hisp.dhis.model.analytics.AnalyticsDimension.PERIOD;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.hisp.dhis.model.ValueType;
+import org.hisp.dhis.support.TestTags;
+import org.hisp.dhis.util.JacksonUtils;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag(TestTags.UNIT)
+class ColumnarAnalyticsDataTest {
+  private static final String JSON =
+      """
+      {
+        "headers": [
+          {"name": "dx", "column": "Data", "valueType": "TEXT", "meta": true},
+          {"name": "pe", "column": "Period", "valueType": "TEXT", "meta": true},
+          {"name": "ou", "column": "Organisation unit", "valueType": "TEXT", "meta": true},
+          {"name": "value", "column": "Value", "valueType": "NUMBER", "meta": false}
+        ],
+        "metaData": {
+          "items": {"fbfJHSPpUQD": {"name": "ANC 1st visit"}},
+          "dimensions": {"dx": ["fbfJHSPpUQD", "cYeuwXTCPkU"]}
+        },
+        "rows": [
+          ["fbfJHSPpUQD", "202401", "DiszpKrYNg8", "12"],
+          ["fbfJHSPpUQD", "202402", "DiszpKrYNg8", "14.5"],
+          ["cYeuwXTCPkU", "202401", "DiszpKrYNg8", 7],
+          ["cYeuwXTCPkU", "202402", "DiszpKrYNg8", null]
+        ],
+        "height": 4,
+        "width": 4,
+        "truncated": false
+      }
+      """;
+
+  @Test
+  void testDeserialize() {
+    ColumnarAnalyticsData data = JacksonUtils.fromJson(JSON, ColumnarAnalyticsData.class);
+
+    assertEquals(4, data.getHeight());
+    assertEquals(4, data.getHeaderWidth());
+    assertFalse(data.isTruncated());
+    assertNotNull(data.getMetaData());
+    assertEquals("ANC 1st visit", data.getMetaData().getItems().get("fbfJHSPpUQD").getName());
+    assertEquals(1, data.headerIndex(PERIOD));
+    assertEquals(3, data.headerIndex("value"));
+    assertEquals(-1, data.headerIndex("co"));
+    assertTrue(data.headerExists(ORG_UNIT));
+    assertEquals(List.of(0, 1, 2), data.getHeaderMetaIndexList());
+  }
+
+  @Test
+  void testColumns() {
+    ColumnarAnalyticsData data = JacksonUtils.fromJson(JSON, ColumnarAnalyticsData.class);
+
+    assertFalse(data.isNumeric(0));
+    assertTrue(data.isNumeric(3));
+    assertEquals(List.of("fbfJHSPpUQD", "cYeuwXTCPkU"), data.getDictionary(0));
+    assertEquals(List.of("DiszpKrYNg8"), data.getDictionary(2));
+    assertEquals(1, data.getCode(2, 0));
+    assertEquals(1, data.getCode(0, "cYeuwXTCPkU"));
+    assertEquals(-1, data.getCode(0, "Jtf34kNZhzP"));
+    assertEquals(12d, data.getDouble(0, 3));
+    assertEquals(14.5d, data.getDouble(1, 3));
+    assertEquals(7d, data.getDouble(2, 3));
+    assertTrue(Double.isNaN(data.getDouble(3, 3)));
+    assertTrue(data.isNull(3, 3));
+    assertFalse(data.isNull(3, 0));
+    assertThrows(IllegalArgumentException.class, () -> data.getDouble(0, 0));
+    assertThrows(IllegalArgumentException.class, () -> data.getCode(0, 3));
+  }
+
+  @Test
+  void testGetRow() {
+    ColumnarAnalyticsData data = JacksonUtils.fromJson(JSON, ColumnarAnalyticsData.class);
+
+    assertEquals(List.of("fbfJHSPpUQD", "202401", "DiszpKrYNg8", "12"), data.getRow(0));
+    assertEquals(List.of("fbfJHSPpUQD", "202402", "DiszpKrYNg8", "14.5"), data.getRow(1));
+    assertEquals("7", data.getString(2, 3));
+    assertNull(data.getString(3, 3));
+    assertNull(data.getRow(4));
+    assertNull(data.getRow(-1));
+  }
+
+  @Test
+  void testGetIndex() {
+    ColumnarAnalyticsData data = JacksonUtils.fromJson(JSON, ColumnarAnalyticsData.class);
+    AnalyticsDataIndex index = data.getIndex(3);
+
+    assertEquals(4, index.size());
+    assertEquals("12", index.getValue("fbfJHSPpUQD", "202401", "DiszpKrYNg8"));
+    assertEquals(14.5d, index.getDoubleValue("fbfJHSPpUQD", "202402", "DiszpKrYNg8"));
+    assertNull(index.getValue("cYeuwXTCPkU", "202402", "DiszpKrYNg8"));
+  }
+
+  @Test
+  void testRowsBeforeHeaders() {
+    String json =
+        """
+        {
+          "rows": [["fbfJHSPpUQD", "3"], ["cYeuwXTCPkU", "abc"]],
+          "headers": [
+            {"name": "dx", "valueType": "TEXT", "meta": true},
+            {"name": "value", "valueType": "NUMBER", "meta": false}
+          ]
+        }
+        """;
+
+    ColumnarAnalyticsData data = JacksonUtils.fromJson(json, ColumnarAnalyticsData.class);
+
+    assertEquals(2, data.getHeight());
+    assertEquals(3d, data.getDouble(0, 1));
+    assertTrue(data.isNull(1, 1));
+  }
+
+  @Test
+  void testOfAndToAnalyticsData() {
+    List<AnalyticsHeader> headers =
+        List.of(
+            new AnalyticsHeader(DATA_X, "Data", ValueType.TEXT, true),
+            new AnalyticsHeader(PERIOD, "Period", ValueType.TEXT, true),
+            new AnalyticsHeader("value", "Value", ValueType.NUMBER, false));
+    List<List<String>> rows = new ArrayList<>();
+
+    for (int i = 0; i < 1_000; i++) {
+      rows.add(List.of("dx" + (i % 10), "2024" + (i % 12), String.valueOf(i)));
+    }
+
+    AnalyticsData source = new AnalyticsData(headers, rows);
+    ColumnarAnalyticsData data = ColumnarAnalyticsData.of(source);
+
+    assertEquals(1_000, data.getHeight());
+    assertEquals(10, data.getDictionary(0).size());
+    assertEquals(999d, data.getDouble(999, 2));
+    assertTrue(data.getMemoryFootprint() < 1_000 * 20);
+
+    AnalyticsData target = data.toAnalyticsData();
+
+    assertEquals(rows, target.getRows());
+    assertEquals(headers, target.getHeaders());
+  }
+}
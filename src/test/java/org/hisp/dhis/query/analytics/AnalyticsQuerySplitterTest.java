@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.query.analytics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import org.hisp.dhis.model.AggregationType;
+import org.hisp.dhis.model.IdScheme;
+import org.hisp.dhis.support.TestTags;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag(TestTags.UNIT)
+class AnalyticsQuerySplitterTest {
+  private AnalyticsQuery getQuery() {
+    return AnalyticsQuery.instance()
+        .addDataDimension(List.of("fbfJHSPpUQD", "cYeuwXTCPkU"))
+        .addPeriodDimension(List.of("202401", "202402", "202403", "202404", "202405"))
+        .addOrgUnitFilter(List.of("ImspTQPwCqd"))
+        .setAggregationType(AggregationType.SUM)
+        .setSkipRounding(true)
+        .setOutputIdScheme(IdScheme.CODE);
+  }
+
+  @Test
+  void testSplit() {
+    List<AnalyticsQuery> queries = AnalyticsQuerySplitter.split(getQuery(), "pe", 2);
+
+    assertEquals(3, queries.size());
+
+    AnalyticsQuery query = queries.get(0);
+
+    assertEquals(2, query.getDimensions().size());
+    assertEquals("dx:fbfJHSPpUQD;cYeuwXTCPkU", query.getDimensions().get(0).getDimensionValue());
+    assertEquals("pe:202401;202402", query.getDimensions().get(1).getDimensionValue());
+    assertEquals("ou:ImspTQPwCqd", query.getFilters().get(0).getDimensionValue());
+    assertEquals(AggregationType.SUM, query.getAggregationType());
+    assertEquals(true, query.getSkipRounding());
+    assertEquals(IdScheme.CODE, query.getOutputIdScheme());
+
+    assertEquals("pe:202403;202404", queries.get(1).getDimensions().get(1).getDimensionValue());
+    assertEquals("pe:202405", queries.get(2).getDimensions().get(1).getDimensionValue());
+  }
+
+  @Test
+  void testSplitOrgUnitKeywords() {
+    AnalyticsQuery query =
+        AnalyticsQuery.instance()
+            .addDataDimension(List.of("fbfJHSPpUQD"))
+            .addOrgUnitDimension(
+                List.of(
+                    "LEVEL-3", "ImspTQPwCqd", "O6uvpzGd5pu", "OU_GROUP-CXw2yu5fodb", "fdc6uOvgoji"))
+            .addPeriodFilter(List.of("2024"));
+
+    List<AnalyticsQuery> queries = AnalyticsQuerySplitter.split(query, "ou", 2);
+
+    assertEquals(2, queries.size());
+    assertEquals(
+        "ou:LEVEL-3;OU_GROUP-CXw2yu5fodb;ImspTQPwCqd;O6uvpzGd5pu",
+        queries.get(0).getDimensions().get(1).getDimensionValue());
+    assertEquals(
+        "ou:LEVEL-3;OU_GROUP-CXw2yu5fodb;fdc6uOvgoji",
+        queries.get(1).getDimensions().get(1).getDimensionValue());
+  }
+
+  @Test
+  void testSplitOrgUnitKeywordsWithinMaxItems() {
+    AnalyticsQuery query =
+        AnalyticsQuery.instance()
+            .addDataDimension(List.of("fbfJHSPpUQD"))
+            .addOrgUnitDimension(List.of("LEVEL-3", "ImspTQPwCqd"))
+            .addPeriodFilter(List.of("2024"));
+
+    List<AnalyticsQuery> queries = AnalyticsQuerySplitter.split(query, "ou", 1);
+
+    assertEquals(1, queries.size());
+    assertSame(query, queries.get(0));
+  }
+
+  @Test
+  void testSplitWithinMaxItems() {
+    AnalyticsQuery query = getQuery();
+
+    List<AnalyticsQuery> queries = AnalyticsQuerySplitter.split(query, "dx", 2);
+
+    assertEquals(1, queries.size());
+    assertSame(query, queries.get(0));
+  }
+
+  @Test
+  void testSplitInvalid() {
+    assertThrows(
+        IllegalArgumentException.class, () -> AnalyticsQuerySplitter.split(getQuery(), "ou", 1));
+    assertThrows(
+        IllegalArgumentException.class, () -> AnalyticsQuerySplitter.split(getQuery(), "co", 1));
+    assertThrows(
+        IllegalArgumentException.class, () -> AnalyticsQuerySplitter.split(getQuery(), "pe", 0));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> AnalyticsQuerySplitter.split(getQuery().setTableLayout(true), "pe", 2));
+  }
+}
@@ -0,0 +1,758 @@
+/*
+ * Copyright (c) 2004-2025, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.support;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.hc.core5.http.NameValuePair;
+import org.apache.hc.core5.net.URIBuilder;
+import org.hisp.dhis.Dhis2Config;
+import org.hisp.dhis.util.JacksonUtils;
+import tools.jackson.databind.JsonNode;
+
+/**
+ * Embedded stand-in for a DHIS2 instance based on the JDK {@link HttpServer}, which serves
+ * generated responses for organisation units, tracker events, analytics, data value sets and async
+ * import jobs. The number of objects, the response latency and response compression can be tuned
+ * before the server is started. Responses to GET requests are rendered once per request URI and
+ * served from memory afterwards, so that the server is not the bottleneck when measuring the
+ * throughput of the client.
+ *
+ * <pre>{@code
+ * try (MockDhis2Server server = new MockDhis2Server().setLatency(Duration.ofMillis(5)).start();
+ *     Dhis2 dhis2 = new Dhis2(server.getConfig())) {
+ *   dhis2.getOrgUnitsPaged(Query.instance().setPaging(1, 100));
+ * }
+ * }</pre>
+ */
+@Getter
+@Setter
+@Accessors(chain = true)
+public class MockDhis2Server implements Closeable {
+  private static final String API = "/api";
+
+  private static final int DEFAULT_PAGE_SIZE = 50;
+
+  private static final int ORG_UNIT_FAN_OUT = 10;
+
+  static {
+    // Avoid delayed ACK stalls between response headers and body on keep-alive connections
+    System.setProperty("sun.net.httpserver.nodelay", "true");
+  }
+
+  /** Latency added to each response. */
+  private Duration latency = Duration.ZERO;
+
+  /** Total number of organisation units. */
+  private int orgUnitCount = 1000;
+
+  /** Total number of events. */
+  private int eventCount = 1000;
+
+  /** Number of data values per event. */
+  private int dataValuesPerEvent = 10;
+
+  /** Number of data values of a data value set. */
+  private int dataValueCount = 1000;
+
+  /** Number of polls of the status of an import job until the job is reported as completed. */
+  private int pollsUntilComplete = 1;
+
+  /** Number of threads handling requests. */
+  private int threads = 32;
+
+  /** Whether to gzip compress responses when accepted by the client. */
+  private boolean responseCompression = false;
+
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private final AtomicLong requestCount = new AtomicLong();
+
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private final AtomicLong jobCount = new AtomicLong();
+
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private final Map<String, byte[]> responses = new ConcurrentHashMap<>();
+
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private final Map<String, AtomicInteger> jobPolls = new ConcurrentHashMap<>();
+
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private final Map<String, Integer> jobImportCounts = new ConcurrentHashMap<>();
+
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private HttpServer server;
+
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private ExecutorService executor;
+
+  /**
+   * Starts the server on a free local port.
+   *
+   * @return this {@link MockDhis2Server}.
+   * @throws UncheckedIOException if the server could not be started.
+   */
+  public MockDhis2Server start() {
+    try {
+      server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+
+    executor = Executors.newFixedThreadPool(threads);
+    server.setExecutor(executor);
+    server.createContext(API + "/organisationUnits", handler(this::getOrgUnits));
+    server.createContext(API + "/tracker/events", handler(this::getEvents));
+    server.createContext(API + "/analytics", handler(this::getAnalytics));
+    server.createContext(API + "/dataValueSets", handler(this::getDataValueSet));
+    server.createContext(API + "/system/tasks", handler(this::getTaskStatus));
+    server.createContext(API + "/system/taskSummaries", handler(this::getTaskSummary));
+    server.start();
+    return this;
+  }
+
+  /** Stops the server. */
+  @Override
+  public void close() {
+    if (server != null) {
+      server.stop(0);
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Returns the base URL of the server.
+   *
+   * @return the base URL.
+   */
+  public String getUrl() {
+    return String.format("http://localhost:%d", server.getAddress().getPort());
+  }
+
+  /**
+   * Returns a {@link Dhis2Config} for the server.
+   *
+   * @return a {@link Dhis2Config}.
+   */
+  public Dhis2Config getConfig() {
+    return new Dhis2Config(getUrl(), "admin", "district");
+  }
+
+  /**
+   * Returns the number of requests handled by the server.
+   *
+   * @return the number of requests.
+   */
+  public long getRequestCount() {
+    return requestCount.get();
+  }
+
+  // -------------------------------------------------------------------------
+  // Handlers
+  // -------------------------------------------------------------------------
+
+  /** Handler of a request, returning the response object to render as JSON. */
+  @FunctionalInterface
+  private interface RequestHandler {
+    Object handle(HttpExchange exchange, Request request) throws IOException;
+  }
+
+  /**
+   * Returns a {@link HttpHandler} which applies latency, renders the response of the given request
+   * handler, and caches the rendered response of GET requests to static resources by request URI.
+   *
+   * @param requestHandler the {@link RequestHandler}.
+   * @return a {@link HttpHandler}.
+   */
+  private HttpHandler handler(RequestHandler requestHandler) {
+    return exchange -> {
+      try (exchange) {
+        requestCount.incrementAndGet();
+        sleep(latency);
+
+        Request request = new Request(exchange);
+        boolean gzip =
+            responseCompression
+                && StringUtils.contains(
+                    exchange.getRequestHeaders().getFirst("Accept-Encoding"), "gzip");
+        String key = gzip + " " + exchange.getRequestURI();
+
+        byte[] body = request.isCacheable() ? responses.get(key) : null;
+
+        if (body == null) {
+          body = render(requestHandler.handle(exchange, request), gzip);
+
+          if (request.isCacheable() && request.isFound()) {
+            responses.put(key, body);
+          }
+        }
+
+        if (gzip) {
+          exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+
+        int status = request.isFound() ? 200 : 404;
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+
+        try (OutputStream out = exchange.getResponseBody()) {
+          out.write(body);
+        }
+      }
+    };
+  }
+
+  /**
+   * Returns a page of organisation units, or a single organisation unit.
+   *
+   * @param exchange the {@link HttpExchange}.
+   * @param request the {@link Request}.
+   * @return the response object.
+   */
+  private Object getOrgUnits(HttpExchange exchange, Request request) {
+    String id = request.getPathSegment(2);
+
+    if (id != null) {
+      int index = request.toIndex(id, orgUnitCount);
+      return index >= 0 ? getOrgUnit(index) : request.notFound("Organisation unit");
+    }
+
+    Page page = request.getPage(orgUnitCount);
+    List<Object> orgUnits = new ArrayList<>(page.size());
+
+    for (int i = page.getFirst(); i < page.getLast(); i++) {
+      orgUnits.add(getOrgUnit(i));
+    }
+
+    Map<String, Object> response = new LinkedHashMap<>();
+    response.put("pager", page.toPager(true));
+    response.put("organisationUnits", orgUnits);
+    return response;
+  }
+
+  /**
+   * Returns a page of events.
+   *
+   * @param exchange the {@link HttpExchange}.
+   * @param request the {@link Request}.
+   * @return the response object.
+   */
+  private Object getEvents(HttpExchange exchange, Request request) {
+    Page page = request.getPage(eventCount);
+    List<Object> events = new ArrayList<>(page.size());
+
+    for (int i = page.getFirst(); i < page.getLast(); i++) {
+      events.add(getEvent(i));
+    }
+
+    Map<String, Object> response = new LinkedHashMap<>();
+    response.put("pager", page.toPager(false));
+    response.put("events", events);
+    return response;
+  }
+
+  /**
+   * Returns analytics data with a row for each combination of the items of the requested
+   * dimensions.
+   *
+   * @param exchange the {@link HttpExchange}.
+   * @param request the {@link Request}.
+   * @return the response object.
+   */
+  private Object getAnalytics(HttpExchange exchange, Request request) {
+    List<String> dimensions = new ArrayList<>();
+    List<List<String>> dimensionItems = new ArrayList<>();
+
+    for (String dimension : request.getParameters("dimension")) {
+      dimensions.add(StringUtils.substringBefore(dimension, ":"));
+      dimensionItems.add(List.of(StringUtils.substringAfter(dimension, ":").split(";")));
+    }
+
+    List<Object> headers = new ArrayList<>();
+    Map<String, Object> items = new LinkedHashMap<>();
+    Map<String, Object> metaDimensions = new LinkedHashMap<>();
+
+    for (int i = 0; i < dimensions.size(); i++) {
+      headers.add(getHeader(dimensions.get(i), "TEXT", true));
+      metaDimensions.put(dimensions.get(i), dimensionItems.get(i));
+
+      for (String item : dimensionItems.get(i)) {
+        items.put(item, Map.of("name", "Item " + item));
+      }
+    }
+
+    headers.add(getHeader("value", "NUMBER", false));
+
+    List<List<String>> rows = new ArrayList<>();
+    addRows(rows, dimensionItems, new ArrayList<>());
+
+    Map<String, Object> response = new LinkedHashMap<>();
+    response.put("headers", headers);
+
+    if (!"true".equals(request.getParameter("skipMeta"))) {
+      response.put("metaData", Map.of("items", items, "dimensions", metaDimensions));
+    }
+
+    response.put("rows", rows);
+    response.put("height", rows.size());
+    response.put("width", headers.size());
+    return response;
+  }
+
+  /**
+   * Returns a data value set for GET requests, and starts an import job for POST requests.
+   *
+   * @param exchange the {@link HttpExchange}.
+   * @param request the {@link Request}.
+   * @return the response object.
+   */
+  private Object getDataValueSet(HttpExchange exchange, Request request) throws IOException {
+    if ("POST".equals(exchange.getRequestMethod())) {
+      JsonNode dataValueSet = JacksonUtils.getJsonMapper().readTree(readBody(exchange));
+      String jobId = String.format("J%010d", jobCount.incrementAndGet());
+      jobPolls.put(jobId, new AtomicInteger());
+      jobImportCounts.put(jobId, dataValueSet.path("dataValues").size());
+
+      Map<String, Object> response = new LinkedHashMap<>();
+      response.put("httpStatus", "OK");
+      response.put("httpStatusCode", 200);
+      response.put("status", "OK");
+      response.put("message", "Initiated DATAVALUE_IMPORT");
+      response.put("response", Map.of("id", jobId, "jobType", "DATAVALUE_IMPORT"));
+      return response;
+    }
+
+    List<Object> dataValues = new ArrayList<>(dataValueCount);
+
+    for (int i = 0; i < dataValueCount; i++) {
+      Map<String, Object> dataValue = new LinkedHashMap<>();
+      dataValue.put("dataElement", toUid('D', i % 100));
+      dataValue.put("period", "202401");
+      dataValue.put("orgUnit", toUid('O', i / 100 % orgUnitCount));
+      dataValue.put("categoryOptionCombo", "HllvX50cXC0");
+      dataValue.put("attributeOptionCombo", "HllvX50cXC0");
+      dataValue.put("value", String.valueOf(i % 997));
+      dataValue.put("storedBy", "admin");
+      dataValue.put("created", "2024-02-01T10:15:30.000");
+      dataValue.put("lastUpdated", "2024-02-01T10:15:30.000");
+      dataValue.put("followup", false);
+      dataValues.add(dataValue);
+    }
+
+    Map<String, Object> response = new LinkedHashMap<>();
+    response.put("dataSet", "pBOMPrpg1QX");
+    response.put("period", "202401");
+    response.put("dataValues", dataValues);
+    return response;
+  }
+
+  /**
+   * Returns the status of an import job, which is completed after the configured number of polls.
+   *
+   * @param exchange the {@link HttpExchange}.
+   * @param request the {@link Request}.
+   * @return the response object.
+   */
+  private Object getTaskStatus(HttpExchange exchange, Request request) {
+    String jobType = request.getPathSegment(3);
+    String jobId = request.getPathSegment(4);
+    AtomicInteger polls = jobId != null ? jobPolls.get(jobId) : null;
+
+    if (polls == null) {
+      return request.notFound("Job");
+    }
+
+    boolean completed = polls.incrementAndGet() >= pollsUntilComplete;
+
+    Map<String, Object> notification = new LinkedHashMap<>();
+    notification.put("uid", jobId);
+    notification.put("level", "INFO");
+    notification.put("category", jobType);
+    notification.put("time", "2024-02-01T10:15:30.000");
+    notification.put("message", completed ? "Import complete" : "Importing data values");
+    notification.put("completed", completed);
+    return List.of(notification);
+  }
+
+  /**
+   * Returns the summary of an import job.
+   *
+   * @param exchange the {@link HttpExchange}.
+   * @param request the {@link Request}.
+   * @return the response object.
+   */
+  private Object getTaskSummary(HttpExchange exchange, Request request) {
+    String jobId = request.getPathSegment(4);
+    Integer imported = jobId != null ? jobImportCounts.remove(jobId) : null;
+
+    if (imported == null) {
+      return request.notFound("Job summary");
+    }
+
+    jobPolls.remove(jobId);
+
+    Map<String, Object> response = new LinkedHashMap<>();
+    response.put("status", "SUCCESS");
+    response.put("description", "Import process completed successfully");
+    response.put(
+        "importCount", Map.of("imported", imported, "updated", 0, "ignored", 0, "deleted", 0));
+    return response;
+  }
+
+  // -------------------------------------------------------------------------
+  // Objects
+  // -------------------------------------------------------------------------
+
+  /**
+   * Returns the organisation unit at the given index. Organisation units form a tree where each
+   * organisation unit has {@link #ORG_UNIT_FAN_OUT} children.
+   *
+   * @param index the index.
+   * @return the organisation unit.
+   */
+  private Map<String, Object> getOrgUnit(int index) {
+    List<String> ancestors = new ArrayList<>();
+
+    for (int i = index; i > 0; i = (i - 1) / ORG_UNIT_FAN_OUT) {
+      ancestors.add(0, toUid('O', i));
+    }
+
+    ancestors.add(0, toUid('O', 0));
+
+    Map<String, Object> orgUnit = new LinkedHashMap<>();
+    orgUnit.put("id", toUid('O', index));
+    orgUnit.put("code", "OU_" + index);
+    orgUnit.put("name", "Org unit " + index);
+    orgUnit.put("shortName", "OU " + index);
+    orgUnit.put("created", "2024-01-10T08:00:00.000");
+    orgUnit.put("lastUpdated", "2024-02-01T10:15:30.000");
+    orgUnit.put("path", "/" + String.join("/", ancestors));
+    orgUnit.put("level", ancestors.size());
+    orgUnit.put("openingDate", "1994-01-01T00:00:00.000");
+
+    if (index > 0) {
+      orgUnit.put("parent", Map.of("id", toUid('O', (index - 1) / ORG_UNIT_FAN_OUT)));
+    }
+
+    return orgUnit;
+  }
+
+  /**
+   * Returns the event at the given index.
+   *
+   * @param index the index.
+   * @return the event.
+   */
+  private Map<String, Object> getEvent(int index) {
+    List<Object> dataValues = new ArrayList<>(dataValuesPerEvent);
+
+    for (int i = 0; i < dataValuesPerEvent; i++) {
+      Map<String, Object> dataValue = new LinkedHashMap<>();
+      dataValue.put("dataElement", toUid('D', i));
+      dataValue.put("value", String.valueOf((index + i) % 997));
+      dataValue.put("providedElsewhere", false);
+      dataValue.put("createdAt", "2024-02-01T10:15:30.000");
+      dataValue.put("updatedAt", "2024-02-01T10:15:30.000");
+      dataValues.add(dataValue);
+    }
+
+    Map<String, Object> event = new LinkedHashMap<>();
+    event.put("event", toUid('E', index));
+    event.put("program", "eBAyeGv0exc");
+    event.put("programStage", "Zj7UnCAulEk");
+    event.put("orgUnit", toUid('O', index % orgUnitCount));
+    event.put("attributeOptionCombo", "HllvX50cXC0");
+    event.put("status", "COMPLETED");
+    event.put("createdAt", "2024-02-01T10:15:30.000");
+    event.put("updatedAt", "2024-02-01T10:15:30.000");
+    event.put("occurredAt", "2024-01-15T00:00:00.000");
+    event.put("storedBy", "admin");
+    event.put("followUp", false);
+    event.put("deleted", false);
+    event.put("dataValues", dataValues);
+    return event;
+  }
+
+  /**
+   * Returns an analytics header.
+   *
+   * @param name the name.
+   * @param valueType the value type.
+   * @param meta whether the header is a metadata header.
+   * @return the analytics header.
+   */
+  private Map<String, Object> getHeader(String name, String valueType, boolean meta) {
+    Map<String, Object> header = new LinkedHashMap<>();
+    header.put("name", name);
+    header.put("column", StringUtils.capitalize(name));
+    header.put("valueType", valueType);
+    header.put("type", meta ? "java.lang.String" : "java.lang.Double");
+    header.put("hidden", false);
+    header.put("meta", meta);
+    return header;
+  }
+
+  /**
+   * Recursively adds a row for each combination of the given dimension items.
+   *
+   * @param rows the rows to add to.
+   * @param dimensionItems the items of each dimension.
+   * @param row the current row.
+   */
+  private void addRows(
+      List<List<String>> rows, List<List<String>> dimensionItems, List<String> row) {
+    if (row.size() == dimensionItems.size()) {
+      List<String> fullRow = new ArrayList<>(row);
+      fullRow.add(String.valueOf(rows.size() % 997 + 0.5));
+      rows.add(fullRow);
+      return;
+    }
+
+    for (String item : dimensionItems.get(row.size())) {
+      row.add(item);
+      addRows(rows, dimensionItems, row);
+      row.remove(row.size() - 1);
+    }
+  }
+
+  /**
+   * Returns a valid identifier for the given prefix and index.
+   *
+   * @param prefix the prefix letter.
+   * @param index the index.
+   * @return an identifier.
+   */
+  private static String toUid(char prefix, int index) {
+    return String.format("%c%010d", prefix, index);
+  }
+
+  // -------------------------------------------------------------------------
+  // Supportive methods
+  // -------------------------------------------------------------------------
+
+  /**
+   * Renders the given object as JSON, optionally gzip compressed.
+   *
+   * @param object the object.
+   * @param gzip whether to gzip compress.
+   * @return the response body.
+   */
+  private static byte[] render(Object object, boolean gzip) throws IOException {
+    byte[] json = JacksonUtils.getJsonMapper().writeValueAsBytes(object);
+
+    if (!gzip) {
+      return json;
+    }
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4);
+
+    try (GZIPOutputStream gzipOut = new GZIPOutputStream(out)) {
+      gzipOut.write(json);
+    }
+
+    return out.toByteArray();
+  }
+
+  /**
+   * Reads the request body.
+   *
+   * @param exchange the {@link HttpExchange}.
+   * @return the request body as a string.
+   */
+  private static String readBody(HttpExchange exchange) throws IOException {
+    try (InputStream in = exchange.getRequestBody()) {
+      return new String(in.readAllBytes(), UTF_8);
+    }
+  }
+
+  /**
+   * Sleeps for the given duration.
+   *
+   * @param duration the {@link Duration}.
+   */
+  private static void sleep(Duration duration) {
+    if (!duration.isZero()) {
+      try {
+        TimeUnit.NANOSECONDS.sleep(duration.toNanos());
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /** A page of objects, where first and last are the index range of the objects on the page. */
+  @Getter
+  @AllArgsConstructor
+  private static class Page {
+    private final int page;
+
+    private final int pageSize;
+
+    private final int total;
+
+    private final int first;
+
+    private final int last;
+
+    int size() {
+      return last - first;
+    }
+
+    Map<String, Object> toPager(boolean withTotal) {
+      Map<String, Object> pager = new LinkedHashMap<>();
+      pager.put("page", page);
+      pager.put("pageSize", pageSize);
+
+      if (withTotal) {
+        pager.put("total", total);
+        pager.put("pageCount", (total + pageSize - 1) / pageSize);
+      }
+
+      return pager;
+    }
+  }
+
+  /** Parsed request URI and state of the response. */
+  private static class Request {
+    private final String method;
+
+    private final List<String> path;
+
+    private final List<NameValuePair> parameters;
+
+    private boolean found = true;
+
+    Request(HttpExchange exchange) {
+      URI uri = exchange.getRequestURI();
+
+      this.parameters = new URIBuilder(uri).getQueryParams();
+      this.method = exchange.getRequestMethod();
+      this.path = List.of(StringUtils.strip(uri.getPath(), "/").split("/"));
+    }
+
+    boolean isFound() {
+      return found;
+    }
+
+    /** Only GET requests to resources other than job status are cached. */
+    boolean isCacheable() {
+      return "GET".equals(method) && !"system".equals(getPathSegment(1));
+    }
+
+    String getPathSegment(int index) {
+      return index < path.size() ? path.get(index) : null;
+    }
+
+    String getParameter(String name) {
+      return parameters.stream()
+          .filter(p -> name.equals(p.getName()))
+          .map(NameValuePair::getValue)
+          .findFirst()
+          .orElse(null);
+    }
+
+    List<String> getParameters(String name) {
+      return parameters.stream()
+          .filter(p -> name.equals(p.getName()))
+          .map(NameValuePair::getValue)
+          .toList();
+    }
+
+    /** Returns the page requested through the page, page size and paging parameters. */
+    Page getPage(int total) {
+      if ("false".equals(getParameter("paging"))) {
+        return new Page(1, total, total, 0, total);
+      }
+
+      int page = Math.max(1, toInt(getParameter("page"), 1));
+      int pageSize = Math.max(1, toInt(getParameter("pageSize"), DEFAULT_PAGE_SIZE));
+      long first = Math.min((long) (page - 1) * pageSize, total);
+      long last = Math.min(first + pageSize, total);
+      return new Page(page, pageSize, total, (int) first, (int) last);
+    }
+
+    /** Returns the index of the given identifier, or -1 if not a valid index. */
+    int toIndex(String uid, int count) {
+      int index = toInt(StringUtils.substring(uid, 1), -1);
+      return index < count ? index : -1;
+    }
+
+    Map<String, Object> notFound(String type) {
+      found = false;
+      Map<String, Object> response = new LinkedHashMap<>();
+      response.put("httpStatus", "Not Found");
+      response.put("httpStatusCode", 404);
+      response.put("status", "ERROR");
+      response.put("message", String.format("%s not found", type));
+      return response;
+    }
+
+    private static int toInt(String value, int defaultValue) {
+      try {
+        return value != null ? Integer.parseInt(value) : defaultValue;
+      } catch (NumberFormatException ex) {
+        return defaultValue;
+      }
+    }
+  }
+}
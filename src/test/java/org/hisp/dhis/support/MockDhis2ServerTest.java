@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2004-2025, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.support;
+
+import static org.hisp.dhis.support.Assertions.assertSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.hisp.dhis.Dhis2;
+import org.hisp.dhis.Dhis2Config;
+import org.hisp.dhis.model.OrgUnit;
+import org.hisp.dhis.model.analytics.AnalyticsData;
+import org.hisp.dhis.model.datavalueset.DataValue;
+import org.hisp.dhis.model.datavalueset.DataValueSet;
+import org.hisp.dhis.model.datavalueset.DataValueSetImportOptions;
+import org.hisp.dhis.model.event.EventsResult;
+import org.hisp.dhis.model.metadata.Metadata;
+import org.hisp.dhis.model.metadata.MetadataEntity;
+import org.hisp.dhis.query.Paging;
+import org.hisp.dhis.query.Query;
+import org.hisp.dhis.query.analytics.AnalyticsQuery;
+import org.hisp.dhis.query.datavalue.DataValueSetQuery;
+import org.hisp.dhis.query.event.EventQuery;
+import org.hisp.dhis.response.Dhis2ClientException;
+import org.hisp.dhis.response.datavalueset.DataValueSetResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag(TestTags.UNIT)
+class MockDhis2ServerTest {
+  private MockDhis2Server server;
+
+  @BeforeEach
+  void beforeEach() {
+    server =
+        new MockDhis2Server()
+            .setOrgUnitCount(250)
+            .setEventCount(120)
+            .setDataValuesPerEvent(3)
+            .setDataValueCount(40)
+            .setPollsUntilComplete(2)
+            .start();
+  }
+
+  @AfterEach
+  void afterEach() {
+    server.close();
+  }
+
+  @Test
+  void testGetOrgUnitsPaged() {
+    try (Dhis2 dhis2 = new Dhis2(server.getConfig())) {
+      Metadata<OrgUnit> metadata = dhis2.getOrgUnitsPaged(Query.instance().setPaging(3, 100));
+
+      assertEquals(250, metadata.getPager().getTotal());
+      assertEquals(3, metadata.getPager().getPageCount());
+      assertSize(50, metadata.getObjects());
+
+      OrgUnit orgUnit = metadata.getObjects().get(0);
+      assertEquals("O0000000200", orgUnit.getId());
+      assertEquals("/O0000000000/O0000000001/O0000000019/O0000000200", orgUnit.getPath());
+      assertEquals(4, orgUnit.getLevel());
+      assertEquals("O0000000019", orgUnit.getParent().getId());
+    }
+  }
+
+  @Test
+  void testGetOrgUnit() {
+    try (Dhis2 dhis2 = new Dhis2(server.getConfig())) {
+      assertEquals("Org unit 12", dhis2.getOrgUnit("O0000000012").getName());
+      assertThrows(Dhis2ClientException.class, () -> dhis2.getOrgUnit("O0000000250"));
+    }
+  }
+
+  @Test
+  void testStreamOrgUnits() {
+    try (Dhis2 dhis2 = new Dhis2(server.getConfig())) {
+      assertEquals(
+          250,
+          dhis2.streamMetadata(MetadataEntity.ORG_UNIT, Query.instance().setPaging(1, 40)).count());
+      assertSize(250, dhis2.getOrgUnits(Query.instance()));
+    }
+  }
+
+  @Test
+  void testGetEvents() {
+    try (Dhis2 dhis2 = new Dhis2(server.getConfig())) {
+      EventsResult result = dhis2.getEvents(EventQuery.instance().setPaging(new Paging(3, 50)));
+
+      assertSize(20, result.getEvents());
+      assertEquals("E0000000100", result.getEvents().get(0).getId());
+      assertSize(3, result.getEvents().get(0).getDataValues());
+      assertEquals(
+          120, dhis2.streamEvents(EventQuery.instance().setPaging(new Paging(1, 50)), 2).count());
+    }
+  }
+
+  @Test
+  void testGetAnalyticsData() {
+    AnalyticsQuery query =
+        AnalyticsQuery.instance()
+            .addDataDimension(List.of("D0000000001", "D0000000002", "D0000000003"))
+            .addPeriodDimension(List.of("202401", "202402"))
+            .addOrgUnitDimension(List.of("O0000000001", "O0000000002"));
+
+    try (Dhis2 dhis2 = new Dhis2(server.getConfig())) {
+      AnalyticsData data = dhis2.getAnalyticsData(query);
+
+      assertEquals(12, data.getHeight());
+      assertEquals(4, data.getWidth());
+      assertEquals(List.of("D0000000001", "202401", "O0000000001", "0.5"), data.getRows().get(0));
+      assertEquals("Item 202402", data.getMetaData().getItems().get("202402").getName());
+    }
+  }
+
+  @Test
+  void testGetDataValueSet() {
+    DataValueSetQuery query =
+        DataValueSetQuery.instance()
+            .addDataSets(List.of("pBOMPrpg1QX"))
+            .addPeriods(List.of("202401"));
+
+    try (Dhis2 dhis2 = new Dhis2(server.getConfig())) {
+      DataValueSet dataValueSet = dhis2.getDataValueSet(query);
+
+      assertSize(40, dataValueSet.getDataValues());
+      assertEquals("D0000000000", dataValueSet.getDataValues().get(0).getDataElement());
+    }
+  }
+
+  @Test
+  void testSaveDataValueSet() {
+    DataValueSet dataValueSet = new DataValueSet().setDataSet("pBOMPrpg1QX").setPeriod("202401");
+    IntStream.range(0, 7)
+        .forEach(
+            i ->
+                dataValueSet.addDataValue(
+                    new DataValue().setDataElement("f7n9E0hX8qk").setValue(String.valueOf(i))));
+
+    Dhis2Config config = server.getConfig();
+    config
+        .getJobPollingConfig()
+        .setInitialDelay(Duration.ofMillis(5))
+        .setMaxDelay(Duration.ofMillis(20));
+
+    try (Dhis2 dhis2 = new Dhis2(config)) {
+      DataValueSetResponse response =
+          dhis2.saveDataValueSet(dataValueSet, DataValueSetImportOptions.instance());
+
+      assertEquals(7, response.getAffectedCount());
+    }
+  }
+
+  @Test
+  void testResponseCompressionAndLatency() {
+    server.close();
+    server =
+        new MockDhis2Server()
+            .setResponseCompression(true)
+            .setLatency(Duration.ofMillis(20))
+            .start();
+
+    try (Dhis2 dhis2 = new Dhis2(server.getConfig())) {
+      long start = System.nanoTime();
+      Metadata<OrgUnit> metadata = dhis2.getOrgUnitsPaged(Query.instance().setPaging(1, 10));
+      long elapsed = System.nanoTime() - start;
+
+      assertSize(10, metadata.getObjects());
+      assertNotNull(metadata.getObjects().get(0).getName());
+      assertTrue(elapsed >= Duration.ofMillis(20).toNanos());
+      assertEquals(1, server.getRequestCount());
+      assertFalse(server.getUrl().isEmpty());
+    }
+  }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2004-2025, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.support;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.hisp.dhis.Dhis2Config;
+
+/**
+ * Embedded HTTP server based on the JDK {@link HttpServer} for tests which serve custom responses.
+ * The server listens on a free local port and handles requests concurrently. Handlers are
+ * registered by path before the server is started. For generated DHIS2 responses, see {@link
+ * MockDhis2Server}.
+ *
+ * <pre>{@code
+ * try (TestHttpServer server =
+ *         new TestHttpServer()
+ *             .handle("/api/system/info", exchange -> respond(exchange, 200, "{}"))
+ *             .start();
+ *     Dhis2 dhis2 = new Dhis2(server.getConfig())) {
+ *   dhis2.getSystemInfo();
+ * }
+ * }</pre>
+ */
+public class TestHttpServer implements Closeable {
+  private final HttpServer server;
+
+  private final ExecutorService executor = Executors.newCachedThreadPool();
+
+  /**
+   * Creates the server on a free local port.
+   *
+   * @throws UncheckedIOException if the server could not be created.
+   */
+  public TestHttpServer() {
+    try {
+      server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+
+    server.setExecutor(executor);
+  }
+
+  /**
+   * Registers the given handler for requests with paths starting with the given path.
+   *
+   * @param path the path, e.g. {@code /api/dataElements}.
+   * @param handler the {@link HttpHandler}.
+   * @return this {@link TestHttpServer}.
+   */
+  public TestHttpServer handle(String path, HttpHandler handler) {
+    server.createContext(path, handler);
+    return this;
+  }
+
+  /**
+   * Starts the server.
+   *
+   * @return this {@link TestHttpServer}.
+   */
+  public TestHttpServer start() {
+    server.start();
+    return this;
+  }
+
+  /** Stops the server. */
+  @Override
+  public void close() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+
+  /**
+   * Returns the base URL of the server.
+   *
+   * @return the base URL.
+   */
+  public String getUrl() {
+    return String.format("http://localhost:%d", server.getAddress().getPort());
+  }
+
+  /**
+   * Returns a {@link Dhis2Config} for the server.
+   *
+   * @return a {@link Dhis2Config}.
+   */
+  public Dhis2Config getConfig() {
+    return new Dhis2Config(getUrl(), "admin", "district");
+  }
+
+  /**
+   * Sends the given JSON body with the given status code and closes the exchange.
+   *
+   * @param exchange the {@link HttpExchange}.
+   * @param status the HTTP status code.
+   * @param json the JSON response body.
+   * @throws IOException if the response could not be sent.
+   */
+  public static void respond(HttpExchange exchange, int status, String json) throws IOException {
+    exchange.getResponseHeaders().set("Content-Type", "application/json");
+    respond(exchange, status, json.getBytes(UTF_8));
+  }
+
+  /**
+   * Sends the given body with the given status code and closes the exchange. The request body is
+   * consumed first, if any.
+   *
+   * @param exchange the {@link HttpExchange}.
+   * @param status the HTTP status code.
+   * @param body the response body.
+   * @throws IOException if the response could not be sent.
+   */
+  public static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+    exchange.getRequestBody().readAllBytes();
+    exchange.sendResponseHeaders(status, body.length);
+
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(body);
+    }
+  }
+
+  /**
+   * Sends an empty response with the given status code and closes the exchange.
+   *
+   * @param exchange the {@link HttpExchange}.
+   * @param status the HTTP status code.
+   * @throws IOException if the response could not be sent.
+   */
+  public static void respond(HttpExchange exchange, int status) throws IOException {
+    exchange.sendResponseHeaders(status, -1);
+    exchange.close();
+  }
+}
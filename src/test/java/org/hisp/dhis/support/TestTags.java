@@ -35,4 +35,6 @@ public final class TestTags {
   public static final String UNIT = "unit";
 
   public static final String INTEGRATION = "integration";
+
+  public static final String LOAD = "load";
 }
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.io.entity.ByteArrayEntity;
+import org.hisp.dhis.RequestCompression;
+import org.hisp.dhis.TransferStats;
+import org.hisp.dhis.support.TestTags;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag(TestTags.UNIT)
+class CompressingHttpEntityTest {
+  private final byte[] content =
+      "{\"dataElement\":\"f7n9E0hX8qk\",\"value\":\"12\"}"
+          .repeat(200)
+          .getBytes(StandardCharsets.UTF_8);
+
+  @Test
+  void testWriteToGzip() throws IOException {
+    TransferStats stats = new TransferStats();
+    CompressingHttpEntity entity = newEntity(RequestCompression.GZIP, stats);
+
+    byte[] compressed = write(entity);
+
+    assertEquals("gzip", entity.getContentEncoding());
+    assertTrue(entity.isChunked());
+    assertArrayEquals(
+        content, new GZIPInputStream(new ByteArrayInputStream(compressed)).readAllBytes());
+    assertEquals(content.length, stats.getRequestContentBytes());
+    assertEquals(compressed.length, stats.getRequestTransferBytes());
+    assertTrue(compressed.length * 10 < content.length);
+  }
+
+  @Test
+  void testWriteToDeflate() throws IOException {
+    TransferStats stats = new TransferStats();
+    CompressingHttpEntity entity = newEntity(RequestCompression.DEFLATE, stats);
+
+    byte[] compressed = write(entity);
+
+    assertEquals("deflate", entity.getContentEncoding());
+    assertArrayEquals(
+        content, new InflaterInputStream(new ByteArrayInputStream(compressed)).readAllBytes());
+    assertEquals(content.length, stats.getRequestContentBytes());
+    assertEquals(compressed.length, stats.getRequestTransferBytes());
+  }
+
+  @Test
+  void testGetContent() throws IOException {
+    TransferStats stats = new TransferStats();
+    CompressingHttpEntity entity = newEntity(RequestCompression.GZIP, stats);
+
+    try (InputStream in = new GZIPInputStream(entity.getContent())) {
+      assertArrayEquals(content, in.readAllBytes());
+    }
+
+    assertEquals(content.length, stats.getRequestContentBytes());
+  }
+
+  @Test
+  void testCountingHttpEntity() throws IOException {
+    TransferStats stats = new TransferStats();
+    CountingHttpEntity entity =
+        new CountingHttpEntity(
+            new ByteArrayEntity(content, ContentType.APPLICATION_JSON),
+            stats::addResponseContentBytes);
+
+    try (InputStream in = entity.getContent()) {
+      assertArrayEquals(content, in.readAllBytes());
+    }
+
+    assertEquals(content.length, stats.getResponseContentBytes());
+  }
+
+  @Test
+  void testNoCompression() {
+    TransferStats stats = new TransferStats();
+
+    assertThrows(IllegalArgumentException.class, () -> newEntity(RequestCompression.NONE, stats));
+  }
+
+  private CompressingHttpEntity newEntity(RequestCompression compression, TransferStats stats) {
+    return new CompressingHttpEntity(
+        new ByteArrayEntity(content, ContentType.APPLICATION_JSON), compression, stats);
+  }
+
+  private byte[] write(CompressingHttpEntity entity) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    entity.writeTo(out);
+    return out.toByteArray();
+  }
+}
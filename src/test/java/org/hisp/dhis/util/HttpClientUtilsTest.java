@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.util;
+
+import static org.hisp.dhis.support.TestHttpServer.respond;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.zip.GZIPOutputStream;
+import javax.net.ssl.SSLContext;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.hisp.dhis.HttpClientConfig;
+import org.hisp.dhis.TransferStats;
+import org.hisp.dhis.support.TestHttpServer;
+import org.hisp.dhis.support.TestTags;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag(TestTags.UNIT)
+class HttpClientUtilsTest {
+  private volatile String acceptEncoding;
+
+  @Test
+  void testCreateHttpClient() throws Exception {
+    try (CloseableHttpClient httpClient =
+        HttpClientUtils.createHttpClient(HttpClientConfig.instance())) {
+      assertNotNull(httpClient);
+    }
+  }
+
+  @Test
+  void testCreateConnectionManager() {
+    HttpClientConfig config =
+        HttpClientConfig.instance().setMaxConnections(200).setMaxConnectionsPerRoute(50);
+
+    try (PoolingHttpClientConnectionManager manager =
+        HttpClientUtils.createConnectionManager(config)) {
+      assertEquals(200, manager.getMaxTotal());
+      assertEquals(50, manager.getDefaultMaxPerRoute());
+    }
+  }
+
+  @Test
+  void testCreateConnectionConfig() {
+    HttpClientConfig config =
+        HttpClientConfig.instance()
+            .setConnectTimeout(Duration.ofSeconds(5))
+            .setSocketTimeout(Duration.ofSeconds(60))
+            .setTimeToLive(null);
+
+    ConnectionConfig connectionConfig = HttpClientUtils.createConnectionConfig(config);
+
+    assertEquals(5000, connectionConfig.getConnectTimeout().toMilliseconds());
+    assertEquals(60000, connectionConfig.getSocketTimeout().toMilliseconds());
+    assertNull(connectionConfig.getTimeToLive());
+  }
+
+  @Test
+  void testCreateRequestConfig() {
+    HttpClientConfig config =
+        HttpClientConfig.instance()
+            .setConnectionRequestTimeout(Duration.ofSeconds(10))
+            .setResponseTimeout(Duration.ofSeconds(90))
+            .setKeepAlive(Duration.ofSeconds(30));
+
+    RequestConfig requestConfig = HttpClientUtils.createRequestConfig(config);
+
+    assertEquals(10000, requestConfig.getConnectionRequestTimeout().toMilliseconds());
+    assertEquals(90000, requestConfig.getResponseTimeout().toMilliseconds());
+    assertEquals(30000, requestConfig.getConnectionKeepAlive().toMilliseconds());
+  }
+
+  @Test
+  void testCreateSslContext() {
+    HttpClientConfig config =
+        HttpClientConfig.instance()
+            .setTlsSessionCacheSize(1000)
+            .setTlsSessionTimeout(Duration.ofHours(2));
+
+    SSLContext sslContext = HttpClientUtils.createSslContext(config);
+
+    assertEquals(1000, sslContext.getClientSessionContext().getSessionCacheSize());
+    assertEquals(7200, sslContext.getClientSessionContext().getSessionTimeout());
+  }
+
+  @Test
+  void testCreateHttpClientCountsResponseBytes() throws Exception {
+    byte[] content = "{\"value\":\"aaaaaaaaaa\"}".repeat(100).getBytes(StandardCharsets.UTF_8);
+    ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+
+    try (GZIPOutputStream out = new GZIPOutputStream(gzipped)) {
+      out.write(content);
+    }
+
+    TransferStats stats = new TransferStats();
+
+    try (TestHttpServer server =
+            new TestHttpServer()
+                .handle(
+                    "/api/data",
+                    exchange -> {
+                      acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+                      exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+                      respond(exchange, 200, gzipped.toByteArray());
+                    })
+                .start();
+        CloseableHttpClient httpClient =
+            HttpClientUtils.createHttpClient(HttpClientConfig.instance(), stats)) {
+      byte[] body =
+          httpClient.execute(
+              new HttpGet(server.getUrl() + "/api/data"),
+              r -> EntityUtils.toByteArray(r.getEntity()));
+
+      assertArrayEquals(content, body);
+      assertTrue(acceptEncoding.contains("gzip"));
+      assertEquals(content.length, stats.getResponseContentBytes());
+      assertEquals(gzipped.size(), stats.getResponseTransferBytes());
+    }
+  }
+}
@@ -153,4 +153,25 @@ class HttpUtilsTest {
         "iOlsiYWRtaW4iLCJ1c2VyIl0sIm",
         HttpUtils.getBearerToken("Bearer iOlsiYWRtaW4iLCJ1c2VyIl0sIm"));
   }
+
+  @Test
+  void testGetPathTemplate() {
+    assertEquals(
+        "organisationUnits/{id}.json",
+        HttpUtils.getPathTemplate(
+            "https://play.dhis2.org/api/41/organisationUnits/Rp268JB6Ne4.json?fields=id"));
+    assertEquals(
+        "enrollments", HttpUtils.getPathTemplate("https://play.dhis2.org/api/enrollments"));
+    assertEquals("dataValueSets", HttpUtils.getPathTemplate("/api/dataValueSets#top"));
+    assertEquals(
+        "dataStore/{namespace}/{key}",
+        HttpUtils.getPathTemplate("https://play.dhis2.org/api/dataStore/settings/config"));
+    assertEquals(
+        "system/tasks/DATAVALUE_IMPORT/{id}",
+        HttpUtils.getPathTemplate(
+            "https://play.dhis2.org/api/system/tasks/DATAVALUE_IMPORT/J0000000001"));
+    assertEquals(
+        "messageConversations/{id}",
+        HttpUtils.getPathTemplate("https://play.dhis2.org/api/messageConversations/12"));
+  }
 }
@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2004-2025, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.util;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.hisp.dhis.model.Pager;
+import org.hisp.dhis.model.ValueType;
+import org.hisp.dhis.model.analytics.AnalyticsData;
+import org.hisp.dhis.model.analytics.AnalyticsHeader;
+import org.hisp.dhis.model.datavalueset.DataValue;
+import org.hisp.dhis.model.datavalueset.DataValueSet;
+import org.hisp.dhis.model.event.Event;
+import org.hisp.dhis.model.event.EventDataValue;
+import org.hisp.dhis.model.event.EventStatus;
+import org.hisp.dhis.model.event.EventsResult;
+import org.hisp.dhis.model.trackedentity.TrackedEntitiesResult;
+import org.hisp.dhis.model.trackedentity.TrackedEntity;
+import org.hisp.dhis.model.trackedentity.TrackedEntityAttributeValue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Benchmark of serialization and deserialization of data value sets, events, tracked entities and
+ * analytics data through the {@link JsonMapper} of {@link JacksonUtils#getJsonMapper()}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JacksonUtilsBenchmark {
+  @Param({"1000"})
+  private int size;
+
+  private JsonMapper jsonMapper;
+
+  private DataValueSet dataValueSet;
+
+  private EventsResult events;
+
+  private TrackedEntitiesResult trackedEntities;
+
+  private AnalyticsData analyticsData;
+
+  private byte[] dataValueSetJson;
+
+  private byte[] eventsJson;
+
+  private byte[] trackedEntitiesJson;
+
+  private byte[] analyticsDataJson;
+
+  @Setup
+  public void setup() {
+    jsonMapper = JacksonUtils.getJsonMapper();
+
+    List<String> dataElements = UidUtils.generateUids(20);
+    List<String> orgUnits = UidUtils.generateUids(50);
+    Date date = new Date();
+
+    dataValueSet = new DataValueSet().setDataSet(UidUtils.generateUid());
+    events = new EventsResult(new Pager(1, size));
+    trackedEntities = new TrackedEntitiesResult(new Pager(1, size), new ArrayList<>());
+    analyticsData =
+        new AnalyticsData(
+            List.of(
+                new AnalyticsHeader("dx", "Data", ValueType.TEXT, true),
+                new AnalyticsHeader("pe", "Period", ValueType.TEXT, true),
+                new AnalyticsHeader("ou", "Organisation unit", ValueType.TEXT, true),
+                new AnalyticsHeader("value", "Value", ValueType.NUMBER, false)),
+            new ArrayList<>());
+
+    for (int i = 0; i < size; i++) {
+      String dataElement = dataElements.get(i % dataElements.size());
+      String orgUnit = orgUnits.get(i % orgUnits.size());
+      String period = "2024" + String.format("%02d", i % 12 + 1);
+      String value = String.valueOf(i * 7 % 1000);
+
+      dataValueSet.addDataValue(
+          new DataValue()
+              .setDataElement(dataElement)
+              .setPeriod(period)
+              .setOrgUnit(orgUnit)
+              .setValue(value)
+              .setStoredBy("admin")
+              .setFollowup(false));
+
+      List<EventDataValue> eventDataValues = new ArrayList<>();
+      for (int j = 0; j < 5; j++) {
+        eventDataValues.add(new EventDataValue(dataElements.get(j), value));
+      }
+      events
+          .getEvents()
+          .add(
+              new Event(
+                  UidUtils.generateUid(),
+                  UidUtils.generateUid(),
+                  orgUnit,
+                  EventStatus.COMPLETED,
+                  date,
+                  eventDataValues));
+
+      TrackedEntity trackedEntity = new TrackedEntity();
+      trackedEntity.setTrackedEntity(UidUtils.generateUid());
+      trackedEntity.setOrgUnit(orgUnit);
+      trackedEntity.setCreatedAt(date);
+      trackedEntity.setUpdatedAt(date);
+      trackedEntity.getAttributes().add(new TrackedEntityAttributeValue(dataElement, value));
+      trackedEntity.getAttributes().add(new TrackedEntityAttributeValue(orgUnit, period));
+      trackedEntities.getTrackedEntities().add(trackedEntity);
+
+      analyticsData.addRow(List.of(dataElement, period, orgUnit, value));
+    }
+
+    dataValueSetJson = jsonMapper.writeValueAsBytes(dataValueSet);
+    eventsJson = jsonMapper.writeValueAsBytes(events);
+    trackedEntitiesJson = jsonMapper.writeValueAsBytes(trackedEntities);
+    analyticsDataJson = jsonMapper.writeValueAsBytes(analyticsData);
+  }
+
+  @Benchmark
+  public byte[] writeDataValueSet() {
+    return jsonMapper.writeValueAsBytes(dataValueSet);
+  }
+
+  @Benchmark
+  public DataValueSet readDataValueSet() {
+    return jsonMapper.readValue(dataValueSetJson, DataValueSet.class);
+  }
+
+  @Benchmark
+  public byte[] writeEvents() {
+    return jsonMapper.writeValueAsBytes(events);
+  }
+
+  @Benchmark
+  public EventsResult readEvents() {
+    return jsonMapper.readValue(eventsJson, EventsResult.class);
+  }
+
+  @Benchmark
+  public byte[] writeTrackedEntities() {
+    return jsonMapper.writeValueAsBytes(trackedEntities);
+  }
+
+  @Benchmark
+  public TrackedEntitiesResult readTrackedEntities() {
+    return jsonMapper.readValue(trackedEntitiesJson, TrackedEntitiesResult.class);
+  }
+
+  @Benchmark
+  public byte[] writeAnalyticsData() {
+    return jsonMapper.writeValueAsBytes(analyticsData);
+  }
+
+  @Benchmark
+  public AnalyticsData readAnalyticsData() {
+    return jsonMapper.readValue(analyticsDataJson, AnalyticsData.class);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(JacksonUtilsBenchmark.class.getSimpleName()).build())
+        .run();
+  }
+}
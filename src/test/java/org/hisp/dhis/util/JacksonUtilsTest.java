@@ -30,6 +30,8 @@ package org.hisp.dhis.util;
 import static org.hisp.dhis.support.Assertions.assertSize;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.IOException;
@@ -44,12 +46,16 @@ import org.hisp.dhis.model.DataElement;
 import org.hisp.dhis.model.Option;
 import org.hisp.dhis.model.Product;
 import org.hisp.dhis.model.ValueType;
+import org.hisp.dhis.model.datavalueset.DataValue;
+import org.hisp.dhis.model.datavalueset.DataValueSet;
+import org.hisp.dhis.model.event.Event;
 import org.hisp.dhis.response.HttpStatus;
 import org.hisp.dhis.response.Response;
 import org.hisp.dhis.response.Status;
 import org.hisp.dhis.support.TestTags;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
 
 @Tag(TestTags.UNIT)
 class JacksonUtilsTest {
@@ -150,6 +156,72 @@ class JacksonUtilsTest {
     assertNotNull(object.getLastUpdated());
   }
 
+  @Test
+  void testCreateJsonMapperWithUidDictionary() {
+    String content =
+        """
+        {
+          "dataValues": [
+            {"dataElement": "fbfJHSPpUQD", "period": "202401", "orgUnit": "DiszpKrYNg8",
+              "categoryOptionCombo": "HllvX50cXC0", "value": "12", "comment": "Checked"},
+            {"dataElement": "fbfJHSPpUQD", "period": 202401, "orgUnit": "DiszpKrYNg8",
+              "categoryOptionCombo": "HllvX50cXC0", "value": "12", "comment": "Checked"}
+          ]
+        }
+        """;
+
+    UidDictionary dictionary = new UidDictionary();
+    JsonMapper mapper = JacksonUtils.createJsonMapper(dictionary);
+
+    DataValueSet dataValueSet = mapper.readValue(content, DataValueSet.class);
+    DataValue dvA = dataValueSet.getDataValues().get(0);
+    DataValue dvB = dataValueSet.getDataValues().get(1);
+
+    assertEquals("fbfJHSPpUQD", dvA.getDataElement());
+    assertEquals("202401", dvB.getPeriod());
+    assertSame(dvA.getDataElement(), dvB.getDataElement());
+    assertSame(dvA.getPeriod(), dvB.getPeriod());
+    assertSame(dvA.getOrgUnit(), dvB.getOrgUnit());
+    assertSame(dvA.getCategoryOptionCombo(), dvB.getCategoryOptionCombo());
+    assertNotSame(dvA.getComment(), dvB.getComment());
+    assertEquals(4, dictionary.size());
+    assertEquals(0, dictionary.getCode("fbfJHSPpUQD"));
+    assertEquals(-1, dictionary.getCode("Checked"));
+
+    DataValueSet defaultDataValueSet = JacksonUtils.fromJson(content, DataValueSet.class);
+    assertNotSame(
+        defaultDataValueSet.getDataValues().get(0).getDataElement(),
+        defaultDataValueSet.getDataValues().get(1).getDataElement());
+  }
+
+  @Test
+  void testCreateJsonMapperWithUidDictionaryEvent() {
+    String content =
+        """
+        {
+          "program": "IpHINAT79UW",
+          "programStage": "A03MvHHogjR",
+          "orgUnit": "DiszpKrYNg8",
+          "dataValues": [
+            {"dataElement": "UXz7xuGCEhU", "value": "3"},
+            {"dataElement": "a3kGcGDCuk6", "value": "4"}
+          ]
+        }
+        """;
+
+    UidDictionary dictionary = new UidDictionary();
+    dictionary.intern("DiszpKrYNg8");
+    JsonMapper mapper = JacksonUtils.createJsonMapper(dictionary);
+
+    Event event = mapper.readValue(content, Event.class);
+
+    assertSame(dictionary.intern("DiszpKrYNg8"), event.getOrgUnit());
+    assertSame(dictionary.intern("IpHINAT79UW"), event.getProgram());
+    assertSame(dictionary.intern("UXz7xuGCEhU"), event.getDataValues().get(0).getDataElement());
+    assertEquals("4", event.getDataValues().get(1).getValue());
+    assertEquals(5, dictionary.size());
+  }
+
   @Test
   void testProductFromJsonTimestampMillis() {
     String content =
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.hisp.dhis.model.Pager;
+import org.hisp.dhis.response.PagedResponse;
+import org.hisp.dhis.support.TestTags;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag(TestTags.UNIT)
+class PagingSpliteratorTest {
+  @Test
+  void testStreamWithPageCount() {
+    List<Integer> fetchedPages = new ArrayList<>();
+
+    List<Integer> values =
+        PagingSpliterator.stream(
+                page -> {
+                  fetchedPages.add(page);
+                  return getPage(page, 3, 7, false);
+                },
+                1,
+                3)
+            .toList();
+
+    assertEquals(List.of(1, 2, 3, 4, 5, 6, 7), values);
+    assertEquals(List.of(1, 2, 3), fetchedPages);
+  }
+
+  @Test
+  void testStreamWithoutPageCount() {
+    List<Integer> values =
+        PagingSpliterator.stream(page -> getPage(page, 3, 6, true), 1, 3).toList();
+
+    assertEquals(List.of(1, 2, 3, 4, 5, 6), values);
+  }
+
+  @Test
+  void testStreamIsLazy() {
+    List<Integer> fetchedPages = new ArrayList<>();
+
+    List<Integer> values =
+        PagingSpliterator.stream(
+                page -> {
+                  fetchedPages.add(page);
+                  return getPage(page, 3, 100, false);
+                },
+                1,
+                3)
+            .limit(4)
+            .toList();
+
+    assertEquals(List.of(1, 2, 3, 4), values);
+    assertEquals(List.of(1, 2), fetchedPages);
+  }
+
+  @Test
+  void testIteratorFromPage() {
+    Iterator<Integer> iterator =
+        PagingSpliterator.iterator(page -> getPage(page, 2, 5, false), 2, 2);
+
+    assertTrue(iterator.hasNext());
+    assertEquals(3, iterator.next());
+    assertEquals(4, iterator.next());
+    assertEquals(5, iterator.next());
+    assertFalse(iterator.hasNext());
+  }
+
+  @Test
+  void testStreamEmpty() {
+    assertEquals(0, PagingSpliterator.stream(page -> getPage(page, 3, 0, false), 1, 3).count());
+  }
+
+  /**
+   * Returns a page of consecutive integers starting on 1.
+   *
+   * @param page the page number.
+   * @param pageSize the page size.
+   * @param total the total number of values.
+   * @param omitPageCount whether to omit the page count from the pager.
+   * @return a {@link PagedResponse}.
+   */
+  private PagedResponse<Integer> getPage(int page, int pageSize, int total, boolean omitPageCount) {
+    int from = (page - 1) * pageSize;
+    int to = Math.min(from + pageSize, total);
+    long pageCount = (total + pageSize - 1) / pageSize;
+    List<Integer> values =
+        IntStream.range(from, Math.max(from, to)).map(i -> i + 1).boxed().toList();
+    Pager pager =
+        new Pager(
+            page,
+            pageSize,
+            omitPageCount ? null : pageCount,
+            omitPageCount ? null : (long) total,
+            null);
+    return new PagedResponse<>(pager, values);
+  }
+}
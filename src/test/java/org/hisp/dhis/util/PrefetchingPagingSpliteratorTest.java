@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.hisp.dhis.executor.TaskExecutor;
+import org.hisp.dhis.model.Pager;
+import org.hisp.dhis.response.Dhis2ClientException;
+import org.hisp.dhis.response.PagedResponse;
+import org.hisp.dhis.support.TestTags;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag(TestTags.UNIT)
+class PrefetchingPagingSpliteratorTest {
+  private final TaskExecutor executor = TaskExecutor.platformThreads(4);
+
+  @AfterEach
+  void afterEach() {
+    executor.close();
+  }
+
+  @Test
+  void testStreamInPageOrder() {
+    List<Integer> values =
+        PrefetchingPagingSpliterator.stream(
+                executor,
+                page -> {
+                  sleep(ThreadLocalRandom.current().nextInt(5));
+                  return getPage(page, 10, 95);
+                },
+                1,
+                10,
+                4)
+            .toList();
+
+    assertEquals(IntStream.rangeClosed(1, 95).boxed().toList(), values);
+  }
+
+  @Test
+  void testStreamBoundsPagesInFlight() {
+    AtomicInteger inFlight = new AtomicInteger();
+    AtomicInteger maxInFlight = new AtomicInteger();
+
+    long count =
+        PrefetchingPagingSpliterator.stream(
+                executor,
+                page -> {
+                  maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                  sleep(2);
+                  inFlight.decrementAndGet();
+                  return getPage(page, 5, 100);
+                },
+                1,
+                5,
+                3)
+            .count();
+
+    assertEquals(100, count);
+    assertTrue(maxInFlight.get() <= 3);
+  }
+
+  @Test
+  void testStreamBackpressure() {
+    AtomicInteger fetched = new AtomicInteger();
+
+    try (Stream<Integer> stream =
+        PrefetchingPagingSpliterator.stream(
+            executor,
+            page -> {
+              fetched.incrementAndGet();
+              return getPage(page, 10, 1000);
+            },
+            1,
+            10,
+            2)) {
+      assertEquals(15, stream.limit(15).count());
+    }
+
+    assertTrue(fetched.get() <= 4);
+  }
+
+  @Test
+  void testStreamPropagatesFailure() {
+    Stream<Integer> stream =
+        PrefetchingPagingSpliterator.stream(
+            executor,
+            page -> {
+              if (page == 3) {
+                throw new Dhis2ClientException("Not found", 404);
+              }
+              return getPage(page, 10, 100);
+            },
+            1,
+            10,
+            2);
+
+    Dhis2ClientException ex = assertThrows(Dhis2ClientException.class, () -> stream.toList());
+
+    assertEquals(404, ex.getStatusCode());
+  }
+
+  @Test
+  void testStreamBoundedByPageCount() {
+    List<Integer> pages = Collections.synchronizedList(new ArrayList<>());
+
+    List<Integer> values =
+        PrefetchingPagingSpliterator.stream(
+                executor,
+                page -> {
+                  pages.add(page);
+                  PagedResponse<Integer> response = getPage(page, 10, 25);
+                  return new PagedResponse<>(
+                      new Pager(page, 10, 3L, 25L, null), response.getObjects());
+                },
+                1,
+                10,
+                4)
+            .toList();
+
+    assertEquals(25, values.size());
+    assertEquals(List.of(1, 2, 3), pages.stream().sorted().toList());
+  }
+
+  /**
+   * Returns a page of consecutive integers starting on 1, with a pager without page count.
+   *
+   * @param page the page number.
+   * @param pageSize the page size.
+   * @param total the total number of values.
+   * @return a {@link PagedResponse}.
+   */
+  private PagedResponse<Integer> getPage(int page, int pageSize, int total) {
+    int from = Math.min((page - 1) * pageSize, total);
+    int to = Math.min(from + pageSize, total);
+    List<Integer> values = IntStream.range(from, to).map(i -> i + 1).boxed().toList();
+    return new PagedResponse<>(new Pager(page, pageSize, null, null, null), values);
+  }
+
+  private void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
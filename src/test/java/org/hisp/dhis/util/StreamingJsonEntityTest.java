@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.hisp.dhis.model.datavalueset.DataValue;
+import org.hisp.dhis.model.datavalueset.DataValueSet;
+import org.hisp.dhis.support.TestTags;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag(TestTags.UNIT)
+class StreamingJsonEntityTest {
+  @Test
+  void testWriteObject() throws IOException {
+    DataValueSet dataValueSet = new DataValueSet().setDataSet("pBOMPrpg1QX").setPeriod("202401");
+    dataValueSet.addDataValue(new DataValue().setDataElement("f7n9E0hX8qk").setValue("12"));
+
+    StreamingJsonEntity entity = StreamingJsonEntity.of(JacksonUtils.getJsonMapper(), dataValueSet);
+
+    assertTrue(entity.isRepeatable());
+    assertTrue(entity.isChunked());
+    assertEquals(-1, entity.getContentLength());
+    assertEquals("application/json; charset=UTF-8", entity.getContentType());
+
+    String expected = JacksonUtils.getJsonMapper().writeValueAsString(dataValueSet);
+
+    assertEquals(expected, write(entity));
+    assertEquals(expected, write(entity));
+  }
+
+  @Test
+  void testWriteNonRepeatable() throws IOException {
+    StreamingJsonEntity entity =
+        new StreamingJsonEntity(
+            JacksonUtils.getJsonMapper(),
+            generator -> {
+              generator.writeStartArray();
+              List.of("a", "b").forEach(generator::writeString);
+              generator.writeEndArray();
+            },
+            false);
+
+    assertFalse(entity.isRepeatable());
+    assertTrue(entity.isStreaming());
+    assertEquals("[\"a\",\"b\"]", write(entity));
+    assertFalse(entity.isStreaming());
+    assertThrows(IllegalStateException.class, () -> write(entity));
+  }
+
+  private String write(StreamingJsonEntity entity) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    entity.writeTo(out);
+    return out.toString(StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.hisp.dhis.support.TestTags;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag(TestTags.UNIT)
+class UidDictionaryTest {
+  @Test
+  void testIntern() {
+    UidDictionary dictionary = new UidDictionary();
+
+    String uidA = new String("fbfJHSPpUQD");
+    String uidB = new String("fbfJHSPpUQD");
+
+    assertSame(uidA, dictionary.intern(uidA));
+    assertSame(uidA, dictionary.intern(uidB));
+    assertNull(dictionary.intern(null));
+    assertEquals(1, dictionary.size());
+  }
+
+  @Test
+  void testEncodeDecode() {
+    UidDictionary dictionary = new UidDictionary();
+
+    assertEquals(0, dictionary.encode("fbfJHSPpUQD"));
+    assertEquals(1, dictionary.encode("DiszpKrYNg8"));
+    assertEquals(0, dictionary.encode("fbfJHSPpUQD"));
+    assertEquals("DiszpKrYNg8", dictionary.decode(1));
+    assertEquals(1, dictionary.getCode("DiszpKrYNg8"));
+    assertEquals(-1, dictionary.getCode("HllvX50cXC0"));
+    assertEquals(-1, dictionary.getCode(null));
+    assertThrows(IndexOutOfBoundsException.class, () -> dictionary.decode(2));
+    assertThrows(IndexOutOfBoundsException.class, () -> dictionary.decode(-1));
+  }
+
+  @Test
+  void testConcurrentEncode() throws Exception {
+    UidDictionary dictionary = new UidDictionary();
+    List<String> uids = UidUtils.generateUids(5_000);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    try {
+      List<Future<?>> futures =
+          List.of(
+              executor.submit(() -> uids.forEach(dictionary::encode)),
+              executor.submit(() -> uids.forEach(dictionary::encode)),
+              executor.submit(() -> uids.forEach(dictionary::intern)),
+              executor.submit(() -> uids.forEach(dictionary::intern)));
+
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    assertEquals(5_000, dictionary.size());
+
+    for (String uid : uids) {
+      assertEquals(uid, dictionary.decode(dictionary.getCode(uid)));
+    }
+  }
+}
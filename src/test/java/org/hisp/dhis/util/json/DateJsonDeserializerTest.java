@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.util.json;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+import org.hisp.dhis.support.TestTags;
+import org.hisp.dhis.util.DateTimeUtils;
+import org.hisp.dhis.util.JacksonUtils;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import tools.jackson.core.JacksonException;
+
+@Tag(TestTags.UNIT)
+class DateJsonDeserializerTest {
+  @Test
+  void testParseLocalDateTime() {
+    assertEquals(
+        LocalDateTime.of(2024, 1, 15, 14, 32, 12, 732_000_000),
+        DateJsonDeserializer.parseLocalDateTime("2024-01-15T14:32:12.732"));
+    assertEquals(
+        LocalDateTime.of(2024, 1, 15, 14, 32, 12),
+        DateJsonDeserializer.parseLocalDateTime("2024-01-15T14:32:12"));
+    assertEquals(
+        LocalDateTime.of(2024, 1, 15, 0, 0), DateJsonDeserializer.parseLocalDateTime("2024-01-15"));
+    assertEquals(
+        LocalDateTime.of(2024, 1, 15, 14, 32, 12, 100_000_000),
+        DateJsonDeserializer.parseLocalDateTime("2024-01-15T14:32:12.1"));
+    assertEquals(
+        LocalDateTime.of(2024, 1, 15, 14, 32, 12, 732_000_000),
+        DateJsonDeserializer.parseLocalDateTime("2024-01-15T14:32:12.732Z"));
+    assertEquals(
+        LocalDateTime.of(2024, 2, 29, 0, 0), DateJsonDeserializer.parseLocalDateTime("2024-02-29"));
+  }
+
+  @Test
+  void testParseLocalDateTimeUnrecognized() {
+    assertNull(DateJsonDeserializer.parseLocalDateTime("2023-02-29"));
+    assertNull(DateJsonDeserializer.parseLocalDateTime("2024-13-01"));
+    assertNull(DateJsonDeserializer.parseLocalDateTime("2024-01-15 14:32:12"));
+    assertNull(DateJsonDeserializer.parseLocalDateTime("2024-01-15T14:32"));
+    assertNull(DateJsonDeserializer.parseLocalDateTime("2024-1-15"));
+    assertNull(DateJsonDeserializer.parseLocalDateTime("15/01/2024"));
+    assertNull(DateJsonDeserializer.parseLocalDateTime("invalid"));
+  }
+
+  @Test
+  void testParseMatchesFormats() {
+    for (String string :
+        new String[] {
+          "2024-01-15T14:32:12.732",
+          "2024-01-15T14:32:12.000",
+          "2024-01-15T14:32:12",
+          "2024-01-15T14:32:12.732Z",
+          "2024-01-15",
+          "2024-01-15 14:32:12",
+          "2024-1-5"
+        }) {
+      assertEquals(
+          DateJsonDeserializer.parseWithFormats(string),
+          DateJsonDeserializer.parse(string),
+          string);
+    }
+  }
+
+  @Test
+  void testParseInvalid() {
+    assertNull(DateJsonDeserializer.parse("invalid"));
+  }
+
+  @Test
+  void testDeserialize() {
+    Date date = JacksonUtils.fromJson("\"2024-01-15T14:32:12.732\"", Date.class);
+
+    assertEquals(
+        DateTimeUtils.toDate(LocalDateTime.of(2024, 1, 15, 14, 32, 12, 732_000_000)), date);
+    assertThrows(JacksonException.class, () -> JacksonUtils.fromJson("\"invalid\"", Date.class));
+  }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2004-2024, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.util.json;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.hisp.dhis.support.TestTags;
+import org.hisp.dhis.util.JacksonUtils;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.geojson.GeoJsonReader;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+@Tag(TestTags.UNIT)
+class GeometryJsonDeserializerTest {
+  private static final List<String> GEOMETRIES =
+      List.of(
+          """
+          {"type":"Point","coordinates":[10.752,59.914]}""",
+          """
+          {"type":"Point","coordinates":[10.752,59.914,23.5]}""",
+          """
+          {"coordinates":[10.752,59.914],"type":"Point"}""",
+          """
+          {"type":"MultiPoint","coordinates":[[10.1,59.1],[10.2,59.2]]}""",
+          """
+          {"type":"LineString","coordinates":[[10.1,59.1],[10.2,59.2],[10.3,59.1]]}""",
+          """
+          {"type":"MultiLineString","coordinates":[[[10.1,59.1],[10.2,59.2]],[[11.1,60.1],[11.2,60.2]]]}""",
+          """
+          {"type":"Polygon","coordinates":[[[0,0],[10,0],[10,10],[0,10],[0,0]],\
+          [[2,2],[4,2],[4,4],[2,4],[2,2]]]}""",
+          """
+          {"type":"MultiPolygon","coordinates":[[[[0,0],[1,0],[1,1],[0,1],[0,0]]],\
+          [[[5,5],[6,5],[6,6],[5,6],[5,5]]]]}""",
+          """
+          {"type":"GeometryCollection","geometries":[\
+          {"type":"Point","coordinates":[1,2]},\
+          {"type":"LineString","coordinates":[[1,2],[3,4]]}]}""");
+
+  @Test
+  void testDeserializeMatchesGeoJsonReader() throws ParseException {
+    for (String json : GEOMETRIES) {
+      Geometry expected = new GeoJsonReader().read(json);
+      Geometry actual = JacksonUtils.fromJson(json, Geometry.class);
+
+      assertEquals(expected.getGeometryType(), actual.getGeometryType(), json);
+      assertTrue(expected.equalsExact(actual), json);
+      assertEquals(expected.getSRID(), actual.getSRID(), json);
+      assertEquals(expected.getCoordinate().getZ(), actual.getCoordinate().getZ(), 0d, json);
+    }
+  }
+
+  @Test
+  void testRoundTrip() {
+    for (String json : GEOMETRIES) {
+      Geometry geometry = JacksonUtils.fromJson(json, Geometry.class);
+      Geometry actual = JacksonUtils.fromJson(JacksonUtils.toJsonString(geometry), Geometry.class);
+
+      assertTrue(geometry.equalsExact(actual), json);
+    }
+  }
+
+  @Test
+  void testSerialize() {
+    Geometry geometry =
+        JacksonUtils.fromJson(
+            """
+            {"type":"Polygon","coordinates":[[[0.5,0],[10,0],[10,10],[0.5,0]]]}""",
+            Geometry.class);
+
+    assertEquals(
+        """
+        {"type":"Polygon","coordinates":[[[0.5,0.0],[10.0,0.0],[10.0,10.0],[0.5,0.0]]]}""",
+        JacksonUtils.toJsonString(geometry));
+  }
+
+  @Test
+  void testDeserializeWithPrecision() {
+    JsonMapper mapper = JacksonUtils.createJsonMapper(null, new GeometryJsonDeserializer(2, 0d));
+
+    Point point =
+        (Point)
+            mapper.readValue(
+                """
+                {"type":"Point","coordinates":[10.75234,59.91467]}""",
+                Geometry.class);
+
+    assertEquals(10.75, point.getX(), 0d);
+    assertEquals(59.91, point.getY(), 0d);
+  }
+
+  @Test
+  void testDeserializeWithSimplification() {
+    JsonMapper mapper =
+        JacksonUtils.createJsonMapper(null, new GeometryJsonDeserializer(null, 0.5));
+
+    Geometry polygon =
+        mapper.readValue(
+            """
+            {"type":"Polygon","coordinates":[[[0,0],[5,0.01],[10,0],[10,10],[0,10],[0,0]]]}""",
+            Geometry.class);
+
+    assertInstanceOf(Polygon.class, polygon);
+    assertEquals(5, polygon.getNumPoints());
+  }
+
+  @Test
+  void testDeserializeInvalid() {
+    assertThrows(
+        JacksonException.class,
+        () -> JacksonUtils.fromJson("{\"type\":\"Circle\",\"coordinates\":[1,2]}", Geometry.class));
+    assertThrows(
+        JacksonException.class,
+        () -> JacksonUtils.fromJson("{\"coordinates\":[1,2]}", Geometry.class));
+    assertThrows(
+        JacksonException.class,
+        () ->
+            JacksonUtils.fromJson(
+                "{\"type\":\"LineString\",\"coordinates\":[1,2]}", Geometry.class));
+  }
+}